@@ -0,0 +1,135 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sangupta.colors.model.LAB;
+
+/**
+ * CIEDE2000 distances from one color to a whole palette: pair by pair with
+ * {@link LAB#ciede2000(LAB, LAB)}, and in a batch with a {@link LABPalette},
+ * through its planar and its scalar path.
+ *
+ * <br><br>
+ *
+ * Lives in the package of the palette so that both paths can be called
+ * directly.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LABPaletteBenchmark {
+
+	/**
+	 * Number of colors in the palette
+	 */
+	@Param({ "16", "256", "4096" })
+	public int size;
+
+	private static final int QUERIES = 64;
+
+	private LAB[] colors;
+
+	private LABPalette palette;
+
+	private final LAB[] queries = new LAB[QUERIES];
+
+	private double[] distances;
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+
+		this.colors = new LAB[this.size];
+		for(int color = 0; color < this.size; color++) {
+			this.colors[color] = random(random);
+		}
+
+		for(int query = 0; query < QUERIES; query++) {
+			this.queries[query] = random(random);
+		}
+
+		this.palette = new LABPalette(this.colors);
+		this.distances = new double[this.size];
+	}
+
+	private static LAB random(Random random) {
+		return new LAB(random.nextFloat() * 100, random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+	}
+
+	private LAB next() {
+		return this.queries[this.index = (this.index + 1) & (QUERIES - 1)];
+	}
+
+	@Benchmark
+	public double[] pairwise() {
+		final LAB query = next();
+		for(int color = 0; color < this.size; color++) {
+			this.distances[color] = LAB.ciede2000(query, this.colors[color]);
+		}
+		return this.distances;
+	}
+
+	@Benchmark
+	public double[] batch() {
+		this.palette.ciede2000(next(), this.distances);
+		return this.distances;
+	}
+
+	@Benchmark
+	public double[] planar() {
+		this.palette.ciede2000Planar(next(), 0, this.size, this.distances, 0);
+		return this.distances;
+	}
+
+	@Benchmark
+	public double[] scalar() {
+		this.palette.ciede2000Scalar(next(), 0, this.size, this.distances, 0);
+		return this.distances;
+	}
+
+	@Benchmark
+	public int nearest() {
+		return this.palette.nearest(next());
+	}
+
+}
@@ -0,0 +1,43 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.benchmarks;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most bytes a benchmark method may allocate per operation, as measured
+ * by the JMH <code>gc</code> profiler. Checked by {@link AllocationCheck}.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AllocationBudget {
+
+	/**
+	 * @return the allowed bytes per operation
+	 */
+	int bytes();
+
+}
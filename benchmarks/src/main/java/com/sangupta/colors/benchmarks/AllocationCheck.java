@@ -0,0 +1,130 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link ConversionAllocationBenchmark} with the <code>gc</code> profiler
+ * and fails if any benchmark allocates more than its {@link AllocationBudget}.
+ * Meant for CI, to catch boxing or other allocations creeping back into the
+ * conversions:
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.sangupta.colors.benchmarks.AllocationCheck
+ * </pre>
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public class AllocationCheck {
+
+	/**
+	 * Name of the normalized allocation rate reported by the profiler
+	 */
+	private static final String ALLOCATION_RATE = "gc.alloc.rate.norm";
+
+	/**
+	 * Allowed measurement noise, in bytes per operation
+	 */
+	private static final double TOLERANCE = 1.0d;
+
+	public static void main(String[] args) throws RunnerException {
+		final Class<?> benchmark = ConversionAllocationBenchmark.class;
+
+		Options options = new OptionsBuilder()
+				.include(benchmark.getName() + "\\.")
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		Collection<RunResult> results = new Runner(options).run();
+
+		List<String> failures = new ArrayList<String>();
+		for(RunResult result : results) {
+			final String label = result.getParams().getBenchmark();
+			final String methodName = label.substring(label.lastIndexOf('.') + 1);
+
+			final AllocationBudget budget = budget(benchmark, methodName);
+			if(budget == null) {
+				continue;
+			}
+
+			final Result<?> allocation = allocation(result.getSecondaryResults());
+			if(allocation == null) {
+				failures.add(methodName + ": no allocation rate reported, is the gc profiler supported by this JVM?");
+				continue;
+			}
+
+			final double bytes = allocation.getScore();
+			System.out.println(String.format("%-24s %10.1f B/op (budget %d B/op)", methodName, bytes, budget.bytes()));
+
+			if(bytes > budget.bytes() + TOLERANCE) {
+				failures.add(String.format("%s: allocates %.1f B/op, budget is %d B/op", methodName, bytes, budget.bytes()));
+			}
+		}
+
+		if(failures.isEmpty()) {
+			return;
+		}
+
+		for(String failure : failures) {
+			System.err.println(failure);
+		}
+
+		System.exit(1);
+	}
+
+	private static AllocationBudget budget(Class<?> benchmark, String methodName) {
+		for(Method method : benchmark.getMethods()) {
+			if(method.getName().equals(methodName)) {
+				return method.getAnnotation(AllocationBudget.class);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Older JMH versions prefix the name of the secondary result with a dot.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static Result<?> allocation(Map<String, Result> secondary) {
+		for(Map.Entry<String, Result> entry : secondary.entrySet()) {
+			if(entry.getKey().endsWith(ALLOCATION_RATE)) {
+				return entry.getValue();
+			}
+		}
+
+		return null;
+	}
+
+}
@@ -0,0 +1,70 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.benchmarks;
+
+import java.util.Collection;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results in a machine-readable format, so
+ * that runs can be archived and compared. Takes the same arguments as the JMH
+ * command line, and unless told otherwise writes JSON to
+ * {@value #DEFAULT_RESULT}:
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.sangupta.colors.benchmarks.BenchmarkRunner
+ * java -cp target/benchmarks.jar com.sangupta.colors.benchmarks.BenchmarkRunner ConversionBenchmark -rf csv -rff conversions.csv
+ * </pre>
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public class BenchmarkRunner {
+
+	static final String DEFAULT_RESULT = "target/jmh-result.json";
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLine = new CommandLineOptions(args);
+		final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+		if(!commandLine.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+
+		if(!commandLine.getResult().hasValue()) {
+			options.result(commandLine.getResultFormat().hasValue() ? "target/jmh-result." + commandLine.getResultFormat().get().name().toLowerCase() : DEFAULT_RESULT);
+		}
+
+		final Collection<RunResult> results = new Runner(options.build()).run();
+		if(results.isEmpty()) {
+			System.err.println("No benchmarks matched");
+			System.exit(1);
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sangupta.colors.ColorModel;
+import com.sangupta.colors.CssColorParser;
+import com.sangupta.colors.CssColorParser.ColorHandler;
+import com.sangupta.colors.HexColorParser;
+import com.sangupta.colors.extract.android.Color;
+import com.sangupta.colors.model.RGB;
+
+/**
+ * Parsing of color strings with {@link RGB#RGB(String)}, directly with the
+ * {@link HexColorParser}, with the android {@link Color#parseColor(String)}
+ * and with the {@link CssColorParser}, which also extracts the colors of a
+ * stylesheet of about 2 MB.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorParsingBenchmark {
+
+	private static final int COLORS = 1024;
+
+	private static final int MASK = COLORS - 1;
+
+	private final String[] longHex = new String[COLORS];
+
+	private final String[] shortHex = new String[COLORS];
+
+	private final String[] cssFunctions = new String[COLORS];
+
+	private final String[] names = new String[COLORS];
+
+	private String stylesheet;
+
+	private final Counter counter = new Counter();
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+		final String digits = "0123456789abcdefABCDEF";
+
+		for(int color = 0; color < COLORS; color++) {
+			this.longHex[color] = String.format("#%06x", random.nextInt(0x1000000));
+
+			final StringBuilder builder = new StringBuilder("#");
+			for(int digit = 0; digit < 3; digit++) {
+				builder.append(digits.charAt(random.nextInt(digits.length())));
+			}
+			this.shortHex[color] = builder.toString();
+
+			this.cssFunctions[color] = "rgb(" + random.nextInt(256) + " " + random.nextInt(256) + " " + random.nextInt(256) + " / " + random.nextInt(101) + "%)";
+		}
+
+		final String[] known = Color.getColorNames().keySet().toArray(new String[0]);
+		for(int color = 0; color < COLORS; color++) {
+			final String name = known[random.nextInt(known.length)];
+			this.names[color] = random.nextBoolean() ? name : name.toUpperCase();
+		}
+
+		final StringBuilder css = new StringBuilder();
+		for(int rule = 0; css.length() < 2 << 20; rule++) {
+			final int color = rule & MASK;
+			css.append(".rule-").append(rule).append(" > a:hover {\n")
+				.append("  color: ").append(this.longHex[color]).append(";\n")
+				.append("  border: 1px solid ").append(this.cssFunctions[color]).append(";\n")
+				.append("  background: url(\"image.png\") no-repeat tomato;\n")
+				.append("  margin: 0 auto 12px;\n")
+				.append("}\n");
+		}
+		this.stylesheet = css.toString();
+	}
+
+	private int next() {
+		return this.index = (this.index + 1) & MASK;
+	}
+
+	@Benchmark
+	public RGB parseLongHex() {
+		return new RGB(this.longHex[next()]);
+	}
+
+	@Benchmark
+	public RGB parseShortHex() {
+		return new RGB(this.shortHex[next()]);
+	}
+
+	@Benchmark
+	public int parseHexPacked() {
+		return HexColorParser.parse(this.longHex[next()]);
+	}
+
+	@Benchmark
+	public int parseColor() {
+		return Color.parseColor(this.longHex[next()]);
+	}
+
+	@Benchmark
+	public int parseColorName() {
+		return Color.parseColor(this.names[next()]);
+	}
+
+	@Benchmark
+	public ColorModel parseCssFunction() {
+		return CssColorParser.parse(this.cssFunctions[next()]);
+	}
+
+	@Benchmark
+	public int extractStylesheet() {
+		this.counter.count = 0;
+		CssColorParser.extract(this.stylesheet, this.counter);
+		return this.counter.count;
+	}
+
+	private static final class Counter implements ColorHandler {
+
+		int count;
+
+		@Override
+		public void onColor(ColorModel color, float alpha, long start, long end) {
+			this.count++;
+		}
+
+	}
+
+}
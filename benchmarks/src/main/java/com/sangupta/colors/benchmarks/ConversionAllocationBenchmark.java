@@ -0,0 +1,126 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sangupta.colors.ColorConversionUtils;
+import com.sangupta.colors.ColorUtils;
+import com.sangupta.colors.HexColorParser;
+import com.sangupta.colors.PackedColors;
+import com.sangupta.colors.model.CMYK;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+/**
+ * Allocation of single color conversions. Run with the <code>gc</code>
+ * profiler to see the bytes allocated per conversion:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar ConversionAllocationBenchmark -prof gc
+ * </pre>
+ *
+ * Conversions that return a color model should allocate only that model, and
+ * primitive conversions nothing at all. The {@link AllocationBudget} of each
+ * method is enforced by {@link AllocationCheck}.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionAllocationBenchmark {
+
+	/**
+	 * Size of a color model with up to four fields, with compressed oops
+	 */
+	static final int MODEL_BYTES = 32;
+
+	XYZ xyz = new RGB(164, 181, 47).xyz();
+
+	LAB lab = new LAB(68.21f, -21.3f, 55.8f);
+
+	CMYK cmyk = new RGB(164, 181, 47).cmyk();
+
+	double value = 181.49d;
+
+	long packedLab = PackedColors.lab(68.21f, -21.3f, 55.8f);
+
+	String hex = "#a4b52f";
+
+	@Benchmark
+	@AllocationBudget(bytes = MODEL_BYTES)
+	public RGB xyzToRgb() {
+		return ColorConversionUtils.XYZtoRGB(this.xyz);
+	}
+
+	@Benchmark
+	@AllocationBudget(bytes = MODEL_BYTES)
+	public XYZ labToXyz() {
+		return ColorConversionUtils.LABtoXYZ(this.lab, XYZIlluminant.D65);
+	}
+
+	@Benchmark
+	@AllocationBudget(bytes = MODEL_BYTES)
+	public RGB cmykToRgb() {
+		return ColorConversionUtils.CMYKtoRGB(this.cmyk);
+	}
+
+	@Benchmark
+	@AllocationBudget(bytes = 0)
+	public int asInt() {
+		return ColorUtils.asInt(this.value);
+	}
+
+	@Benchmark
+	@AllocationBudget(bytes = 0)
+	public int packedLabToRgb() {
+		return PackedColors.LABtoRGB(this.packedLab, XYZIlluminant.D65);
+	}
+
+	@Benchmark
+	@AllocationBudget(bytes = MODEL_BYTES)
+	public RGB hexToRgb() {
+		return new RGB(this.hex);
+	}
+
+	@Benchmark
+	@AllocationBudget(bytes = 0)
+	public int parseHex() {
+		return HexColorParser.parse(this.hex);
+	}
+
+}
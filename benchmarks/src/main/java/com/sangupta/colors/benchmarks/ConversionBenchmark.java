@@ -0,0 +1,273 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sangupta.colors.ColorConversionUtils;
+import com.sangupta.colors.model.CMY;
+import com.sangupta.colors.model.CMYK;
+import com.sangupta.colors.model.HSB;
+import com.sangupta.colors.model.HSI;
+import com.sangupta.colors.model.HSL;
+import com.sangupta.colors.model.HunterLAB;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.LCH;
+import com.sangupta.colors.model.LUV;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+import com.sangupta.colors.model.YIQ;
+import com.sangupta.colors.model.YUV;
+import com.sangupta.colors.model.YUV.YUVQuality;
+import com.sangupta.colors.model.Yxy;
+
+/**
+ * Every conversion of {@link ColorConversionUtils}, and the CIEDE2000
+ * distance of {@link LAB}. Each invocation converts the next color of a fixed
+ * set of random colors, so that branches and caches see realistic input.
+ *
+ * <br><br>
+ *
+ * {@link ColorConversionUtils#RGBtoHSI(RGB)} is left out: it does not scale
+ * the intensity to <code>0-1</code>, so {@link HSI} rejects nearly all of its
+ * results.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+	/**
+	 * Number of colors in the input set, a power of two
+	 */
+	private static final int COLORS = 1024;
+
+	private static final int MASK = COLORS - 1;
+
+	private final RGB[] rgb = new RGB[COLORS];
+
+	private final CMYK[] cmyk = new CMYK[COLORS];
+
+	private final CMY[] cmy = new CMY[COLORS];
+
+	private final HSB[] hsb = new HSB[COLORS];
+
+	private final HSL[] hsl = new HSL[COLORS];
+
+	private final HSI[] hsi = new HSI[COLORS];
+
+	private final XYZ[] xyz = new XYZ[COLORS];
+
+	private final LAB[] lab = new LAB[COLORS];
+
+	private final LCH[] lch = new LCH[COLORS];
+
+	private final LUV[] luv = new LUV[COLORS];
+
+	private final Yxy[] yxy = new Yxy[COLORS];
+
+	private final HunterLAB[] hunterLab = new HunterLAB[COLORS];
+
+	private final YIQ[] yiq = new YIQ[COLORS];
+
+	private final YUV[] yuv = new YUV[COLORS];
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+
+		for(int color = 0; color < COLORS; color++) {
+			// keep away from black, where some models are undefined
+			final RGB rgb = new RGB(1 + random.nextInt(255), 1 + random.nextInt(255), 1 + random.nextInt(255));
+
+			this.rgb[color] = rgb;
+			this.cmyk[color] = ColorConversionUtils.RGBtoCMYK(rgb);
+			this.cmy[color] = ColorConversionUtils.RGBtoCMY(rgb);
+			this.hsb[color] = ColorConversionUtils.RGBtoHSB(rgb);
+			this.hsl[color] = ColorConversionUtils.RGBtoHSL(rgb);
+			this.hsi[color] = new HSI(random.nextFloat(), random.nextFloat(), random.nextFloat());
+			this.xyz[color] = ColorConversionUtils.RGBtoXYZ(rgb);
+			this.lab[color] = ColorConversionUtils.XYZtoLAB(this.xyz[color], XYZIlluminant.D65);
+			this.lch[color] = ColorConversionUtils.LABtoLCH(this.lab[color]);
+			this.luv[color] = ColorConversionUtils.XYZtoLUV(this.xyz[color]);
+			this.yxy[color] = ColorConversionUtils.XYZtoYxy(this.xyz[color]);
+			this.hunterLab[color] = ColorConversionUtils.XYZtoHLAB(this.xyz[color]);
+			this.yiq[color] = ColorConversionUtils.RGBtoYIQ(rgb);
+			this.yuv[color] = ColorConversionUtils.RGBtoYUV(rgb, YUVQuality.BT_709);
+		}
+	}
+
+	private int next() {
+		return this.index = (this.index + 1) & MASK;
+	}
+
+	@Benchmark
+	public CMYK rgbToCmyk() {
+		return ColorConversionUtils.RGBtoCMYK(this.rgb[next()]);
+	}
+
+	@Benchmark
+	public RGB cmykToRgb() {
+		return ColorConversionUtils.CMYKtoRGB(this.cmyk[next()]);
+	}
+
+	@Benchmark
+	public HSB rgbToHsb() {
+		return ColorConversionUtils.RGBtoHSB(this.rgb[next()]);
+	}
+
+	@Benchmark
+	public RGB hsbToRgb() {
+		return ColorConversionUtils.HSBtoRGB(this.hsb[next()]);
+	}
+
+	@Benchmark
+	public HSL rgbToHsl() {
+		return ColorConversionUtils.RGBtoHSL(this.rgb[next()]);
+	}
+
+	@Benchmark
+	public RGB hslToRgb() {
+		return ColorConversionUtils.HSLtoRGB(this.hsl[next()]);
+	}
+
+	@Benchmark
+	public XYZ rgbToXyz() {
+		return ColorConversionUtils.RGBtoXYZ(this.rgb[next()]);
+	}
+
+	@Benchmark
+	public RGB xyzToRgb() {
+		return ColorConversionUtils.XYZtoRGB(this.xyz[next()]);
+	}
+
+	@Benchmark
+	public XYZ labToXyz() {
+		return ColorConversionUtils.LABtoXYZ(this.lab[next()], XYZIlluminant.D65);
+	}
+
+	@Benchmark
+	public LAB xyzToLab() {
+		return ColorConversionUtils.XYZtoLAB(this.xyz[next()], XYZIlluminant.D65);
+	}
+
+	@Benchmark
+	public CMY rgbToCmy() {
+		return ColorConversionUtils.RGBtoCMY(this.rgb[next()]);
+	}
+
+	@Benchmark
+	public RGB cmyToRgb() {
+		return ColorConversionUtils.CMYtoRGB(this.cmy[next()]);
+	}
+
+	@Benchmark
+	public Yxy xyzToYxy() {
+		return ColorConversionUtils.XYZtoYxy(this.xyz[next()]);
+	}
+
+	@Benchmark
+	public XYZ yxyToXyz() {
+		return ColorConversionUtils.YxytoXYZ(this.yxy[next()]);
+	}
+
+	@Benchmark
+	public HunterLAB xyzToHunterLab() {
+		return ColorConversionUtils.XYZtoHLAB(this.xyz[next()]);
+	}
+
+	@Benchmark
+	public XYZ hunterLabToXyz() {
+		return ColorConversionUtils.HLABtoXYZ(this.hunterLab[next()]);
+	}
+
+	@Benchmark
+	public YIQ rgbToYiq() {
+		return ColorConversionUtils.RGBtoYIQ(this.rgb[next()]);
+	}
+
+	@Benchmark
+	public RGB yiqToRgb() {
+		return ColorConversionUtils.YIQtoRGB(this.yiq[next()]);
+	}
+
+	@Benchmark
+	public YUV rgbToYuv() {
+		return ColorConversionUtils.RGBtoYUV(this.rgb[next()], YUVQuality.BT_709);
+	}
+
+	@Benchmark
+	public RGB yuvToRgb() {
+		return ColorConversionUtils.YUVtoRGB(this.yuv[next()], YUVQuality.BT_709);
+	}
+
+	@Benchmark
+	public RGB hsiToRgb() {
+		return ColorConversionUtils.HSItoRGB(this.hsi[next()]);
+	}
+
+	@Benchmark
+	public LCH labToLch() {
+		return ColorConversionUtils.LABtoLCH(this.lab[next()]);
+	}
+
+	@Benchmark
+	public LAB lchToLab() {
+		return ColorConversionUtils.LCHtoLAB(this.lch[next()]);
+	}
+
+	@Benchmark
+	public LUV xyzToLuv() {
+		return ColorConversionUtils.XYZtoLUV(this.xyz[next()]);
+	}
+
+	@Benchmark
+	public XYZ luvToXyz() {
+		return ColorConversionUtils.LUVtoXYZ(this.luv[next()], XYZIlluminant.D65);
+	}
+
+	@Benchmark
+	public double ciede2000() {
+		final int index = next();
+		return LAB.ciede2000(this.lab[index], this.lab[(index + 1) & MASK]);
+	}
+
+}
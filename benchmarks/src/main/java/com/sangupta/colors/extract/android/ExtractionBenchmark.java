@@ -0,0 +1,119 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.awt.image.BufferedImage;
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading pixels from a {@link Bitmap}, quantizing them with
+ * {@link ColorCutQuantizer} and generating a full {@link Palette} with
+ * {@link AndroidColorExtractor}, for square images of several sizes.
+ *
+ * <br><br>
+ *
+ * Lives in the package of the extractor so that the package-private quantizer
+ * can be measured on its own.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+
+	/**
+	 * Width and height of the image, in pixels
+	 */
+	@Param({ "256", "1024", "2048" })
+	public int size;
+
+	/**
+	 * Layout of the image raster
+	 */
+	@Param({ "INT_RGB", "3BYTE_BGR" })
+	public String imageType;
+
+	private Bitmap bitmap;
+
+	private int[] pixels;
+
+	private final QuantizerContext context = new QuantizerContext();
+
+	@Setup
+	public void setup() {
+		final int type = "INT_RGB".equals(this.imageType) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_3BYTE_BGR;
+		final BufferedImage image = new BufferedImage(this.size, this.size, type);
+		final Random random = new Random(42);
+
+		// smooth gradients with some noise, closer to a photo than random pixels
+		for(int y = 0; y < this.size; y++) {
+			for(int x = 0; x < this.size; x++) {
+				final int red = (x * 255 / this.size + random.nextInt(16)) & 0xFF;
+				final int green = (y * 255 / this.size + random.nextInt(16)) & 0xFF;
+				final int blue = ((x + y) * 127 / this.size + random.nextInt(16)) & 0xFF;
+				image.setRGB(x, y, red << 16 | green << 8 | blue);
+			}
+		}
+
+		this.bitmap = new Bitmap(image);
+		this.pixels = this.bitmap.getPixels();
+	}
+
+	@Benchmark
+	public int[] getPixels() {
+		return this.bitmap.getPixels();
+	}
+
+	@Benchmark
+	public List<PaletteSwatch> quantize() {
+		return new ColorCutQuantizer(IntBuffer.wrap(this.pixels), 16, null, this.context).getQuantizedColors();
+	}
+
+	@Benchmark
+	public Palette generate() {
+		return new AndroidColorExtractor(this.bitmap).generate(this.context);
+	}
+
+	@Benchmark
+	public Palette generateFullSize() {
+		return new AndroidColorExtractor(this.bitmap).resizeBitmapArea(0).generate(this.context);
+	}
+
+}
@@ -0,0 +1,206 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sangupta.colors.BulkColorConversionUtils;
+import com.sangupta.colors.LABPalette;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+/**
+ * Speed of the {@link Quantizer} implementations on the same pixels. Their
+ * quality, as the mean CIEDE2000 difference between each pixel and the
+ * nearest swatch, is printed for each number of bits per channel of the
+ * {@link QuantizerContext} by running the class directly:
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.sangupta.colors.extract.android.QuantizerBenchmark
+ * </pre>
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuantizerBenchmark {
+
+	static final String[] QUANTIZERS = { "COLOR_CUT", "KMEANS", "WU", "OCTREE" };
+
+	/**
+	 * Number of runs timed by {@link #main(String[])} for each configuration
+	 */
+	private static final int RUNS = 20;
+
+	/**
+	 * Width and height of the image, in pixels
+	 */
+	@Param({ "112", "512" })
+	public int size;
+
+	@Param({ "16" })
+	public int colors;
+
+	@Param({ "COLOR_CUT", "KMEANS", "WU", "OCTREE" })
+	public String quantizer;
+
+	/**
+	 * Bits per channel of the quantized colors
+	 */
+	@Param({ "4", "5", "6", "7", "8" })
+	public int bits;
+
+	private IntBuffer pixels;
+
+	private Quantizer implementation;
+
+	private QuantizerContext context;
+
+	@Setup
+	public void setup() {
+		this.pixels = IntBuffer.wrap(pixels(this.size));
+		this.implementation = quantizer(this.quantizer);
+		this.context = new QuantizerContext(this.bits);
+	}
+
+	@Benchmark
+	public List<PaletteSwatch> quantize() {
+		return this.implementation.quantize(this.pixels, this.colors, null, this.context);
+	}
+
+	static Quantizer quantizer(String name) {
+		if ("COLOR_CUT".equals(name)) {
+			return Quantizer.COLOR_CUT;
+		}
+
+		if ("KMEANS".equals(name)) {
+			return new KMeansQuantizer();
+		}
+
+		if ("WU".equals(name)) {
+			return new WuQuantizer();
+		}
+
+		if ("OCTREE".equals(name)) {
+			return new OctreeQuantizer();
+		}
+
+		throw new IllegalArgumentException("Unknown quantizer: " + name);
+	}
+
+	/**
+	 * Smooth gradients with some noise, closer to a photo than random pixels.
+	 */
+	static int[] pixels(int size) {
+		final int[] pixels = new int[size * size];
+		final Random random = new Random(42);
+		for(int y = 0; y < size; y++) {
+			for(int x = 0; x < size; x++) {
+				final int red = (x * 255 / size + random.nextInt(16)) & 0xFF;
+				final int green = (y * 255 / size + random.nextInt(16)) & 0xFF;
+				final int blue = ((x + y) * 127 / size + random.nextInt(16)) & 0xFF;
+				pixels[y * size + x] = 0xFF000000 | red << 16 | green << 8 | blue;
+			}
+		}
+
+		return pixels;
+	}
+
+	/**
+	 * @return the mean CIEDE2000 difference between each pixel and the nearest
+	 *         swatch, in the CIELAB space of sRGB
+	 */
+	static double meanDeltaE(int[] pixels, List<PaletteSwatch> swatches) {
+		final int[] rgb = new int[swatches.size()];
+		for(int index = 0; index < rgb.length; index++) {
+			rgb[index] = swatches.get(index).getRgb();
+		}
+
+		final float[] lab = new float[rgb.length * 3];
+		BulkColorConversionUtils.sRGBtoLAB(rgb, 0, lab, 0, rgb.length, XYZIlluminant.D65);
+		final LABPalette palette = new LABPalette(lab, 0, rgb.length);
+
+		final float[] pixelLab = new float[pixels.length * 3];
+		BulkColorConversionUtils.sRGBtoLAB(pixels, 0, pixelLab, 0, pixels.length, XYZIlluminant.D65);
+
+		double total = 0;
+		for(int index = 0; index < pixels.length; index++) {
+			final LAB color = new LAB(pixelLab[index * 3], pixelLab[index * 3 + 1], pixelLab[index * 3 + 2]);
+			total += palette.ciede2000(color, palette.nearest(color));
+		}
+
+		return total / pixels.length;
+	}
+
+	public static void main(String[] args) {
+		final int[] sizes = { 112, 512 };
+		final int[] counts = { 8, 16, 32 };
+
+		System.out.println(String.format("%-10s %4s %6s %6s %10s %10s", "quantizer", "bits", "size", "colors", "mean dE", "ms"));
+		for(String name : QUANTIZERS) {
+			final Quantizer quantizer = quantizer(name);
+
+			for(int bits = ColorCutQuantizer.MIN_QUANTIZE_WORD_WIDTH; bits <= ColorCutQuantizer.MAX_QUANTIZE_WORD_WIDTH; bits++) {
+				final QuantizerContext context = new QuantizerContext(bits);
+
+				for(int size : sizes) {
+					final int[] pixels = pixels(size);
+					for(int count : counts) {
+						// warm up, then time the mean of a few runs
+						List<PaletteSwatch> swatches = null;
+						for(int run = 0; run < RUNS; run++) {
+							swatches = quantizer.quantize(IntBuffer.wrap(pixels), count, null, context);
+						}
+
+						final long start = System.nanoTime();
+						for(int run = 0; run < RUNS; run++) {
+							swatches = quantizer.quantize(IntBuffer.wrap(pixels), count, null, context);
+						}
+						final double millis = (System.nanoTime() - start) / 1e6 / RUNS;
+
+						System.out.println(String.format("%-10s %4d %6d %6d %10.3f %10.3f", name, bits, size, count,
+								meanDeltaE(pixels, swatches), millis));
+					}
+				}
+			}
+		}
+	}
+
+}
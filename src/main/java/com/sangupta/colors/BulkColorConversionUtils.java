@@ -0,0 +1,1536 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.awt.Color;
+
+import com.sangupta.colors.model.CMY;
+import com.sangupta.colors.model.CMYK;
+import com.sangupta.colors.model.HSB;
+import com.sangupta.colors.model.HSI;
+import com.sangupta.colors.model.HSL;
+import com.sangupta.colors.model.HunterLAB;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.LCH;
+import com.sangupta.colors.model.LUV;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+import com.sangupta.colors.model.YIQ;
+import com.sangupta.colors.model.YUV;
+import com.sangupta.colors.model.YUV.YUVQuality;
+import com.sangupta.colors.model.Yxy;
+
+/**
+ * Bulk counterparts of the conversions in {@link ColorConversionUtils} that
+ * work over arrays of colors instead of one model object at a time.
+ *
+ * <br><br>
+ *
+ * Colors in the {@link RGB} model are read from, and written to, packed
+ * <code>int</code> values in <code>0xAARRGGBB</code> layout - the same layout
+ * used by {@link RGB#value()} and <code>BufferedImage.getRGB()</code>. The
+ * alpha channel is ignored on input and written as <code>0xFF</code> on
+ * output. All other models are stored interleaved in <code>float[]</code>
+ * arrays, one component after another in the same order as the fields of the
+ * model, that is <code>{ h, s, l, h, s, l, ... }</code> for {@link HSL}.
+ *
+ * <br><br>
+ *
+ * Every method takes an offset into each array, expressed as an array index,
+ * and the number of colors to convert. Unless a method notes otherwise, the
+ * arithmetic is identical to the matching method in
+ * {@link ColorConversionUtils}. No objects are allocated per color. Unlike the model constructors, computed values are not range
+ * checked: channels for {@link RGB} outputs are clamped to <code>0-255</code>
+ * and all other values are written as computed.
+ *
+ * <br><br>
+ *
+ * Larger {@link RGB} to {@link XYZ} and {@link LAB} conversions run through a
+ * planar kernel that the JIT compiler can vectorize, see
+ * {@link PlanarLABKernel}.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public class BulkColorConversionUtils {
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link CMYK} colors.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param cmyk
+	 *            the destination array, 4 elements per color
+	 *
+	 * @param cmykOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void RGBtoCMYK(int[] argb, int argbOffset, float[] cmyk, int cmykOffset, int length) {
+		checkRange(argb, argbOffset, length);
+		checkRange(cmyk, cmykOffset, length, 4);
+
+		for(int index = 0; index < length; index++) {
+			final int color = argb[argbOffset + index];
+			final int dest = cmykOffset + index * 4;
+
+			float cyan = 1 - red(color) / 255f;
+			float magenta = 1 - green(color) / 255f;
+			float yellow = 1 - blue(color) / 255f;
+
+			float black = Math.min(cyan, Math.min(magenta, yellow));
+
+			if(black == 1f) {
+				cmyk[dest] = 0f;
+				cmyk[dest + 1] = 0f;
+				cmyk[dest + 2] = 0f;
+				cmyk[dest + 3] = 1f;
+				continue;
+			}
+
+			float divider = 1 - black;
+			cmyk[dest] = (cyan - black) / divider;
+			cmyk[dest + 1] = (magenta - black) / divider;
+			cmyk[dest + 2] = (yellow - black) / divider;
+			cmyk[dest + 3] = black;
+		}
+	}
+
+	/**
+	 * Convert {@link CMYK} colors to packed {@link RGB} colors.
+	 *
+	 * @param cmyk
+	 *            the source array, 4 elements per color
+	 *
+	 * @param cmykOffset
+	 *            index of the first source element
+	 *
+	 * @param argb
+	 *            the destination array for packed colors
+	 *
+	 * @param argbOffset
+	 *            index of the first destination color
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void CMYKtoRGB(float[] cmyk, int cmykOffset, int[] argb, int argbOffset, int length) {
+		checkRange(cmyk, cmykOffset, length, 4);
+		checkRange(argb, argbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			final int source = cmykOffset + index * 4;
+
+			double delta = 255 * (1.0d - cmyk[source + 3]);
+
+			double red = delta * (1.0d - cmyk[source]);
+			double green = delta * (1.0d - cmyk[source + 1]);
+			double blue = delta * (1.0d - cmyk[source + 2]);
+
+			argb[argbOffset + index] = pack(ColorUtils.asInt(red), ColorUtils.asInt(green), ColorUtils.asInt(blue));
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link HSB} colors.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param hsb
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param hsbOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void RGBtoHSB(int[] argb, int argbOffset, float[] hsb, int hsbOffset, int length) {
+		checkRange(argb, argbOffset, length);
+		checkRange(hsb, hsbOffset, length, 3);
+
+		final float[] values = new float[3];
+		for(int index = 0; index < length; index++) {
+			final int color = argb[argbOffset + index];
+			final int dest = hsbOffset + index * 3;
+
+			Color.RGBtoHSB(red(color), green(color), blue(color), values);
+			hsb[dest] = values[0];
+			hsb[dest + 1] = values[1];
+			hsb[dest + 2] = values[2];
+		}
+	}
+
+	/**
+	 * Convert {@link HSB} colors to packed {@link RGB} colors.
+	 *
+	 * @param hsb
+	 *            the source array, 3 elements per color
+	 *
+	 * @param hsbOffset
+	 *            index of the first source element
+	 *
+	 * @param argb
+	 *            the destination array for packed colors
+	 *
+	 * @param argbOffset
+	 *            index of the first destination color
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void HSBtoRGB(float[] hsb, int hsbOffset, int[] argb, int argbOffset, int length) {
+		checkRange(hsb, hsbOffset, length, 3);
+		checkRange(argb, argbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			final int source = hsbOffset + index * 3;
+			argb[argbOffset + index] = 0xFF000000 | Color.HSBtoRGB(hsb[source], hsb[source + 1], hsb[source + 2]);
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link HSL} colors.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param hsl
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param hslOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void RGBtoHSL(int[] argb, int argbOffset, float[] hsl, int hslOffset, int length) {
+		checkRange(argb, argbOffset, length);
+		checkRange(hsl, hslOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int color = argb[argbOffset + index];
+
+			final float redFloat = red(color) / 255f;
+			final float greenFloat = green(color) / 255f;
+			final float blueFloat = blue(color) / 255f;
+
+			final float max = Math.max(redFloat, Math.max(greenFloat, blueFloat));
+			final float min = Math.min(redFloat, Math.min(greenFloat, blueFloat));
+			final float deltaMaxMin = max - min;
+
+			float hue, saturation;
+			float lumin = (max + min) / 2f;
+
+			if (max == min) {
+				// Monochromatic
+				hue = saturation = 0f;
+			} else {
+				if (max == redFloat) {
+					hue = ((greenFloat - blueFloat) / deltaMaxMin) % 6f;
+				} else if (max == greenFloat) {
+					hue = ((blueFloat - redFloat) / deltaMaxMin) + 2f;
+				} else {
+					hue = ((redFloat - greenFloat) / deltaMaxMin) + 4f;
+				}
+
+				saturation = deltaMaxMin / (1f - Math.abs(2f * lumin - 1f));
+			}
+
+			hue = (hue * 60f) % 360f;
+			if(hue < 0) {
+				hue = 360f + hue;
+			}
+
+			// bring them to relative float values
+			hue = hue / 360f;
+			if(saturation > 1.0f) {
+				saturation = 1.0f;
+			}
+
+			final int dest = hslOffset + index * 3;
+			hsl[dest] = hue;
+			hsl[dest + 1] = saturation;
+			hsl[dest + 2] = lumin;
+		}
+	}
+
+	/**
+	 * Convert {@link HSL} colors to packed {@link RGB} colors.
+	 *
+	 * @param hsl
+	 *            the source array, 3 elements per color
+	 *
+	 * @param hslOffset
+	 *            index of the first source element
+	 *
+	 * @param argb
+	 *            the destination array for packed colors
+	 *
+	 * @param argbOffset
+	 *            index of the first destination color
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void HSLtoRGB(float[] hsl, int hslOffset, int[] argb, int argbOffset, int length) {
+		checkRange(hsl, hslOffset, length, 3);
+		checkRange(argb, argbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			final int source = hslOffset + index * 3;
+			argb[argbOffset + index] = hslToRgb(hsl[source], hsl[source + 1], hsl[source + 2]);
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link XYZ} colors.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param xyz
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void RGBtoXYZ(int[] argb, int argbOffset, float[] xyz, int xyzOffset, int length) {
+		checkRange(argb, argbOffset, length);
+		checkRange(xyz, xyzOffset, length, 3);
+
+		if(PlanarLABKernel.use(length)) {
+			PlanarLABKernel.get().rgbToXyz(argb, argbOffset, xyz, xyzOffset, length);
+		} else {
+			rgbToXyzScalar(argb, argbOffset, xyz, xyzOffset, length);
+		}
+	}
+
+	/**
+	 * Convert {@link XYZ} colors to packed {@link RGB} colors.
+	 *
+	 * @param xyz
+	 *            the source array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first source element
+	 *
+	 * @param argb
+	 *            the destination array for packed colors
+	 *
+	 * @param argbOffset
+	 *            index of the first destination color
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void XYZtoRGB(float[] xyz, int xyzOffset, int[] argb, int argbOffset, int length) {
+		checkRange(xyz, xyzOffset, length, 3);
+		checkRange(argb, argbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			final int source = xyzOffset + index * 3;
+			argb[argbOffset + index] = xyzToRgb(xyz[source], xyz[source + 1], xyz[source + 2]);
+		}
+	}
+
+	/**
+	 * Convert {@link LAB} colors to {@link XYZ} colors.
+	 *
+	 * @param lab
+	 *            the source array, 3 elements per color
+	 *
+	 * @param labOffset
+	 *            index of the first source element
+	 *
+	 * @param xyz
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 *
+	 * @param illuminant
+	 *            the {@link XYZIlluminant} reference white
+	 */
+	public static void LABtoXYZ(float[] lab, int labOffset, float[] xyz, int xyzOffset, int length, XYZIlluminant illuminant) {
+		checkRange(lab, labOffset, length, 3);
+		checkRange(xyz, xyzOffset, length, 3);
+
+		if(illuminant == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		final double refX = illuminant.x2();
+		final double refY = illuminant.y2();
+		final double refZ = illuminant.z2();
+
+		for(int index = 0; index < length; index++) {
+			final int source = labOffset + index * 3;
+
+			double y = (lab[source] + 16.0) / 116.0;
+			double y3 = y * y * y;
+			double x = (lab[source + 1] / 500.0) + y;
+			double x3 = x * x * x;
+			double z = y - (lab[source + 2] / 200.0);
+			double z3 = z * z * z;
+
+			if (y3 > 0.008856) {
+				y = y3;
+			} else {
+				y = (y - (16.0 / 116.0)) / 7.787;
+			}
+			if (x3 > 0.008856) {
+				x = x3;
+			} else {
+				x = (x - (16.0 / 116.0)) / 7.787;
+			}
+			if (z3 > 0.008856) {
+				z = z3;
+			} else {
+				z = (z - (16.0 / 116.0)) / 7.787;
+			}
+
+			final int dest = xyzOffset + index * 3;
+			xyz[dest] = (float) (x * refX);
+			xyz[dest + 1] = (float) (y * refY);
+			xyz[dest + 2] = (float) (z * refZ);
+		}
+	}
+
+	/**
+	 * Convert {@link XYZ} colors to {@link LAB} colors.
+	 *
+	 * @param xyz
+	 *            the source array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first source element
+	 *
+	 * @param lab
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param labOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 *
+	 * @param whitePoint
+	 *            the {@link XYZIlluminant} reference white
+	 */
+	public static void XYZtoLAB(float[] xyz, int xyzOffset, float[] lab, int labOffset, int length, XYZIlluminant whitePoint) {
+		checkRange(xyz, xyzOffset, length, 3);
+		checkRange(lab, labOffset, length, 3);
+
+		if(whitePoint == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		for(int index = 0; index < length; index++) {
+			final int source = xyzOffset + index * 3;
+			xyzToLab(xyz[source], xyz[source + 1], xyz[source + 2], whitePoint, lab, labOffset + index * 3);
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link LAB} colors. This is the same
+	 * as calling {@link ColorConversionUtils#RGBtoXYZ(RGB)} followed by
+	 * {@link ColorConversionUtils#XYZtoLAB(XYZ, XYZIlluminant)} for each color,
+	 * without the intermediate {@link XYZ} buffer.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param lab
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param labOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 *
+	 * @param whitePoint
+	 *            the {@link XYZIlluminant} reference white
+	 */
+	public static void RGBtoLAB(int[] argb, int argbOffset, float[] lab, int labOffset, int length, XYZIlluminant whitePoint) {
+		checkRange(argb, argbOffset, length);
+		checkRange(lab, labOffset, length, 3);
+
+		if(whitePoint == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		if(PlanarLABKernel.use(length)) {
+			PlanarLABKernel.get().rgbToLab(argb, argbOffset, lab, labOffset, length, whitePoint);
+		} else {
+			rgbToLabScalar(argb, argbOffset, lab, labOffset, length, whitePoint);
+		}
+	}
+
+	/**
+	 * Convert packed sRGB colors to CIE {@link LAB} colors. Unlike
+	 * {@link #RGBtoLAB(int[], int, float[], int, int, XYZIlluminant)}, which
+	 * follows the {@link XYZ} matrix of {@link ColorConversionUtils} and gives
+	 * <code>L*</code> values up to about <code>177</code> for white, channels
+	 * are gamma expanded and converted with the sRGB matrix, so that white has
+	 * an <code>L*</code> of <code>100</code>. Use these values where
+	 * distances should follow perceived differences, such as with
+	 * {@link LAB#ciede2000(LAB, LAB)}. The linear channels and the cube root
+	 * are read from {@link ColorLookupTables}.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param lab
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param labOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 *
+	 * @param whitePoint
+	 *            the {@link XYZIlluminant} reference white, usually
+	 *            {@link XYZIlluminant#D65} for sRGB
+	 */
+	public static void sRGBtoLAB(int[] argb, int argbOffset, float[] lab, int labOffset, int length, XYZIlluminant whitePoint) {
+		checkRange(argb, argbOffset, length);
+		checkRange(lab, labOffset, length, 3);
+
+		if(whitePoint == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		for(int index = 0; index < length; index++) {
+			srgbToLab(argb[argbOffset + index], whitePoint, lab, labOffset + index * 3);
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link LAB} colors by looking them up
+	 * in a precomputed {@link RgbToLabTable}. The white point is that of the
+	 * table.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param lab
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param labOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 *
+	 * @param table
+	 *            the {@link RgbToLabTable} to read values from
+	 */
+	public static void RGBtoLAB(int[] argb, int argbOffset, float[] lab, int labOffset, int length, RgbToLabTable table) {
+		checkRange(argb, argbOffset, length);
+		checkRange(lab, labOffset, length, 3);
+
+		if(table == null) {
+			throw new IllegalArgumentException("RGB to LAB table cannot be null");
+		}
+
+		for(int index = 0; index < length; index++) {
+			table.lookup(argb[argbOffset + index], lab, labOffset + index * 3);
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link CMY} colors.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param cmy
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param cmyOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void RGBtoCMY(int[] argb, int argbOffset, float[] cmy, int cmyOffset, int length) {
+		checkRange(argb, argbOffset, length);
+		checkRange(cmy, cmyOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int color = argb[argbOffset + index];
+			final int dest = cmyOffset + index * 3;
+
+			cmy[dest] = 1 - (red(color) / 255f);
+			cmy[dest + 1] = 1 - (green(color) / 255f);
+			cmy[dest + 2] = 1 - (blue(color) / 255f);
+		}
+	}
+
+	/**
+	 * Convert {@link CMY} colors to packed {@link RGB} colors.
+	 *
+	 * @param cmy
+	 *            the source array, 3 elements per color
+	 *
+	 * @param cmyOffset
+	 *            index of the first source element
+	 *
+	 * @param argb
+	 *            the destination array for packed colors
+	 *
+	 * @param argbOffset
+	 *            index of the first destination color
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void CMYtoRGB(float[] cmy, int cmyOffset, int[] argb, int argbOffset, int length) {
+		checkRange(cmy, cmyOffset, length, 3);
+		checkRange(argb, argbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			final int source = cmyOffset + index * 3;
+
+			double red = (1d - cmy[source]) * 255d;
+			double green = (1d - cmy[source + 1]) * 255d;
+			double blue = (1d - cmy[source + 2]) * 255d;
+
+			argb[argbOffset + index] = pack(ColorUtils.asInt(red), ColorUtils.asInt(green), ColorUtils.asInt(blue));
+		}
+	}
+
+	/**
+	 * Convert {@link XYZ} colors to {@link Yxy} colors.
+	 *
+	 * @param xyz
+	 *            the source array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first source element
+	 *
+	 * @param yxy
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param yxyOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void XYZtoYxy(float[] xyz, int xyzOffset, float[] yxy, int yxyOffset, int length) {
+		checkRange(xyz, xyzOffset, length, 3);
+		checkRange(yxy, yxyOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int source = xyzOffset + index * 3;
+			final float x = xyz[source];
+			final float y = xyz[source + 1];
+			final float z = xyz[source + 2];
+
+			float sum = x + y + z;
+
+			final int dest = yxyOffset + index * 3;
+			yxy[dest] = y;
+			yxy[dest + 1] = x / sum;
+			yxy[dest + 2] = y / sum;
+		}
+	}
+
+	/**
+	 * Convert {@link Yxy} colors to {@link XYZ} colors.
+	 *
+	 * @param yxy
+	 *            the source array, 3 elements per color
+	 *
+	 * @param yxyOffset
+	 *            index of the first source element
+	 *
+	 * @param xyz
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void YxytoXYZ(float[] yxy, int yxyOffset, float[] xyz, int xyzOffset, int length) {
+		checkRange(yxy, yxyOffset, length, 3);
+		checkRange(xyz, xyzOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int source = yxyOffset + index * 3;
+			final float Y = yxy[source];
+			final float x = yxy[source + 1];
+			final float y = yxy[source + 2];
+
+			float div = Y / y;
+
+			final int dest = xyzOffset + index * 3;
+			xyz[dest] = x * div;
+			xyz[dest + 1] = Y;
+			xyz[dest + 2] = (1 - x - y) * div;
+		}
+	}
+
+	/**
+	 * Convert {@link XYZ} colors to {@link HunterLAB} colors.
+	 *
+	 * @param xyz
+	 *            the source array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first source element
+	 *
+	 * @param hlab
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param hlabOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void XYZtoHLAB(float[] xyz, int xyzOffset, float[] hlab, int hlabOffset, int length) {
+		checkRange(xyz, xyzOffset, length, 3);
+		checkRange(hlab, hlabOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int source = xyzOffset + index * 3;
+			final float x = xyz[source];
+			final float y = xyz[source + 1];
+			final float z = xyz[source + 2];
+
+			float sy = (float) Math.sqrt(y);
+
+			final int dest = hlabOffset + index * 3;
+			hlab[dest] = 10f * sy;
+			hlab[dest + 1] = 17.5f * (((1.02f * x) - y) / sy);
+			hlab[dest + 2] = 7.0f * ((y - (0.847f * z)) / sy);
+		}
+	}
+
+	/**
+	 * Convert {@link HunterLAB} colors to {@link XYZ} colors.
+	 *
+	 * @param hlab
+	 *            the source array, 3 elements per color
+	 *
+	 * @param hlabOffset
+	 *            index of the first source element
+	 *
+	 * @param xyz
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void HLABtoXYZ(float[] hlab, int hlabOffset, float[] xyz, int xyzOffset, int length) {
+		checkRange(hlab, hlabOffset, length, 3);
+		checkRange(xyz, xyzOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int source = hlabOffset + index * 3;
+			final float l = hlab[source];
+			final float a = hlab[source + 1];
+			final float b = hlab[source + 2];
+
+			float varY = l / 10f;
+			float varX = a / 17.5f * l / 10.0f;
+			float varZ = b / 7.0f * l / 10.0f;
+
+			float y = varY * varY;
+
+			final int dest = xyzOffset + index * 3;
+			xyz[dest] = (varX + y) / 1.02f;
+			xyz[dest + 1] = y;
+			xyz[dest + 2] = -(varZ - y) / 0.847f;
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link YIQ} colors.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param yiq
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param yiqOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void RGBtoYIQ(int[] argb, int argbOffset, float[] yiq, int yiqOffset, int length) {
+		checkRange(argb, argbOffset, length);
+		checkRange(yiq, yiqOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int color = argb[argbOffset + index];
+
+			double red = red(color) / 255d;
+			double green = green(color) / 255d;
+			double blue = blue(color) / 255d;
+
+			final int dest = yiqOffset + index * 3;
+			yiq[dest] = (float) (0.299d * red + 0.587d * green + 0.114d * blue);
+			yiq[dest + 1] = (float) (0.596d * red - 0.274d * green - 0.322d * blue);
+			yiq[dest + 2] = (float) (0.211d * red - 0.523d * green + 0.312d * blue);
+		}
+	}
+
+	/**
+	 * Convert {@link YIQ} colors to packed {@link RGB} colors.
+	 *
+	 * @param yiq
+	 *            the source array, 3 elements per color
+	 *
+	 * @param yiqOffset
+	 *            index of the first source element
+	 *
+	 * @param argb
+	 *            the destination array for packed colors
+	 *
+	 * @param argbOffset
+	 *            index of the first destination color
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void YIQtoRGB(float[] yiq, int yiqOffset, int[] argb, int argbOffset, int length) {
+		checkRange(yiq, yiqOffset, length, 3);
+		checkRange(argb, argbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			final int source = yiqOffset + index * 3;
+			final float y = yiq[source];
+			final float i = yiq[source + 1];
+			final float q = yiq[source + 2];
+
+			double red   = (1.0d * y + 0.956d * i + 0.621d * q) * 255d;
+			double green = (1.0d * y - 0.272d * i - 0.647d * q) * 255d;
+			double blue  = (1.0d * y - 1.106d * i + 1.703d * q) * 255d;
+
+			argb[argbOffset + index] = pack(ColorUtils.asInt(red), ColorUtils.asInt(green), ColorUtils.asInt(blue));
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link YUV} colors.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param yuv
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param yuvOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 *
+	 * @param quality
+	 *            the {@link YUVQuality} to use for conversion
+	 */
+	public static void RGBtoYUV(int[] argb, int argbOffset, float[] yuv, int yuvOffset, int length, YUVQuality quality) {
+		checkRange(argb, argbOffset, length);
+		checkRange(yuv, yuvOffset, length, 3);
+
+		if(quality == null) {
+			throw new IllegalArgumentException("YUVQuality cannot be null");
+		}
+
+		final boolean hd;
+		switch(quality) {
+			case SDTV:
+			case BT_601:
+				hd = false;
+				break;
+
+			case HDTV:
+			case BT_709:
+				hd = true;
+				break;
+
+			default:
+				throw new IllegalStateException("Unknown YUVQuality");
+		}
+
+		for(int index = 0; index < length; index++) {
+			final int color = argb[argbOffset + index];
+			final int red = red(color);
+			final int green = green(color);
+			final int blue = blue(color);
+
+			double y, u, v;
+			if(hd) {
+				y = 0.2126d * red + 0.7152d * green + 0.0722d * blue;
+				u = -0.09991 * red - 0.33609d * green + 0.436d * blue;
+				v = 0.615d * red - 0.55861d * green - 0.05639d * blue;
+			} else {
+				y = 0.299d * red + 0.587d * green + 0.114d * blue;
+				u = -0.14173d * red - 0.28886d * green + 0.436d * blue;
+				v = 0.615d * red - 0.51499d * green - 0.10001d * blue;
+			}
+
+			final int dest = yuvOffset + index * 3;
+			yuv[dest] = (float) y;
+			yuv[dest + 1] = (float) u;
+			yuv[dest + 2] = (float) v;
+		}
+	}
+
+	/**
+	 * Convert {@link YUV} colors to packed {@link RGB} colors.
+	 *
+	 * @param yuv
+	 *            the source array, 3 elements per color
+	 *
+	 * @param yuvOffset
+	 *            index of the first source element
+	 *
+	 * @param argb
+	 *            the destination array for packed colors
+	 *
+	 * @param argbOffset
+	 *            index of the first destination color
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 *
+	 * @param quality
+	 *            the {@link YUVQuality} to use for conversion
+	 */
+	public static void YUVtoRGB(float[] yuv, int yuvOffset, int[] argb, int argbOffset, int length, YUVQuality quality) {
+		checkRange(yuv, yuvOffset, length, 3);
+		checkRange(argb, argbOffset, length);
+
+		if(quality == null) {
+			throw new IllegalArgumentException("YUVQuality cannot be null");
+		}
+
+		final boolean hd;
+		switch(quality) {
+			case SDTV:
+			case BT_601:
+				hd = false;
+				break;
+
+			case HDTV:
+			case BT_709:
+				hd = true;
+				break;
+
+			default:
+				throw new IllegalStateException("Unknown YUVQuality");
+		}
+
+		for(int index = 0; index < length; index++) {
+			final int source = yuvOffset + index * 3;
+			final float y = yuv[source];
+			final float u = yuv[source + 1];
+			final float v = yuv[source + 2];
+
+			double red, green, blue;
+			if(hd) {
+				red = 1.0d * y + 1.28033 * v;
+				green = 1.0d * y - 0.21482d * u - 0.38059d * v;
+				blue = 1.0d * y + 2.12798d * u;
+			} else {
+				red = 1.0d * y + 1.13983d * v;
+				green = 1.0d * y - 0.39465d * u - 0.58060d * v;
+				blue = 1.0d * y + 2.03211d * u;
+			}
+
+			argb[argbOffset + index] = pack((int) red, (int) green, (int) blue);
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link HSI} colors.
+	 *
+	 * @param argb
+	 *            the packed source colors
+	 *
+	 * @param argbOffset
+	 *            index of the first source color
+	 *
+	 * @param hsi
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param hsiOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void RGBtoHSI(int[] argb, int argbOffset, float[] hsi, int hsiOffset, int length) {
+		checkRange(argb, argbOffset, length);
+		checkRange(hsi, hsiOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int color = argb[argbOffset + index];
+			final int red = red(color);
+			final int green = green(color);
+			final int blue = blue(color);
+
+			double sum = red + green + blue;
+			double intensity = sum / 3.0d;
+
+			double rn = red / sum;
+			double gn = green / sum;
+			double bn = blue / sum;
+
+			double hue = Math.acos((0.5 * ((rn - gn) + (rn - bn))) / (Math.sqrt((rn - gn) * (rn - gn) + (rn - bn) * (gn - bn))));
+			if(blue > green) {
+				hue = 2 * Math.PI - hue;
+			}
+
+			double saturation = 1 - 3 * Math.min(rn, Math.min(gn, bn));
+
+			final int dest = hsiOffset + index * 3;
+			hsi[dest] = (float) hue;
+			hsi[dest + 1] = (float) saturation;
+			hsi[dest + 2] = (float) intensity;
+		}
+	}
+
+	/**
+	 * Convert {@link HSI} colors to packed {@link RGB} colors.
+	 *
+	 * @param hsi
+	 *            the source array, 3 elements per color
+	 *
+	 * @param hsiOffset
+	 *            index of the first source element
+	 *
+	 * @param argb
+	 *            the destination array for packed colors
+	 *
+	 * @param argbOffset
+	 *            index of the first destination color
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void HSItoRGB(float[] hsi, int hsiOffset, int[] argb, int argbOffset, int length) {
+		checkRange(hsi, hsiOffset, length, 3);
+		checkRange(argb, argbOffset, length);
+
+		final double piDivThree = Math.PI / 3.0d;
+
+		for(int index = 0; index < length; index++) {
+			final int source = hsiOffset + index * 3;
+			final float hue = hsi[source];
+			final float saturation = hsi[source + 1];
+			final float intensity = hsi[source + 2];
+
+			double x = intensity * (1.0d - saturation);
+			double y, z;
+
+			if (hue < 2 * piDivThree) {
+				y = intensity * (1 + (saturation * Math.cos(hue)) / (Math.cos(Math.PI / 3 - hue)));
+				z = 3 * intensity - (x + y);
+
+				// *b = x; *r = y; *g = z;
+				argb[argbOffset + index] = pack((int) y, (int) z, (int) x);
+				continue;
+			}
+
+			if (hue < 4 * piDivThree) {
+				y = intensity * (1 + (saturation * Math.cos(hue - 2 * piDivThree)) / (Math.cos(piDivThree - (hue - 2 * piDivThree))));
+				z = 3 * intensity - (x + y);
+
+				// *r = x; *g = y; *b = z;
+				argb[argbOffset + index] = pack((int) x, (int) y, (int) z);
+				continue;
+			}
+
+			y = intensity * (1 + (saturation * Math.cos(hue - 4 * piDivThree)) / (Math.cos(piDivThree - (hue - 4 * piDivThree))));
+			z = 3 * intensity - (x + y);
+
+			// *r = z; *g = x; *b = y;
+			argb[argbOffset + index] = pack((int) z, (int) x, (int) y);
+		}
+	}
+
+	/**
+	 * Convert {@link LAB} colors to {@link LCH} colors.
+	 *
+	 * @param lab
+	 *            the source array, 3 elements per color
+	 *
+	 * @param labOffset
+	 *            index of the first source element
+	 *
+	 * @param lch
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param lchOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void LABtoLCH(float[] lab, int labOffset, float[] lch, int lchOffset, int length) {
+		checkRange(lab, labOffset, length, 3);
+		checkRange(lch, lchOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int source = labOffset + index * 3;
+			final float l = lab[source];
+			final float a = lab[source + 1];
+			final float b = lab[source + 2];
+
+			double hr = Math.atan2(b, a);
+			double h = hr * 360 / 2 / Math.PI;
+			if(h < 0) {
+				h = h + 360;
+			}
+			double c = Math.sqrt(a * a + b * b);
+
+			final int dest = lchOffset + index * 3;
+			lch[dest] = l;
+			lch[dest + 1] = (float) c;
+			lch[dest + 2] = (float) h;
+		}
+	}
+
+	/**
+	 * Convert {@link LCH} colors to {@link LAB} colors.
+	 *
+	 * @param lch
+	 *            the source array, 3 elements per color
+	 *
+	 * @param lchOffset
+	 *            index of the first source element
+	 *
+	 * @param lab
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param labOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 */
+	public static void LCHtoLAB(float[] lch, int lchOffset, float[] lab, int labOffset, int length) {
+		checkRange(lch, lchOffset, length, 3);
+		checkRange(lab, labOffset, length, 3);
+
+		for(int index = 0; index < length; index++) {
+			final int source = lchOffset + index * 3;
+			final float lightness = lch[source];
+			final float chroma = lch[source + 1];
+			final float hue = lch[source + 2];
+
+			double hr = hue / 360 * 2 * Math.PI;
+
+			final int dest = labOffset + index * 3;
+			lab[dest] = lightness;
+			lab[dest + 1] = (float) (chroma * Math.cos(hr));
+			lab[dest + 2] = (float) (chroma * Math.sin(hr));
+		}
+	}
+
+	/**
+	 * Convert {@link XYZ} colors to {@link LUV} colors.
+	 *
+	 * @param xyz
+	 *            the source array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first source element
+	 *
+	 * @param luv
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param luvOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 *
+	 * @param illuminant
+	 *            the {@link XYZIlluminant} of the source colors
+	 */
+	public static void XYZtoLUV(float[] xyz, int xyzOffset, float[] luv, int luvOffset, int length, XYZIlluminant illuminant) {
+		checkRange(xyz, xyzOffset, length, 3);
+		checkRange(luv, luvOffset, length, 3);
+
+		if(illuminant == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		double refX = illuminant.x2(); // Observer= 2°
+		double refY = illuminant.y2();
+		double refZ = illuminant.z2();
+
+		final double refU = (4 * refX) / (refX + (15 * refY) + (3 * refZ));
+		final double refV = (9 * refY) / (refX + (15 * refY) + (3 * refZ));
+
+		for(int index = 0; index < length; index++) {
+			final int source = xyzOffset + index * 3;
+			final float x = xyz[source];
+			final float y = xyz[source + 1];
+			final float z = xyz[source + 2];
+
+			double denominator = x + (15 * y) + (3 * z);
+			double varU = (4 * x) / denominator;
+			double varV = (9 * y) / denominator;
+
+			double varY = y / 100d;
+			if (varY > 0.008856d) {
+				varY = Math.pow(varY, 1d / 3d);
+			} else {
+				varY = (7.787d * varY) + (16d / 116d);
+			}
+
+			double l = (116 * varY) - 16;
+
+			final int dest = luvOffset + index * 3;
+			luv[dest] = (float) l;
+			luv[dest + 1] = (float) (13 * l * (varU - refU));
+			luv[dest + 2] = (float) (13 * l * (varV - refV));
+		}
+	}
+
+	/**
+	 * Convert {@link LUV} colors to {@link XYZ} colors.
+	 *
+	 * @param luv
+	 *            the source array, 3 elements per color
+	 *
+	 * @param luvOffset
+	 *            index of the first source element
+	 *
+	 * @param xyz
+	 *            the destination array, 3 elements per color
+	 *
+	 * @param xyzOffset
+	 *            index of the first destination element
+	 *
+	 * @param length
+	 *            number of colors to convert
+	 *
+	 * @param illuminant
+	 *            the {@link XYZIlluminant} reference white
+	 */
+	public static void LUVtoXYZ(float[] luv, int luvOffset, float[] xyz, int xyzOffset, int length, XYZIlluminant illuminant) {
+		checkRange(luv, luvOffset, length, 3);
+		checkRange(xyz, xyzOffset, length, 3);
+
+		if(illuminant == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		double refX = illuminant.x2(); // Observer= 2°, Illuminant= D65
+		double refY = illuminant.y2();
+		double refZ = illuminant.z2();
+
+		double denominator = refX + (15 * refY) + (3 * refZ);
+
+		final double refU = (4 * refX) / denominator;
+		final double refV = (9 * refY) / denominator;
+
+		for(int index = 0; index < length; index++) {
+			final int source = luvOffset + index * 3;
+			final float l = luv[source];
+			final float u = luv[source + 1];
+			final float v = luv[source + 2];
+
+			double varY = (l + 16) / 116d;
+			double yPower3 = Math.pow(varY, 3d);
+			if (yPower3 > 0.008856d) {
+				varY = yPower3;
+			} else {
+				varY = (varY - 16 / 116) / 7.787d;
+			}
+
+			double varU = u / (13 * l) + refU;
+			double varV = v / (13 * l) + refV;
+
+			double Y = varY * 100;
+			double X = -(9 * Y * varU) / ((varU - 4) * varV - varU * varV);
+			double Z = (9 * Y - (15 * varV * Y) - (varV * X)) / (3 * varV);
+
+			final int dest = xyzOffset + index * 3;
+			xyz[dest] = (float) X;
+			xyz[dest + 1] = (float) Y;
+			xyz[dest + 2] = (float) Z;
+		}
+	}
+
+	// Internal helpers
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link XYZ} one color at a time,
+	 * the path used for inputs too small for {@link PlanarLABKernel}.
+	 *
+	 */
+	static void rgbToXyzScalar(int[] argb, int argbOffset, float[] xyz, int xyzOffset, int length) {
+		final float normalizer = 1.0f / 0.17697f;
+
+		for(int index = 0; index < length; index++) {
+			final int color = argb[argbOffset + index];
+			final int red = red(color);
+			final int green = green(color);
+			final int blue = blue(color);
+
+			final int dest = xyzOffset + index * 3;
+			xyz[dest] = normalizer * (0.490f * red) + (0.310f * green) + (0.20f * blue);
+			xyz[dest + 1] = normalizer * (0.17697f * red) + (0.8124f * green) + (0.01063f * blue);
+			xyz[dest + 2] = normalizer * (0.0f * red) + (0.01f * green) + (0.99f * blue);
+		}
+	}
+
+	/**
+	 * Convert packed {@link RGB} colors to {@link LAB} one color at a time,
+	 * the path used for inputs too small for {@link PlanarLABKernel}.
+	 *
+	 */
+	static void rgbToLabScalar(int[] argb, int argbOffset, float[] lab, int labOffset, int length, XYZIlluminant whitePoint) {
+		for(int index = 0; index < length; index++) {
+			rgbToLab(argb[argbOffset + index], whitePoint, lab, labOffset + index * 3);
+		}
+	}
+
+	/**
+	 * Convert a single packed {@link RGB} color to {@link LAB} and write it to
+	 * the given position in the destination array, as
+	 * {@link #RGBtoLAB(int[], int, float[], int, int, XYZIlluminant)} does for
+	 * each color.
+	 *
+	 */
+	static void rgbToLab(int color, XYZIlluminant whitePoint, float[] lab, int dest) {
+		final float normalizer = 1.0f / 0.17697f;
+		final int red = red(color);
+		final int green = green(color);
+		final int blue = blue(color);
+
+		float x = normalizer * (0.490f * red) + (0.310f * green) + (0.20f * blue);
+		float y = normalizer * (0.17697f * red) + (0.8124f * green) + (0.01063f * blue);
+		float z = normalizer * (0.0f * red) + (0.01f * green) + (0.99f * blue);
+
+		xyzToLab(x, y, z, whitePoint, lab, dest);
+	}
+
+	/**
+	 * Convert a single packed sRGB color to CIE {@link LAB} and write it to
+	 * the given position in the destination array, as
+	 * {@link #sRGBtoLAB(int[], int, float[], int, int, XYZIlluminant)} does
+	 * for each color.
+	 *
+	 */
+	static void srgbToLab(int color, XYZIlluminant whitePoint, float[] lab, int dest) {
+		final double red = ColorLookupTables.sRGBToLinear(red(color));
+		final double green = ColorLookupTables.sRGBToLinear(green(color));
+		final double blue = ColorLookupTables.sRGBToLinear(blue(color));
+
+		final double x = ColorLookupTables.labF(100 * (red * 0.4124 + green * 0.3576 + blue * 0.1805) / whitePoint.x2());
+		final double y = ColorLookupTables.labF(100 * (red * 0.2126 + green * 0.7152 + blue * 0.0722) / whitePoint.y2());
+		final double z = ColorLookupTables.labF(100 * (red * 0.0193 + green * 0.1192 + blue * 0.9505) / whitePoint.z2());
+
+		lab[dest] = (float) ((116.0 * y) - 16.0);
+		lab[dest + 1] = (float) (500.0 * (x - y));
+		lab[dest + 2] = (float) (200.0 * (y - z));
+	}
+
+	/**
+	 * Convert a single {@link XYZ} color to {@link LAB} and write it to the
+	 * given position in the destination array. The companding function is
+	 * read from {@link ColorLookupTables}.
+	 *
+	 */
+	private static void xyzToLab(float xyzX, float xyzY, float xyzZ, XYZIlluminant whitePoint, float[] lab, int dest) {
+		final double x = ColorLookupTables.labF(xyzX / whitePoint.x2());
+		final double y = ColorLookupTables.labF(xyzY / whitePoint.y2());
+		final double z = ColorLookupTables.labF(xyzZ / whitePoint.z2());
+
+		lab[dest] = (float) ((116.0 * y) - 16.0);
+		lab[dest + 1] = (float) (500.0 * (x - y));
+		lab[dest + 2] = (float) (200.0 * (y - z));
+	}
+
+	/**
+	 * Convert one {@link HSL} color, with the hue in degrees, to an opaque
+	 * packed color.
+	 *
+	 */
+	static int hslToRgb(float hue, float saturation, float luminosity) {
+		final float c = (1f - Math.abs(2 * luminosity - 1f)) * saturation;
+		final float m = luminosity - 0.5f * c;
+		final float x = c * (1f - Math.abs((hue / 60f % 2f) - 1f));
+		final int hueSegment = (int) hue / 60;
+		int red = 0, green = 0, blue = 0;
+
+		switch (hueSegment) {
+			case 0:
+				red = Math.round(255 * (c + m));
+				green = Math.round(255 * (x + m));
+				blue = Math.round(255 * m);
+				break;
+
+			case 1:
+				red = Math.round(255 * (x + m));
+				green = Math.round(255 * (c + m));
+				blue = Math.round(255 * m);
+				break;
+
+			case 2:
+				red = Math.round(255 * m);
+				green = Math.round(255 * (c + m));
+				blue = Math.round(255 * (x + m));
+				break;
+
+			case 3:
+				red = Math.round(255 * m);
+				green = Math.round(255 * (x + m));
+				blue = Math.round(255 * (c + m));
+				break;
+
+			case 4:
+				red = Math.round(255 * (x + m));
+				green = Math.round(255 * m);
+				blue = Math.round(255 * (c + m));
+				break;
+
+			case 5:
+			case 6:
+				red = Math.round(255 * (c + m));
+				green = Math.round(255 * m);
+				blue = Math.round(255 * (x + m));
+				break;
+		}
+
+		return pack(red, green, blue);
+	}
+
+	/**
+	 * Convert one {@link XYZ} color to an opaque packed color.
+	 *
+	 */
+	static int xyzToRgb(float x, float y, float z) {
+		float red = (0.41847f * x) - (0.15866f * y) - (0.082835f * z);
+		float green = (-0.091169f * x) + (0.25243f * y) + (0.015708f * z);
+		float blue = (0.0009209f * x) - (0.0025498f * y) + (0.17860f * z);
+
+		return pack((int) red, (int) green, (int) blue);
+	}
+
+	private static int red(int color) {
+		return (color >> 16) & 0xFF;
+	}
+
+	private static int green(int color) {
+		return (color >> 8) & 0xFF;
+	}
+
+	private static int blue(int color) {
+		return color & 0xFF;
+	}
+
+	/**
+	 * Pack the given channels as an opaque <code>0xAARRGGBB</code> value,
+	 * clamping each channel to <code>0-255</code>.
+	 *
+	 */
+	private static int pack(int red, int green, int blue) {
+		red = Math.max(0, Math.min(255, red));
+		green = Math.max(0, Math.min(255, green));
+		blue = Math.max(0, Math.min(255, blue));
+
+		return (0xFF << 24) | (red << 16) | (green << 8) | blue;
+	}
+
+	private static void checkRange(int[] array, int offset, int length) {
+		if(array == null) {
+			throw new IllegalArgumentException("Color array cannot be null");
+		}
+
+		checkRange(array.length, offset, length, 1);
+	}
+
+	private static void checkRange(float[] array, int offset, int length, int stride) {
+		if(array == null) {
+			throw new IllegalArgumentException("Color array cannot be null");
+		}
+
+		checkRange(array.length, offset, length, stride);
+	}
+
+	private static void checkRange(int arrayLength, int offset, int length, int stride) {
+		if(offset < 0 || length < 0 || ((long) offset) + ((long) length) * stride > arrayLength) {
+			throw new IllegalArgumentException("Offset " + offset + " and length " + length + " do not fit an array of " + arrayLength + " elements");
+		}
+	}
+
+}
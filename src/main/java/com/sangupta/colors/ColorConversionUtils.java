@@ -99,9 +99,9 @@ public class ColorConversionUtils {
 		
 		double delta = 255 * (1.0d - cmyk.black);
 
-		Double red = delta * (1.0d - cmyk.cyan);
-		Double green = delta * (1.0d - cmyk.magenta);
-		Double blue = delta * (1.0d - cmyk.yellow);
+		double red = delta * (1.0d - cmyk.cyan);
+		double green = delta * (1.0d - cmyk.magenta);
+		double blue = delta * (1.0d - cmyk.yellow);
 		
 		return new RGB(red, green, blue);
 	}
@@ -286,11 +286,11 @@ public class ColorConversionUtils {
 			throw new IllegalArgumentException("XYZ Color cannot be null");
 		}
 		
-		Float red = (0.41847f * xyzColor.x) - (0.15866f * xyzColor.y) - (0.082835f * xyzColor.z);
-		Float green = (-0.091169f * xyzColor.x) + (0.25243f * xyzColor.y) + (0.015708f * xyzColor.z);
-		Float blue = (0.0009209f * xyzColor.x) - (0.0025498f * xyzColor.y) + (0.17860f * xyzColor.z);
+		float red = (0.41847f * xyzColor.x) - (0.15866f * xyzColor.y) - (0.082835f * xyzColor.z);
+		float green = (-0.091169f * xyzColor.x) + (0.25243f * xyzColor.y) + (0.015708f * xyzColor.z);
+		float blue = (0.0009209f * xyzColor.x) - (0.0025498f * xyzColor.y) + (0.17860f * xyzColor.z);
 		
-		return new RGB(red.intValue(), green.intValue(), blue.intValue());
+		return new RGB((int) red, (int) green, (int) blue);
 	}
 	
 	/**
@@ -310,11 +310,11 @@ public class ColorConversionUtils {
 		}
 		
 		double y = (lab.l + 16.0) / 116.0;
-		double y3 = Math.pow(y, 3.0);
+		double y3 = y * y * y;
 		double x = (lab.a / 500.0) + y;
-		double x3 = Math.pow(x, 3.0);
+		double x3 = x * x * x;
 		double z = y - (lab.b / 200.0);
-		double z3 = Math.pow(z, 3.0);
+		double z3 = z * z * z;
 
 		if (y3 > 0.008856) {
 			y = y3;
@@ -332,15 +332,13 @@ public class ColorConversionUtils {
 			z = (z - (16.0 / 116.0)) / 7.787;
 		}
 
-		Double xx = x * illuminant.x2();
-		Double yy = y * illuminant.y2();
-		Double zz = z * illuminant.z2();
-
-		return new XYZ(xx.floatValue(), yy.floatValue(), zz.floatValue());
+		return new XYZ((float) (x * illuminant.x2()), (float) (y * illuminant.y2()), (float) (z * illuminant.z2()));
 	}
 	
 	/**
-	 * Convert from {@link XYZ} color to {@link LAB} color.
+	 * Convert from {@link XYZ} color to {@link LAB} color. The cube root is
+	 * read from the interpolated table in {@link ColorLookupTables}, within
+	 * {@link ColorLookupTables#LAB_F_MAX_ERROR} of the exact value.
 	 * 
 	 * @param xyz
 	 * @param whitePoint
@@ -355,31 +353,15 @@ public class ColorConversionUtils {
 			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
 		}
 		
-		double x = xyz.x / whitePoint.x2();
-		double y = xyz.y / whitePoint.y2();
-		double z = xyz.z / whitePoint.z2();
-
-		if (x > 0.008856) {
-			x = Math.pow(x, 1.0 / 3.0);
-		} else {
-			x = (7.787 * x) + (16.0 / 116.0);
-		}
-		if (y > 0.008856) {
-			y = Math.pow(y, 1.0 / 3.0);
-		} else {
-			y = (7.787 * y) + (16.0 / 116.0);
-		}
-		if (z > 0.008856) {
-			z = Math.pow(z, 1.0 / 3.0);
-		} else {
-			z = (7.787 * z) + (16.0 / 116.0);
-		}
+		double x = ColorLookupTables.labF(xyz.x / whitePoint.x2());
+		double y = ColorLookupTables.labF(xyz.y / whitePoint.y2());
+		double z = ColorLookupTables.labF(xyz.z / whitePoint.z2());
 
-		Double l = (116.0 * y) - 16.0;
-		Double a = 500.0 * (x - y);
-		Double b = 200.0 * (y - z);
+		double l = (116.0 * y) - 16.0;
+		double a = 500.0 * (x - y);
+		double b = 200.0 * (y - z);
 
-		return new LAB(l.floatValue(), a.floatValue(), b.floatValue());
+		return new LAB((float) l, (float) a, (float) b);
 	}
 
 	/**
@@ -473,7 +455,7 @@ public class ColorConversionUtils {
 			throw new IllegalArgumentException("XYZ Color cannot be null");
 		}
 		
-		float sy = new Double(Math.sqrt(xyz.y)).floatValue();
+		float sy = (float) Math.sqrt(xyz.y);
 		
 		float l = 10f * sy;
 		float a = 17.5f * (((1.02f * xyz.x) - xyz.y) / sy);
@@ -521,11 +503,11 @@ public class ColorConversionUtils {
 		double green = rgb.green / 255d;
 		double blue = rgb.blue / 255d;
 		
-		Double y = 0.299d * red + 0.587d * green + 0.114d * blue;
-		Double i = 0.596d * red - 0.274d * green - 0.322d * blue;
-		Double q = 0.211d * red - 0.523d * green + 0.312d * blue;
+		double y = 0.299d * red + 0.587d * green + 0.114d * blue;
+		double i = 0.596d * red - 0.274d * green - 0.322d * blue;
+		double q = 0.211d * red - 0.523d * green + 0.312d * blue;
 		
-		return new YIQ(y.floatValue(), i.floatValue(), q.floatValue());
+		return new YIQ((float) y, (float) i, (float) q);
 	}
 	
 	/**
@@ -541,9 +523,9 @@ public class ColorConversionUtils {
 			throw new IllegalArgumentException("YIQ Color cannot be null");
 		}
 		
-		Double red   = (1.0d * yiq.y + 0.956d * yiq.i + 0.621d * yiq.q) * 255d;
-		Double green = (1.0d * yiq.y - 0.272d * yiq.i - 0.647d * yiq.q) * 255d;
-		Double blue  = (1.0d * yiq.y - 1.106d * yiq.i + 1.703d * yiq.q) * 255d;
+		double red   = (1.0d * yiq.y + 0.956d * yiq.i + 0.621d * yiq.q) * 255d;
+		double green = (1.0d * yiq.y - 0.272d * yiq.i - 0.647d * yiq.q) * 255d;
+		double blue  = (1.0d * yiq.y - 1.106d * yiq.i + 1.703d * yiq.q) * 255d;
 	
 		return new RGB(red, green, blue);
 	}
@@ -564,7 +546,7 @@ public class ColorConversionUtils {
 			throw new IllegalArgumentException("YUVQuality cannot be null");
 		}
 
-		Double y, u, v;
+		double y, u, v;
 		
 		switch(quality) {
 			case SDTV:
@@ -585,7 +567,7 @@ public class ColorConversionUtils {
 				throw new IllegalStateException("Unknown YUVQuality");
 		}
 		
-		return new YUV(y.floatValue(), u.floatValue(), v.floatValue());
+		return new YUV((float) y, (float) u, (float) v);
 	}
 	
 	/**
@@ -605,7 +587,7 @@ public class ColorConversionUtils {
 			throw new IllegalArgumentException("YUVQuality cannot be null");
 		}
 
-		Double red, green, blue;
+		double red, green, blue;
 		
 		switch(quality) {
 			case SDTV:
@@ -626,7 +608,7 @@ public class ColorConversionUtils {
 				throw new IllegalStateException("Unknown YUVQuality");
 		}
 	
-		return new RGB(red.intValue(), green.intValue(), blue.intValue());
+		return new RGB((int) red, (int) green, (int) blue);
 	}
 	
 	/**
@@ -641,20 +623,20 @@ public class ColorConversionUtils {
 		}
 		
 		double sum = rgb.red + rgb.green + rgb.blue;
-		Double intensity = sum / 3.0d;
+		double intensity = sum / 3.0d;
 
 		double rn = rgb.red / sum;
 		double gn = rgb.green / sum;
 		double bn = rgb.blue / sum;
 
-		Double hue = Math.acos((0.5 * ((rn - gn) + (rn - bn))) / (Math.sqrt((rn - gn) * (rn - gn) + (rn - bn) * (gn - bn))));
+		double hue = Math.acos((0.5 * ((rn - gn) + (rn - bn))) / (Math.sqrt((rn - gn) * (rn - gn) + (rn - bn) * (gn - bn))));
 		if(rgb.blue > rgb.green) {
 			hue = 2 * Math.PI - hue;	
 		}
 
-		Double saturation = 1 - 3 * Math.min(rn, Math.min(gn, bn));
+		double saturation = 1 - 3 * Math.min(rn, Math.min(gn, bn));
 		
-		return new HSI(hue.floatValue(), saturation.floatValue(), intensity.floatValue());
+		return new HSI((float) hue, (float) saturation, (float) intensity);
 	}
 	
 	/**
@@ -670,30 +652,30 @@ public class ColorConversionUtils {
 			throw new IllegalArgumentException("HSI Color cannot be null");
 		}
 		
-		Double x = hsi.intensity * (1.0d - hsi.saturation);
+		double x = hsi.intensity * (1.0d - hsi.saturation);
 		final double piDivThree = Math.PI / 3.0d;
 		
 		if (hsi.hue < 2 * piDivThree) {
-			Double y = hsi.intensity * (1 + (hsi.saturation * Math.cos(hsi.hue)) / (Math.cos(Math.PI / 3 - hsi.hue)));
-			Double z = 3 * hsi.intensity - (x + y);
+			double y = hsi.intensity * (1 + (hsi.saturation * Math.cos(hsi.hue)) / (Math.cos(Math.PI / 3 - hsi.hue)));
+			double z = 3 * hsi.intensity - (x + y);
 			
 			// *b = x; *r = y; *g = z;
-			return new RGB(y.intValue(), z.intValue(), x.intValue());
+			return new RGB((int) y, (int) z, (int) x);
 		}
 
 		if (hsi.hue < 4 * piDivThree) {
-			Double y = hsi.intensity * (1 + (hsi.saturation * Math.cos(hsi.hue - 2 * piDivThree)) / (Math.cos(piDivThree - (hsi.hue - 2 * piDivThree))));
-			Double z = 3 * hsi.intensity - (x + y);
+			double y = hsi.intensity * (1 + (hsi.saturation * Math.cos(hsi.hue - 2 * piDivThree)) / (Math.cos(piDivThree - (hsi.hue - 2 * piDivThree))));
+			double z = 3 * hsi.intensity - (x + y);
 			
 			// *r = x; *g = y; *b = z;
-			return new RGB(x.intValue(), y.intValue(), z.intValue());
+			return new RGB((int) x, (int) y, (int) z);
 		}
 
-		Double y = hsi.intensity * (1 + (hsi.saturation * Math.cos(hsi.hue - 4 * piDivThree)) / (Math.cos(piDivThree - (hsi.hue - 4 * piDivThree))));
-		Double z = 3 * hsi.intensity - (x + y);
+		double y = hsi.intensity * (1 + (hsi.saturation * Math.cos(hsi.hue - 4 * piDivThree)) / (Math.cos(piDivThree - (hsi.hue - 4 * piDivThree))));
+		double z = 3 * hsi.intensity - (x + y);
 		
 		// *r = z; *g = x; *b = y;
-		return new RGB(z.intValue(), x.intValue(), y.intValue());
+		return new RGB((int) z, (int) x, (int) y);
 	}
 
 	/**
@@ -707,14 +689,14 @@ public class ColorConversionUtils {
 			throw new IllegalArgumentException("LAB Color cannot be null");
 		}
 		
-		Double hr = Math.atan2(lab.b, lab.a);
-		Double h = hr * 360 / 2 / Math.PI;
+		double hr = Math.atan2(lab.b, lab.a);
+		double h = hr * 360 / 2 / Math.PI;
 		if(h < 0) {
 			h = h + 360;
 		}
-		Double c = Math.sqrt(lab.a * lab.a + lab.b * lab.b);
+		double c = Math.sqrt(lab.a * lab.a + lab.b * lab.b);
 		
-		return new LCH(lab.l, c.floatValue(), h.floatValue());
+		return new LCH(lab.l, (float) c, (float) h);
 	}
 	
 	/**
@@ -728,11 +710,11 @@ public class ColorConversionUtils {
 			throw new IllegalArgumentException("LCH Color cannot be null");
 		}
 		
-		Double hr = lch.hue / 360 * 2 * Math.PI;
-		Double a = lch.chroma * Math.cos(hr);
-		Double b = lch.chroma * Math.sin(hr);
+		double hr = lch.hue / 360 * 2 * Math.PI;
+		double a = lch.chroma * Math.cos(hr);
+		double b = lch.chroma * Math.sin(hr);
 		
-		return new LAB(lch.lightness, a.floatValue(), b.floatValue());
+		return new LAB(lch.lightness, (float) a, (float) b);
 	}
 	
 	/**
@@ -764,11 +746,11 @@ public class ColorConversionUtils {
 		double ref_U = (4 * refX) / (refX + (15 * refY) + (3 * refZ));
 		double ref_V = (9 * refY) / (refX + (15 * refY) + (3 * refZ));
 
-		Double l = (116 * varY) - 16;
-		Double u = 13 * l * (varU - ref_U);
-		Double v = 13 * l * (varV - ref_V);
+		double l = (116 * varY) - 16;
+		double u = 13 * l * (varU - ref_U);
+		double v = 13 * l * (varV - ref_V);
 
-		return new LUV(l.floatValue(), u.floatValue(), v.floatValue());
+		return new LUV((float) l, (float) u, (float) v);
 	}
 	
 	/**
@@ -807,11 +789,11 @@ public class ColorConversionUtils {
 		double varU = luv.u / (13 * luv.l) + refU;
 		double varV = luv.v / (13 * luv.l) + refV;
 
-		Double Y = varY * 100;
-		Double X = -(9 * Y * varU) / ((varU - 4) * varV - varU * varV);
-		Double Z = (9 * Y - (15 * varV * Y) - (varV * X)) / (3 * varV);
+		double Y = varY * 100;
+		double X = -(9 * Y * varU) / ((varU - 4) * varV - varU * varV);
+		double Z = (9 * Y - (15 * varV * Y) - (varV * X)) / (3 * varV);
 
-		return new XYZ(X.floatValue(), Y.floatValue(), Z.floatValue(), illuminant);
+		return new XYZ((float) X, (float) Y, (float) Z, illuminant);
 	}
 	
 }
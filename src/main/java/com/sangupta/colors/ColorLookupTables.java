@@ -0,0 +1,150 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+/**
+ * Precomputed lookup tables that replace <code>Math.pow</code> in the hot
+ * paths of color conversion. Each table is built lazily, the first time it
+ * is used.
+ *
+ * <ul>
+ * <li><b>sRGB linearization</b> - the gamma expansion of an 8-bit sRGB channel.
+ * There are only 256 distinct inputs, so the table holds the exact values.</li>
+ * <li><b>LAB <code>f(t)</code></b> - the cube root used when converting
+ * {@link com.sangupta.colors.model.XYZ} to {@link com.sangupta.colors.model.LAB}.
+ * Values of <code>t</code> in <code>[0, 1]</code> are linearly interpolated
+ * over {@value #LAB_F_TABLE_SIZE} intervals. Larger values are first scaled
+ * down by powers of 8, which is exact, as
+ * <code>cbrt(8 * t) = 2 * cbrt(t)</code>.</li>
+ * </ul>
+ *
+ * The interpolation error of <code>f(t)</code> is largest just above the
+ * linear segment at <code>t = 0.008856</code> where the curvature of the cube
+ * root peaks. It is bounded by <code>h<sup>2</sup> / 8 * max|f''|</code>,
+ * which gives {@link #LAB_F_MAX_ERROR} for the table size used. In LAB terms
+ * that is at most <code>1.3e-4</code> in <code>L*</code>, <code>1.1e-3</code>
+ * in <code>a*</code> and <code>4.4e-4</code> in <code>b*</code> - well below
+ * a just noticeable difference of about <code>1.0</code>.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class ColorLookupTables {
+
+	/**
+	 * Number of intervals in the interpolated <code>f(t)</code> table
+	 */
+	public static final int LAB_F_TABLE_SIZE = 8192;
+
+	/**
+	 * Upper bound of the absolute error of {@link #labF(double)} against the
+	 * exact <code>f(t)</code>
+	 */
+	public static final double LAB_F_MAX_ERROR = 1.1e-6;
+
+	/**
+	 * Values above this are not range reduced and use {@link Math#cbrt(double)}
+	 */
+	private static final double LAB_F_MAX_REDUCED = 4096d;
+
+	private ColorLookupTables() {
+		// not to be instantiated
+	}
+
+	/**
+	 * Return the linear value of an 8-bit sRGB channel, that is the gamma
+	 * expanded value between <code>0</code> and <code>1</code>.
+	 *
+	 * @param channel
+	 *            the channel value between <code>0-255</code>
+	 *
+	 * @return the linear value
+	 */
+	public static double sRGBToLinear(int channel) {
+		return LinearHolder.TABLE[channel];
+	}
+
+	/**
+	 * Compute the LAB companding function <code>f(t)</code> using the
+	 * interpolated table. The result is within {@link #LAB_F_MAX_ERROR} of
+	 * the exact value.
+	 *
+	 * @param t
+	 *            the XYZ component relative to the reference white
+	 *
+	 * @return the companded value
+	 */
+	public static double labF(double t) {
+		if (t <= 0.008856) {
+			return (7.787 * t) + (16.0 / 116.0);
+		}
+
+		if (t > LAB_F_MAX_REDUCED) {
+			return Math.cbrt(t);
+		}
+
+		double scale = 1d;
+		while (t > 1d) {
+			t = t * 0.125d;
+			scale = scale * 2d;
+		}
+
+		final double[] table = LabFHolder.TABLE;
+		final double position = t * LAB_F_TABLE_SIZE;
+		final int index = (int) position;
+		if (index >= LAB_F_TABLE_SIZE) {
+			return scale * table[LAB_F_TABLE_SIZE];
+		}
+
+		final double lower = table[index];
+		return scale * (lower + (table[index + 1] - lower) * (position - index));
+	}
+
+	/**
+	 * Holder for the sRGB linearization table - built on first access.
+	 */
+	private static class LinearHolder {
+
+		static final double[] TABLE = new double[256];
+
+		static {
+			for (int channel = 0; channel < TABLE.length; channel++) {
+				double value = channel / 255.0;
+				TABLE[channel] = value < 0.04045 ? value / 12.92 : Math.pow((value + 0.055) / 1.055, 2.4);
+			}
+		}
+
+	}
+
+	/**
+	 * Holder for the <code>f(t)</code> table - built on first access.
+	 */
+	private static class LabFHolder {
+
+		static final double[] TABLE = new double[LAB_F_TABLE_SIZE + 1];
+
+		static {
+			for (int index = 0; index < TABLE.length; index++) {
+				TABLE[index] = Math.cbrt(index / (double) LAB_F_TABLE_SIZE);
+			}
+		}
+
+	}
+}
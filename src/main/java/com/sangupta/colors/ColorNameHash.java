@@ -0,0 +1,419 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A minimal perfect hash of color names to packed <code>0xAARRGGBB</code>
+ * colors. Names are matched ignoring the case of ASCII letters, straight from
+ * any part of a {@link CharSequence}, without lowercasing or allocating, and
+ * colors are returned as primitive <code>int</code>s.
+ *
+ * <br><br>
+ *
+ * The table is built with the hash and displace scheme: names are hashed into
+ * buckets, and each bucket stores the seed of a second hash that sends all of
+ * its names to free slots, or the slot itself for buckets with a single name.
+ * Every name gets a slot of its own, so a lookup costs two hashes of the name
+ * and a single comparison. Building is deterministic for a given iteration
+ * order of the names, so a table built in a static initializer has the same
+ * layout on every run.
+ *
+ * <br><br>
+ *
+ * Colors can also be looked up in reverse. When several names share a color
+ * the name that came first is returned. Instances are immutable and safe to
+ * share between threads.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class ColorNameHash {
+
+	/**
+	 * Returned by {@link #indexOf(CharSequence)} for unknown names
+	 */
+	public static final int NOT_FOUND = -1;
+
+	/**
+	 * Most seeds tried for a single bucket before giving up
+	 */
+	private static final int MAX_SEED = 1 << 24;
+
+	/**
+	 * The names, lowercase, by slot
+	 */
+	private final String[] names;
+
+	/**
+	 * The colors by slot
+	 */
+	private final int[] colors;
+
+	/**
+	 * The second hash seed of each bucket, or <code>-(slot + 1)</code> for
+	 * buckets with a single name
+	 */
+	private final int[] seeds;
+
+	/**
+	 * Open addressing table of colors to the slot of their first name plus
+	 * one, or <code>0</code> for empty entries
+	 */
+	private final int[] reverse;
+
+	/**
+	 * Build the table of the given names and colors.
+	 *
+	 * @param colors
+	 *            the colors by name, in the order that decides which name a
+	 *            color is looked up to
+	 *
+	 * @throws IllegalArgumentException
+	 *             if there are no names, or a name is empty or repeated
+	 *             ignoring case
+	 */
+	public ColorNameHash(Map<String, Integer> colors) {
+		if(colors == null || colors.isEmpty()) {
+			throw new IllegalArgumentException("Color names cannot be null/empty");
+		}
+
+		final int size = colors.size();
+		final String[] keys = new String[size];
+		final int[] values = new int[size];
+
+		int count = 0;
+		for(Entry<String, Integer> entry : colors.entrySet()) {
+			if(entry.getKey() == null || entry.getKey().isEmpty() || entry.getValue() == null) {
+				throw new IllegalArgumentException("Color name and value cannot be null/empty");
+			}
+
+			keys[count] = toLowerCase(entry.getKey());
+			values[count] = entry.getValue();
+			count++;
+		}
+
+		this.seeds = new int[Math.max(1, size / 2)];
+		this.names = new String[size];
+		this.colors = new int[size];
+
+		final int[] slots = this.place(keys);
+		for(int key = 0; key < size; key++) {
+			this.names[slots[key]] = keys[key];
+			this.colors[slots[key]] = values[key];
+		}
+
+		this.reverse = new int[Integer.highestOneBit(size) << 2];
+		for(int key = 0; key < size; key++) {
+			int entry = mix(values[key]) & (this.reverse.length - 1);
+			while(this.reverse[entry] != 0 && this.colors[this.reverse[entry] - 1] != values[key]) {
+				entry = (entry + 1) & (this.reverse.length - 1);
+			}
+
+			if(this.reverse[entry] == 0) {
+				this.reverse[entry] = slots[key] + 1;
+			}
+		}
+	}
+
+	/**
+	 * Assign a slot to every name and fill in the bucket seeds.
+	 *
+	 * @return the slot of each name
+	 */
+	private int[] place(String[] keys) {
+		final int size = keys.length;
+		final int buckets = this.seeds.length;
+
+		// the names of each bucket, bucket after bucket
+		final int[] bucketOf = new int[size];
+		final int[] starts = new int[buckets + 1];
+		for(int key = 0; key < size; key++) {
+			bucketOf[key] = hash(0, keys[key], 0, keys[key].length()) % buckets;
+			starts[bucketOf[key] + 1]++;
+		}
+
+		for(int bucket = 0; bucket < buckets; bucket++) {
+			starts[bucket + 1] += starts[bucket];
+		}
+
+		final int[] members = new int[size];
+		final int[] filled = Arrays.copyOf(starts, buckets);
+		for(int key = 0; key < size; key++) {
+			members[filled[bucketOf[key]]++] = key;
+		}
+
+		int largest = 0;
+		for(int bucket = 0; bucket < buckets; bucket++) {
+			largest = Math.max(largest, starts[bucket + 1] - starts[bucket]);
+		}
+
+		final int[] slots = new int[size];
+		final boolean[] used = new boolean[size];
+
+		// the largest buckets are the hardest to place, so they go first
+		for(int bucketSize = largest; bucketSize > 1; bucketSize--) {
+			for(int bucket = 0; bucket < buckets; bucket++) {
+				final int from = starts[bucket];
+				final int to = starts[bucket + 1];
+				if(to - from != bucketSize) {
+					continue;
+				}
+
+				checkDistinct(keys, members, from, to);
+
+				int seed = 1;
+				while(!tryPlace(keys, members, from, to, seed, used, slots)) {
+					if(++seed == MAX_SEED) {
+						throw new IllegalStateException("Unable to find a hash seed for the color names");
+					}
+				}
+
+				this.seeds[bucket] = seed;
+			}
+		}
+
+		// single names take the free slots in turn
+		int free = 0;
+		for(int bucket = 0; bucket < buckets; bucket++) {
+			if(starts[bucket + 1] - starts[bucket] != 1) {
+				continue;
+			}
+
+			while(used[free]) {
+				free++;
+			}
+
+			used[free] = true;
+			slots[members[starts[bucket]]] = free;
+			this.seeds[bucket] = -(free + 1);
+		}
+
+		return slots;
+	}
+
+	/**
+	 * Names that are equal ignoring case always share a bucket, so checking
+	 * within buckets finds all repeated names.
+	 */
+	private static void checkDistinct(String[] keys, int[] members, int from, int to) {
+		for(int member = from; member < to; member++) {
+			for(int other = member + 1; other < to; other++) {
+				if(keys[members[member]].equals(keys[members[other]])) {
+					throw new IllegalArgumentException("Color name is repeated: " + keys[members[member]]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Place all names of a bucket with the given seed, if they all land on
+	 * distinct free slots.
+	 */
+	private static boolean tryPlace(String[] keys, int[] members, int from, int to, int seed, boolean[] used, int[] slots) {
+		for(int member = from; member < to; member++) {
+			final String key = keys[members[member]];
+			final int slot = hash(seed, key, 0, key.length()) % used.length;
+			if(used[slot]) {
+				for(int placed = from; placed < member; placed++) {
+					used[slots[members[placed]]] = false;
+				}
+
+				return false;
+			}
+
+			used[slot] = true;
+			slots[members[member]] = slot;
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the number of names
+	 */
+	public int size() {
+		return this.names.length;
+	}
+
+	/**
+	 * Find the position of a name.
+	 *
+	 * @param name
+	 *            the name, in any case
+	 *
+	 * @return the position, or {@link #NOT_FOUND}
+	 */
+	public int indexOf(CharSequence name) {
+		if(name == null) {
+			return NOT_FOUND;
+		}
+
+		return this.indexOf(name, 0, name.length());
+	}
+
+	/**
+	 * Find the position of a name held in a part of the given text.
+	 *
+	 * @param text
+	 *            the text to read from
+	 *
+	 * @param offset
+	 *            index of the first character of the name
+	 *
+	 * @param length
+	 *            number of characters of the name
+	 *
+	 * @return the position, or {@link #NOT_FOUND}
+	 */
+	public int indexOf(CharSequence text, int offset, int length) {
+		if(text == null) {
+			throw new IllegalArgumentException("Text cannot be null");
+		}
+
+		if(offset < 0 || length < 0 || offset + length > text.length()) {
+			throw new IllegalArgumentException("Offset and length do not fit the text");
+		}
+
+		final int seed = this.seeds[hash(0, text, offset, length) % this.seeds.length];
+		final int slot = seed < 0 ? -seed - 1 : hash(seed, text, offset, length) % this.names.length;
+
+		final String name = this.names[slot];
+		if(name.length() != length) {
+			return NOT_FOUND;
+		}
+
+		for(int index = 0; index < length; index++) {
+			if(toLowerCase(text.charAt(offset + index)) != name.charAt(index)) {
+				return NOT_FOUND;
+			}
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Look up the color of a name.
+	 *
+	 * @param name
+	 *            the name, in any case
+	 *
+	 * @param unknown
+	 *            the value to return for unknown names
+	 *
+	 * @return the packed color, or <code>unknown</code>
+	 */
+	public int get(CharSequence name, int unknown) {
+		final int index = this.indexOf(name);
+		return index == NOT_FOUND ? unknown : this.colors[index];
+	}
+
+	/**
+	 * Look up the name of a color.
+	 *
+	 * @param color
+	 *            the packed color
+	 *
+	 * @return the lowercase name, or <code>null</code> if no name has this
+	 *         color
+	 */
+	public String nameOf(int color) {
+		int entry = mix(color) & (this.reverse.length - 1);
+		while(this.reverse[entry] != 0) {
+			final int slot = this.reverse[entry] - 1;
+			if(this.colors[slot] == color) {
+				return this.names[slot];
+			}
+
+			entry = (entry + 1) & (this.reverse.length - 1);
+		}
+
+		return null;
+	}
+
+	/**
+	 * @param index
+	 *            the position of the name
+	 *
+	 * @return the lowercase name
+	 */
+	public String getName(int index) {
+		return this.names[index];
+	}
+
+	/**
+	 * @param index
+	 *            the position of the name
+	 *
+	 * @return the packed color
+	 */
+	public int getColor(int index) {
+		return this.colors[index];
+	}
+
+	/**
+	 * Hash a name with the given seed, ignoring the case of ASCII letters.
+	 *
+	 * @return a non-negative hash
+	 */
+	private static int hash(int seed, CharSequence text, int offset, int length) {
+		int hash = 0x811C9DC5 ^ seed * 0x9E3779B9;
+		for(int index = offset; index < offset + length; index++) {
+			hash = (hash ^ toLowerCase(text.charAt(index))) * 0x01000193;
+		}
+
+		return mix(hash) & 0x7FFFFFFF;
+	}
+
+	/**
+	 * Spread the bits of a hash or color.
+	 */
+	private static int mix(int hash) {
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		hash *= 0xC2B2AE35;
+		return hash ^ (hash >>> 16);
+	}
+
+	private static char toLowerCase(char c) {
+		return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+	}
+
+	private static String toLowerCase(String name) {
+		for(int index = 0; index < name.length(); index++) {
+			final char c = name.charAt(index);
+			if(c >= 'A' && c <= 'Z') {
+				final char[] chars = name.toCharArray();
+				for(int letter = index; letter < chars.length; letter++) {
+					chars[letter] = toLowerCase(chars[letter]);
+				}
+
+				return new String(chars);
+			}
+		}
+
+		return name;
+	}
+
+}
@@ -35,8 +35,7 @@ public class ColorUtils {
 	 * @return
 	 */
 	public static int asInt(double value) {
-		Long longValue = Math.round(value);
-		return longValue.intValue();
+		return (int) Math.round(value);
 	}
 
 	public static double minimum(double value, double... values) {
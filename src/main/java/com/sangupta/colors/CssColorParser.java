@@ -0,0 +1,1219 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.sangupta.colors.model.HSL;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.LCH;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.RGBA;
+
+/**
+ * Parses colors written in CSS Color Level 4 syntax, and extracts all colors
+ * from a stylesheet in a single pass.
+ *
+ * <br><br>
+ *
+ * The following notations are recognized, case-insensitively:
+ *
+ * <ul>
+ * <li>hex colors, see {@link HexColorParser} - as {@link RGB}, or
+ * {@link RGBA} when they carry an alpha channel</li>
+ * <li>the names of {@link CSS3Colors} such as <code>aliceblue</code>, and
+ * <code>transparent</code> - as the shared {@link RGB} constants and
+ * {@link #TRANSPARENT}</li>
+ * <li><code>rgb()</code> and <code>rgba()</code> - as {@link RGB}, or
+ * {@link RGBA} when an alpha is given</li>
+ * <li><code>hsl()</code> and <code>hsla()</code> - as {@link HSL}</li>
+ * <li><code>hwb()</code> - as {@link RGB}, or {@link RGBA} when an alpha is
+ * given</li>
+ * <li><code>lab()</code> - as {@link LAB}</li>
+ * <li><code>lch()</code> - as {@link LCH}</li>
+ * </ul>
+ *
+ * Functions accept both the legacy comma separated and the modern space
+ * separated syntax where CSS does, numbers, percentages, angle units and the
+ * <code>none</code> keyword. Out of range values are clamped as CSS does.
+ * {@link HSL}, {@link LAB} and {@link LCH} have no alpha channel, so the
+ * alpha of every color is also reported separately to the
+ * {@link ColorHandler}.
+ *
+ * <br><br>
+ *
+ * Input is read one character at a time by a small state machine, without
+ * regular expressions and without creating strings, so that a
+ * {@link Reader} can be scanned incrementally in fixed size chunks. Color
+ * names are matched with a {@link ColorNameHash}. While extracting, colors are only taken from
+ * declaration values - the text following a <code>:</code> up to the next
+ * <code>;</code> or <code>}</code> - outside of comments, strings and
+ * <code>url()</code>. The colors of a value are held back until it ends, and
+ * dropped if a <code>{</code> shows it to be a selector with a pseudo-class,
+ * so that selectors such as <code>#fff</code>, <code>.red</code> or
+ * <code>a:hover #fff</code> are not mistaken for colors.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class CssColorParser {
+
+	/**
+	 * Receives the colors found by
+	 * {@link CssColorParser#extract(CharSequence, ColorHandler)}.
+	 */
+	public interface ColorHandler {
+
+		/**
+		 * Called for each color, in the order of the text.
+		 *
+		 * @param color
+		 *            the color
+		 *
+		 * @param alpha
+		 *            the alpha of the color, between <code>0</code> and
+		 *            <code>1</code>
+		 *
+		 * @param start
+		 *            index of the first character of the color
+		 *
+		 * @param end
+		 *            index after the last character of the color
+		 */
+		void onColor(ColorModel color, float alpha, long start, long end);
+
+	}
+
+	/**
+	 * The <code>transparent</code> keyword
+	 */
+	public static final RGBA TRANSPARENT = new RGBA(0, 0, 0, 0);
+
+	/**
+	 * Number of characters read from a {@link Reader} at a time
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Longest function argument list that is parsed
+	 */
+	private static final int MAX_ARGUMENTS = 256;
+
+	/**
+	 * The hash of color names
+	 */
+	private static final ColorNameHash NAMES;
+
+	/**
+	 * The color of each name, by its position in {@link #NAMES}
+	 */
+	private static final RGB[] NAMED_COLORS;
+
+	static {
+		final Map<String, RGB> names = names();
+
+		final Map<String, Integer> values = new LinkedHashMap<>();
+		for(Entry<String, RGB> entry : names.entrySet()) {
+			values.put(entry.getKey(), entry.getValue().value());
+		}
+
+		NAMES = new ColorNameHash(values);
+		NAMED_COLORS = new RGB[NAMES.size()];
+		for(Entry<String, RGB> entry : names.entrySet()) {
+			NAMED_COLORS[NAMES.indexOf(entry.getKey())] = entry.getValue();
+		}
+	}
+
+	private CssColorParser() {
+		// not to be instantiated
+	}
+
+	/**
+	 * Parse a single color value, such as <code>#ff6347</code>,
+	 * <code>tomato</code> or <code>rgb(255 99 71 / 50%)</code>. Surrounding
+	 * whitespace is ignored.
+	 *
+	 * @param text
+	 *            the color value
+	 *
+	 * @return the color model
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the text is not a single supported color
+	 */
+	public static ColorModel parse(CharSequence text) {
+		if(text == null) {
+			throw new IllegalArgumentException("Color cannot be null");
+		}
+
+		int start = 0;
+		int end = text.length();
+		while(start < end && isWhitespace(text.charAt(start))) {
+			start++;
+		}
+
+		while(end > start && isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+
+		final Capture capture = new Capture();
+		final Scanner scanner = new Scanner(capture);
+		scanner.value = true;
+		for(int index = start; index < end; index++) {
+			scanner.accept(text.charAt(index));
+		}
+		scanner.accept(-1);
+
+		if(capture.count != 1 || capture.start != 0 || capture.end != end - start) {
+			throw new IllegalArgumentException("Not a supported CSS color: " + text);
+		}
+
+		return capture.color;
+	}
+
+	/**
+	 * Find all colors in the declaration values of a stylesheet.
+	 *
+	 * @param text
+	 *            the stylesheet
+	 *
+	 * @param handler
+	 *            the {@link ColorHandler} to report the colors to
+	 */
+	public static void extract(CharSequence text, ColorHandler handler) {
+		if(text == null) {
+			throw new IllegalArgumentException("Text cannot be null");
+		}
+
+		final Scanner scanner = new Scanner(checkHandler(handler));
+		final int length = text.length();
+		for(int index = 0; index < length; index++) {
+			scanner.accept(text.charAt(index));
+		}
+		scanner.accept(-1);
+	}
+
+	/**
+	 * Find all colors in the declaration values of a stylesheet, reading it
+	 * in chunks. The reader is not closed.
+	 *
+	 * @param reader
+	 *            the stylesheet
+	 *
+	 * @param handler
+	 *            the {@link ColorHandler} to report the colors to
+	 *
+	 * @throws IOException
+	 *             if the reader fails
+	 */
+	public static void extract(Reader reader, ColorHandler handler) throws IOException {
+		if(reader == null) {
+			throw new IllegalArgumentException("Reader cannot be null");
+		}
+
+		final Scanner scanner = new Scanner(checkHandler(handler));
+		final char[] buffer = new char[BUFFER_SIZE];
+
+		int read;
+		while((read = reader.read(buffer)) != -1) {
+			for(int index = 0; index < read; index++) {
+				scanner.accept(buffer[index]);
+			}
+		}
+		scanner.accept(-1);
+	}
+
+	/**
+	 * The color keywords: the names of {@link CSS3Colors} and
+	 * <code>transparent</code>
+	 */
+	private static Map<String, RGB> names() {
+		final Map<String, RGB> names = NamedColorIndex.keywords();
+		names.put("transparent", TRANSPARENT);
+		return names;
+	}
+
+	private static ColorHandler checkHandler(ColorHandler handler) {
+		if(handler == null) {
+			throw new IllegalArgumentException("Color handler cannot be null");
+		}
+
+		return handler;
+	}
+
+	private static boolean isWhitespace(int c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+	}
+
+	private static boolean isDigit(int c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isNameStart(int c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '-' || c >= 0x80;
+	}
+
+	private static boolean isNameChar(int c) {
+		return isNameStart(c) || isDigit(c);
+	}
+
+	private static int toLowerCase(int c) {
+		return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+	}
+
+	/**
+	 * The tokenizer. Characters are fed one at a time, and <code>-1</code>
+	 * marks the end of the input.
+	 */
+	private static final class Scanner {
+
+		private static final int DEFAULT = 0;
+
+		private static final int COMMENT = 1;
+
+		private static final int STRING = 2;
+
+		private static final int NAME = 3;
+
+		private static final int HASH = 4;
+
+		private static final int NUMBER = 5;
+
+		private static final int FUNCTION = 6;
+
+		private static final int SKIP = 7;
+
+		private final ColorHandler handler;
+
+		private final Arguments arguments = new Arguments();
+
+		/**
+		 * The characters of the current name, hash or function arguments
+		 */
+		private final char[] token = new char[MAX_ARGUMENTS];
+
+		private final CharBuffer tokenView = CharBuffer.wrap(this.token);
+
+		private int length;
+
+		private boolean overflow;
+
+		private int state = DEFAULT;
+
+		/**
+		 * Index of the current character
+		 */
+		private long position;
+
+		/**
+		 * Index of the first character of the current token
+		 */
+		private long start;
+
+		/**
+		 * Whether a declaration value is being read
+		 */
+		boolean value;
+
+		/**
+		 * The character before the current name
+		 */
+		private int prefix;
+
+		/**
+		 * The last character read in the default state
+		 */
+		private int previous;
+
+		/**
+		 * A <code>/</code> that may start a comment
+		 */
+		private boolean slash;
+
+		/**
+		 * A <code>*</code> that may end a comment, or a backslash escaping the
+		 * next character of a string
+		 */
+		private boolean pending;
+
+		private int quote;
+
+		/**
+		 * Number of open parentheses while skipping
+		 */
+		private int depth;
+
+		private int function;
+
+		/**
+		 * The colors of the current value, reported when the value ends
+		 */
+		private ColorModel[] colors = new ColorModel[4];
+
+		private float[] alphas = new float[4];
+
+		private long[] starts = new long[4];
+
+		private long[] ends = new long[4];
+
+		/**
+		 * Number of colors held for the current value
+		 */
+		private int held;
+
+		Scanner(ColorHandler handler) {
+			this.handler = handler;
+		}
+
+		void accept(int c) {
+			this.step(c);
+
+			if(c == -1) {
+				this.endValue(true);
+			}
+		}
+
+		private void step(int c) {
+			switch(this.state) {
+				case COMMENT:
+					if(this.pending && c == '/') {
+						this.state = DEFAULT;
+					}
+					this.pending = c == '*';
+					this.position++;
+					return;
+
+				case STRING:
+					if(this.pending) {
+						this.pending = false;
+					} else if(c == '\\') {
+						this.pending = true;
+					} else if(c == this.quote || c == '\n') {
+						this.state = DEFAULT;
+					}
+					this.position++;
+					return;
+
+				case SKIP:
+					if(c == '(') {
+						this.depth++;
+					} else if(c == ')' && --this.depth == 0) {
+						this.state = DEFAULT;
+					}
+					this.position++;
+					return;
+
+				case NAME:
+					if(isNameChar(c)) {
+						this.append(c);
+						this.position++;
+						return;
+					}
+
+					this.endName(c);
+					if(this.state != DEFAULT) {
+						this.position++;
+						return;
+					}
+					break;
+
+				case HASH:
+					if(isNameChar(c)) {
+						this.append(c);
+						this.position++;
+						return;
+					}
+
+					this.endHash();
+					this.state = DEFAULT;
+					break;
+
+				case NUMBER:
+					if(isNameChar(c) || c == '.' || c == '%') {
+						this.position++;
+						return;
+					}
+
+					this.state = DEFAULT;
+					break;
+
+				case FUNCTION:
+					if(c == ')') {
+						this.endFunction();
+						this.state = DEFAULT;
+						this.position++;
+						return;
+					}
+
+					if(c == '(' || this.length == this.token.length) {
+						// nested functions such as var() cannot be resolved
+						this.state = SKIP;
+						this.depth = c == '(' ? 2 : 1;
+						this.position++;
+						return;
+					}
+
+					if(c != ';' && c != '{' && c != '}' && c != -1) {
+						this.token[this.length++] = (char) c;
+						this.position++;
+						return;
+					}
+
+					// an unterminated function
+					this.state = DEFAULT;
+					break;
+
+				default:
+					break;
+			}
+
+			this.acceptDefault(c);
+			this.position++;
+		}
+
+		private void acceptDefault(int c) {
+			if(this.slash) {
+				this.slash = false;
+				if(c == '*') {
+					this.state = COMMENT;
+					this.pending = false;
+					return;
+				}
+			}
+
+			switch(c) {
+				case -1:
+					return;
+
+				case '/':
+					this.slash = true;
+					break;
+
+				case '"':
+				case '\'':
+					this.state = STRING;
+					this.quote = c;
+					this.pending = false;
+					break;
+
+				case ':':
+					this.value = true;
+					break;
+
+				case ';':
+				case '}':
+					this.endValue(true);
+					break;
+
+				case '{':
+					// the value was a selector such as a:hover
+					this.endValue(false);
+					break;
+
+				case '#':
+					this.state = HASH;
+					this.start = this.position;
+					this.length = 0;
+					this.overflow = false;
+					break;
+
+				default:
+					if(isDigit(c)) {
+						this.state = NUMBER;
+					} else if(isNameStart(c)) {
+						this.state = NAME;
+						this.start = this.position;
+						this.prefix = this.previous;
+						this.length = 0;
+						this.overflow = false;
+						this.append(c);
+					}
+					break;
+			}
+
+			this.previous = c;
+		}
+
+		private void append(int c) {
+			if(this.length < this.token.length) {
+				this.token[this.length++] = (char) c;
+			} else {
+				this.overflow = true;
+			}
+		}
+
+		private void endName(int c) {
+			this.state = DEFAULT;
+			if(this.overflow) {
+				return;
+			}
+
+			if(c == '(') {
+				this.function = Arguments.function(this.token, this.length);
+				if(this.function >= 0) {
+					this.state = FUNCTION;
+					this.length = 0;
+				} else if(this.length == 3 && toLowerCase(this.token[0]) == 'u' && toLowerCase(this.token[1]) == 'r' && toLowerCase(this.token[2]) == 'l') {
+					this.state = SKIP;
+					this.depth = 1;
+				}
+				return;
+			}
+
+			if(!this.value || this.prefix == '.' || this.prefix == '@') {
+				return;
+			}
+
+			final int index = NAMES.indexOf(this.tokenView, 0, this.length);
+			if(index != ColorNameHash.NOT_FOUND) {
+				final RGB color = NAMED_COLORS[index];
+				this.hold(color, color == TRANSPARENT ? 0f : 1f, this.start, this.position);
+			}
+		}
+
+		private void endHash() {
+			if(!this.value || this.overflow) {
+				return;
+			}
+
+			final long color = HexColorParser.tryParse(this.tokenView, 0, this.length);
+			if(color == HexColorParser.INVALID) {
+				return;
+			}
+
+			if(this.length == 3 || this.length == 6) {
+				this.hold(new RGB((int) color), 1f, this.start, this.position);
+				return;
+			}
+
+			final RGBA rgba = new RGBA((int) color);
+			this.hold(rgba, rgba.alpha / 255f, this.start, this.position);
+		}
+
+		private void endFunction() {
+			if(!this.value) {
+				return;
+			}
+
+			final ColorModel color = this.arguments.parse(this.function, this.token, this.length);
+			if(color != null) {
+				this.hold(color, this.arguments.alpha, this.start, this.position + 1);
+			}
+		}
+
+		private void hold(ColorModel color, float alpha, long start, long end) {
+			if(this.held == this.colors.length) {
+				final int size = this.held * 2;
+				this.colors = Arrays.copyOf(this.colors, size);
+				this.alphas = Arrays.copyOf(this.alphas, size);
+				this.starts = Arrays.copyOf(this.starts, size);
+				this.ends = Arrays.copyOf(this.ends, size);
+			}
+
+			this.colors[this.held] = color;
+			this.alphas[this.held] = alpha;
+			this.starts[this.held] = start;
+			this.ends[this.held] = end;
+			this.held++;
+		}
+
+		/**
+		 * End the current value, reporting its colors if it was a declaration
+		 * value and dropping them otherwise.
+		 */
+		private void endValue(boolean declaration) {
+			for(int index = 0; index < this.held; index++) {
+				if(declaration) {
+					this.handler.onColor(this.colors[index], this.alphas[index], this.starts[index], this.ends[index]);
+				}
+				this.colors[index] = null;
+			}
+
+			this.held = 0;
+			this.value = false;
+		}
+
+	}
+
+	/**
+	 * Parses the arguments of the color functions.
+	 */
+	private static final class Arguments {
+
+		static final int RGB_FUNCTION = 0;
+
+		static final int HSL_FUNCTION = 1;
+
+		static final int HWB_FUNCTION = 2;
+
+		static final int LAB_FUNCTION = 3;
+
+		static final int LCH_FUNCTION = 4;
+
+		private static final int NUMBER = 0;
+
+		private static final int PERCENT = 1;
+
+		private static final int ANGLE = 2;
+
+		private static final int NONE = 3;
+
+		/**
+		 * The components - angles in degrees
+		 */
+		private final double[] values = new double[4];
+
+		private final int[] types = new int[4];
+
+		/**
+		 * The separator before each component: space, comma or slash
+		 */
+		private final char[] separators = new char[4];
+
+		private int count;
+
+		/**
+		 * Alpha of the last parsed color
+		 */
+		float alpha;
+
+		/**
+		 * Position reached by the last call to {@link #number(char[], int, int)}
+		 */
+		private int next;
+
+		/**
+		 * Identify a color function by name.
+		 *
+		 * @return the function, or <code>-1</code> if not a color function
+		 */
+		static int function(char[] name, int length) {
+			if(length < 3 || length > 4) {
+				return -1;
+			}
+
+			final int first = toLowerCase(name[0]);
+			final int second = toLowerCase(name[1]);
+			final int third = toLowerCase(name[2]);
+			if(length == 4 && toLowerCase(name[3]) != 'a') {
+				return -1;
+			}
+
+			if(first == 'r' && second == 'g' && third == 'b') {
+				return RGB_FUNCTION;
+			}
+
+			if(first == 'h' && second == 's' && third == 'l') {
+				return HSL_FUNCTION;
+			}
+
+			if(length == 4) {
+				return -1;
+			}
+
+			if(first == 'h' && second == 'w' && third == 'b') {
+				return HWB_FUNCTION;
+			}
+
+			if(first == 'l' && second == 'a' && third == 'b') {
+				return LAB_FUNCTION;
+			}
+
+			if(first == 'l' && second == 'c' && third == 'h') {
+				return LCH_FUNCTION;
+			}
+
+			return -1;
+		}
+
+		/**
+		 * Parse the arguments of a function into a color.
+		 *
+		 * @return the color, or <code>null</code> if the arguments are invalid
+		 */
+		ColorModel parse(int function, char[] text, int length) {
+			if(!this.split(text, length)) {
+				return null;
+			}
+
+			final boolean legacy = this.separators[1] == ',';
+			if(legacy && (function != RGB_FUNCTION && function != HSL_FUNCTION)) {
+				return null;
+			}
+
+			final boolean hasAlpha = this.count == 4;
+			if(hasAlpha) {
+				final int type = this.types[3];
+				if(type == ANGLE) {
+					return null;
+				}
+
+				final double alpha = type == PERCENT ? this.values[3] / 100d : this.values[3];
+				this.alpha = (float) clamp(alpha, 0, 1);
+			} else {
+				this.alpha = 1f;
+			}
+
+			switch(function) {
+				case RGB_FUNCTION:
+					return this.rgb(legacy, hasAlpha);
+
+				case HSL_FUNCTION:
+					return this.hsl(legacy);
+
+				case HWB_FUNCTION:
+					return this.hwb(hasAlpha);
+
+				case LAB_FUNCTION:
+					return this.lab();
+
+				default:
+					return this.lch();
+			}
+		}
+
+		private ColorModel rgb(boolean legacy, boolean hasAlpha) {
+			// the legacy syntax does not mix numbers and percentages
+			if(legacy && (this.types[0] != this.types[1] || this.types[1] != this.types[2])) {
+				return null;
+			}
+
+			final int red = this.channel(0);
+			final int green = this.channel(1);
+			final int blue = this.channel(2);
+			if(red < 0 || green < 0 || blue < 0) {
+				return null;
+			}
+
+			if(hasAlpha) {
+				return new RGBA(red, green, blue, Math.round(this.alpha * 255f));
+			}
+
+			return new RGB(red, green, blue);
+		}
+
+		/**
+		 * A channel between <code>0</code> and <code>255</code>, or
+		 * <code>-1</code> if the component is not a number or percentage
+		 */
+		private int channel(int index) {
+			final double component = this.scaled(index, 255);
+			if(Double.isNaN(component)) {
+				return -1;
+			}
+
+			return (int) Math.round(clamp(component, 0, 255));
+		}
+
+		private ColorModel hsl(boolean legacy) {
+			final double hue = this.hue(0);
+			if(Double.isNaN(hue)) {
+				return null;
+			}
+
+			final double saturation = this.percent(1, legacy);
+			final double lightness = this.percent(2, legacy);
+			if(Double.isNaN(saturation) || Double.isNaN(lightness)) {
+				return null;
+			}
+
+			return new HSL(unitHue(hue), (float) clamp(saturation / 100d, 0, 1), (float) clamp(lightness / 100d, 0, 1));
+		}
+
+		private ColorModel hwb(boolean hasAlpha) {
+			final double hue = this.hue(0);
+			double whiteness = this.percent(1, false);
+			double blackness = this.percent(2, false);
+			if(Double.isNaN(hue) || Double.isNaN(whiteness) || Double.isNaN(blackness)) {
+				return null;
+			}
+
+			whiteness = clamp(whiteness / 100d, 0, 1);
+			blackness = clamp(blackness / 100d, 0, 1);
+
+			final int color;
+			if(whiteness + blackness >= 1) {
+				final int gray = (int) Math.round(whiteness / (whiteness + blackness) * 255d);
+				color = gray << 16 | gray << 8 | gray;
+			} else {
+				final double brightness = 1 - blackness;
+				final double saturation = 1 - whiteness / brightness;
+				color = Color.HSBtoRGB(unitHue(hue), (float) saturation, (float) brightness);
+			}
+
+			if(hasAlpha) {
+				return new RGBA(color & 0xFFFFFF, Math.round(this.alpha * 255f));
+			}
+
+			return new RGB(color);
+		}
+
+		private ColorModel lab() {
+			final double lightness = this.scaled(0, 100);
+			final double a = this.scaled(1, 125);
+			final double b = this.scaled(2, 125);
+			if(Double.isNaN(lightness) || Double.isNaN(a) || Double.isNaN(b)) {
+				return null;
+			}
+
+			return new LAB((float) clamp(lightness, 0, 100), (float) a, (float) b);
+		}
+
+		private ColorModel lch() {
+			final double lightness = this.scaled(0, 100);
+			final double chroma = this.scaled(1, 150);
+			final double hue = this.hue(2);
+			if(Double.isNaN(lightness) || Double.isNaN(chroma) || Double.isNaN(hue)) {
+				return null;
+			}
+
+			return new LCH((float) clamp(lightness, 0, 100), (float) Math.max(chroma, 0), (float) normalizeHue(hue));
+		}
+
+		/**
+		 * A hue in degrees, or <code>NaN</code> if the component is not a hue
+		 */
+		private double hue(int index) {
+			switch(this.types[index]) {
+				case NUMBER:
+				case ANGLE:
+					return this.values[index];
+
+				case NONE:
+					return 0;
+
+				default:
+					return Double.NaN;
+			}
+		}
+
+		/**
+		 * A percentage, or <code>NaN</code> if the component is not one. The
+		 * modern syntax also accepts plain numbers.
+		 */
+		private double percent(int index, boolean legacy) {
+			switch(this.types[index]) {
+				case PERCENT:
+					return this.values[index];
+
+				case NUMBER:
+					return legacy ? Double.NaN : this.values[index];
+
+				case NONE:
+					return 0;
+
+				default:
+					return Double.NaN;
+			}
+		}
+
+		/**
+		 * A number, or a percentage of the value of <code>100%</code>, or
+		 * <code>NaN</code>
+		 */
+		private double scaled(int index, double full) {
+			switch(this.types[index]) {
+				case NUMBER:
+					return this.values[index];
+
+				case PERCENT:
+					return this.values[index] * full / 100d;
+
+				case NONE:
+					return 0;
+
+				default:
+					return Double.NaN;
+			}
+		}
+
+		/**
+		 * Split the arguments into components and check their separators:
+		 * three or four components separated by commas, or three separated by
+		 * whitespace optionally followed by a slash and the alpha.
+		 */
+		private boolean split(char[] text, int length) {
+			this.count = 0;
+
+			int index = skipWhitespace(text, 0, length);
+			while(index < length) {
+				char separator = ' ';
+				if(this.count > 0) {
+					final char c = text[index];
+					if(c == ',' || c == '/') {
+						separator = c;
+						index = skipWhitespace(text, index + 1, length);
+					} else if(!isWhitespace(text[index - 1])) {
+						return false;
+					}
+				}
+
+				if(this.count == 4 || index == length) {
+					return false;
+				}
+
+				index = this.component(text, index, length);
+				if(index < 0) {
+					return false;
+				}
+
+				this.separators[this.count++] = separator;
+				index = skipWhitespace(text, index, length);
+			}
+
+			if(this.count < 3) {
+				return false;
+			}
+
+			if(this.separators[1] == ',') {
+				for(int component = 1; component < this.count; component++) {
+					if(this.separators[component] != ',' || this.types[component] == NONE) {
+						return false;
+					}
+				}
+
+				return this.types[0] != NONE;
+			}
+
+			return this.separators[1] == ' ' && this.separators[2] == ' ' && (this.count == 3 || this.separators[3] == '/');
+		}
+
+		/**
+		 * Parse a single component.
+		 *
+		 * @return the index after the component, or <code>-1</code> if it is
+		 *         invalid
+		 */
+		private int component(char[] text, int index, int length) {
+			final int position = this.count;
+
+			if(isNameStart(text[index]) && text[index] != '-') {
+				final int end = nameEnd(text, index, length);
+				if(end - index == 4 && toLowerCase(text[index]) == 'n' && toLowerCase(text[index + 1]) == 'o' && toLowerCase(text[index + 2]) == 'n' && toLowerCase(text[index + 3]) == 'e') {
+					this.types[position] = NONE;
+					this.values[position] = 0;
+					return end;
+				}
+
+				return -1;
+			}
+
+			final double number = this.number(text, index, length);
+			if(Double.isNaN(number)) {
+				return -1;
+			}
+
+			index = this.next;
+			if(index < length && text[index] == '%') {
+				this.types[position] = PERCENT;
+				this.values[position] = number;
+				return index + 1;
+			}
+
+			if(index < length && isNameStart(text[index])) {
+				final int end = nameEnd(text, index, length);
+				final double degrees = degrees(text, index, end - index);
+				if(Double.isNaN(degrees)) {
+					return -1;
+				}
+
+				this.types[position] = ANGLE;
+				this.values[position] = number * degrees;
+				return end;
+			}
+
+			this.types[position] = NUMBER;
+			this.values[position] = number;
+			return index;
+		}
+
+		/**
+		 * Parse a number, storing the index after it in {@link #next}.
+		 *
+		 * @return the number, or <code>NaN</code> if there is none
+		 */
+		private double number(char[] text, int index, int length) {
+			boolean negative = false;
+			if(text[index] == '+' || text[index] == '-') {
+				negative = text[index] == '-';
+				index++;
+			}
+
+			long mantissa = 0;
+			int exponent = 0;
+			int digits = 0;
+
+			while(index < length && isDigit(text[index])) {
+				if(mantissa < Long.MAX_VALUE / 100) {
+					mantissa = mantissa * 10 + (text[index] - '0');
+				} else {
+					exponent++;
+				}
+				index++;
+				digits++;
+			}
+
+			if(index < length && text[index] == '.') {
+				index++;
+				while(index < length && isDigit(text[index])) {
+					if(mantissa < Long.MAX_VALUE / 100) {
+						mantissa = mantissa * 10 + (text[index] - '0');
+						exponent--;
+					}
+					index++;
+					digits++;
+				}
+			}
+
+			if(digits == 0) {
+				return Double.NaN;
+			}
+
+			// an exponent only if digits follow, otherwise the e starts a unit
+			if(index < length && (text[index] == 'e' || text[index] == 'E')) {
+				int digit = index + 1;
+				boolean negativeExponent = false;
+				if(digit < length && (text[digit] == '+' || text[digit] == '-')) {
+					negativeExponent = text[digit] == '-';
+					digit++;
+				}
+
+				if(digit < length && isDigit(text[digit])) {
+					int value = 0;
+					while(digit < length && isDigit(text[digit])) {
+						value = Math.min(value * 10 + (text[digit] - '0'), 1000);
+						digit++;
+					}
+
+					exponent += negativeExponent ? -value : value;
+					index = digit;
+				}
+			}
+
+			this.next = index;
+
+			final double value = exponent == 0 ? mantissa : mantissa * Math.pow(10, exponent);
+			return negative ? -value : value;
+		}
+
+		/**
+		 * Degrees per unit of an angle unit, or <code>NaN</code>
+		 */
+		private static double degrees(char[] text, int index, int length) {
+			if(matches(text, index, length, "deg")) {
+				return 1;
+			}
+
+			if(matches(text, index, length, "grad")) {
+				return 0.9d;
+			}
+
+			if(matches(text, index, length, "rad")) {
+				return 180d / Math.PI;
+			}
+
+			if(matches(text, index, length, "turn")) {
+				return 360;
+			}
+
+			return Double.NaN;
+		}
+
+		private static boolean matches(char[] text, int index, int length, String unit) {
+			if(length != unit.length()) {
+				return false;
+			}
+
+			for(int offset = 0; offset < length; offset++) {
+				if(toLowerCase(text[index + offset]) != unit.charAt(offset)) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		private static int nameEnd(char[] text, int index, int length) {
+			while(index < length && isNameChar(text[index])) {
+				index++;
+			}
+
+			return index;
+		}
+
+		private static int skipWhitespace(char[] text, int index, int length) {
+			while(index < length && isWhitespace(text[index])) {
+				index++;
+			}
+
+			return index;
+		}
+
+		private static double clamp(double value, double min, double max) {
+			return value < min ? min : (value > max ? max : value);
+		}
+
+		private static double normalizeHue(double hue) {
+			hue = hue % 360d;
+			return hue < 0 ? hue + 360d : hue;
+		}
+
+		/**
+		 * A hue in degrees as a fraction of a full turn, below <code>1</code>
+		 */
+		private static float unitHue(double hue) {
+			final float unit = (float) (normalizeHue(hue) / 360d);
+			return unit < 1f ? unit : 0f;
+		}
+
+	}
+
+	/**
+	 * Keeps the first color found by {@link CssColorParser#parse(CharSequence)}.
+	 */
+	private static final class Capture implements ColorHandler {
+
+		ColorModel color;
+
+		long start;
+
+		long end;
+
+		int count;
+
+		@Override
+		public void onColor(ColorModel color, float alpha, long start, long end) {
+			if(this.count++ == 0) {
+				this.color = color;
+				this.start = start;
+				this.end = end;
+			}
+		}
+
+	}
+
+}
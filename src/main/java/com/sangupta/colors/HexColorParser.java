@@ -0,0 +1,232 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.util.Arrays;
+
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.RGBA;
+
+/**
+ * Parses hex color notations into packed <code>0xAARRGGBB</code> colors,
+ * without allocating. Colors can be read from any part of a
+ * {@link CharSequence}, so that they can be parsed in place from a larger
+ * document.
+ *
+ * <br><br>
+ *
+ * The notations of CSS are supported, with or without the leading
+ * <code>#</code>:
+ *
+ * <ul>
+ * <li><code>#rgb</code> and <code>#rrggbb</code> - opaque colors</li>
+ * <li><code>#rgba</code> and <code>#rrggbbaa</code> - colors with the alpha
+ * channel last</li>
+ * </ul>
+ *
+ * Digits may be in upper or lower case.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ *
+ * @see RGB#RGB(String)
+ * @see RGBA#RGBA(String)
+ */
+public final class HexColorParser {
+
+	/**
+	 * Returned by {@link #tryParse(CharSequence, int, int)} and
+	 * {@link #decode(CharSequence, int, int)} for invalid input. Valid results
+	 * are never negative.
+	 */
+	public static final long INVALID = -1L;
+
+	/**
+	 * Value of each ASCII character as a hex digit, or <code>-1</code>
+	 */
+	private static final byte[] DIGITS = new byte[128];
+
+	static {
+		Arrays.fill(DIGITS, (byte) -1);
+
+		for(int digit = 0; digit < 10; digit++) {
+			DIGITS['0' + digit] = (byte) digit;
+		}
+
+		for(int digit = 0; digit < 6; digit++) {
+			DIGITS['a' + digit] = (byte) (10 + digit);
+			DIGITS['A' + digit] = (byte) (10 + digit);
+		}
+	}
+
+	private HexColorParser() {
+		// not to be instantiated
+	}
+
+	/**
+	 * Parse a hex color.
+	 *
+	 * @param text
+	 *            the hex color
+	 *
+	 * @return the packed color
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the text is not a hex color
+	 */
+	public static int parse(CharSequence text) {
+		if(text == null) {
+			throw new IllegalArgumentException("Color cannot be null");
+		}
+
+		return parse(text, 0, text.length());
+	}
+
+	/**
+	 * Parse a hex color from a part of the given text.
+	 *
+	 * @param text
+	 *            the text to read from
+	 *
+	 * @param offset
+	 *            index of the first character of the color
+	 *
+	 * @param length
+	 *            number of characters of the color
+	 *
+	 * @return the packed color
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the characters are not a hex color
+	 */
+	public static int parse(CharSequence text, int offset, int length) {
+		final long color = tryParse(text, offset, length);
+		if(color == INVALID) {
+			throw new IllegalArgumentException("Color value must be expressed as hex in #rgb, #rgba, #rrggbb or #rrggbbaa format");
+		}
+
+		return (int) color;
+	}
+
+	/**
+	 * Parse a hex color from a part of the given text, without throwing on
+	 * invalid input.
+	 *
+	 * @param text
+	 *            the text to read from
+	 *
+	 * @param offset
+	 *            index of the first character of the color
+	 *
+	 * @param length
+	 *            number of characters of the color
+	 *
+	 * @return the packed color as a non-negative <code>long</code>, or
+	 *         {@link #INVALID} if the characters are not a hex color
+	 */
+	public static long tryParse(CharSequence text, int offset, int length) {
+		checkRange(text, offset, length);
+
+		if(length > 0 && text.charAt(offset) == '#') {
+			offset++;
+			length--;
+		}
+
+		final long value = decode(text, offset, length);
+		if(value == INVALID) {
+			return INVALID;
+		}
+
+		final int digits = (int) value;
+		switch(length) {
+			case 3:
+				return 0xFF000000L | expand(digits >> 8) << 16 | expand(digits >> 4) << 8 | expand(digits);
+
+			case 4:
+				return expand(digits) << 24 | expand(digits >> 12) << 16 | expand(digits >> 8) << 8 | expand(digits >> 4);
+
+			case 6:
+				return 0xFF000000L | digits;
+
+			case 8:
+				return (digits & 0xFFL) << 24 | digits >>> 8;
+
+			default:
+				return INVALID;
+		}
+	}
+
+	/**
+	 * Decode up to 8 hex digits, without a leading <code>#</code>, into an
+	 * unsigned number.
+	 *
+	 * @param text
+	 *            the text to read from
+	 *
+	 * @param offset
+	 *            index of the first digit
+	 *
+	 * @param length
+	 *            number of digits
+	 *
+	 * @return the value as a non-negative <code>long</code>, or
+	 *         {@link #INVALID} if there are no digits, more than 8 digits or
+	 *         a character is not a hex digit
+	 */
+	public static long decode(CharSequence text, int offset, int length) {
+		checkRange(text, offset, length);
+
+		if(length == 0 || length > 8) {
+			return INVALID;
+		}
+
+		long value = 0;
+		for(int index = offset; index < offset + length; index++) {
+			final char c = text.charAt(index);
+			final int digit = c < DIGITS.length ? DIGITS[c] : -1;
+			if(digit < 0) {
+				return INVALID;
+			}
+
+			value = value << 4 | digit;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Repeat the lowest hex digit, turning <code>f</code> into
+	 * <code>ff</code>.
+	 */
+	private static long expand(int digits) {
+		return (digits & 0xF) * 0x11L;
+	}
+
+	private static void checkRange(CharSequence text, int offset, int length) {
+		if(text == null) {
+			throw new IllegalArgumentException("Color cannot be null");
+		}
+
+		if(offset < 0 || length < 0 || offset + length > text.length()) {
+			throw new IllegalArgumentException("Offset and length do not fit the text");
+		}
+	}
+
+}
@@ -0,0 +1,610 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.util.Arrays;
+
+import com.sangupta.colors.NamedColorIndex.Metric;
+import com.sangupta.colors.model.LAB;
+
+/**
+ * Collapses near-duplicate colors by assigning a stream of {@link LAB} colors
+ * to clusters, one color at a time. A color joins the nearest cluster whose
+ * centroid is within the threshold color difference, or else starts a
+ * cluster of its own. The centroid of a cluster is the weighted mean of its
+ * colors, so colors can be given with the population of the swatch they come
+ * from.
+ *
+ * <br><br>
+ *
+ * Clusters are kept in a hashed grid over LAB space with cells as wide as
+ * the threshold, so that adding a color only compares it with the clusters in
+ * its own and the 26 neighbouring cells, however many clusters there are.
+ * With {@link Metric#CIE76} this finds every cluster within the threshold.
+ * {@link Metric#CIEDE2000} can be more tolerant than the Euclidean distance,
+ * mostly for saturated colors, so clusters it would accept beyond the
+ * neighbouring cells are not considered.
+ *
+ * <br><br>
+ *
+ * Memory is bounded by the maximum number of clusters, not by the input. Once
+ * that many clusters exist, colors that fit no cluster are added to the
+ * cluster with the nearest centroid by Euclidean distance, and counted as
+ * {@link #getOverflowWeight() overflow}. The nearest centroid is found by
+ * visiting the grid cells ring by ring outwards from the cell of the color,
+ * until no closer centroid can lie further out. As centroids move while
+ * colors are added, earlier colors are not reassigned.
+ *
+ * <br><br>
+ *
+ * Instances are not safe for use by multiple threads.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class LABClusterer {
+
+	/**
+	 * Number of clusters for which room is made at first
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * Bits per axis of a packed grid cell
+	 */
+	private static final int CELL_BITS = 21;
+
+	/**
+	 * Largest grid cell index per axis; cells further out are clamped
+	 */
+	private static final int MAX_CELL = (1 << (CELL_BITS - 1)) - 1;
+
+	private final double threshold;
+
+	private final Metric metric;
+
+	private final int maxClusters;
+
+	private int size;
+
+	private double[] sumL;
+
+	private double[] sumA;
+
+	private double[] sumB;
+
+	private long[] weights;
+
+	private double[] centroidL;
+
+	private double[] centroidA;
+
+	private double[] centroidB;
+
+	/**
+	 * The grid cell of each cluster
+	 */
+	private long[] cellOf;
+
+	/**
+	 * The next cluster in the same grid cell, or <code>-1</code>
+	 */
+	private int[] next;
+
+	/**
+	 * Open addressing table of grid cells, with linear probing
+	 */
+	private long[] cellKeys;
+
+	/**
+	 * The first cluster of each grid cell, or <code>-1</code> for free slots
+	 */
+	private int[] cellHeads;
+
+	private long totalWeight;
+
+	private long overflowWeight;
+
+	/**
+	 * Create a clusterer.
+	 *
+	 * @param threshold
+	 *            the largest color difference between a color and the centroid
+	 *            of its cluster
+	 *
+	 * @param metric
+	 *            the {@link Metric} to compare colors with
+	 *
+	 * @param maxClusters
+	 *            the largest number of clusters to keep
+	 */
+	public LABClusterer(double threshold, Metric metric, int maxClusters) {
+		if(!(threshold > 0) || Double.isInfinite(threshold)) {
+			throw new IllegalArgumentException("Threshold must be a positive number: got " + threshold);
+		}
+
+		if(metric == null) {
+			throw new IllegalArgumentException("Metric cannot be null");
+		}
+
+		if(maxClusters < 1) {
+			throw new IllegalArgumentException("Maximum number of clusters must be at least 1: got " + maxClusters);
+		}
+
+		this.threshold = threshold;
+		this.metric = metric;
+		this.maxClusters = maxClusters;
+
+		this.allocate(Math.min(INITIAL_CAPACITY, maxClusters));
+	}
+
+	/**
+	 * Add a color.
+	 *
+	 * @param color
+	 *            the {@link LAB} color
+	 *
+	 * @return the position of the cluster the color was added to
+	 */
+	public int add(LAB color) {
+		if(color == null) {
+			throw new IllegalArgumentException("LAB color cannot be null");
+		}
+
+		return this.add(color.l, color.a, color.b, 1);
+	}
+
+	/**
+	 * Add colors given as interleaved <code>L, a, b</code> values, as
+	 * produced by {@link BulkColorConversionUtils}.
+	 *
+	 * @param lab
+	 *            the interleaved values
+	 *
+	 * @param offset
+	 *            index of the first value
+	 *
+	 * @param count
+	 *            number of colors
+	 */
+	public void add(float[] lab, int offset, int count) {
+		if(lab == null) {
+			throw new IllegalArgumentException("LAB values cannot be null");
+		}
+
+		if(offset < 0 || count < 0 || offset + 3L * count > lab.length) {
+			throw new IllegalArgumentException("Offset and count do not fit the LAB values");
+		}
+
+		for(int index = 0; index < count; index++) {
+			final int base = offset + index * 3;
+			this.add(lab[base], lab[base + 1], lab[base + 2], 1);
+		}
+	}
+
+	/**
+	 * Add a color with the given weight, such as the population of a swatch.
+	 *
+	 * @param l
+	 *            the <code>L*</code> value
+	 *
+	 * @param a
+	 *            the <code>a*</code> value
+	 *
+	 * @param b
+	 *            the <code>b*</code> value
+	 *
+	 * @param weight
+	 *            the weight of the color, at least <code>1</code>
+	 *
+	 * @return the position of the cluster the color was added to
+	 */
+	public int add(double l, double a, double b, int weight) {
+		if(weight < 1) {
+			throw new IllegalArgumentException("Weight must be at least 1: got " + weight);
+		}
+
+		if(Double.isNaN(l) || Double.isNaN(a) || Double.isNaN(b)) {
+			throw new IllegalArgumentException("LAB values cannot be NaN");
+		}
+
+		final int cellL = this.cell(l);
+		final int cellA = this.cell(a);
+		final int cellB = this.cell(b);
+
+		int cluster = -1;
+		double best = Double.POSITIVE_INFINITY;
+		for(int dl = -1; dl <= 1; dl++) {
+			for(int da = -1; da <= 1; da++) {
+				for(int db = -1; db <= 1; db++) {
+					int member = this.find(key(cellL + dl, cellA + da, cellB + db));
+					for(; member >= 0; member = this.next[member]) {
+						final double distance = this.distance(l, a, b, member);
+						if(distance <= this.threshold && distance < best) {
+							best = distance;
+							cluster = member;
+						}
+					}
+				}
+			}
+		}
+
+		if(cluster < 0) {
+			if(this.size < this.maxClusters) {
+				cluster = this.create();
+			} else {
+				cluster = this.nearest(l, a, b);
+				this.overflowWeight += weight;
+			}
+		}
+
+		this.sumL[cluster] += l * weight;
+		this.sumA[cluster] += a * weight;
+		this.sumB[cluster] += b * weight;
+		this.weights[cluster] += weight;
+		this.totalWeight += weight;
+
+		this.centroidL[cluster] = this.sumL[cluster] / this.weights[cluster];
+		this.centroidA[cluster] = this.sumA[cluster] / this.weights[cluster];
+		this.centroidB[cluster] = this.sumB[cluster] / this.weights[cluster];
+
+		final long cell = key(this.cell(this.centroidL[cluster]), this.cell(this.centroidA[cluster]), this.cell(this.centroidB[cluster]));
+		if(cell != this.cellOf[cluster]) {
+			this.unlink(cluster);
+			this.cellOf[cluster] = cell;
+			this.link(cluster);
+		}
+
+		return cluster;
+	}
+
+	/**
+	 * @return the number of clusters
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @param cluster
+	 *            the position of the cluster
+	 *
+	 * @return the weighted mean of the colors of the cluster
+	 */
+	public LAB getCentroid(int cluster) {
+		this.checkCluster(cluster);
+		return new LAB((float) this.centroidL[cluster], (float) this.centroidA[cluster], (float) this.centroidB[cluster]);
+	}
+
+	/**
+	 * @param cluster
+	 *            the position of the cluster
+	 *
+	 * @return the total weight of the colors of the cluster
+	 */
+	public long getWeight(int cluster) {
+		this.checkCluster(cluster);
+		return this.weights[cluster];
+	}
+
+	/**
+	 * @return the total weight of all colors added
+	 */
+	public long getTotalWeight() {
+		return this.totalWeight;
+	}
+
+	/**
+	 * @return the total weight of the colors that were added to a cluster
+	 *         beyond the threshold because no more clusters could be created
+	 */
+	public long getOverflowWeight() {
+		return this.overflowWeight;
+	}
+
+	public double getThreshold() {
+		return this.threshold;
+	}
+
+	public Metric getMetric() {
+		return this.metric;
+	}
+
+	public int getMaxClusters() {
+		return this.maxClusters;
+	}
+
+	/**
+	 * Get the centroids of the clusters, heaviest first.
+	 *
+	 * @return a new {@link Swatch} of the centroids
+	 */
+	public Swatch<LAB> toSwatch() {
+		// clusters of equal weight take consecutive places, in the order of
+		// their positions
+		final long[] sorted = Arrays.copyOf(this.weights, this.size);
+		Arrays.sort(sorted);
+
+		final int[] order = new int[this.size];
+		final int[] placed = new int[this.size];
+		for(int cluster = 0; cluster < this.size; cluster++) {
+			final int lower = lowerBound(sorted, this.weights[cluster]);
+			final int upper = lowerBound(sorted, this.weights[cluster] + 1);
+			order[this.size - upper + placed[lower]++] = cluster;
+		}
+
+		final Swatch<LAB> swatch = new Swatch<>();
+		for(int cluster : order) {
+			swatch.add(this.getCentroid(cluster));
+		}
+
+		return swatch;
+	}
+
+	/**
+	 * @return the position of the first value that is not less than the key
+	 */
+	private static int lowerBound(long[] sorted, long key) {
+		int low = 0, high = sorted.length;
+		while(low < high) {
+			final int middle = (low + high) >>> 1;
+			if(sorted[middle] < key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	private double distance(double l, double a, double b, int cluster) {
+		if(this.metric == Metric.CIEDE2000) {
+			return LABPalette.ciede2000(l, a, b, this.centroidL[cluster], this.centroidA[cluster], this.centroidB[cluster]);
+		}
+
+		final double dl = l - this.centroidL[cluster];
+		final double da = a - this.centroidA[cluster];
+		final double db = b - this.centroidB[cluster];
+		return Math.sqrt(dl * dl + da * da + db * db);
+	}
+
+	/**
+	 * The cluster with the nearest centroid by Euclidean distance, once no
+	 * more clusters can be created. Ties go to the lower position.
+	 */
+	private int nearest(double l, double a, double b) {
+		final int cellL = this.cell(l);
+		final int cellA = this.cell(a);
+		final int cellB = this.cell(b);
+
+		int nearest = -1;
+		double best = Double.POSITIVE_INFINITY;
+		long visited = 0;
+		for(int ring = 0; ; ring++) {
+			// every centroid in this ring or beyond is at least this far away
+			final double reach = (ring - 1) * this.threshold;
+			if(nearest >= 0 && reach > 0 && best < reach * reach) {
+				return nearest;
+			}
+
+			final long side = 2L * ring + 1;
+			visited += ring == 0 ? 1 : side * side * side - (side - 2) * (side - 2) * (side - 2);
+			if(visited > this.size) {
+				// the rings have grown past the clusters, comparing every one is cheaper
+				return this.nearestOfAll(l, a, b);
+			}
+
+			for(int dl = -ring; dl <= ring; dl++) {
+				for(int da = -ring; da <= ring; da++) {
+					final boolean face = Math.abs(dl) == ring || Math.abs(da) == ring;
+					for(int db = -ring; db <= ring; db += face || ring == 0 ? 1 : 2 * ring) {
+						int member = this.find(key(cellL + dl, cellA + da, cellB + db));
+						for(; member >= 0; member = this.next[member]) {
+							final double distance = this.squaredDistance(l, a, b, member);
+							if(distance < best || (distance == best && member < nearest)) {
+								best = distance;
+								nearest = member;
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The cluster with the nearest centroid by Euclidean distance, comparing
+	 * every cluster. Ties go to the lower position.
+	 */
+	private int nearestOfAll(double l, double a, double b) {
+		int nearest = 0;
+		double best = Double.POSITIVE_INFINITY;
+		for(int cluster = 0; cluster < this.size; cluster++) {
+			final double distance = this.squaredDistance(l, a, b, cluster);
+			if(distance < best) {
+				best = distance;
+				nearest = cluster;
+			}
+		}
+
+		return nearest;
+	}
+
+	private double squaredDistance(double l, double a, double b, int cluster) {
+		final double dl = l - this.centroidL[cluster];
+		final double da = a - this.centroidA[cluster];
+		final double db = b - this.centroidB[cluster];
+		return dl * dl + da * da + db * db;
+	}
+
+	/**
+	 * Start an empty cluster, outside of the grid until its centroid is set.
+	 */
+	private int create() {
+		if(this.size == this.weights.length) {
+			this.grow();
+		}
+
+		final int cluster = this.size++;
+		this.cellOf[cluster] = Long.MIN_VALUE;
+		this.next[cluster] = -1;
+		return cluster;
+	}
+
+	private int cell(double value) {
+		final double cell = Math.floor(value / this.threshold);
+		return (int) Math.max(-MAX_CELL, Math.min(MAX_CELL, cell));
+	}
+
+	/**
+	 * Pack the cell indices of the three axes into a single key.
+	 */
+	private static long key(int cellL, int cellA, int cellB) {
+		final long mask = (1L << CELL_BITS) - 1;
+		return ((cellL & mask) << (2 * CELL_BITS)) | ((cellA & mask) << CELL_BITS) | (cellB & mask);
+	}
+
+	/**
+	 * The first cluster of a grid cell, or <code>-1</code>
+	 */
+	private int find(long key) {
+		final int mask = this.cellKeys.length - 1;
+		for(int slot = hash(key) & mask; this.cellHeads[slot] >= 0; slot = (slot + 1) & mask) {
+			if(this.cellKeys[slot] == key) {
+				return this.cellHeads[slot];
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Add a cluster to the grid cell of its centroid.
+	 */
+	private void link(int cluster) {
+		final long key = this.cellOf[cluster];
+		final int mask = this.cellKeys.length - 1;
+
+		int slot = hash(key) & mask;
+		while(this.cellHeads[slot] >= 0 && this.cellKeys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+
+		this.next[cluster] = this.cellHeads[slot];
+		this.cellKeys[slot] = key;
+		this.cellHeads[slot] = cluster;
+	}
+
+	/**
+	 * Remove a cluster from its grid cell, freeing the cell once empty.
+	 */
+	private void unlink(int cluster) {
+		final long key = this.cellOf[cluster];
+		if(key == Long.MIN_VALUE) {
+			return;
+		}
+
+		final int mask = this.cellKeys.length - 1;
+		int slot = hash(key) & mask;
+		while(this.cellKeys[slot] != key || this.cellHeads[slot] < 0) {
+			slot = (slot + 1) & mask;
+		}
+
+		if(this.cellHeads[slot] == cluster) {
+			this.cellHeads[slot] = this.next[cluster];
+		} else {
+			int previous = this.cellHeads[slot];
+			while(this.next[previous] != cluster) {
+				previous = this.next[previous];
+			}
+			this.next[previous] = this.next[cluster];
+		}
+
+		this.next[cluster] = -1;
+		if(this.cellHeads[slot] >= 0) {
+			return;
+		}
+
+		// shift back the entries that probed past the freed slot
+		int free = slot;
+		for(int probe = (slot + 1) & mask; this.cellHeads[probe] >= 0; probe = (probe + 1) & mask) {
+			final int home = hash(this.cellKeys[probe]) & mask;
+			if(((probe - home) & mask) >= ((probe - free) & mask)) {
+				this.cellKeys[free] = this.cellKeys[probe];
+				this.cellHeads[free] = this.cellHeads[probe];
+				this.cellHeads[probe] = -1;
+				free = probe;
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		this.sumL = new double[capacity];
+		this.sumA = new double[capacity];
+		this.sumB = new double[capacity];
+		this.weights = new long[capacity];
+		this.centroidL = new double[capacity];
+		this.centroidA = new double[capacity];
+		this.centroidB = new double[capacity];
+		this.cellOf = new long[capacity];
+		this.next = new int[capacity];
+
+		// at most one cell per cluster, so the table stays at most half full
+		this.cellKeys = new long[Integer.highestOneBit(capacity) << 2];
+		this.cellHeads = new int[this.cellKeys.length];
+		Arrays.fill(this.cellHeads, -1);
+	}
+
+	private void grow() {
+		final int capacity = (int) Math.min(this.maxClusters, 2L * this.weights.length);
+
+		final double[] sumL = this.sumL, sumA = this.sumA, sumB = this.sumB;
+		final double[] centroidL = this.centroidL, centroidA = this.centroidA, centroidB = this.centroidB;
+		final long[] weights = this.weights, cellOf = this.cellOf;
+
+		this.allocate(capacity);
+
+		System.arraycopy(sumL, 0, this.sumL, 0, this.size);
+		System.arraycopy(sumA, 0, this.sumA, 0, this.size);
+		System.arraycopy(sumB, 0, this.sumB, 0, this.size);
+		System.arraycopy(weights, 0, this.weights, 0, this.size);
+		System.arraycopy(centroidL, 0, this.centroidL, 0, this.size);
+		System.arraycopy(centroidA, 0, this.centroidA, 0, this.size);
+		System.arraycopy(centroidB, 0, this.centroidB, 0, this.size);
+		System.arraycopy(cellOf, 0, this.cellOf, 0, this.size);
+
+		for(int cluster = 0; cluster < this.size; cluster++) {
+			this.link(cluster);
+		}
+	}
+
+	private void checkCluster(int cluster) {
+		if(cluster < 0 || cluster >= this.size) {
+			throw new IllegalArgumentException("Cluster must be between 0 and " + this.size + ": got " + cluster);
+		}
+	}
+
+	private static int hash(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key ^ (key >>> 32));
+	}
+
+}
@@ -0,0 +1,510 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import com.sangupta.colors.model.LAB;
+
+/**
+ * A fixed set of {@link LAB} colors prepared for computing many CIEDE2000
+ * color differences, such as from every pixel of an image to a palette.
+ *
+ * <br><br>
+ *
+ * The colors are kept in planes (structure-of-arrays) together with the terms
+ * of CIEDE2000 that depend on a single color - its chroma and
+ * <code>b*<sup>2</sup></code> - so that they are computed once instead of on
+ * every comparison. The remaining terms depend on both colors and are
+ * computed per pair, more cheaply than the textbook formula:
+ * <code>x<sup>7</sup></code> is evaluated with multiplications instead of
+ * {@link Math#pow(double, double)}, and the four cosines of the hue weighting
+ * are derived from a single sine and cosine of the mean hue.
+ * {@link LAB#ciede2000(LAB, LAB)} uses the same kernel, so results agree with
+ * it exactly.
+ *
+ * <br><br>
+ *
+ * Batches of at least {@link #MIN_LENGTH} colors are computed in blocks: the
+ * chroma, lightness and rotation terms of a whole block are evaluated first in
+ * branch-free loops over planes, which the HotSpot C2 compiler can turn into
+ * SIMD instructions on its own, and only the hue terms that need
+ * {@link Math#atan2(double, double)} and friends stay scalar. Both paths
+ * perform the same arithmetic in the same order, so results are bit-for-bit
+ * identical. Like {@link BulkColorConversionUtils}, set the
+ * <code>com.sangupta.colors.planar</code> system property to
+ * <code>false</code> to use the scalar loop only.
+ *
+ * <br><br>
+ *
+ * Instances are immutable and safe to share between threads.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class LABPalette {
+
+	/**
+	 * Number of colors in one block of the planar path
+	 */
+	static final int BLOCK_SIZE = 256;
+
+	/**
+	 * Minimum batch size for which the planar path is used
+	 */
+	static final int MIN_LENGTH = 32;
+
+	/**
+	 * Whether the planar path is enabled
+	 */
+	private static final boolean PLANAR = !"false".equalsIgnoreCase(System.getProperty("com.sangupta.colors.planar"));
+
+	/**
+	 * <code>25<sup>7</sup></code>
+	 */
+	private static final double POW25_7 = 6103515625d;
+
+	private static final double TWO_PI = 2 * Math.PI;
+
+	private static final double COS_30 = Math.cos(Math.PI / 6);
+
+	private static final double SIN_30 = Math.sin(Math.PI / 6);
+
+	private static final double COS_6 = Math.cos(Math.PI / 30);
+
+	private static final double SIN_6 = Math.sin(Math.PI / 30);
+
+	private static final double COS_63 = Math.cos(63 * Math.PI / 180);
+
+	private static final double SIN_63 = Math.sin(63 * Math.PI / 180);
+
+	private final double[] l;
+
+	private final double[] a;
+
+	private final double[] b;
+
+	/**
+	 * <code>b*<sup>2</sup></code> of each color
+	 */
+	private final double[] bSquared;
+
+	/**
+	 * The chroma <code>sqrt(a*<sup>2</sup> + b*<sup>2</sup>)</code> of each
+	 * color
+	 */
+	private final double[] chroma;
+
+	/**
+	 * Prepare the given colors.
+	 *
+	 * @param colors
+	 *            the {@link LAB} colors
+	 */
+	public LABPalette(LAB[] colors) {
+		if(colors == null) {
+			throw new IllegalArgumentException("LAB colors cannot be null");
+		}
+
+		this.l = new double[colors.length];
+		this.a = new double[colors.length];
+		this.b = new double[colors.length];
+		this.bSquared = new double[colors.length];
+		this.chroma = new double[colors.length];
+
+		for(int index = 0; index < colors.length; index++) {
+			if(colors[index] == null) {
+				throw new IllegalArgumentException("LAB color cannot be null");
+			}
+
+			this.prepare(index, colors[index].l, colors[index].a, colors[index].b);
+		}
+	}
+
+	/**
+	 * Prepare colors given as interleaved <code>L, a, b</code> values, as
+	 * produced by {@link BulkColorConversionUtils}.
+	 *
+	 * @param lab
+	 *            the interleaved values
+	 *
+	 * @param offset
+	 *            index of the first value
+	 *
+	 * @param count
+	 *            number of colors
+	 */
+	public LABPalette(float[] lab, int offset, int count) {
+		if(lab == null) {
+			throw new IllegalArgumentException("LAB values cannot be null");
+		}
+
+		if(offset < 0 || count < 0 || offset + 3L * count > lab.length) {
+			throw new IllegalArgumentException("Offset and count do not fit the LAB values");
+		}
+
+		this.l = new double[count];
+		this.a = new double[count];
+		this.b = new double[count];
+		this.bSquared = new double[count];
+		this.chroma = new double[count];
+
+		for(int index = 0; index < count; index++) {
+			final int base = offset + index * 3;
+			this.prepare(index, lab[base], lab[base + 1], lab[base + 2]);
+		}
+	}
+
+	private void prepare(int index, double l, double a, double b) {
+		this.l[index] = l;
+		this.a[index] = a;
+		this.b[index] = b;
+		this.bSquared[index] = b * b;
+		this.chroma[index] = Math.sqrt(a * a + b * b);
+	}
+
+	/**
+	 * @return the number of colors
+	 */
+	public int size() {
+		return this.l.length;
+	}
+
+	/**
+	 * @param index
+	 *            the position of the color
+	 *
+	 * @return the color
+	 */
+	public LAB get(int index) {
+		return new LAB((float) this.l[index], (float) this.a[index], (float) this.b[index]);
+	}
+
+	/**
+	 * Compute the CIEDE2000 difference between a color and a color of this
+	 * palette.
+	 *
+	 * @param query
+	 *            the {@link LAB} color
+	 *
+	 * @param index
+	 *            the position of the palette color
+	 *
+	 * @return the <b>ciede2000</b> distance
+	 */
+	public double ciede2000(LAB query, int index) {
+		if(query == null) {
+			throw new IllegalArgumentException("LAB color cannot be null");
+		}
+
+		final double l1 = query.l, a1 = query.a, b1 = query.b;
+		return distance(l1, a1, b1, b1 * b1, Math.sqrt(a1 * a1 + b1 * b1), this.l[index], this.a[index], this.b[index], this.bSquared[index], this.chroma[index]);
+	}
+
+	/**
+	 * Compute the CIEDE2000 differences between a color and every color of
+	 * this palette.
+	 *
+	 * @param query
+	 *            the {@link LAB} color
+	 *
+	 * @param distances
+	 *            receives the distance to each color, must hold at least
+	 *            {@link #size()} values
+	 */
+	public void ciede2000(LAB query, double[] distances) {
+		this.ciede2000(query, 0, this.size(), distances, 0);
+	}
+
+	/**
+	 * Compute the CIEDE2000 differences between a color and a range of colors
+	 * of this palette.
+	 *
+	 * @param query
+	 *            the {@link LAB} color
+	 *
+	 * @param from
+	 *            position of the first palette color, inclusive
+	 *
+	 * @param to
+	 *            position of the last palette color, exclusive
+	 *
+	 * @param distances
+	 *            receives the distances
+	 *
+	 * @param offset
+	 *            index in <code>distances</code> of the distance to the first
+	 *            color
+	 */
+	public void ciede2000(LAB query, int from, int to, double[] distances, int offset) {
+		if(query == null) {
+			throw new IllegalArgumentException("LAB color cannot be null");
+		}
+
+		if(distances == null) {
+			throw new IllegalArgumentException("Distances array cannot be null");
+		}
+
+		if(from < 0 || to > this.size() || from > to || offset < 0 || offset + (to - from) > distances.length) {
+			throw new IllegalArgumentException("Range does not fit the palette or the distances array");
+		}
+
+		if(PLANAR && to - from >= MIN_LENGTH) {
+			this.ciede2000Planar(query, from, to, distances, offset);
+		} else {
+			this.ciede2000Scalar(query, from, to, distances, offset);
+		}
+	}
+
+	/**
+	 * Compute the distances of a range with the planar path.
+	 */
+	void ciede2000Planar(LAB query, int from, int to, double[] distances, int offset) {
+		final double l1 = query.l, a1 = query.a, b1 = query.b;
+		new Block().compute(this, l1, a1, b1, b1 * b1, Math.sqrt(a1 * a1 + b1 * b1), from, to, distances, offset);
+	}
+
+	/**
+	 * Compute the distances of a range with the scalar kernel.
+	 */
+	void ciede2000Scalar(LAB query, int from, int to, double[] distances, int offset) {
+		final double l1 = query.l, a1 = query.a, b1 = query.b;
+		final double bSquared1 = b1 * b1;
+		final double chroma1 = Math.sqrt(a1 * a1 + b1 * b1);
+
+		for(int index = from; index < to; index++) {
+			distances[offset + index - from] = distance(l1, a1, b1, bSquared1, chroma1, this.l[index], this.a[index], this.b[index], this.bSquared[index], this.chroma[index]);
+		}
+	}
+
+	/**
+	 * Find the color of this palette with the smallest CIEDE2000 difference to
+	 * the given color.
+	 *
+	 * @param query
+	 *            the {@link LAB} color
+	 *
+	 * @return the position of the nearest color, the lowest one on ties, or
+	 *         <code>-1</code> if the palette is empty
+	 */
+	public int nearest(LAB query) {
+		if(query == null) {
+			throw new IllegalArgumentException("LAB color cannot be null");
+		}
+
+		final int size = this.size();
+		final double[] distances = new double[Math.min(size, BLOCK_SIZE)];
+
+		int nearest = -1;
+		double best = Double.POSITIVE_INFINITY;
+		for(int from = 0; from < size; from += BLOCK_SIZE) {
+			final int to = Math.min(size, from + BLOCK_SIZE);
+			this.ciede2000(query, from, to, distances, 0);
+
+			for(int index = from; index < to; index++) {
+				if(distances[index - from] < best) {
+					best = distances[index - from];
+					nearest = index;
+				}
+			}
+		}
+
+		return nearest;
+	}
+
+	/**
+	 * Compute the CIEDE2000 difference between two colors given as
+	 * <code>L, a, b</code> values, without allocating.
+	 *
+	 * @return the <b>ciede2000</b> distance
+	 */
+	public static double ciede2000(double l1, double a1, double b1, double l2, double a2, double b2) {
+		return distance(l1, a1, b1, b1 * b1, Math.sqrt(a1 * a1 + b1 * b1), l2, a2, b2, b2 * b2, Math.sqrt(a2 * a2 + b2 * b2));
+	}
+
+	/**
+	 * The scalar kernel. The expressions up to the call to
+	 * {@link #finish(double, double, double, double, double, double, double, double, double, double, double)}
+	 * must stay identical to those of {@link Block#compute}.
+	 */
+	private static double distance(double l1, double a1, double b1, double bSquared1, double chroma1, double l2, double a2, double b2, double bSquared2, double chroma2) {
+		// adapted from Sharma et al's MATLAB implementation at
+		//  http://www.ece.rochester.edu/~gsharma/ciede2000/
+		final double cab = 0.5 * (chroma1 + chroma2);
+		final double cab2 = cab * cab;
+		final double cab7 = cab2 * cab2 * cab2 * cab;
+		final double factor = 1 + 0.5 * (1 - Math.sqrt(cab7 / (cab7 + POW25_7)));
+
+		final double ap1 = factor * a1;
+		final double ap2 = factor * a2;
+		final double cp1 = Math.sqrt(ap1 * ap1 + bSquared1);
+		final double cp2 = Math.sqrt(ap2 * ap2 + bSquared2);
+
+		final double lp = 0.5 * (l1 + l2);
+		final double lpm502 = (lp - 50) * (lp - 50);
+		final double sl = 1 + 0.015 * lpm502 / Math.sqrt(20 + lpm502);
+
+		final double cp = 0.5 * (cp1 + cp2);
+		final double sc = 1 + 0.045 * cp;
+		final double cp2p = cp * cp;
+		final double cp7 = cp2p * cp2p * cp2p * cp;
+		final double rc = 2 * Math.sqrt(cp7 / (cp7 + POW25_7));
+
+		return finish(l1, l2, b1, b2, ap1, ap2, cp1, cp2, sl, sc, rc);
+	}
+
+	/**
+	 * The hue dependent terms, which are scalar in both paths.
+	 */
+	private static double finish(double l1, double l2, double b1, double b2, double ap1, double ap2, double cp1, double cp2, double sl, double sc, double rc) {
+		final double cpp = cp1 * cp2;
+
+		// ensure hue is between 0 and 2pi
+		double hp1 = Math.atan2(b1, ap1);
+		if(hp1 < 0) {
+			hp1 += TWO_PI;
+		}
+
+		double hp2 = Math.atan2(b2, ap2);
+		if(hp2 < 0) {
+			hp2 += TWO_PI;
+		}
+
+		double dhp = hp2 - hp1;
+		if(dhp > Math.PI) {
+			dhp -= TWO_PI;
+		}
+		if(dhp < -Math.PI) {
+			dhp += TWO_PI;
+		}
+		if(cpp == 0) {
+			dhp = 0;
+		}
+
+		// signed hue difference
+		final double dH = 2 * Math.sqrt(cpp) * Math.sin(dhp / 2);
+
+		// average hue, with the sum standing in when a chroma is zero
+		double hp = 0.5 * (hp1 + hp2);
+		if(Math.abs(hp1 - hp2) > Math.PI) {
+			hp -= Math.PI;
+		}
+		if(hp < 0) {
+			hp += TWO_PI;
+		}
+		if(cpp == 0) {
+			hp = hp1 + hp2;
+		}
+
+		// cos(n * hp + k) from a single sine and cosine
+		final double cos1 = Math.cos(hp);
+		final double sin1 = Math.sin(hp);
+		final double cos2 = cos1 * cos1 - sin1 * sin1;
+		final double sin2 = 2 * sin1 * cos1;
+		final double cos3 = cos2 * cos1 - sin2 * sin1;
+		final double sin3 = sin2 * cos1 + cos2 * sin1;
+		final double cos4 = cos2 * cos2 - sin2 * sin2;
+		final double sin4 = 2 * sin2 * cos2;
+
+		final double t = 1 - 0.17 * (cos1 * COS_30 + sin1 * SIN_30)
+				+ 0.24 * cos2
+				+ 0.32 * (cos3 * COS_6 - sin3 * SIN_6)
+				- 0.20 * (cos4 * COS_63 + sin4 * SIN_63);
+
+		final double sh = 1 + 0.015 * 0.5 * (cp1 + cp2) * t;
+		final double ex = (180 / Math.PI * hp - 275) / 25;
+		final double delthetarad = (30 * Math.PI / 180) * Math.exp(-1 * (ex * ex));
+		final double rt = -1 * Math.sin(2 * delthetarad) * rc;
+
+		final double dL = (l2 - l1) / sl;
+		final double dC = (cp2 - cp1) / sc;
+		final double dh = dH / sh;
+
+		// the CIE 00 color difference
+		return Math.sqrt(dL * dL + dC * dC + dh * dh + rt * dC * dh);
+	}
+
+	/**
+	 * Planes of the terms of one block of colors for the planar path.
+	 */
+	private static final class Block {
+
+		private final double[] ap1 = new double[BLOCK_SIZE];
+
+		private final double[] ap2 = new double[BLOCK_SIZE];
+
+		private final double[] cp1 = new double[BLOCK_SIZE];
+
+		private final double[] cp2 = new double[BLOCK_SIZE];
+
+		private final double[] sl = new double[BLOCK_SIZE];
+
+		private final double[] sc = new double[BLOCK_SIZE];
+
+		private final double[] rc = new double[BLOCK_SIZE];
+
+		void compute(LABPalette palette, double l1, double a1, double b1, double bSquared1, double chroma1, int from, int to, double[] distances, int offset) {
+			final double[] l = palette.l;
+			final double[] a = palette.a;
+			final double[] b = palette.b;
+			final double[] bSquared = palette.bSquared;
+			final double[] chroma = palette.chroma;
+
+			for(int start = from; start < to; start += BLOCK_SIZE) {
+				final int count = Math.min(BLOCK_SIZE, to - start);
+
+				// branch-free terms, same expressions as distance()
+				for(int k = 0; k < count; k++) {
+					final int index = start + k;
+
+					final double cab = 0.5 * (chroma1 + chroma[index]);
+					final double cab2 = cab * cab;
+					final double cab7 = cab2 * cab2 * cab2 * cab;
+					final double factor = 1 + 0.5 * (1 - Math.sqrt(cab7 / (cab7 + POW25_7)));
+
+					final double ap1 = factor * a1;
+					final double ap2 = factor * a[index];
+					final double cp1 = Math.sqrt(ap1 * ap1 + bSquared1);
+					final double cp2 = Math.sqrt(ap2 * ap2 + bSquared[index]);
+
+					final double lp = 0.5 * (l1 + l[index]);
+					final double lpm502 = (lp - 50) * (lp - 50);
+					this.sl[k] = 1 + 0.015 * lpm502 / Math.sqrt(20 + lpm502);
+
+					final double cp = 0.5 * (cp1 + cp2);
+					this.sc[k] = 1 + 0.045 * cp;
+					final double cp2p = cp * cp;
+					final double cp7 = cp2p * cp2p * cp2p * cp;
+					this.rc[k] = 2 * Math.sqrt(cp7 / (cp7 + POW25_7));
+
+					this.ap1[k] = ap1;
+					this.ap2[k] = ap2;
+					this.cp1[k] = cp1;
+					this.cp2[k] = cp2;
+				}
+
+				final int base = offset + start - from;
+				for(int k = 0; k < count; k++) {
+					distances[base + k] = finish(l1, l[start + k], b1, b[start + k], this.ap1[k], this.ap2[k], this.cp1[k], this.cp2[k], this.sl[k], this.sc[k], this.rc[k]);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,684 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import com.sangupta.colors.extract.android.Color;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+/**
+ * Finds the named colors closest to a given color. The named colors are kept
+ * in a k-d tree in {@link LAB} space, so that a query only measures the
+ * distance to a few of them instead of to every one.
+ *
+ * <br><br>
+ *
+ * Colors are converted to CIE <code>L*a*b*</code> through the sRGB gamma and
+ * matrix, see
+ * {@link BulkColorConversionUtils#sRGBtoLAB(int[], int, float[], int, int, XYZIlluminant)},
+ * rather than through {@link ColorConversionUtils#RGBtoXYZ(RGB)}, whose
+ * values fall outside the range that CIEDE2000 is defined for.
+ *
+ * <br><br>
+ *
+ * {@link #css3()} indexes the colors of {@link CSS3Colors}, named by their CSS
+ * keyword such as <code>aliceblue</code>, together with the color names
+ * understood by {@link Color#parseColor(String)}. When both define a name the
+ * CSS3 color is used.
+ *
+ * <br><br>
+ *
+ * Colors are identified by their position in the index, between
+ * <code>0</code> and <code>size() - 1</code>, in the order of their names.
+ * Ties are broken in favor of the lower position, so results are
+ * deterministic. Instances are immutable and safe to share between threads.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class NamedColorIndex {
+
+	/**
+	 * The distance used to compare colors.
+	 */
+	public enum Metric {
+
+		/**
+		 * The CIE76 color difference: the Euclidean distance in {@link LAB}
+		 * space
+		 */
+		CIE76,
+
+		/**
+		 * The CIEDE2000 color difference, see {@link LAB#ciede2000(LAB, LAB)}
+		 */
+		CIEDE2000;
+
+	}
+
+	/**
+	 * Largest sine of the hue rotation angle of CIEDE2000, <code>sin(60&deg;)</code>
+	 */
+	private static final double MAX_ROTATION_SINE = Math.sqrt(3.0d) / 2.0d;
+
+	/**
+	 * <code>25<sup>7</sup></code>, used by the rotation term of CIEDE2000
+	 */
+	private static final double POW_25_7 = 6103515625.0d;
+
+	/**
+	 * Largest factor by which CIEDE2000 stretches the <code>a*</code> axis
+	 */
+	private static final double MAX_CHROMA_STRETCH = 1.5d;
+
+	private final String[] names;
+
+	private final RGB[] colors;
+
+	private final LAB[] labs;
+
+	private final XYZIlluminant whitePoint;
+
+	/**
+	 * Positions of the colors, in the order of the tree: the root of every
+	 * range is at its middle
+	 */
+	private final int[] tree;
+
+	/**
+	 * Axis on which each node of the {@link #tree} splits its range
+	 */
+	private final byte[] axes;
+
+	/**
+	 * Bounding box of the colors below each node of the {@link #tree}, as
+	 * minimum and maximum of <code>L*</code>, <code>a*</code> and
+	 * <code>b*</code>
+	 */
+	private final float[] boxes;
+
+	/**
+	 * Create an index over the given named colors, compared in {@link LAB}
+	 * space with the given reference white.
+	 *
+	 * @param colors
+	 *            the colors by name
+	 *
+	 * @param whitePoint
+	 *            the {@link XYZIlluminant} reference white
+	 */
+	public NamedColorIndex(Map<String, RGB> colors, XYZIlluminant whitePoint) {
+		if(colors == null || colors.isEmpty()) {
+			throw new IllegalArgumentException("Named colors cannot be null or empty");
+		}
+
+		if(whitePoint == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		final TreeMap<String, RGB> sorted = new TreeMap<>(colors);
+		final int size = sorted.size();
+
+		this.whitePoint = whitePoint;
+		this.names = new String[size];
+		this.colors = new RGB[size];
+		this.labs = new LAB[size];
+
+		int index = 0;
+		for(Entry<String, RGB> entry : sorted.entrySet()) {
+			if(entry.getKey() == null || entry.getValue() == null) {
+				throw new IllegalArgumentException("Color names and colors cannot be null");
+			}
+
+			final LAB lab = this.lab(entry.getValue());
+			this.names[index] = entry.getKey();
+			this.colors[index] = entry.getValue();
+			this.labs[index] = lab;
+			index++;
+		}
+
+		this.tree = new int[size];
+		this.axes = new byte[size];
+		this.boxes = new float[size * 6];
+		for(int position = 0; position < size; position++) {
+			this.tree[position] = position;
+		}
+
+		this.build(0, size, new long[size]);
+	}
+
+	/**
+	 * The index of all {@link CSS3Colors}, compared under the
+	 * {@link XYZIlluminant#D65} reference white.
+	 *
+	 * @return the shared {@link NamedColorIndex}
+	 */
+	public static NamedColorIndex css3() {
+		return Css3Holder.INDEX;
+	}
+
+	/**
+	 * @return the number of colors in the index
+	 */
+	public int size() {
+		return this.names.length;
+	}
+
+	public String getName(int index) {
+		return this.names[index];
+	}
+
+	public RGB getColor(int index) {
+		return this.colors[index];
+	}
+
+	public LAB getLAB(int index) {
+		return this.labs[index];
+	}
+
+	public XYZIlluminant getWhitePoint() {
+		return this.whitePoint;
+	}
+
+	/**
+	 * Find the position of the given name.
+	 *
+	 * @param name
+	 *            the name to look for
+	 *
+	 * @return the position of the color, or <code>-1</code> if the name is
+	 *         not in the index
+	 */
+	public int indexOf(String name) {
+		if(name == null) {
+			return -1;
+		}
+
+		final int index = Arrays.binarySearch(this.names, name);
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	 * Find the name of the color closest to the given color.
+	 *
+	 * @param color
+	 *            the {@link RGB} color
+	 *
+	 * @param metric
+	 *            the {@link Metric} to compare colors with
+	 *
+	 * @return the name of the closest color
+	 */
+	public String nearestName(RGB color, Metric metric) {
+		return this.names[this.nearest(color, metric)];
+	}
+
+	/**
+	 * Find the color closest to the given color.
+	 *
+	 * @param color
+	 *            the {@link RGB} color
+	 *
+	 * @param metric
+	 *            the {@link Metric} to compare colors with
+	 *
+	 * @return the position of the closest color
+	 */
+	public int nearest(RGB color, Metric metric) {
+		return this.nearest(color, 1, metric)[0];
+	}
+
+	/**
+	 * Find the color closest to the given color.
+	 *
+	 * @param lab
+	 *            the {@link LAB} color as computed by
+	 *            {@link BulkColorConversionUtils#sRGBtoLAB(int[], int, float[], int, int, XYZIlluminant)},
+	 *            under the reference white of this index
+	 *
+	 * @param metric
+	 *            the {@link Metric} to compare colors with
+	 *
+	 * @return the position of the closest color
+	 */
+	public int nearest(LAB lab, Metric metric) {
+		return this.nearest(lab, 1, metric)[0];
+	}
+
+	/**
+	 * Find the color closest to the given packed color, without creating any
+	 * color objects.
+	 *
+	 * @param argb
+	 *            the packed color, alpha is ignored
+	 *
+	 * @param metric
+	 *            the {@link Metric} to compare colors with
+	 *
+	 * @return the position of the closest color
+	 */
+	public int nearest(int argb, Metric metric) {
+		if(metric == null) {
+			throw new IllegalArgumentException("Metric cannot be null");
+		}
+
+		return this.nearest(argb, new Search(1, metric));
+	}
+
+	/**
+	 * Find the color closest to the given packed color, reusing the given
+	 * search so that nothing is allocated.
+	 *
+	 * @return the position of the closest color
+	 */
+	int nearest(int argb, Search search) {
+		BulkColorConversionUtils.srgbToLab(argb, this.whitePoint, search.query, 0);
+		search.start();
+		this.search(0, this.tree.length, search);
+		return search.found[0];
+	}
+
+	/**
+	 * Find the colors closest to the given color.
+	 *
+	 * @param color
+	 *            the {@link RGB} color
+	 *
+	 * @param count
+	 *            the number of colors to find
+	 *
+	 * @param metric
+	 *            the {@link Metric} to compare colors with
+	 *
+	 * @return the positions of the closest colors, closest first. Fewer than
+	 *         <code>count</code> if the index is smaller.
+	 */
+	public int[] nearest(RGB color, int count, Metric metric) {
+		if(color == null) {
+			throw new IllegalArgumentException("RGB Color cannot be null");
+		}
+
+		return this.nearest(this.lab(color), count, metric);
+	}
+
+	/**
+	 * Find the colors closest to the given color.
+	 *
+	 * @param lab
+	 *            the {@link LAB} color as computed by
+	 *            {@link BulkColorConversionUtils#sRGBtoLAB(int[], int, float[], int, int, XYZIlluminant)},
+	 *            under the reference white of this index
+	 *
+	 * @param count
+	 *            the number of colors to find
+	 *
+	 * @param metric
+	 *            the {@link Metric} to compare colors with
+	 *
+	 * @return the positions of the closest colors, closest first. Fewer than
+	 *         <code>count</code> if the index is smaller.
+	 */
+	public int[] nearest(LAB lab, int count, Metric metric) {
+		if(lab == null) {
+			throw new IllegalArgumentException("LAB Color cannot be null");
+		}
+
+		if(metric == null) {
+			throw new IllegalArgumentException("Metric cannot be null");
+		}
+
+		if(count <= 0) {
+			throw new IllegalArgumentException("Number of colors must be positive");
+		}
+
+		final Search search = new Search(Math.min(count, this.size()), metric);
+		search.query[0] = lab.l;
+		search.query[1] = lab.a;
+		search.query[2] = lab.b;
+		search.start();
+		this.search(0, this.tree.length, search);
+		return Arrays.copyOf(search.found, search.size);
+	}
+
+	/**
+	 * Compute the distance between two colors, as used by the given metric.
+	 *
+	 * @param lab1
+	 *            the first {@link LAB} color
+	 *
+	 * @param lab2
+	 *            the second {@link LAB} color
+	 *
+	 * @param metric
+	 *            the {@link Metric}
+	 *
+	 * @return the distance between the colors
+	 */
+	public static double distance(LAB lab1, LAB lab2, Metric metric) {
+		if(metric == Metric.CIEDE2000) {
+			return LAB.ciede2000(lab1, lab2);
+		}
+
+		return Math.sqrt(squaredDistance(lab1, lab2));
+	}
+
+	private LAB lab(RGB color) {
+		final float[] lab = new float[3];
+		BulkColorConversionUtils.srgbToLab(color.value(), this.whitePoint, lab, 0);
+		return new LAB(lab);
+	}
+
+	/**
+	 * Arrange the range of the {@link #tree} as a subtree: sort it on the axis
+	 * with the widest spread and split it at the median.
+	 */
+	private void build(int from, int to, long[] keys) {
+		if(to - from <= 1) {
+			return;
+		}
+
+		final int middle = (from + to) >>> 1;
+		final int axis = this.bound(from, to, middle * 6);
+		for(int position = from; position < to; position++) {
+			final int index = this.tree[position];
+			keys[position] = (long) sortableBits(component(this.labs[index], axis)) << 32 | index;
+		}
+
+		Arrays.sort(keys, from, to);
+		for(int position = from; position < to; position++) {
+			this.tree[position] = (int) keys[position];
+		}
+
+		this.axes[middle] = (byte) axis;
+
+		this.build(from, middle, keys);
+		this.build(middle + 1, to, keys);
+	}
+
+	/**
+	 * Store the bounding box of the range at the given offset of the
+	 * {@link #boxes}.
+	 *
+	 * @return the axis along which the box is widest
+	 */
+	private int bound(int from, int to, int offset) {
+		int widest = 0;
+		float widestSpread = -1;
+
+		for(int axis = 0; axis < 3; axis++) {
+			float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+			for(int position = from; position < to; position++) {
+				final float value = component(this.labs[this.tree[position]], axis);
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+			}
+
+			this.boxes[offset + axis * 2] = min;
+			this.boxes[offset + axis * 2 + 1] = max;
+
+			if(max - min > widestSpread) {
+				widestSpread = max - min;
+				widest = axis;
+			}
+		}
+
+		return widest;
+	}
+
+	private void search(int from, int to, Search search) {
+		if(from >= to) {
+			return;
+		}
+
+		final int middle = (from + to) >>> 1;
+		if(to - from > 1 && !search.reaches(this.boxes, middle * 6)) {
+			return;
+		}
+
+		final int index = this.tree[middle];
+		final LAB lab = this.labs[index];
+
+		final float[] query = search.query;
+		search.offer(index, search.metric == Metric.CIEDE2000 ? square(LABPalette.ciede2000(query[0], query[1], query[2], lab.l, lab.a, lab.b)) : squaredDistance(query, lab));
+
+		final int axis = this.axes[middle];
+		final double delta = query[axis] - component(lab, axis);
+
+		// visit the side of the query first, so that the other side is more
+		// likely to be skipped
+		if(delta < 0) {
+			this.search(from, middle, search);
+			this.search(middle + 1, to, search);
+		} else {
+			this.search(middle + 1, to, search);
+			this.search(from, middle, search);
+		}
+	}
+
+	private static float component(LAB lab, int axis) {
+		switch(axis) {
+			case 0:
+				return lab.l;
+
+			case 1:
+				return lab.a;
+
+			default:
+				return lab.b;
+		}
+	}
+
+	private static double squaredDistance(LAB lab1, LAB lab2) {
+		final double dl = lab1.l - lab2.l;
+		final double da = lab1.a - lab2.a;
+		final double db = lab1.b - lab2.b;
+		return dl * dl + da * da + db * db;
+	}
+
+	private static double squaredDistance(float[] query, LAB lab) {
+		final double dl = query[0] - lab.l;
+		final double da = query[1] - lab.a;
+		final double db = query[2] - lab.b;
+		return dl * dl + da * da + db * db;
+	}
+
+	private static double square(double value) {
+		return value * value;
+	}
+
+	/**
+	 * Distance from the value to the range, <code>0</code> within the range.
+	 */
+	private static double gap(float value, float min, float max) {
+		if(value < min) {
+			return min - value;
+		}
+
+		return value > max ? value - max : 0;
+	}
+
+	/**
+	 * Map a float to an int whose signed order is the order of the floats.
+	 */
+	private static int sortableBits(float value) {
+		final int bits = Float.floatToIntBits(value);
+		return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+	}
+
+	/**
+	 * State of one query: the closest colors found so far, closest first. A
+	 * search may be reused for query after query.
+	 */
+	static final class Search {
+
+		/**
+		 * The <code>L*</code>, <code>a*</code> and <code>b*</code> values of
+		 * the query color
+		 */
+		final float[] query = new float[3];
+
+		final Metric metric;
+
+		final int[] found;
+
+		final double[] distances;
+
+		int size;
+
+		/**
+		 * Chroma of the query color
+		 */
+		double chroma;
+
+		Search(int count, Metric metric) {
+			this.metric = metric;
+			this.found = new int[count];
+			this.distances = new double[count];
+		}
+
+		/**
+		 * Start a new query for the color in {@link #query}.
+		 */
+		void start() {
+			this.size = 0;
+			this.chroma = Math.sqrt(this.query[1] * this.query[1] + this.query[2] * this.query[2]);
+		}
+
+		void offer(int index, double distance) {
+			int position = this.size;
+			if(position == this.found.length) {
+				if(!this.closer(index, distance, position - 1)) {
+					return;
+				}
+
+				position--;
+			} else {
+				this.size++;
+			}
+
+			while(position > 0 && this.closer(index, distance, position - 1)) {
+				this.found[position] = this.found[position - 1];
+				this.distances[position] = this.distances[position - 1];
+				position--;
+			}
+
+			this.found[position] = index;
+			this.distances[position] = distance;
+		}
+
+		private boolean closer(int index, double distance, int position) {
+			return distance < this.distances[position] || (distance == this.distances[position] && index < this.found[position]);
+		}
+
+		/**
+		 * Check if the colors in the box at the given offset may be closer than
+		 * the farthest color found so far, by computing a lower bound of their
+		 * squared distance to the query.
+		 */
+		boolean reaches(float[] boxes, int offset) {
+			if(this.size < this.found.length) {
+				return true;
+			}
+
+			final double dl = gap(this.query[0], boxes[offset], boxes[offset + 1]);
+			final double da = gap(this.query[1], boxes[offset + 2], boxes[offset + 3]);
+			final double db = gap(this.query[2], boxes[offset + 4], boxes[offset + 5]);
+
+			final double bound;
+			if(this.metric == Metric.CIEDE2000) {
+				// CIEDE2000 divides the lightness, chroma and hue differences by
+				// weights that grow with the mean lightness and chroma of the two
+				// colors; take the largest weights over the box. The chroma and hue
+				// differences together are at least the a*b* difference, and the
+				// rotation term removes at most a share that grows with chroma.
+				final double offsetL = Math.max(Math.abs((this.query[0] + boxes[offset]) / 2 - 50), Math.abs((this.query[0] + boxes[offset + 1]) / 2 - 50));
+				final double sl = 1 + 0.015 * offsetL * offsetL / Math.sqrt(20 + offsetL * offsetL);
+
+				final double maxA = Math.max(Math.abs(boxes[offset + 2]), Math.abs(boxes[offset + 3]));
+				final double maxB = Math.max(Math.abs(boxes[offset + 4]), Math.abs(boxes[offset + 5]));
+				final double cp = MAX_CHROMA_STRETCH * (this.chroma + Math.sqrt(maxA * maxA + maxB * maxB)) / 2;
+				final double sc = 1 + 0.045 * cp;
+
+				final double cp7 = Math.pow(cp, 7);
+				final double rc = 2 * Math.sqrt(cp7 / (cp7 + POW_25_7));
+				final double rotation = 1 - MAX_ROTATION_SINE * rc / 2;
+
+				bound = dl * dl / (sl * sl) + rotation * (da * da + db * db) / (sc * sc);
+			} else {
+				bound = dl * dl + da * da + db * db;
+			}
+
+			return bound <= this.distances[this.size - 1];
+		}
+
+	}
+
+	/**
+	 * The colors of {@link CSS3Colors} keyed by their CSS keyword, such as
+	 * <code>aliceblue</code> for {@link CSS3Colors#ALICE_BLUE}.
+	 *
+	 * @return a new sorted map of the colors
+	 */
+	public static Map<String, RGB> keywords() {
+		final Map<String, RGB> colors = new TreeMap<>();
+
+		for(Field field : CSS3Colors.class.getFields()) {
+			if(field.getType() != RGB.class || !Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+
+			try {
+				colors.put(field.getName().replace("_", "").toLowerCase(Locale.ROOT), (RGB) field.get(null));
+			} catch(IllegalAccessException e) {
+				throw new IllegalStateException("Unable to read CSS3 color " + field.getName(), e);
+			}
+		}
+
+		return colors;
+	}
+
+	private static class Css3Holder {
+
+		static final NamedColorIndex INDEX = new NamedColorIndex(css3Colors(), XYZIlluminant.D65);
+
+		private static Map<String, RGB> css3Colors() {
+			final Map<String, RGB> colors = keywords();
+
+			for(Entry<String, Integer> entry : Color.getColorNames().entrySet()) {
+				if(!colors.containsKey(entry.getKey())) {
+					colors.put(entry.getKey(), new RGB(entry.getValue()));
+				}
+			}
+
+			return colors;
+		}
+
+	}
+
+}
@@ -0,0 +1,374 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.RecursiveAction;
+
+import com.sangupta.colors.NamedColorIndex.Metric;
+import com.sangupta.colors.model.RGB;
+
+/**
+ * A precomputed table of the nearest named color of every {@link RGB} color,
+ * so that naming a color is a single indexed load instead of a search of a
+ * {@link NamedColorIndex}.
+ *
+ * <br><br>
+ *
+ * The table keeps only the top <code>bits</code> bits of every channel. The
+ * entry of each cell of <code>2<sup>8 - bits</sup></code> colors per channel
+ * is the nearest named color of the center of the cell. With 8 bits there is
+ * an entry for each of the 16,777,216 colors, one byte each, or 16 MB; with 6
+ * bits the table takes 256 KB and colors are at most two levels per channel
+ * away from the color that was looked up.
+ *
+ * <br><br>
+ *
+ * Filling the table runs a nearest color search for every cell, split over
+ * the available processors. On a single core a 6-bit table takes a fraction
+ * of a second with {@link Metric#CIE76} and seconds with
+ * {@link Metric#CIEDE2000}, and a full table 64 times as long. So
+ * {@link #save(File)} writes the table to disk and
+ * {@link #load(File, NamedColorIndex)} memory-maps it back, read-only and
+ * without copying. Set the <code>com.sangupta.colors.parallel</code> system
+ * property to <code>false</code> to build on the calling thread only, see
+ * {@link ParallelSupport}.
+ *
+ * <br><br>
+ *
+ * Entries are positions in the {@link NamedColorIndex} the table was built
+ * from, which may hold at most {@value #MAX_COLORS} colors. Instances are
+ * immutable and safe to share between threads.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class NamedColorTable {
+
+	/**
+	 * Magic number at the start of every saved table - <code>RNAM</code>
+	 */
+	private static final int MAGIC = 0x524E414D;
+
+	/**
+	 * Version of the file layout
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Size of the file header in bytes: magic, version, bits, metric, number of
+	 * colors and fingerprint of the index
+	 */
+	private static final int HEADER_SIZE = 24;
+
+	/**
+	 * Largest number of named colors, so that a position fits a byte
+	 */
+	static final int MAX_COLORS = 256;
+
+	/**
+	 * Number of cells filled by a single task
+	 */
+	private static final int MIN_RANGE = 1 << 12;
+
+	private final NamedColorIndex index;
+
+	private final Metric metric;
+
+	/**
+	 * Number of bits per channel in the table
+	 */
+	private final int bits;
+
+	/**
+	 * The position of the nearest named color of each cell
+	 */
+	private final ByteBuffer data;
+
+	private NamedColorTable(NamedColorIndex index, Metric metric, int bits, ByteBuffer data) {
+		this.index = index;
+		this.metric = metric;
+		this.bits = bits;
+		this.data = data;
+	}
+
+	/**
+	 * Build a table for the given index.
+	 *
+	 * @param index
+	 *            the {@link NamedColorIndex} to name colors from
+	 *
+	 * @param metric
+	 *            the {@link Metric} to compare colors with
+	 *
+	 * @param bits
+	 *            the number of bits per channel, between <code>4</code> and
+	 *            <code>8</code>
+	 *
+	 * @return the {@link NamedColorTable}
+	 */
+	public static NamedColorTable build(NamedColorIndex index, Metric metric, int bits) {
+		return build(index, metric, bits, ParallelSupport.isEnabled());
+	}
+
+	/**
+	 * Build a table, filling it on the shared pool or on the calling thread
+	 * only.
+	 */
+	static NamedColorTable build(NamedColorIndex index, Metric metric, int bits, boolean parallel) {
+		if(index == null) {
+			throw new IllegalArgumentException("Named color index cannot be null");
+		}
+
+		if(index.size() > MAX_COLORS) {
+			throw new IllegalArgumentException("Named color index cannot hold more than " + MAX_COLORS + " colors: got " + index.size());
+		}
+
+		if(metric == null) {
+			throw new IllegalArgumentException("Metric cannot be null");
+		}
+
+		if(bits < 4 || bits > 8) {
+			throw new IllegalArgumentException("Bits per channel must be between 4 and 8 inclusive: got " + bits);
+		}
+
+		final byte[] data = new byte[1 << (bits * 3)];
+		final Fill fill = new Fill(index, metric, bits, data, 0, data.length);
+		if(parallel && data.length > MIN_RANGE) {
+			ParallelSupport.getPool().invoke(fill);
+		} else {
+			fill.fill();
+		}
+
+		return new NamedColorTable(index, metric, bits, ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * Memory-map a table previously written using {@link #save(File)}.
+	 *
+	 * @param file
+	 *            the file to read
+	 *
+	 * @param index
+	 *            the {@link NamedColorIndex} the table was built from
+	 *
+	 * @return the {@link NamedColorTable}
+	 *
+	 * @throws IOException
+	 *             if the file cannot be read, is not a valid table or was built
+	 *             from a different index
+	 */
+	public static NamedColorTable load(File file, NamedColorIndex index) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("File cannot be null");
+		}
+
+		if(index == null) {
+			throw new IllegalArgumentException("Named color index cannot be null");
+		}
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			// the mapping stays valid after the channel is closed
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+			if(buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+				throw new IOException("Not a named color table: " + file);
+			}
+
+			final int version = buffer.getInt();
+			if(version != VERSION) {
+				throw new IOException("Unsupported named color table version " + version + ": " + file);
+			}
+
+			final int bits = buffer.getInt();
+			final int metric = buffer.getInt();
+			if(bits < 4 || bits > 8 || metric < 0 || metric >= Metric.values().length) {
+				throw new IOException("Corrupt named color table header: " + file);
+			}
+
+			final int size = buffer.getInt();
+			final int fingerprint = buffer.getInt();
+			if(size != index.size() || fingerprint != fingerprint(index)) {
+				throw new IOException("Named color table was built from a different index: " + file);
+			}
+
+			final int expected = 1 << (bits * 3);
+			if(buffer.remaining() != expected) {
+				throw new IOException("Corrupt named color table, expected " + expected + " bytes of data: " + file);
+			}
+
+			return new NamedColorTable(index, Metric.values()[metric], bits, buffer.slice());
+		}
+	}
+
+	/**
+	 * Write this table to the given file, replacing any existing content.
+	 *
+	 * @param file
+	 *            the file to write
+	 *
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public void save(File file) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("File cannot be null");
+		}
+
+		final long size = HEADER_SIZE + (long) this.data.capacity();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+			raf.setLength(0);
+
+			ByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(this.bits);
+			buffer.putInt(this.metric.ordinal());
+			buffer.putInt(this.index.size());
+			buffer.putInt(fingerprint(this.index));
+
+			buffer.put(this.data.duplicate());
+		}
+	}
+
+	/**
+	 * Look up the nearest named color of a packed color.
+	 *
+	 * @param argb
+	 *            the packed color, alpha is ignored
+	 *
+	 * @return the position of the named color in the {@link NamedColorIndex}
+	 */
+	public int nearest(int argb) {
+		final int shift = 8 - this.bits;
+
+		final int red = ((argb >> 16) & 0xFF) >> shift;
+		final int green = ((argb >> 8) & 0xFF) >> shift;
+		final int blue = (argb & 0xFF) >> shift;
+
+		return this.data.get((red << (this.bits * 2)) | (green << this.bits) | blue) & 0xFF;
+	}
+
+	/**
+	 * Look up the name of the nearest named color of the given color.
+	 *
+	 * @param rgb
+	 *            the {@link RGB} color
+	 *
+	 * @return the name of the nearest named color
+	 */
+	public String nearestName(RGB rgb) {
+		if(rgb == null) {
+			throw new IllegalArgumentException("RGB Color cannot be null");
+		}
+
+		return this.index.getName(this.nearest(rgb.value()));
+	}
+
+	public NamedColorIndex getIndex() {
+		return this.index;
+	}
+
+	public Metric getMetric() {
+		return this.metric;
+	}
+
+	public int getBits() {
+		return this.bits;
+	}
+
+	/**
+	 * A hash of the names, colors and reference white of an index, to check
+	 * that a saved table is used with the index it was built from.
+	 *
+	 */
+	private static int fingerprint(NamedColorIndex index) {
+		int hash = index.getWhitePoint().name().hashCode();
+		for(int position = 0; position < index.size(); position++) {
+			hash = 31 * hash + index.getName(position).hashCode();
+			hash = 31 * hash + index.getColor(position).value();
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Fills a range of cells of the table, splitting it while it is larger than
+	 * {@link #MIN_RANGE}.
+	 */
+	private static final class Fill extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final NamedColorIndex index;
+
+		private final Metric metric;
+
+		private final int bits;
+
+		private final byte[] data;
+
+		private final int from;
+
+		private final int to;
+
+		Fill(NamedColorIndex index, Metric metric, int bits, byte[] data, int from, int to) {
+			this.index = index;
+			this.metric = metric;
+			this.bits = bits;
+			this.data = data;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(this.to - this.from <= MIN_RANGE) {
+				this.fill();
+				return;
+			}
+
+			final int middle = (this.from + this.to) >>> 1;
+			invokeAll(new Fill(this.index, this.metric, this.bits, this.data, this.from, middle), new Fill(this.index, this.metric, this.bits, this.data, middle, this.to));
+		}
+
+		void fill() {
+			final int shift = 8 - this.bits;
+			final int mask = (1 << this.bits) - 1;
+			final int center = shift == 0 ? 0 : 1 << (shift - 1);
+			final NamedColorIndex.Search search = new NamedColorIndex.Search(1, this.metric);
+
+			for(int cell = this.from; cell < this.to; cell++) {
+				final int red = ((cell >> (this.bits * 2)) << shift) | center;
+				final int green = (((cell >> this.bits) & mask) << shift) | center;
+				final int blue = ((cell & mask) << shift) | center;
+
+				this.data[cell] = (byte) this.index.nearest(red << 16 | green << 8 | blue, search);
+			}
+		}
+
+	}
+
+}
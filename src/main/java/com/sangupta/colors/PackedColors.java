@@ -0,0 +1,545 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ *
+ * https://sangupta.com/projects/colors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.awt.Color;
+
+import com.sangupta.colors.model.HSB;
+import com.sangupta.colors.model.HSL;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+/**
+ * Colors packed into primitives, so that large sets of colors can be kept in
+ * <code>int[]</code> and <code>long[]</code> arrays without an object per
+ * color.
+ *
+ * <ul>
+ * <li>{@link RGB} colors are packed in an <code>int</code> as
+ * <code>0xAARRGGBB</code>, the same as {@link RGB#value()}.</li>
+ * <li>{@link HSL}, {@link HSB} and {@link LAB} colors are packed in a
+ * <code>long</code> as three 21-bit signed fixed-point components, the first
+ * component in the highest bits. HSL and HSB components are stored in
+ * millionths, between <code>-1.048576</code> and <code>1.048575</code>. LAB
+ * components are stored in thousandths, between <code>-1048.576</code> and
+ * <code>1048.575</code>. Values outside the range are clamped.</li>
+ * </ul>
+ *
+ * The hue of packed HSL and HSB colors is a fraction of a full turn, as in the
+ * {@link HSL} and {@link HSB} models. Every conversion works directly on the
+ * packed values and does not allocate.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class PackedColors {
+
+	/**
+	 * Number of bits of each fixed-point component
+	 */
+	private static final int COMPONENT_BITS = 21;
+
+	private static final long COMPONENT_MASK = (1L << COMPONENT_BITS) - 1;
+
+	private static final int COMPONENT_MIN = -(1 << (COMPONENT_BITS - 1));
+
+	private static final int COMPONENT_MAX = (1 << (COMPONENT_BITS - 1)) - 1;
+
+	/**
+	 * Fixed-point scale of HSL and HSB components
+	 */
+	private static final float UNIT_SCALE = 1_000_000f;
+
+	/**
+	 * Fixed-point scale of LAB components
+	 */
+	private static final float LAB_SCALE = 1_000f;
+
+	private PackedColors() {
+		// not to be instantiated
+	}
+
+	// RGB
+
+	/**
+	 * Pack an opaque {@link RGB} color.
+	 *
+	 * @param red
+	 *            the red channel between <code>0-255</code>
+	 *
+	 * @param green
+	 *            the green channel between <code>0-255</code>
+	 *
+	 * @param blue
+	 *            the blue channel between <code>0-255</code>
+	 *
+	 * @return the packed color
+	 */
+	public static int rgb(int red, int green, int blue) {
+		return argb(255, red, green, blue);
+	}
+
+	/**
+	 * Pack a {@link RGB} color with an alpha channel.
+	 *
+	 * @param alpha
+	 *            the alpha channel between <code>0-255</code>
+	 *
+	 * @param red
+	 *            the red channel between <code>0-255</code>
+	 *
+	 * @param green
+	 *            the green channel between <code>0-255</code>
+	 *
+	 * @param blue
+	 *            the blue channel between <code>0-255</code>
+	 *
+	 * @return the packed color
+	 */
+	public static int argb(int alpha, int red, int green, int blue) {
+		return (alpha & 0xFF) << 24 | (red & 0xFF) << 16 | (green & 0xFF) << 8 | (blue & 0xFF);
+	}
+
+	public static int alpha(int argb) {
+		return argb >>> 24;
+	}
+
+	public static int red(int argb) {
+		return (argb >> 16) & 0xFF;
+	}
+
+	public static int green(int argb) {
+		return (argb >> 8) & 0xFF;
+	}
+
+	public static int blue(int argb) {
+		return argb & 0xFF;
+	}
+
+	public static RGB toRGB(int argb) {
+		return new RGB(argb);
+	}
+
+	// HSL
+
+	/**
+	 * Pack a {@link HSL} color.
+	 *
+	 * @param hue
+	 *            the hue as a fraction of a full turn
+	 *
+	 * @param saturation
+	 *            the saturation between <code>0-1</code>
+	 *
+	 * @param luminosity
+	 *            the luminosity between <code>0-1</code>
+	 *
+	 * @return the packed color
+	 */
+	public static long hsl(float hue, float saturation, float luminosity) {
+		return pack(hue, saturation, luminosity, UNIT_SCALE);
+	}
+
+	public static long hsl(HSL hsl) {
+		if(hsl == null) {
+			throw new IllegalArgumentException("HSL Color cannot be null");
+		}
+
+		return hsl(hsl.hue, hsl.saturation, hsl.luminosity);
+	}
+
+	public static float hslHue(long hsl) {
+		return first(hsl, UNIT_SCALE);
+	}
+
+	public static float hslSaturation(long hsl) {
+		return second(hsl, UNIT_SCALE);
+	}
+
+	public static float hslLuminosity(long hsl) {
+		return third(hsl, UNIT_SCALE);
+	}
+
+	public static HSL toHSL(long hsl) {
+		return new HSL(hslHue(hsl), hslSaturation(hsl), hslLuminosity(hsl));
+	}
+
+	// HSB
+
+	/**
+	 * Pack a {@link HSB} color.
+	 *
+	 * @param hue
+	 *            the hue as a fraction of a full turn
+	 *
+	 * @param saturation
+	 *            the saturation between <code>0-1</code>
+	 *
+	 * @param brightness
+	 *            the brightness between <code>0-1</code>
+	 *
+	 * @return the packed color
+	 */
+	public static long hsb(float hue, float saturation, float brightness) {
+		return pack(hue, saturation, brightness, UNIT_SCALE);
+	}
+
+	public static long hsb(HSB hsb) {
+		if(hsb == null) {
+			throw new IllegalArgumentException("HSB Color cannot be null");
+		}
+
+		return hsb(hsb.hue, hsb.saturation, hsb.brightness);
+	}
+
+	public static float hsbHue(long hsb) {
+		return first(hsb, UNIT_SCALE);
+	}
+
+	public static float hsbSaturation(long hsb) {
+		return second(hsb, UNIT_SCALE);
+	}
+
+	public static float hsbBrightness(long hsb) {
+		return third(hsb, UNIT_SCALE);
+	}
+
+	public static HSB toHSB(long hsb) {
+		return new HSB(hsbHue(hsb), hsbSaturation(hsb), hsbBrightness(hsb));
+	}
+
+	// LAB
+
+	/**
+	 * Pack a {@link LAB} color.
+	 *
+	 * @param l
+	 *            the <code>L*</code> component
+	 *
+	 * @param a
+	 *            the <code>a*</code> component
+	 *
+	 * @param b
+	 *            the <code>b*</code> component
+	 *
+	 * @return the packed color
+	 */
+	public static long lab(float l, float a, float b) {
+		return pack(l, a, b, LAB_SCALE);
+	}
+
+	public static long lab(LAB lab) {
+		if(lab == null) {
+			throw new IllegalArgumentException("LAB Color cannot be null");
+		}
+
+		return lab(lab.l, lab.a, lab.b);
+	}
+
+	public static float labL(long lab) {
+		return first(lab, LAB_SCALE);
+	}
+
+	public static float labA(long lab) {
+		return second(lab, LAB_SCALE);
+	}
+
+	public static float labB(long lab) {
+		return third(lab, LAB_SCALE);
+	}
+
+	public static LAB toLAB(long lab) {
+		return new LAB(labL(lab), labA(lab), labB(lab));
+	}
+
+	// Conversions
+
+	/**
+	 * Convert a packed {@link RGB} color to a packed {@link HSL} color. Same as
+	 * {@link ColorConversionUtils#RGBtoHSL(RGB)}.
+	 *
+	 * @param argb
+	 *            the packed color
+	 *
+	 * @return the packed {@link HSL} color
+	 */
+	public static long RGBtoHSL(int argb) {
+		final float redFloat = red(argb) / 255f;
+		final float greenFloat = green(argb) / 255f;
+		final float blueFloat = blue(argb) / 255f;
+
+		final float max = Math.max(redFloat, Math.max(greenFloat, blueFloat));
+		final float min = Math.min(redFloat, Math.min(greenFloat, blueFloat));
+		final float deltaMaxMin = max - min;
+
+		float hue, saturation;
+		float lumin = (max + min) / 2f;
+
+		if (max == min) {
+			// Monochromatic
+			hue = saturation = 0f;
+		} else {
+			if (max == redFloat) {
+				hue = ((greenFloat - blueFloat) / deltaMaxMin) % 6f;
+			} else if (max == greenFloat) {
+				hue = ((blueFloat - redFloat) / deltaMaxMin) + 2f;
+			} else {
+				hue = ((redFloat - greenFloat) / deltaMaxMin) + 4f;
+			}
+
+			saturation = deltaMaxMin / (1f - Math.abs(2f * lumin - 1f));
+		}
+
+		hue = (hue * 60f) % 360f;
+		if(hue < 0) {
+			hue = 360f + hue;
+		}
+
+		if(saturation > 1.0f) {
+			saturation = 1.0f;
+		}
+
+		return hsl(hue / 360f, saturation, lumin);
+	}
+
+	/**
+	 * Convert a packed {@link HSL} color to an opaque packed {@link RGB} color.
+	 *
+	 * @param hsl
+	 *            the packed color
+	 *
+	 * @return the packed {@link RGB} color
+	 */
+	public static int HSLtoRGB(long hsl) {
+		return BulkColorConversionUtils.hslToRgb(hslHue(hsl) * 360f, hslSaturation(hsl), hslLuminosity(hsl));
+	}
+
+	/**
+	 * Convert a packed {@link RGB} color to a packed {@link HSB} color. Same as
+	 * {@link ColorConversionUtils#RGBtoHSB(RGB)}.
+	 *
+	 * @param argb
+	 *            the packed color
+	 *
+	 * @return the packed {@link HSB} color
+	 */
+	public static long RGBtoHSB(int argb) {
+		final int red = red(argb);
+		final int green = green(argb);
+		final int blue = blue(argb);
+
+		final int max = Math.max(red, Math.max(green, blue));
+		final int min = Math.min(red, Math.min(green, blue));
+
+		final float brightness = max / 255f;
+		final float saturation = max != 0 ? (max - min) / (float) max : 0f;
+
+		float hue = 0f;
+		if(saturation != 0) {
+			final float range = max - min;
+			final float redRatio = (max - red) / range;
+			final float greenRatio = (max - green) / range;
+			final float blueRatio = (max - blue) / range;
+
+			if(red == max) {
+				hue = blueRatio - greenRatio;
+			} else if(green == max) {
+				hue = 2.0f + redRatio - blueRatio;
+			} else {
+				hue = 4.0f + greenRatio - redRatio;
+			}
+
+			hue = hue / 6.0f;
+			if(hue < 0) {
+				hue = hue + 1.0f;
+			}
+		}
+
+		return hsb(hue, saturation, brightness);
+	}
+
+	/**
+	 * Convert a packed {@link HSB} color to an opaque packed {@link RGB} color.
+	 * Same as {@link ColorConversionUtils#HSBtoRGB(HSB)}.
+	 *
+	 * @param hsb
+	 *            the packed color
+	 *
+	 * @return the packed {@link RGB} color
+	 */
+	public static int HSBtoRGB(long hsb) {
+		return 0xFF000000 | Color.HSBtoRGB(hsbHue(hsb), hsbSaturation(hsb), hsbBrightness(hsb));
+	}
+
+	/**
+	 * Convert a packed {@link RGB} color to a packed {@link LAB} color. Same as
+	 * {@link BulkColorConversionUtils#RGBtoLAB(int[], int, float[], int, int, XYZIlluminant)}.
+	 *
+	 * @param argb
+	 *            the packed color
+	 *
+	 * @param whitePoint
+	 *            the {@link XYZIlluminant} reference white
+	 *
+	 * @return the packed {@link LAB} color
+	 */
+	public static long RGBtoLAB(int argb, XYZIlluminant whitePoint) {
+		if(whitePoint == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		return RGBtoLAB(argb, whitePoint, new float[3]);
+	}
+
+	/**
+	 * Convert a packed {@link RGB} color to a packed {@link LAB} color, using
+	 * the given array of 3 elements as scratch space.
+	 */
+	private static long RGBtoLAB(int argb, XYZIlluminant whitePoint, float[] scratch) {
+		BulkColorConversionUtils.rgbToLab(argb, whitePoint, scratch, 0);
+		return lab(scratch[0], scratch[1], scratch[2]);
+	}
+
+	/**
+	 * Convert a packed {@link LAB} color to an opaque packed {@link RGB} color.
+	 * Same as {@link ColorConversionUtils#LABtoXYZ(LAB, XYZIlluminant)} followed
+	 * by {@link ColorConversionUtils#XYZtoRGB(com.sangupta.colors.model.XYZ)}.
+	 *
+	 * @param lab
+	 *            the packed color
+	 *
+	 * @param illuminant
+	 *            the {@link XYZIlluminant} reference white
+	 *
+	 * @return the packed {@link RGB} color
+	 */
+	public static int LABtoRGB(long lab, XYZIlluminant illuminant) {
+		if(illuminant == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		double y = (labL(lab) + 16.0) / 116.0;
+		double x = (labA(lab) / 500.0) + y;
+		double z = y - (labB(lab) / 200.0);
+
+		final double x3 = x * x * x;
+		final double y3 = y * y * y;
+		final double z3 = z * z * z;
+
+		x = x3 > 0.008856 ? x3 : (x - (16.0 / 116.0)) / 7.787;
+		y = y3 > 0.008856 ? y3 : (y - (16.0 / 116.0)) / 7.787;
+		z = z3 > 0.008856 ? z3 : (z - (16.0 / 116.0)) / 7.787;
+
+		return BulkColorConversionUtils.xyzToRgb((float) (x * illuminant.x2()), (float) (y * illuminant.y2()), (float) (z * illuminant.z2()));
+	}
+
+	// Conversions of arrays
+
+	public static void RGBtoHSL(int[] argb, int argbOffset, long[] hsl, int hslOffset, int length) {
+		checkRange(argb.length, argbOffset, hsl.length, hslOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			hsl[hslOffset + index] = RGBtoHSL(argb[argbOffset + index]);
+		}
+	}
+
+	public static void HSLtoRGB(long[] hsl, int hslOffset, int[] argb, int argbOffset, int length) {
+		checkRange(hsl.length, hslOffset, argb.length, argbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			argb[argbOffset + index] = HSLtoRGB(hsl[hslOffset + index]);
+		}
+	}
+
+	public static void RGBtoHSB(int[] argb, int argbOffset, long[] hsb, int hsbOffset, int length) {
+		checkRange(argb.length, argbOffset, hsb.length, hsbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			hsb[hsbOffset + index] = RGBtoHSB(argb[argbOffset + index]);
+		}
+	}
+
+	public static void HSBtoRGB(long[] hsb, int hsbOffset, int[] argb, int argbOffset, int length) {
+		checkRange(hsb.length, hsbOffset, argb.length, argbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			argb[argbOffset + index] = HSBtoRGB(hsb[hsbOffset + index]);
+		}
+	}
+
+	public static void RGBtoLAB(int[] argb, int argbOffset, long[] lab, int labOffset, int length, XYZIlluminant whitePoint) {
+		checkRange(argb.length, argbOffset, lab.length, labOffset, length);
+		if(whitePoint == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		final float[] scratch = new float[3];
+		for(int index = 0; index < length; index++) {
+			lab[labOffset + index] = RGBtoLAB(argb[argbOffset + index], whitePoint, scratch);
+		}
+	}
+
+	public static void LABtoRGB(long[] lab, int labOffset, int[] argb, int argbOffset, int length, XYZIlluminant illuminant) {
+		checkRange(lab.length, labOffset, argb.length, argbOffset, length);
+
+		for(int index = 0; index < length; index++) {
+			argb[argbOffset + index] = LABtoRGB(lab[labOffset + index], illuminant);
+		}
+	}
+
+	// Fixed-point packing
+
+	private static long pack(float first, float second, float third, float scale) {
+		return fixed(first, scale) << (2 * COMPONENT_BITS) | fixed(second, scale) << COMPONENT_BITS | fixed(third, scale);
+	}
+
+	private static long fixed(float value, float scale) {
+		final long fixed = Math.max(COMPONENT_MIN, Math.min(COMPONENT_MAX, Math.round(value * (double) scale)));
+		return fixed & COMPONENT_MASK;
+	}
+
+	private static float first(long packed, float scale) {
+		return component(packed, 2 * COMPONENT_BITS, scale);
+	}
+
+	private static float second(long packed, float scale) {
+		return component(packed, COMPONENT_BITS, scale);
+	}
+
+	private static float third(long packed, float scale) {
+		return component(packed, 0, scale);
+	}
+
+	/**
+	 * Sign-extend the component at the given bit position and scale it back.
+	 *
+	 */
+	private static float component(long packed, int shift, float scale) {
+		final int unused = 64 - COMPONENT_BITS;
+		return (float) ((packed << (unused - shift)) >> unused) / scale;
+	}
+
+	private static void checkRange(int sourceLength, int sourceOffset, int destLength, int destOffset, int length) {
+		if(sourceOffset < 0 || destOffset < 0 || length < 0 || sourceOffset + length > sourceLength || destOffset + length > destLength) {
+			throw new IllegalArgumentException("Offset and length do not fit the color arrays");
+		}
+	}
+}
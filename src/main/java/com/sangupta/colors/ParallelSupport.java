@@ -0,0 +1,74 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The fork-join pool and the switch shared by every parallel path of the
+ * library, such as building a {@link NamedColorTable} or counting pixels for
+ * the color quantizers, so that a process never runs more than one pool sized
+ * to the number of processors.
+ *
+ * <br><br>
+ *
+ * Parallel paths are on by default. Set the
+ * <code>com.sangupta.colors.parallel</code> system property to
+ * <code>false</code> to run all of them on the calling thread.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class ParallelSupport {
+
+	/**
+	 * Whether the parallel paths are enabled
+	 */
+	private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("com.sangupta.colors.parallel"));
+
+	private ParallelSupport() {
+		// not to be instantiated
+	}
+
+	/**
+	 * @return <code>true</code> if work may be split over the shared pool
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * @return the shared pool, created on first use
+	 */
+	public static ForkJoinPool getPool() {
+		return PoolHolder.POOL;
+	}
+
+	/**
+	 * Holder for the shared pool - created on first use. Its workers are daemon
+	 * threads, so it does not keep the JVM alive.
+	 */
+	private static class PoolHolder {
+
+		static final ForkJoinPool POOL = new ForkJoinPool();
+
+	}
+
+}
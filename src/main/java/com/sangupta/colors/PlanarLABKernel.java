@@ -0,0 +1,231 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+/**
+ * Planar (structure-of-arrays) kernel for the RGB to XYZ to LAB pipeline used
+ * by {@link BulkColorConversionUtils}.
+ *
+ * <br><br>
+ *
+ * Colors are processed in blocks of {@link #BLOCK_SIZE}. Each block is first
+ * unpacked into one <code>float[]</code> plane per channel, and every stage
+ * after that is a branch-free loop over whole planes - the shape that the
+ * HotSpot C2 compiler turns into SIMD instructions on its own (SSE/AVX on
+ * x86, NEON on ARM). Only the LAB <code>f(t)</code> step stays scalar, and
+ * uses {@link ColorLookupTables#labF(double)}. The arithmetic, and its order,
+ * is the same as in the per-color loops so results are bit-for-bit identical.
+ *
+ * <br><br>
+ *
+ * The kernel is on by default for inputs of at least {@link #MIN_LENGTH}
+ * colors. Set the <code>com.sangupta.colors.planar</code> system property to
+ * <code>false</code> to fall back to the per-color loops.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+final class PlanarLABKernel {
+
+	/**
+	 * Number of colors in one block of planes
+	 */
+	static final int BLOCK_SIZE = 256;
+
+	/**
+	 * Minimum number of colors for which the planar kernel is used
+	 */
+	static final int MIN_LENGTH = 32;
+
+	/**
+	 * Whether the planar kernel is enabled
+	 */
+	private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("com.sangupta.colors.planar"));
+
+	private static final float NORMALIZER = 1.0f / 0.17697f;
+
+	/**
+	 * One kernel per thread, so that bulk conversions do not allocate planes
+	 */
+	private static final ThreadLocal<PlanarLABKernel> KERNEL = new ThreadLocal<PlanarLABKernel>();
+
+	private final float[] red = new float[BLOCK_SIZE];
+
+	private final float[] green = new float[BLOCK_SIZE];
+
+	private final float[] blue = new float[BLOCK_SIZE];
+
+	private final float[] x = new float[BLOCK_SIZE];
+
+	private final float[] y = new float[BLOCK_SIZE];
+
+	private final float[] z = new float[BLOCK_SIZE];
+
+	private final double[] fx = new double[BLOCK_SIZE];
+
+	private final double[] fy = new double[BLOCK_SIZE];
+
+	private final double[] fz = new double[BLOCK_SIZE];
+
+	/**
+	 * Check if the planar kernel should be used for the given number of colors.
+	 *
+	 * @param length
+	 *            the number of colors to convert
+	 *
+	 * @return <code>true</code> if the planar kernel should be used
+	 */
+	static boolean use(int length) {
+		return ENABLED && length >= MIN_LENGTH;
+	}
+
+	/**
+	 * @return the kernel of the calling thread
+	 */
+	static PlanarLABKernel get() {
+		PlanarLABKernel kernel = KERNEL.get();
+		if(kernel == null) {
+			kernel = new PlanarLABKernel();
+			KERNEL.set(kernel);
+		}
+		return kernel;
+	}
+
+	/**
+	 * Convert packed RGB colors to interleaved XYZ values.
+	 *
+	 */
+	void rgbToXyz(int[] argb, int argbOffset, float[] xyz, int xyzOffset, int length) {
+		for(int done = 0; done < length; done += BLOCK_SIZE) {
+			final int count = Math.min(BLOCK_SIZE, length - done);
+
+			this.unpack(argb, argbOffset + done, count);
+			this.multiply(count);
+
+			interleave(this.x, this.y, this.z, count, xyz, xyzOffset + done * 3);
+		}
+	}
+
+	/**
+	 * Convert packed RGB colors to interleaved LAB values.
+	 *
+	 */
+	void rgbToLab(int[] argb, int argbOffset, float[] lab, int labOffset, int length, XYZIlluminant whitePoint) {
+		for(int done = 0; done < length; done += BLOCK_SIZE) {
+			final int count = Math.min(BLOCK_SIZE, length - done);
+
+			this.unpack(argb, argbOffset + done, count);
+			this.multiply(count);
+			this.lab(count, whitePoint, lab, labOffset + done * 3);
+		}
+	}
+
+	/**
+	 * Unpack channels of the packed colors into the red, green and blue planes.
+	 *
+	 */
+	private void unpack(int[] argb, int offset, int count) {
+		final float[] red = this.red;
+		final float[] green = this.green;
+		final float[] blue = this.blue;
+
+		for(int index = 0; index < count; index++) {
+			final int color = argb[offset + index];
+
+			red[index] = (color >> 16) & 0xFF;
+			green[index] = (color >> 8) & 0xFF;
+			blue[index] = color & 0xFF;
+		}
+	}
+
+	/**
+	 * Multiply the red, green and blue planes with the conversion matrix into
+	 * the x, y and z planes. One loop per output plane keeps each loop a plain
+	 * multiply-add over three input streams.
+	 *
+	 */
+	private void multiply(int count) {
+		final float[] red = this.red;
+		final float[] green = this.green;
+		final float[] blue = this.blue;
+
+		final float[] x = this.x;
+		for(int index = 0; index < count; index++) {
+			x[index] = NORMALIZER * (0.490f * red[index]) + (0.310f * green[index]) + (0.20f * blue[index]);
+		}
+
+		final float[] y = this.y;
+		for(int index = 0; index < count; index++) {
+			y[index] = NORMALIZER * (0.17697f * red[index]) + (0.8124f * green[index]) + (0.01063f * blue[index]);
+		}
+
+		final float[] z = this.z;
+		for(int index = 0; index < count; index++) {
+			z[index] = NORMALIZER * (0.0f * red[index]) + (0.01f * green[index]) + (0.99f * blue[index]);
+		}
+	}
+
+	/**
+	 * Convert the x, y and z planes to LAB and write the interleaved result.
+	 *
+	 */
+	private void lab(int count, XYZIlluminant whitePoint, float[] lab, int labOffset) {
+		scale(this.x, count, whitePoint.x2());
+		scale(this.y, count, whitePoint.y2());
+		scale(this.z, count, whitePoint.z2());
+
+		f(this.x, this.fx, count);
+		f(this.y, this.fy, count);
+		f(this.z, this.fz, count);
+
+		final double[] fx = this.fx;
+		final double[] fy = this.fy;
+		final double[] fz = this.fz;
+
+		for(int index = 0, dest = labOffset; index < count; index++, dest += 3) {
+			lab[dest] = (float) ((116.0 * fy[index]) - 16.0);
+			lab[dest + 1] = (float) (500.0 * (fx[index] - fy[index]));
+			lab[dest + 2] = (float) (200.0 * (fy[index] - fz[index]));
+		}
+	}
+
+	private static void scale(float[] plane, int count, float white) {
+		for(int index = 0; index < count; index++) {
+			plane[index] = plane[index] / white;
+		}
+	}
+
+	private static void f(float[] plane, double[] result, int count) {
+		for(int index = 0; index < count; index++) {
+			result[index] = ColorLookupTables.labF(plane[index]);
+		}
+	}
+
+	private static void interleave(float[] first, float[] second, float[] third, int count, float[] dest, int destOffset) {
+		for(int index = 0, position = destOffset; index < count; index++, position += 3) {
+			dest[position] = first[index];
+			dest[position + 1] = second[index];
+			dest[position + 2] = third[index];
+		}
+	}
+
+}
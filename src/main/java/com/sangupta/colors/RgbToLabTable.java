@@ -0,0 +1,433 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+/**
+ * A precomputed table of {@link RGB} to {@link LAB} conversions, for workloads
+ * that convert the same 8-bit colors over and over again. Values are the same
+ * as those of
+ * {@link BulkColorConversionUtils#RGBtoLAB(int[], int, float[], int, int, XYZIlluminant)}.
+ *
+ * <br><br>
+ *
+ * Two layouts are available:
+ *
+ * <ul>
+ * <li>{@link #full(XYZIlluminant)} holds an entry for every one of the
+ * 16,777,216 colors, or 192 MB of off-heap memory, and turns a conversion
+ * into a single indexed load.</li>
+ * <li>{@link #quantized(int, XYZIlluminant)} holds a grid of
+ * <code>(2<sup>bits</sup> + 1)<sup>3</sup></code> colors and trilinearly
+ * interpolates between the 8 grid colors around the requested one. Grid
+ * points are packed closer together near black, where LAB changes fastest.
+ * Over all 24-bit colors the largest difference from the exact value is a
+ * distance of <code>0.09</code> at 6 bits (3.3 MB) and <code>0.51</code> at 5
+ * bits (431 KB), against a just noticeable difference of about
+ * <code>1.0</code>.</li>
+ * </ul>
+ *
+ * Building the full table takes a few hundred milliseconds. To avoid paying
+ * that on every JVM start, {@link #save(File)} writes the table to disk and
+ * {@link #load(File)} memory-maps it back, read-only and without copying.
+ *
+ * <br><br>
+ *
+ * Pass the table to
+ * {@link BulkColorConversionUtils#RGBtoLAB(int[], int, float[], int, int, RgbToLabTable)}
+ * to convert arrays of colors. Instances are immutable and safe to share
+ * between threads.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class RgbToLabTable {
+
+	/**
+	 * Magic number at the start of every saved table - <code>RLAB</code>
+	 */
+	private static final int MAGIC = 0x524C4142;
+
+	/**
+	 * Version of the file layout
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Size of the file header in bytes: magic, version, bits and illuminant
+	 */
+	private static final int HEADER_SIZE = 16;
+
+	/**
+	 * Exponent of the spacing of grid points in quantized tables
+	 */
+	private static final double GRID_GAMMA = 2.5d;
+
+	/**
+	 * Number of bits per channel of the full table
+	 */
+	private static final int FULL_BITS = 8;
+
+	/**
+	 * Number of bits per channel in the table, <code>8</code> for the full table
+	 */
+	private final int bits;
+
+	/**
+	 * The reference white used to compute the table
+	 */
+	private final XYZIlluminant whitePoint;
+
+	/**
+	 * Number of grid points along each channel for quantized tables
+	 */
+	private final int gridSize;
+
+	/**
+	 * Index of the grid cell for each channel value, for quantized tables
+	 */
+	private final int[] cell;
+
+	/**
+	 * Position of each channel value within its grid cell, for quantized tables
+	 */
+	private final float[] fraction;
+
+	/**
+	 * The interleaved LAB values
+	 */
+	private final FloatBuffer data;
+
+	private RgbToLabTable(int bits, XYZIlluminant whitePoint, FloatBuffer data) {
+		this.bits = bits;
+		this.whitePoint = whitePoint;
+		this.data = data;
+
+		if(bits == FULL_BITS) {
+			this.gridSize = 256;
+			this.cell = null;
+			this.fraction = null;
+			return;
+		}
+
+		final int[] channels = gridChannels(bits);
+		this.gridSize = channels.length;
+		this.cell = new int[256];
+		this.fraction = new float[256];
+
+		for(int value = 0, index = 0; value < 256; value++) {
+			while(index < this.gridSize - 2 && channels[index + 1] <= value) {
+				index++;
+			}
+
+			this.cell[value] = index;
+			this.fraction[value] = (value - channels[index]) / (float) (channels[index + 1] - channels[index]);
+		}
+	}
+
+	/**
+	 * Build a table with an entry for each 24-bit color.
+	 *
+	 * @param whitePoint
+	 *            the {@link XYZIlluminant} reference white
+	 *
+	 * @return the {@link RgbToLabTable}
+	 */
+	public static RgbToLabTable full(XYZIlluminant whitePoint) {
+		if(whitePoint == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		final FloatBuffer data = allocate(256 * 256 * 256 * 3);
+
+		// one plane of constant red at a time
+		final int[] argb = new int[256 * 256];
+		final float[] lab = new float[argb.length * 3];
+		for(int red = 0; red < 256; red++) {
+			for(int index = 0; index < argb.length; index++) {
+				argb[index] = (red << 16) | index;
+			}
+
+			BulkColorConversionUtils.RGBtoLAB(argb, 0, lab, 0, argb.length, whitePoint);
+			data.put(lab);
+		}
+
+		data.flip();
+		return new RgbToLabTable(FULL_BITS, whitePoint, data);
+	}
+
+	/**
+	 * Build a table over a grid of colors with the given number of bits per
+	 * channel, that is interpolated on lookup.
+	 *
+	 * @param bits
+	 *            the number of bits per channel, between <code>2</code> and
+	 *            <code>7</code> - <code>5</code> or <code>6</code> are good
+	 *            choices
+	 *
+	 * @param whitePoint
+	 *            the {@link XYZIlluminant} reference white
+	 *
+	 * @return the {@link RgbToLabTable}
+	 */
+	public static RgbToLabTable quantized(int bits, XYZIlluminant whitePoint) {
+		if(bits < 2 || bits >= FULL_BITS) {
+			throw new IllegalArgumentException("Bits per channel must be between 2 and 7 inclusive: got " + bits);
+		}
+
+		if(whitePoint == null) {
+			throw new IllegalArgumentException("XYZ Whitepoint illuminant cannot be null");
+		}
+
+		final int[] channels = gridChannels(bits);
+		final int gridSize = channels.length;
+
+		final int[] argb = new int[gridSize * gridSize * gridSize];
+		int position = 0;
+		for(int red = 0; red < gridSize; red++) {
+			for(int green = 0; green < gridSize; green++) {
+				for(int blue = 0; blue < gridSize; blue++) {
+					argb[position++] = (channels[red] << 16) | (channels[green] << 8) | channels[blue];
+				}
+			}
+		}
+
+		final float[] lab = new float[argb.length * 3];
+		BulkColorConversionUtils.RGBtoLAB(argb, 0, lab, 0, argb.length, whitePoint);
+
+		final FloatBuffer data = allocate(lab.length);
+		data.put(lab);
+		data.flip();
+
+		return new RgbToLabTable(bits, whitePoint, data);
+	}
+
+	/**
+	 * Memory-map a table previously written using {@link #save(File)}.
+	 *
+	 * @param file
+	 *            the file to read
+	 *
+	 * @return the {@link RgbToLabTable}
+	 *
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid table
+	 */
+	public static RgbToLabTable load(File file) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("File cannot be null");
+		}
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			// the mapping stays valid after the channel is closed
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+			if(buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+				throw new IOException("Not a RGB to LAB table: " + file);
+			}
+
+			final int version = buffer.getInt();
+			if(version != VERSION) {
+				throw new IOException("Unsupported RGB to LAB table version " + version + ": " + file);
+			}
+
+			final int bits = buffer.getInt();
+			final int illuminant = buffer.getInt();
+			if(bits < 2 || bits > FULL_BITS || illuminant < 0 || illuminant >= XYZIlluminant.values().length) {
+				throw new IOException("Corrupt RGB to LAB table header: " + file);
+			}
+
+			final int expected = entries(bits) * 3 * 4;
+			if(buffer.remaining() != expected) {
+				throw new IOException("Corrupt RGB to LAB table, expected " + expected + " bytes of data: " + file);
+			}
+
+			FloatBuffer data = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+			return new RgbToLabTable(bits, XYZIlluminant.values()[illuminant], data);
+		}
+	}
+
+	/**
+	 * Write this table to the given file, replacing any existing content.
+	 *
+	 * @param file
+	 *            the file to write
+	 *
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public void save(File file) throws IOException {
+		if(file == null) {
+			throw new IllegalArgumentException("File cannot be null");
+		}
+
+		final long size = HEADER_SIZE + this.data.capacity() * 4L;
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+			raf.setLength(0);
+
+			ByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(this.bits);
+			buffer.putInt(this.whitePoint.ordinal());
+
+			buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().put(this.data.duplicate());
+		}
+	}
+
+	/**
+	 * Look up the {@link LAB} value of the given {@link RGB} color.
+	 *
+	 * @param rgb
+	 *            the {@link RGB} color
+	 *
+	 * @return the {@link LAB} color
+	 */
+	public LAB lab(RGB rgb) {
+		if(rgb == null) {
+			throw new IllegalArgumentException("RGB Color cannot be null");
+		}
+
+		final float[] lab = new float[3];
+		this.lookup(rgb.value(), lab, 0);
+		return new LAB(lab);
+	}
+
+	/**
+	 * Look up the LAB value of a packed color and write it to the given array.
+	 *
+	 * @param argb
+	 *            the packed color, alpha is ignored
+	 *
+	 * @param lab
+	 *            the destination array
+	 *
+	 * @param labOffset
+	 *            index of the first destination element
+	 */
+	public void lookup(int argb, float[] lab, int labOffset) {
+		if(this.bits == FULL_BITS) {
+			final int index = (argb & 0xFFFFFF) * 3;
+			lab[labOffset] = this.data.get(index);
+			lab[labOffset + 1] = this.data.get(index + 1);
+			lab[labOffset + 2] = this.data.get(index + 2);
+			return;
+		}
+
+		this.interpolate(argb, lab, labOffset);
+	}
+
+	/**
+	 * Trilinear interpolation between the 8 grid colors around the given color.
+	 *
+	 */
+	private void interpolate(int argb, float[] lab, int labOffset) {
+		final int red = (argb >> 16) & 0xFF;
+		final int green = (argb >> 8) & 0xFF;
+		final int blue = argb & 0xFF;
+
+		final int r = this.cell[red];
+		final int g = this.cell[green];
+		final int b = this.cell[blue];
+
+		final float fr = this.fraction[red];
+		final float fg = this.fraction[green];
+		final float fb = this.fraction[blue];
+
+		final int strideG = this.gridSize * 3;
+		final int strideR = this.gridSize * strideG;
+		final int base = r * strideR + g * strideG + b * 3;
+
+		for(int component = 0; component < 3; component++) {
+			final int corner = base + component;
+
+			final float c00 = lerp(this.data.get(corner), this.data.get(corner + 3), fb);
+			final float c01 = lerp(this.data.get(corner + strideG), this.data.get(corner + strideG + 3), fb);
+			final float c10 = lerp(this.data.get(corner + strideR), this.data.get(corner + strideR + 3), fb);
+			final float c11 = lerp(this.data.get(corner + strideR + strideG), this.data.get(corner + strideR + strideG + 3), fb);
+
+			lab[labOffset + component] = lerp(lerp(c00, c01, fg), lerp(c10, c11, fg), fr);
+		}
+	}
+
+	private static float lerp(float from, float to, float fraction) {
+		return from + (to - from) * fraction;
+	}
+
+	/**
+	 * The channel values of the grid points. Points are spaced along
+	 * <code>255 * u<sup>GRID_GAMMA</sup></code> rather than evenly, so that they
+	 * are densest near black where the cube root of LAB bends the most.
+	 *
+	 */
+	private static int[] gridChannels(int bits) {
+		final int gridSize = (1 << bits) + 1;
+		final int[] channels = new int[gridSize];
+		for(int index = 1; index < gridSize; index++) {
+			final int value = (int) Math.round(255 * Math.pow(index / (double) (gridSize - 1), GRID_GAMMA));
+
+			// keep points distinct and leave room for the ones that follow
+			channels[index] = Math.min(Math.max(value, channels[index - 1] + 1), 255 - (gridSize - 1 - index));
+		}
+
+		return channels;
+	}
+
+	private static int entries(int bits) {
+		if(bits == FULL_BITS) {
+			return 256 * 256 * 256;
+		}
+
+		final int gridSize = (1 << bits) + 1;
+		return gridSize * gridSize * gridSize;
+	}
+
+	private static FloatBuffer allocate(int floats) {
+		return ByteBuffer.allocateDirect(floats * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+	}
+
+	// Usual accessors follow
+
+	/**
+	 * @return the number of bits per channel, <code>8</code> for a full table
+	 */
+	public int getBits() {
+		return this.bits;
+	}
+
+	/**
+	 * @return the {@link XYZIlluminant} the table was computed for
+	 */
+	public XYZIlluminant getWhitePoint() {
+		return this.whitePoint;
+	}
+
+}
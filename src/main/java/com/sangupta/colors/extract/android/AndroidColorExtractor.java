@@ -17,6 +17,7 @@
 package com.sangupta.colors.extract.android;
 
 import java.awt.image.BufferedImage;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -37,8 +38,6 @@ import com.sangupta.colors.model.RGB;
  */
 public class AndroidColorExtractor {
 	
-	static final int MAX_WIDTH = 1200;
-
 	static final int DEFAULT_RESIZE_BITMAP_AREA = 112 * 112;
 
 	static final int DEFAULT_CALCULATE_NUMBER_COLORS = 16;
@@ -47,6 +46,8 @@ public class AndroidColorExtractor {
 
 	private final Bitmap bitmapImage;
 
+	private final IntBuffer pixels;
+
 	private final List<Target> targets = new ArrayList<Target>();
 
 	private int maxColors = DEFAULT_CALCULATE_NUMBER_COLORS;
@@ -55,6 +56,10 @@ public class AndroidColorExtractor {
 
 	private int resizeMaxDimension = -1;
 
+	private PixelSampler sampler;
+
+	private Quantizer quantizer = Quantizer.COLOR_CUT;
+
 	private final List<PaletteFilter> filters = new ArrayList<PaletteFilter>();
 
 	/**
@@ -62,13 +67,41 @@ public class AndroidColorExtractor {
 	 * @param bitmap
 	 */
 	public AndroidColorExtractor(Bitmap bitmap) {
-		if (bitmap == null) {
-			throw new IllegalArgumentException("Bitmap is not valid");
-		}
+		this(valid(bitmap), null);
+	}
+
+	/**
+	 * Extract colors from packed ARGB pixels. The pixels are read in place and
+	 * never modified, so one decoded image can feed several extractors without
+	 * copies. As the dimensions of the image are not known, the pixels are not
+	 * resized or sampled.
+	 *
+	 * @param pixels the pixels
+	 * @param offset index of the first pixel
+	 * @param length number of pixels
+	 */
+	public AndroidColorExtractor(int[] pixels, int offset, int length) {
+		this(null, wrap(pixels, offset, length));
+	}
+
+	/**
+	 * Extract colors from packed ARGB pixels between the position and the limit
+	 * of the buffer, which may be a direct or read-only buffer. The buffer is
+	 * neither copied nor modified, and its position is not changed. As the
+	 * dimensions of the image are not known, the pixels are not resized or
+	 * sampled.
+	 *
+	 * @param pixels the pixels
+	 */
+	public AndroidColorExtractor(IntBuffer pixels) {
+		this(null, slice(pixels));
+	}
 
+	private AndroidColorExtractor(Bitmap bitmap, IntBuffer pixels) {
 		this.filters.add(PaletteFilter.DEFAULT_FILTER);
 
 		this.bitmapImage = bitmap;
+		this.pixels = pixels;
 		this.swatches = null;
 
 		// Add the default targets
@@ -113,6 +146,54 @@ public class AndroidColorExtractor {
 		return this;
 	}
 
+	/**
+	 * Set the resize value when using a {@link Bitmap} as the source. If the
+	 * bitmap's maximum dimension is greater than the value specified, then the
+	 * bitmap will be resized so that its maximum dimension matches
+	 * {@code maxDimension}. If the bitmap is smaller or equal, the original is
+	 * used as-is.
+	 * <p>
+	 * This replaces any value set using {@link #resizeBitmapArea(int)}.
+	 *
+	 * @param maxDimension the number of pixels that the max dimension should be
+	 *                     scaled down to, or any value &lt;= 0 to disable
+	 *                     resizing.
+	 */
+	public AndroidColorExtractor resizeBitmapSize(final int maxDimension) {
+		this.resizeMaxDimension = maxDimension;
+		this.resizeArea = -1;
+		return this;
+	}
+
+	/**
+	 * Read only a sample of the pixels of the {@link Bitmap} instead of all of
+	 * them. When set, the bitmap is not resized and the
+	 * {@link #resizeBitmapArea(int)} and {@link #resizeBitmapSize(int)} values
+	 * are ignored.
+	 *
+	 * @param sampler the {@link PixelSampler} to use, or <code>null</code> to
+	 *                read all pixels.
+	 */
+	public AndroidColorExtractor samplePixels(final PixelSampler sampler) {
+		this.sampler = sampler;
+		return this;
+	}
+
+	/**
+	 * Set the {@link Quantizer} that reduces the pixels to the swatches of the
+	 * palette. Defaults to {@link Quantizer#COLOR_CUT}.
+	 *
+	 * @param quantizer the {@link Quantizer} to use
+	 */
+	public AndroidColorExtractor quantizer(final Quantizer quantizer) {
+		if (quantizer == null) {
+			throw new IllegalArgumentException("Quantizer cannot be null");
+		}
+
+		this.quantizer = quantizer;
+		return this;
+	}
+
 	/**
 	 * Clear all added filters. This includes any default filters added
 	 * automatically by {@link Palette}.
@@ -165,20 +246,40 @@ public class AndroidColorExtractor {
 	 * Generate and return the {@link Palette} synchronously.
 	 */
 	public Palette generate() {
+		return generate(new QuantizerContext());
+	}
+
+	/**
+	 * Generate and return the {@link Palette} synchronously, quantizing colors in
+	 * the given {@link QuantizerContext}. Reusing one context per thread across
+	 * images avoids allocating the quantizer's working memory for every image.
+	 *
+	 * @param context the {@link QuantizerContext} to use
+	 */
+	public Palette generate(QuantizerContext context) {
+		if (context == null) {
+			throw new IllegalArgumentException("Quantizer context cannot be null");
+		}
+
 		List<PaletteSwatch> swatches;
 
-		if (this.bitmapImage != null) {
+		if (this.bitmapImage != null || this.pixels != null) {
 			// We have a Bitmap so we need to use quantization to reduce the number of
 			// colors
 
-			// First we'll scale down the bitmap if needed
-			final Bitmap bitmap = scaleBitmapDown(this.bitmapImage);
-
-			// Now generate a quantizer from the Bitmap
-			final ColorCutQuantizer quantizer = new ColorCutQuantizer(getPixelsFromBitmap(bitmap), this.maxColors,
-					this.filters.isEmpty() ? null : this.filters.toArray(new PaletteFilter[this.filters.size()]));
+			// First we'll sample or scale down the bitmap if needed
+			final IntBuffer pixels;
+			if (this.pixels != null) {
+				pixels = this.pixels;
+			} else if (this.sampler != null) {
+				pixels = IntBuffer.wrap(this.sampler.sample(this.bitmapImage));
+			} else {
+				pixels = IntBuffer.wrap(scaleBitmapDown(this.bitmapImage));
+			}
 
-			swatches = quantizer.getQuantizedColors();
+			// Now quantize the pixels
+			swatches = this.quantizer.quantize(pixels, this.maxColors,
+					this.filters.isEmpty() ? null : this.filters.toArray(new PaletteFilter[this.filters.size()]), context);
 
 		} else {
 			// Else we're using the provided swatches
@@ -193,41 +294,63 @@ public class AndroidColorExtractor {
 		return palette;
 	}
 
-	private int[] getPixelsFromBitmap(Bitmap bitmap) {
-		return bitmap.getPixels();
+	private static Bitmap valid(Bitmap bitmap) {
+		if (bitmap == null) {
+			throw new IllegalArgumentException("Bitmap is not valid");
+		}
+
+		return bitmap;
+	}
+
+	private static IntBuffer wrap(int[] pixels, int offset, int length) {
+		if (pixels == null) {
+			throw new IllegalArgumentException("Pixels cannot be null");
+		}
+
+		if (offset < 0 || length < 0 || offset + length > pixels.length) {
+			throw new IllegalArgumentException("Offset and length do not fit the pixel array");
+		}
+
+		return IntBuffer.wrap(pixels, offset, length).slice();
+	}
+
+	private static IntBuffer slice(IntBuffer pixels) {
+		if (pixels == null) {
+			throw new IllegalArgumentException("Pixels cannot be null");
+		}
+
+		return pixels.slice();
 	}
 
 	/**
-	 * Scale the bitmap down as needed.
+	 * Read the pixels of the bitmap, scaling them down as needed. Scaling works
+	 * on the pixel array directly using {@link Bitmap#scalePixels(int[], int, int, int, int)}.
 	 */
-	private Bitmap scaleBitmapDown(final Bitmap bitmap) {
-//		double scaleRatio = -1;
-//
-//		if (this.resizeArea > 0) {
-//			final int bitmapArea = bitmap.getWidth() * bitmap.getHeight();
-//			if (bitmapArea > this.resizeArea) {
-//				scaleRatio = Math.sqrt(this.resizeArea / (double) bitmapArea);
-//			}
-//		} else if (this.resizeMaxDimension > 0) {
-//			final int maxDimension = Math.max(bitmap.getWidth(), bitmap.getHeight());
-//			if (maxDimension > this.resizeMaxDimension) {
-//				scaleRatio = this.resizeMaxDimension / (double) maxDimension;
-//			}
-//		}
-//
-//		if (scaleRatio <= 0) {
-//			// Scaling has been disabled or not needed so just return the Bitmap
-//			return bitmap;
-//		}
-		
-		if(bitmap.getWidth() > MAX_WIDTH) {
-			double scale = ((double) MAX_WIDTH) / bitmap.getWidth();
-			double scaledHeight = bitmap.getHeight() * scale;
-			
-			return Bitmap.createScaledBitmap(bitmap, MAX_WIDTH, Double.valueOf(scaledHeight).intValue());
+	private int[] scaleBitmapDown(final Bitmap bitmap) {
+		final int[] pixels = bitmap.getPixels();
+		double scaleRatio = -1;
+
+		if (this.resizeArea > 0) {
+			final int bitmapArea = bitmap.getWidth() * bitmap.getHeight();
+			if (bitmapArea > this.resizeArea) {
+				scaleRatio = Math.sqrt(this.resizeArea / (double) bitmapArea);
+			}
+		} else if (this.resizeMaxDimension > 0) {
+			final int maxDimension = Math.max(bitmap.getWidth(), bitmap.getHeight());
+			if (maxDimension > this.resizeMaxDimension) {
+				scaleRatio = this.resizeMaxDimension / (double) maxDimension;
+			}
 		}
 
-		return bitmap;
+		if (scaleRatio <= 0) {
+			// Scaling has been disabled or not needed so just return the pixels
+			return pixels;
+		}
+
+		final int width = (int) Math.ceil(bitmap.getWidth() * scaleRatio);
+		final int height = (int) Math.ceil(bitmap.getHeight() * scaleRatio);
+
+		return Bitmap.scalePixels(pixels, bitmap.getWidth(), bitmap.getHeight(), width, height);
 	}
 
 	/**
@@ -16,6 +16,8 @@
 
 package com.sangupta.colors.extract.android;
 
+import com.sangupta.colors.ColorLookupTables;
+
 /**
  * 
  * @author sangupta
@@ -207,12 +209,9 @@ final class AndroidColorUtils {
 			throw new IllegalArgumentException("outXyz must have a length of 3.");
 		}
 
-		double sr = r / 255.0;
-		sr = sr < 0.04045 ? sr / 12.92 : Math.pow((sr + 0.055) / 1.055, 2.4);
-		double sg = g / 255.0;
-		sg = sg < 0.04045 ? sg / 12.92 : Math.pow((sg + 0.055) / 1.055, 2.4);
-		double sb = b / 255.0;
-		sb = sb < 0.04045 ? sb / 12.92 : Math.pow((sb + 0.055) / 1.055, 2.4);
+		final double sr = ColorLookupTables.sRGBToLinear(r);
+		final double sg = ColorLookupTables.sRGBToLinear(g);
+		final double sb = ColorLookupTables.sRGBToLinear(b);
 
 		outXyz[0] = 100 * (sr * 0.4124 + sg * 0.3576 + sb * 0.1805);
 		outXyz[1] = 100 * (sr * 0.2126 + sg * 0.7152 + sb * 0.0722);
@@ -19,6 +19,11 @@ package com.sangupta.colors.extract.android;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 
 /**
  * Polyfill for Android Bitmap using BufferedImage.
@@ -35,7 +40,7 @@ public class Bitmap {
 	}
 
 	public int[] getPixels() {
-		return convertTo2DUsingGetRGB(source);
+		return getPixels(source, null);
 	}
 
 	public int getWidth() {
@@ -46,13 +51,323 @@ public class Bitmap {
 		return source.getHeight();
 	}
 
-	private static int[] convertTo2DUsingGetRGB(BufferedImage image) {
-		int size = image.getWidth() * image.getHeight();
-		int[] result = new int[size];
+	/**
+	 * Read the pixels at the given positions, where the position of a pixel is
+	 * <code>row * width + column</code>. Only the requested pixels are read
+	 * from the image, so the cost depends on the number of positions and not on
+	 * the size of the image. Positions in increasing order read memory in order.
+	 * 
+	 * @param positions
+	 *            the positions to read
+	 * 
+	 * @return the pixels, in the order of the positions
+	 */
+	public int[] getPixels(int[] positions) {
+		if (positions == null) {
+			throw new IllegalArgumentException("Positions cannot be null");
+		}
+
+		final int size = source.getWidth() * source.getHeight();
+		for (int position : positions) {
+			if (position < 0 || position >= size) {
+				throw new IllegalArgumentException("Position is outside the bitmap: " + position);
+			}
+		}
+
+		return getPixels(source, positions);
+	}
+
+	/**
+	 * Read pixels of the image as packed ARGB values. The raster of the common
+	 * image types is read directly, which is several times faster than going
+	 * through the {@link java.awt.image.ColorModel} for each pixel. Other types
+	 * use {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+	 * 
+	 * @param image
+	 *            the image to read
+	 * 
+	 * @param positions
+	 *            the positions to read, or <code>null</code> to read all pixels
+	 * 
+	 * @return the pixels, row by row or in the order of the positions
+	 */
+	private static int[] getPixels(BufferedImage image, int[] positions) {
+		final int width = image.getWidth();
+		final int height = image.getHeight();
+		final int[] pixels = new int[positions == null ? width * height : positions.length];
+
+		boolean read = false;
+		switch (image.getType()) {
+			case BufferedImage.TYPE_INT_RGB:
+				read = readIntPixels(image, positions, pixels, 0xFF000000);
+				break;
+
+			case BufferedImage.TYPE_INT_ARGB:
+				read = readIntPixels(image, positions, pixels, 0);
+				break;
+
+			case BufferedImage.TYPE_3BYTE_BGR:
+			case BufferedImage.TYPE_4BYTE_ABGR:
+				read = readInterleavedPixels(image, positions, pixels);
+				break;
+
+			case BufferedImage.TYPE_BYTE_GRAY:
+				read = readGrayPixels(image, positions, pixels);
+				break;
+
+			default:
+				break;
+		}
+
+		if (read) {
+			return pixels;
+		}
+
+		if (positions == null) {
+			image.getRGB(0, 0, width, height, pixels, 0, width);
+			return pixels;
+		}
+
+		for (int index = 0; index < positions.length; index++) {
+			pixels[index] = image.getRGB(positions[index] % width, positions[index] / width);
+		}
+
+		return pixels;
+	}
+
+	/**
+	 * Copy pixels from a packed integer raster, OR-ing in the given alpha.
+	 * 
+	 */
+	private static boolean readIntPixels(BufferedImage image, int[] positions, int[] pixels, int alpha) {
+		final WritableRaster raster = image.getRaster();
+		if (!(raster.getDataBuffer() instanceof DataBufferInt) || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel)) {
+			return false;
+		}
+
+		final DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+		final SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) raster.getSampleModel();
+		final int[] data = buffer.getData();
+
+		final int width = image.getWidth();
+		final int height = image.getHeight();
+		final int stride = model.getScanlineStride();
+		final int base = buffer.getOffset() + model.getOffset(-raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+
+		if (positions != null) {
+			for (int index = 0; index < positions.length; index++) {
+				final int position = positions[index];
+				pixels[index] = alpha | data[base + (position / width) * stride + position % width];
+			}
+
+			return true;
+		}
+
+		for (int row = 0; row < height; row++) {
+			final int source = base + row * stride;
+			final int dest = row * width;
+
+			if (alpha == 0) {
+				System.arraycopy(data, source, pixels, dest, width);
+				continue;
+			}
+
+			for (int col = 0; col < width; col++) {
+				pixels[dest + col] = alpha | data[source + col];
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Pack pixels from an interleaved byte raster with 3 or 4 bands, as used by
+	 * <code>TYPE_3BYTE_BGR</code> and <code>TYPE_4BYTE_ABGR</code>.
+	 * 
+	 */
+	private static boolean readInterleavedPixels(BufferedImage image, int[] positions, int[] pixels) {
+		final WritableRaster raster = image.getRaster();
+		if (!(raster.getDataBuffer() instanceof DataBufferByte) || !(raster.getSampleModel() instanceof ComponentSampleModel)) {
+			return false;
+		}
+
+		final DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+		final ComponentSampleModel model = (ComponentSampleModel) raster.getSampleModel();
+		if (buffer.getNumBanks() != 1 || model.getNumBands() < 3) {
+			return false;
+		}
+
+		final byte[] data = buffer.getData();
+		final int[] bands = model.getBandOffsets();
+		final int red = bands[0];
+		final int green = bands[1];
+		final int blue = bands[2];
+		final boolean hasAlpha = model.getNumBands() > 3;
+		final int alpha = hasAlpha ? bands[3] : 0;
+
+		final int width = image.getWidth();
+		final int height = image.getHeight();
+		final int pixelStride = model.getPixelStride();
+		final int stride = model.getScanlineStride();
+
+		// offset of the first pixel, band offsets are added back below
+		final int base = buffer.getOffset() + model.getOffset(-raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY()) - bands[0];
+
+		if (positions != null) {
+			for (int index = 0; index < positions.length; index++) {
+				final int position = positions[index];
+				final int source = base + (position / width) * stride + (position % width) * pixelStride;
+
+				final int a = hasAlpha ? (data[source + alpha] & 0xFF) << 24 : 0xFF000000;
+				pixels[index] = a | (data[source + red] & 0xFF) << 16 | (data[source + green] & 0xFF) << 8 | (data[source + blue] & 0xFF);
+			}
+
+			return true;
+		}
+
+		for (int row = 0; row < height; row++) {
+			int source = base + row * stride;
+			int dest = row * width;
+
+			for (int col = 0; col < width; col++, source += pixelStride, dest++) {
+				final int a = hasAlpha ? (data[source + alpha] & 0xFF) << 24 : 0xFF000000;
+				pixels[dest] = a | (data[source + red] & 0xFF) << 16 | (data[source + green] & 0xFF) << 8 | (data[source + blue] & 0xFF);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Pack pixels from a gray byte raster. The gray color space is linear, so
+	 * the 256 gray levels are mapped to sRGB through the color model once,
+	 * giving the same values as {@link BufferedImage#getRGB(int, int)}.
+	 * 
+	 */
+	private static boolean readGrayPixels(BufferedImage image, int[] positions, int[] pixels) {
+		final WritableRaster raster = image.getRaster();
+		if (!(raster.getDataBuffer() instanceof DataBufferByte) || !(raster.getSampleModel() instanceof ComponentSampleModel)) {
+			return false;
+		}
+
+		final DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+		final ComponentSampleModel model = (ComponentSampleModel) raster.getSampleModel();
+		if (buffer.getNumBanks() != 1 || model.getNumBands() != 1) {
+			return false;
+		}
+
+		final int[] levels = new int[256];
+		for (int level = 0; level < levels.length; level++) {
+			levels[level] = image.getColorModel().getRGB(new byte[] { (byte) level });
+		}
+
+		final byte[] data = buffer.getData();
+		final int width = image.getWidth();
+		final int height = image.getHeight();
+		final int pixelStride = model.getPixelStride();
+		final int stride = model.getScanlineStride();
+
+		final int base = buffer.getOffset() + model.getOffset(-raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+
+		if (positions != null) {
+			for (int index = 0; index < positions.length; index++) {
+				final int position = positions[index];
+				pixels[index] = levels[data[base + (position / width) * stride + (position % width) * pixelStride] & 0xFF];
+			}
+
+			return true;
+		}
+
+		for (int row = 0; row < height; row++) {
+			int source = base + row * stride;
+			int dest = row * width;
+
+			for (int col = 0; col < width; col++, source += pixelStride, dest++) {
+				pixels[dest] = levels[data[source] & 0xFF];
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Scale packed ARGB pixels down using a box filter. Each destination pixel
+	 * is the average of the block of source pixels that maps onto it, computed
+	 * per channel in integer arithmetic. The source is read once, row by row,
+	 * without creating an intermediate image.
+	 * 
+	 * @param pixels
+	 *            the source pixels, row by row
+	 * 
+	 * @param width
+	 *            the width of the source
+	 * 
+	 * @param height
+	 *            the height of the source
+	 * 
+	 * @param dstWidth
+	 *            the width to scale to, at most <code>width</code>
+	 * 
+	 * @param dstHeight
+	 *            the height to scale to, at most <code>height</code>
+	 * 
+	 * @return the scaled pixels, row by row
+	 */
+	public static int[] scalePixels(int[] pixels, int width, int height, int dstWidth, int dstHeight) {
+		if (pixels == null || width <= 0 || height <= 0 || pixels.length < width * height) {
+			throw new IllegalArgumentException("Pixels do not match the given width and height");
+		}
+
+		if (dstWidth <= 0 || dstHeight <= 0 || dstWidth > width || dstHeight > height) {
+			throw new IllegalArgumentException("Scaled size must be between 1 and the source size");
+		}
+
+		// destination column of each source column, and the width of each box
+		final int[] column = new int[width];
+		final int[] boxWidth = new int[dstWidth];
+		for (int col = 0; col < width; col++) {
+			column[col] = (int) ((long) col * dstWidth / width);
+			boxWidth[column[col]]++;
+		}
+
+		final long[] alpha = new long[dstWidth];
+		final long[] red = new long[dstWidth];
+		final long[] green = new long[dstWidth];
+		final long[] blue = new long[dstWidth];
+
+		final int[] result = new int[dstWidth * dstHeight];
+
+		int row = 0;
+		for (int dstRow = 0; dstRow < dstHeight; dstRow++) {
+			final int lastRow = (int) ((long) (dstRow + 1) * height / dstHeight);
+			final int boxHeight = lastRow - row;
+
+			for (; row < lastRow; row++) {
+				final int offset = row * width;
+				for (int col = 0; col < width; col++) {
+					final int pixel = pixels[offset + col];
+					final int dstCol = column[col];
+
+					alpha[dstCol] += pixel >>> 24;
+					red[dstCol] += (pixel >> 16) & 0xFF;
+					green[dstCol] += (pixel >> 8) & 0xFF;
+					blue[dstCol] += pixel & 0xFF;
+				}
+			}
+
+			final int offset = dstRow * dstWidth;
+			for (int dstCol = 0; dstCol < dstWidth; dstCol++) {
+				final long count = (long) boxWidth[dstCol] * boxHeight;
+
+				result[offset + dstCol] = (int) (alpha[dstCol] / count) << 24
+						| (int) (red[dstCol] / count) << 16
+						| (int) (green[dstCol] / count) << 8
+						| (int) (blue[dstCol] / count);
 
-		for (int row = 0; row < image.getHeight(); row++) {
-			for (int col = 0; col < image.getWidth(); col++) {
-				result[row * image.getWidth() + col] = image.getRGB(col, row);
+				alpha[dstCol] = 0;
+				red[dstCol] = 0;
+				green[dstCol] = 0;
+				blue[dstCol] = 0;
 			}
 		}
 
@@ -16,8 +16,17 @@
 
 package com.sangupta.colors.extract.android;
 
-import java.util.HashMap;
-import java.util.Locale;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import com.sangupta.colors.CSS3Colors;
+import com.sangupta.colors.ColorNameHash;
+import com.sangupta.colors.HexColorParser;
+import com.sangupta.colors.NamedColorIndex;
+import com.sangupta.colors.model.RGB;
 
 /**
  * The Color class defines methods for creating and converting color ints.
@@ -210,12 +219,16 @@ public class Color {
 	 * formats are: #RRGGBB #AARRGGBB 'red', 'blue', 'green', 'black', 'white',
 	 * 'gray', 'cyan', 'magenta', 'yellow', 'lightgray', 'darkgray', 'grey',
 	 * 'lightgrey', 'darkgrey', 'aqua', 'fuschia', 'lime', 'maroon', 'navy',
-	 * 'olive', 'purple', 'silver', 'teal'
+	 * 'olive', 'purple', 'silver', 'teal', and the other CSS color names of
+	 * {@link CSS3Colors}
 	 */
 	public static int parseColor(String colorString) {
 		if (colorString.charAt(0) == '#') {
-			// Use a long to avoid rollovers on #ffXXXXXX
-			long color = Long.parseLong(colorString.substring(1), 16);
+			// Decode in place; a long avoids rollovers on #ffXXXXXX
+			long color = HexColorParser.decode(colorString, 1, colorString.length() - 1);
+			if (color == HexColorParser.INVALID) {
+				throw new IllegalArgumentException("Unknown color");
+			}
 			if (colorString.length() == 7) {
 				// Set the alpha value
 				color |= 0x00000000ff000000;
@@ -224,14 +237,40 @@ public class Color {
 			}
 			return (int) color;
 		} else {
-			Integer color = sColorNameMap.get(colorString.toLowerCase(Locale.ROOT));
-			if (color != null) {
-				return color;
+			// matched ignoring case, without lowercasing or boxing
+			int index = sColorNames.indexOf(colorString);
+			if (index != ColorNameHash.NOT_FOUND) {
+				return sColorNames.getColor(index);
 			}
 		}
 		throw new IllegalArgumentException("Unknown color");
 	}
 
+	/**
+	 * Returns the color names understood by {@link #parseColor(String)}, mapped
+	 * to their color-ints.
+	 *
+	 * @return an unmodifiable map of the color names, sorted by name
+	 */
+	public static Map<String, Integer> getColorNames() {
+		Map<String, Integer> names = new TreeMap<String, Integer>();
+		for (int index = 0; index < sColorNames.size(); index++) {
+			names.put(sColorNames.getName(index), sColorNames.getColor(index));
+		}
+		return Collections.unmodifiableMap(names);
+	}
+
+	/**
+	 * Returns the name of a color-int, the reverse of
+	 * {@link #parseColor(String)}. Android names are preferred over CSS names.
+	 *
+	 * @param color the color-int
+	 * @return the lowercase name, or null if the color has no name
+	 */
+	public static String getColorName(int color) {
+		return sColorNames.nameOf(color);
+	}
+
 	/**
 	 * Convert RGB components to HSV. hsv[0] is Hue [0 .. 360) hsv[1] is Saturation
 	 * [0...1] hsv[2] is Value [0...1]
@@ -291,33 +330,45 @@ public class Color {
 
 	private static native int nativeHSVToColor(int alpha, float hsv[]);
 
-	private static final HashMap<String, Integer> sColorNameMap;
+	/**
+	 * The android color names first, so that they win over the CSS colors of
+	 * the same name and are returned by reverse lookups. The hash is built
+	 * deterministically, so its layout is the same on every run.
+	 */
+	private static final ColorNameHash sColorNames;
 
 	static {
-		sColorNameMap = new HashMap<String, Integer>();
-		sColorNameMap.put("black", BLACK);
-		sColorNameMap.put("darkgray", DKGRAY);
-		sColorNameMap.put("gray", GRAY);
-		sColorNameMap.put("lightgray", LTGRAY);
-		sColorNameMap.put("white", WHITE);
-		sColorNameMap.put("red", RED);
-		sColorNameMap.put("green", GREEN);
-		sColorNameMap.put("blue", BLUE);
-		sColorNameMap.put("yellow", YELLOW);
-		sColorNameMap.put("cyan", CYAN);
-		sColorNameMap.put("magenta", MAGENTA);
-		sColorNameMap.put("aqua", 0xFF00FFFF);
-		sColorNameMap.put("fuchsia", 0xFFFF00FF);
-		sColorNameMap.put("darkgrey", DKGRAY);
-		sColorNameMap.put("grey", GRAY);
-		sColorNameMap.put("lightgrey", LTGRAY);
-		sColorNameMap.put("lime", 0xFF00FF00);
-		sColorNameMap.put("maroon", 0xFF800000);
-		sColorNameMap.put("navy", 0xFF000080);
-		sColorNameMap.put("olive", 0xFF808000);
-		sColorNameMap.put("purple", 0xFF800080);
-		sColorNameMap.put("silver", 0xFFC0C0C0);
-		sColorNameMap.put("teal", 0xFF008080);
+		Map<String, Integer> names = new LinkedHashMap<String, Integer>();
+		names.put("black", BLACK);
+		names.put("darkgray", DKGRAY);
+		names.put("gray", GRAY);
+		names.put("lightgray", LTGRAY);
+		names.put("white", WHITE);
+		names.put("red", RED);
+		names.put("green", GREEN);
+		names.put("blue", BLUE);
+		names.put("yellow", YELLOW);
+		names.put("cyan", CYAN);
+		names.put("magenta", MAGENTA);
+		names.put("aqua", 0xFF00FFFF);
+		names.put("fuchsia", 0xFFFF00FF);
+		names.put("darkgrey", DKGRAY);
+		names.put("grey", GRAY);
+		names.put("lightgrey", LTGRAY);
+		names.put("lime", 0xFF00FF00);
+		names.put("maroon", 0xFF800000);
+		names.put("navy", 0xFF000080);
+		names.put("olive", 0xFF808000);
+		names.put("purple", 0xFF800080);
+		names.put("silver", 0xFFC0C0C0);
+		names.put("teal", 0xFF008080);
+
+		for (Entry<String, RGB> entry : NamedColorIndex.keywords().entrySet()) {
+			if (!names.containsKey(entry.getKey())) {
+				names.put(entry.getKey(), entry.getValue().value());
+			}
+		}
 
+		sColorNames = new ColorNameHash(names);
 	}
 }
@@ -0,0 +1,151 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.util.Arrays;
+
+/**
+ * Counts the pixels of each color in an open-addressing hash map of primitive
+ * ints with linear probing, for {@link ColorHistogram} and the sparse
+ * histogram of {@link ColorCutQuantizer}. A count of zero marks a free slot.
+ *
+ * <br><br>
+ *
+ * The map grows when it is half full and never shrinks, so a map that is
+ * cleared and reused, as the one held by a {@link QuantizerContext}, stops
+ * allocating once it has seen its largest image.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+final class ColorCountMap {
+
+	/**
+	 * The colors, by slot
+	 */
+	private int[] keys;
+
+	/**
+	 * The number of pixels of each color, by slot
+	 */
+	private int[] counts;
+
+	/**
+	 * Number of distinct colors
+	 */
+	private int size;
+
+	/**
+	 * @param capacity
+	 *            initial number of slots, a power of two
+	 */
+	ColorCountMap(int capacity) {
+		this.keys = new int[capacity];
+		this.counts = new int[capacity];
+	}
+
+	/**
+	 * @return the number of distinct colors
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Remove all colors, keeping the slots.
+	 */
+	void clear() {
+		Arrays.fill(this.counts, 0);
+		this.size = 0;
+	}
+
+	/**
+	 * Add one pixel of the given color.
+	 */
+	void add(int color) {
+		final int[] keys = this.keys;
+		final int[] counts = this.counts;
+		final int mask = keys.length - 1;
+
+		int slot = hash(color) & mask;
+		while (counts[slot] != 0) {
+			if (keys[slot] == color) {
+				counts[slot]++;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = color;
+		counts[slot] = 1;
+
+		if (++this.size > (keys.length >> 1)) {
+			this.grow();
+		}
+	}
+
+	/**
+	 * Write the colors with their counts to the given array, sorted by color.
+	 * Each entry is packed in a long with the color in the upper half, so that
+	 * sorting the longs sorts by color.
+	 *
+	 * @param entries
+	 *            the destination, of at least {@link #size()} elements
+	 */
+	void sortedEntries(long[] entries) {
+		int index = 0;
+		for (int slot = 0; slot < this.keys.length; slot++) {
+			if (this.counts[slot] != 0) {
+				entries[index++] = ((long) this.keys[slot] << 32) | (this.counts[slot] & 0xFFFFFFFFL);
+			}
+		}
+
+		Arrays.sort(entries, 0, index);
+	}
+
+	private void grow() {
+		final int[] oldKeys = this.keys;
+		final int[] oldCounts = this.counts;
+		final int[] keys = this.keys = new int[oldKeys.length << 1];
+		final int[] counts = this.counts = new int[oldCounts.length << 1];
+		final int mask = keys.length - 1;
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldCounts[i] != 0) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (counts[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				counts[slot] = oldCounts[i];
+			}
+		}
+	}
+
+	/**
+	 * Spread the bits of a color, as neighbouring colors differ only in their
+	 * low bits.
+	 */
+	private static int hash(int color) {
+		final int hash = color * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+}
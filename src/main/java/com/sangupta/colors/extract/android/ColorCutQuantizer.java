@@ -16,12 +16,10 @@
 
 package com.sangupta.colors.extract.android;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * An color quantizer based on the Median-cut algorithm, but optimized for
@@ -36,6 +34,9 @@ import java.util.PriorityQueue;
  * that all of the cubes have roughly the same population, where this quantizer
  * divides boxes based on their color volume. This means that the color space is
  * divided into distinct colors, rather than representative colors.
+ *
+ * Colors are quantized to the number of bits per channel of the
+ * {@link QuantizerContext}, {@value #QUANTIZE_WORD_WIDTH} by default.
  * 
  * @author sangupta
  * @since 1.0.0
@@ -44,13 +45,34 @@ final class ColorCutQuantizer {
 	static final int COMPONENT_RED = -3;
 	static final int COMPONENT_GREEN = -2;
 	static final int COMPONENT_BLUE = -1;
-	private static final int QUANTIZE_WORD_WIDTH = 5;
-	private static final int QUANTIZE_WORD_MASK = (1 << QUANTIZE_WORD_WIDTH) - 1;
+	static final int QUANTIZE_WORD_WIDTH = 5;
+	static final int MIN_QUANTIZE_WORD_WIDTH = 4;
+	static final int MAX_QUANTIZE_WORD_WIDTH = 8;
+	// widest word for which the histogram is an array of every quantized color
+	static final int MAX_DENSE_WORD_WIDTH = 6;
+
+	// offsets of the values of a box, lower and upper index are inclusive
+	private static final int BOX_LOWER = 0;
+	private static final int BOX_UPPER = 1;
+	private static final int BOX_POPULATION = 2;
+	private static final int BOX_MIN_RED = 3;
+	private static final int BOX_MAX_RED = 4;
+	private static final int BOX_MIN_GREEN = 5;
+	private static final int BOX_MAX_GREEN = 6;
+	private static final int BOX_MIN_BLUE = 7;
+	private static final int BOX_MAX_BLUE = 8;
+
 	final int[] mColors;
-	final int[] mHistogram;
+	final int mColorCount;
+	final int[] mPopulations;
+	final int mBits;
 	final List<PaletteSwatch> mQuantizedColors;
 	final PaletteFilter[] mFilters;
-	private final float[] mTempHsl = new float[3];
+	private final int[] mBoxes;
+	private final int[] mHeap;
+	private final QuantizerContext mContext;
+	private int mBoxCount;
+	private int mHeapSize;
 
 	/**
 	 * Constructor.
@@ -61,19 +83,63 @@ final class ColorCutQuantizer {
 	 * @param filters   Set of filters to use in the quantization stage
 	 */
 	ColorCutQuantizer(final int[] pixels, final int maxColors, final PaletteFilter[] filters) {
+		this(IntBuffer.wrap(pixels), maxColors, filters, new QuantizerContext());
+	}
+
+	/**
+	 * Constructor. The pixels are only read, from the position to the limit of
+	 * the buffer, and neither the buffer nor its position are modified.
+	 *
+	 * @param pixels    the image's pixel data
+	 * @param maxColors The maximum number of colors that should be in the result
+	 *                  palette.
+	 * @param filters   Set of filters to use in the quantization stage
+	 * @param context   the {@link QuantizerContext} to work in
+	 */
+	ColorCutQuantizer(final IntBuffer pixels, final int maxColors, final PaletteFilter[] filters, final QuantizerContext context) {
 		mFilters = filters;
-		final int[] hist = mHistogram = new int[1 << (QUANTIZE_WORD_WIDTH * 3)];
-		for (int i = 0; i < pixels.length; i++) {
-			final int quantizedColor = quantizeFromRgb888(pixels[i]);
-			// Now update the pixel value to the quantized value
-			pixels[i] = quantizedColor;
-			// And update the histogram
-			hist[quantizedColor]++;
+		context.reset(Math.max(maxColors, 1));
+		mBoxes = context.boxes;
+		mHeap = context.heap;
+		mContext = context;
+		mBits = context.bits;
+		final int distinctColorCount = mColorCount = countColors(pixels, filters, context);
+		mColors = context.colors;
+		mPopulations = context.populations;
+		if (distinctColorCount <= maxColors) {
+			// The image has fewer colors than the maximum requested, so just return the
+			// colors
+			mQuantizedColors = distinctSwatches(context, distinctColorCount);
+		} else {
+			// We need use quantization to reduce the number of colors
+			mQuantizedColors = quantizePixels(maxColors);
+		}
+	}
+
+	/**
+	 * Build the histogram of the quantized colors of the pixels in the context,
+	 * dropping the colors that the filters do not allow, and list the distinct
+	 * colors that remain in ascending order in {@link QuantizerContext#colors},
+	 * with their populations in {@link QuantizerContext#populations}. The
+	 * context should have been reset.
+	 *
+	 * @return the number of distinct colors
+	 */
+	static int countColors(final IntBuffer pixels, final PaletteFilter[] filters, final QuantizerContext context) {
+		final int[] hist = context.histogram;
+		if (hist == null) {
+			return countSparseColors(pixels, filters, context);
+		}
+		if (ParallelHistogram.use(pixels.remaining())) {
+			// Large inputs are counted in parallel, over ranges of pixels
+			ParallelHistogram.build(pixels, context);
+		} else {
+			countPixels(pixels, pixels.position(), pixels.limit(), hist);
 		}
 		// Now let's count the number of distinct colors
 		int distinctColorCount = 0;
 		for (int color = 0; color < hist.length; color++) {
-			if (hist[color] > 0 && shouldIgnoreColor(color)) {
+			if (hist[color] > 0 && shouldIgnoreColor(color, context.bits, filters, context.hsl)) {
 				// If we should ignore the color, set the population to 0
 				hist[color] = 0;
 			}
@@ -83,23 +149,89 @@ final class ColorCutQuantizer {
 			}
 		}
 		// Now lets go through create an array consisting of only distinct colors
-		final int[] colors = mColors = new int[distinctColorCount];
+		final int[] colors = context.colors;
+		final int[] populations = context.populations;
 		int distinctColorIndex = 0;
 		for (int color = 0; color < hist.length; color++) {
 			if (hist[color] > 0) {
+				populations[distinctColorIndex] = hist[color];
 				colors[distinctColorIndex++] = color;
 			}
 		}
-		if (distinctColorCount <= maxColors) {
-			// The image has fewer colors than the maximum requested, so just return the
-			// colors
-			mQuantizedColors = new ArrayList<PaletteSwatch>();
-			for (int color : colors) {
-				mQuantizedColors.add(new PaletteSwatch(approximateToRgb888(color), hist[color]));
+		return distinctColorCount;
+	}
+
+	/**
+	 * Count the pixels into the sparse histogram of the context, and list the
+	 * distinct colors that the filters allow with their populations.
+	 *
+	 * @return the number of distinct colors
+	 */
+	private static int countSparseColors(final IntBuffer pixels, final PaletteFilter[] filters, final QuantizerContext context) {
+		final int bits = context.bits;
+		final ColorCountMap hist = context.sparseHistogram;
+		if (pixels.hasArray()) {
+			final int[] array = pixels.array();
+			final int offset = pixels.arrayOffset();
+			for (int i = pixels.position() + offset, end = pixels.limit() + offset; i < end; i++) {
+				hist.add(quantizeFromRgb888(array[i], bits));
 			}
 		} else {
-			// We need use quantization to reduce the number of colors
-			mQuantizedColors = quantizePixels(maxColors);
+			for (int i = pixels.position(); i < pixels.limit(); i++) {
+				hist.add(quantizeFromRgb888(pixels.get(i), bits));
+			}
+		}
+
+		final int size = hist.size();
+		context.reserveEntries(size);
+		context.reserveColors(size);
+		final long[] entries = context.entries;
+		hist.sortedEntries(entries);
+
+		final int[] colors = context.colors;
+		final int[] populations = context.populations;
+		int distinctColorCount = 0;
+		for (int i = 0; i < size; i++) {
+			final int color = (int) (entries[i] >> 32);
+			if (!shouldIgnoreColor(color, bits, filters, context.hsl)) {
+				colors[distinctColorCount] = color;
+				populations[distinctColorCount++] = (int) entries[i];
+			}
+		}
+		return distinctColorCount;
+	}
+
+	/**
+	 * @return a swatch for each of the distinct colors listed by
+	 *         {@link #countColors(IntBuffer, PaletteFilter[], QuantizerContext)}
+	 */
+	static List<PaletteSwatch> distinctSwatches(final QuantizerContext context, final int count) {
+		final List<PaletteSwatch> swatches = new ArrayList<PaletteSwatch>(count);
+		for (int i = 0; i < count; i++) {
+			swatches.add(new PaletteSwatch(approximateToRgb888(context.colors[i], context.bits), context.populations[i]));
+		}
+		return swatches;
+	}
+
+	/**
+	 * Add the quantized colors of the pixels between the given buffer indices to
+	 * the histogram, whose size gives the bits per channel. Arrays are read
+	 * directly, other buffers through absolute gets, so that the buffer is left
+	 * untouched.
+	 */
+	static void countPixels(final IntBuffer pixels, final int from, final int to, final int[] hist) {
+		final int bits = Integer.numberOfTrailingZeros(hist.length) / 3;
+		if (pixels.hasArray()) {
+			final int[] array = pixels.array();
+			final int offset = pixels.arrayOffset();
+			for (int i = from + offset, end = to + offset; i < end; i++) {
+				hist[quantizeFromRgb888(array[i], bits)]++;
+			}
+			return;
+		}
+
+		for (int i = from; i < to; i++) {
+			hist[quantizeFromRgb888(pixels.get(i), bits)]++;
 		}
 	}
 
@@ -111,36 +243,31 @@ final class ColorCutQuantizer {
 	}
 
 	private List<PaletteSwatch> quantizePixels(int maxColors) {
-		// Create the priority queue which is sorted by volume descending. This means we
-		// always
-		// split the largest box in the queue
-		final PriorityQueue<Vbox> pq = new PriorityQueue<Vbox>(maxColors, VBOX_COMPARATOR_VOLUME);
-		// To start, offer a box which contains all of the colors
-		pq.offer(new Vbox(0, mColors.length - 1));
+		// The heap is sorted by volume descending. This means we always split the
+		// largest box in the heap. To start, offer a box which contains all of the
+		// colors
+		offer(newBox(0, mColorCount - 1));
 		// Now go through the boxes, splitting them until we have reached maxColors or
-		// there are no
-		// more boxes to split
-		splitBoxes(pq, maxColors);
+		// there are no more boxes to split
+		splitBoxes(maxColors);
 		// Finally, return the average colors of the color boxes
-		return generateAverageColors(pq);
+		return generateAverageColors();
 	}
 
 	/**
-	 * Iterate through the {@link java.util.Queue}, popping
-	 * {@link ColorCutQuantizer.Vbox} objects from the queue and splitting them.
-	 * Once split, the new box and the remaining box are offered back to the queue.
+	 * Iterate through the heap, popping boxes from it and splitting them. Once
+	 * split, the new box and the remaining box are offered back to the heap.
 	 *
-	 * @param queue   {@link java.util.PriorityQueue} to poll for boxes
 	 * @param maxSize Maximum amount of boxes to split
 	 */
-	private void splitBoxes(final PriorityQueue<Vbox> queue, final int maxSize) {
-		while (queue.size() < maxSize) {
-			final Vbox vbox = queue.poll();
-			if (vbox != null && vbox.canSplit()) {
+	private void splitBoxes(final int maxSize) {
+		while (mHeapSize < maxSize) {
+			final int box = poll();
+			if (box >= 0 && canSplit(box)) {
 				// First split the box, and offer the result
-				queue.offer(vbox.splitBox());
+				offer(splitBox(box));
 				// Then offer the box back
-				queue.offer(vbox);
+				offer(box);
 			} else {
 				// If we get here then there are no more boxes to split, so return
 				return;
@@ -148,14 +275,13 @@ final class ColorCutQuantizer {
 		}
 	}
 
-	private List<PaletteSwatch> generateAverageColors(Collection<Vbox> vboxes) {
-		ArrayList<PaletteSwatch> colors = new ArrayList<PaletteSwatch>(vboxes.size());
-		for (Vbox vbox : vboxes) {
-			PaletteSwatch swatch = vbox.getAverageColor();
+	private List<PaletteSwatch> generateAverageColors() {
+		ArrayList<PaletteSwatch> colors = new ArrayList<PaletteSwatch>(mHeapSize);
+		for (int i = 0; i < mHeapSize; i++) {
+			PaletteSwatch swatch = getAverageColor(mHeap[i]);
 			if (!shouldIgnoreColor(swatch)) {
 				// As we're averaging a color box, we can still get colors which we do not want,
-				// so
-				// we check again here
+				// so we check again here
 				colors.add(swatch);
 			}
 		}
@@ -163,184 +289,264 @@ final class ColorCutQuantizer {
 	}
 
 	/**
-	 * Represents a tightly fitting box around a color space.
+	 * Add a box to the heap. This is the same binary heap, with the same order of
+	 * ties, as {@link java.util.PriorityQueue}.
 	 */
-	private class Vbox {
-		// lower and upper index are inclusive
-		private int mLowerIndex;
-		private int mUpperIndex;
-		// Population of colors within this box
-		private int mPopulation;
-		private int mMinRed, mMaxRed;
-		private int mMinGreen, mMaxGreen;
-		private int mMinBlue, mMaxBlue;
-
-		Vbox(int lowerIndex, int upperIndex) {
-			mLowerIndex = lowerIndex;
-			mUpperIndex = upperIndex;
-			fitBox();
-		}
-
-		final int getVolume() {
-			return (mMaxRed - mMinRed + 1) * (mMaxGreen - mMinGreen + 1) * (mMaxBlue - mMinBlue + 1);
-		}
-
-		final boolean canSplit() {
-			return getColorCount() > 1;
+	private void offer(int box) {
+		final int[] heap = mHeap;
+		int k = mHeapSize++;
+		while (k > 0) {
+			final int parent = (k - 1) >>> 1;
+			final int e = heap[parent];
+			if (compareVolume(box, e) >= 0) {
+				break;
+			}
+			heap[k] = e;
+			k = parent;
 		}
+		heap[k] = box;
+	}
 
-		final int getColorCount() {
-			return 1 + mUpperIndex - mLowerIndex;
+	/**
+	 * Remove the box with the largest volume from the heap.
+	 *
+	 * @return the box, or <code>-1</code> if the heap is empty
+	 */
+	private int poll() {
+		if (mHeapSize == 0) {
+			return -1;
 		}
-
-		/**
-		 * Recomputes the boundaries of this box to tightly fit the colors within the
-		 * box.
-		 */
-		final void fitBox() {
-			final int[] colors = mColors;
-			final int[] hist = mHistogram;
-			// Reset the min and max to opposite values
-			int minRed, minGreen, minBlue;
-			minRed = minGreen = minBlue = Integer.MAX_VALUE;
-			int maxRed, maxGreen, maxBlue;
-			maxRed = maxGreen = maxBlue = Integer.MIN_VALUE;
-			int count = 0;
-			for (int i = mLowerIndex; i <= mUpperIndex; i++) {
-				final int color = colors[i];
-				count += hist[color];
-				final int r = quantizedRed(color);
-				final int g = quantizedGreen(color);
-				final int b = quantizedBlue(color);
-				if (r > maxRed) {
-					maxRed = r;
-				}
-				if (r < minRed) {
-					minRed = r;
-				}
-				if (g > maxGreen) {
-					maxGreen = g;
+		final int[] heap = mHeap;
+		final int size = --mHeapSize;
+		final int result = heap[0];
+		final int box = heap[size];
+		if (size != 0) {
+			int k = 0;
+			final int half = size >>> 1;
+			while (k < half) {
+				int child = (k << 1) + 1;
+				int c = heap[child];
+				final int right = child + 1;
+				if (right < size && compareVolume(c, heap[right]) > 0) {
+					c = heap[child = right];
 				}
-				if (g < minGreen) {
-					minGreen = g;
-				}
-				if (b > maxBlue) {
-					maxBlue = b;
-				}
-				if (b < minBlue) {
-					minBlue = b;
+				if (compareVolume(box, c) <= 0) {
+					break;
 				}
+				heap[k] = c;
+				k = child;
 			}
-			mMinRed = minRed;
-			mMaxRed = maxRed;
-			mMinGreen = minGreen;
-			mMaxGreen = maxGreen;
-			mMinBlue = minBlue;
-			mMaxBlue = maxBlue;
-			mPopulation = count;
+			heap[k] = box;
 		}
+		return result;
+	}
+
+	/**
+	 * Compares boxes by volume, in descending order
+	 */
+	private int compareVolume(int lhs, int rhs) {
+		return getVolume(rhs) - getVolume(lhs);
+	}
+
+	private int newBox(int lowerIndex, int upperIndex) {
+		final int box = mBoxCount++;
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		mBoxes[offset + BOX_LOWER] = lowerIndex;
+		mBoxes[offset + BOX_UPPER] = upperIndex;
+		fitBox(box);
+		return box;
+	}
+
+	private int getVolume(int box) {
+		final int[] boxes = mBoxes;
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		return (boxes[offset + BOX_MAX_RED] - boxes[offset + BOX_MIN_RED] + 1)
+				* (boxes[offset + BOX_MAX_GREEN] - boxes[offset + BOX_MIN_GREEN] + 1)
+				* (boxes[offset + BOX_MAX_BLUE] - boxes[offset + BOX_MIN_BLUE] + 1);
+	}
 
-		/**
-		 * Split this color box at the mid-point along its longest dimension
-		 *
-		 * @return the new ColorBox
-		 */
-		final Vbox splitBox() {
-			if (!canSplit()) {
-				throw new IllegalStateException("Can not split a box with only 1 color");
+	private boolean canSplit(int box) {
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		return 1 + mBoxes[offset + BOX_UPPER] - mBoxes[offset + BOX_LOWER] > 1;
+	}
+
+	/**
+	 * Recomputes the boundaries of a box to tightly fit the colors within the
+	 * box.
+	 */
+	private void fitBox(int box) {
+		final int[] colors = mColors;
+		final int[] populations = mPopulations;
+		final int bits = mBits;
+		final int[] boxes = mBoxes;
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		// Reset the min and max to opposite values
+		int minRed, minGreen, minBlue;
+		minRed = minGreen = minBlue = Integer.MAX_VALUE;
+		int maxRed, maxGreen, maxBlue;
+		maxRed = maxGreen = maxBlue = Integer.MIN_VALUE;
+		int count = 0;
+		for (int i = boxes[offset + BOX_LOWER], upper = boxes[offset + BOX_UPPER]; i <= upper; i++) {
+			final int color = colors[i];
+			count += populations[i];
+			final int r = quantizedRed(color, bits);
+			final int g = quantizedGreen(color, bits);
+			final int b = quantizedBlue(color, bits);
+			if (r > maxRed) {
+				maxRed = r;
+			}
+			if (r < minRed) {
+				minRed = r;
+			}
+			if (g > maxGreen) {
+				maxGreen = g;
+			}
+			if (g < minGreen) {
+				minGreen = g;
+			}
+			if (b > maxBlue) {
+				maxBlue = b;
+			}
+			if (b < minBlue) {
+				minBlue = b;
 			}
-			// find median along the longest dimension
-			final int splitPoint = findSplitPoint();
-			Vbox newBox = new Vbox(splitPoint + 1, mUpperIndex);
-			// Now change this box's upperIndex and recompute the color boundaries
-			mUpperIndex = splitPoint;
-			fitBox();
-			return newBox;
 		}
+		boxes[offset + BOX_MIN_RED] = minRed;
+		boxes[offset + BOX_MAX_RED] = maxRed;
+		boxes[offset + BOX_MIN_GREEN] = minGreen;
+		boxes[offset + BOX_MAX_GREEN] = maxGreen;
+		boxes[offset + BOX_MIN_BLUE] = minBlue;
+		boxes[offset + BOX_MAX_BLUE] = maxBlue;
+		boxes[offset + BOX_POPULATION] = count;
+	}
 
-		/**
-		 * @return the dimension which this box is largest in
-		 */
-		final int getLongestColorDimension() {
-			final int redLength = mMaxRed - mMinRed;
-			final int greenLength = mMaxGreen - mMinGreen;
-			final int blueLength = mMaxBlue - mMinBlue;
-			if (redLength >= greenLength && redLength >= blueLength) {
-				return COMPONENT_RED;
-			} else if (greenLength >= redLength && greenLength >= blueLength) {
-				return COMPONENT_GREEN;
-			} else {
-				return COMPONENT_BLUE;
-			}
+	/**
+	 * Split a color box at the mid-point along its longest dimension
+	 *
+	 * @return the new box
+	 */
+	private int splitBox(int box) {
+		if (!canSplit(box)) {
+			throw new IllegalStateException("Can not split a box with only 1 color");
+		}
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		// find median along the longest dimension
+		final int splitPoint = findSplitPoint(box);
+		final int newBox = newBox(splitPoint + 1, mBoxes[offset + BOX_UPPER]);
+		// Now change this box's upperIndex and recompute the color boundaries
+		mBoxes[offset + BOX_UPPER] = splitPoint;
+		fitBox(box);
+		return newBox;
+	}
+
+	/**
+	 * @return the dimension which a box is largest in
+	 */
+	private int getLongestColorDimension(int box) {
+		final int[] boxes = mBoxes;
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		final int redLength = boxes[offset + BOX_MAX_RED] - boxes[offset + BOX_MIN_RED];
+		final int greenLength = boxes[offset + BOX_MAX_GREEN] - boxes[offset + BOX_MIN_GREEN];
+		final int blueLength = boxes[offset + BOX_MAX_BLUE] - boxes[offset + BOX_MIN_BLUE];
+		if (redLength >= greenLength && redLength >= blueLength) {
+			return COMPONENT_RED;
+		} else if (greenLength >= redLength && greenLength >= blueLength) {
+			return COMPONENT_GREEN;
+		} else {
+			return COMPONENT_BLUE;
 		}
+	}
 
-		/**
-		 * Finds the point within this box's lowerIndex and upperIndex index of where to
-		 * split.
-		 *
-		 * This is calculated by finding the longest color dimension, and then sorting
-		 * the sub-array based on that dimension value in each color. The colors are
-		 * then iterated over until a color is found with at least the midpoint of the
-		 * whole box's dimension midpoint.
-		 *
-		 * @return the index of the colors array to split from
-		 */
-		final int findSplitPoint() {
-			final int longestDimension = getLongestColorDimension();
-			final int[] colors = mColors;
-			final int[] hist = mHistogram;
-			// We need to sort the colors in this box based on the longest color dimension.
-			// As we can't use a Comparator to define the sort logic, we modify each color
-			// so that
-			// its most significant is the desired dimension
-			modifySignificantOctet(colors, longestDimension, mLowerIndex, mUpperIndex);
-			// Now sort... Arrays.sort uses a exclusive toIndex so we need to add 1
-			Arrays.sort(colors, mLowerIndex, mUpperIndex + 1);
-			// Now revert all of the colors so that they are packed as RGB again
-			modifySignificantOctet(colors, longestDimension, mLowerIndex, mUpperIndex);
-			final int midPoint = mPopulation / 2;
-			for (int i = mLowerIndex, count = 0; i <= mUpperIndex; i++) {
-				count += hist[colors[i]];
-				if (count >= midPoint) {
-					return i;
-				}
+	/**
+	 * Finds the point within a box's lowerIndex and upperIndex index of where to
+	 * split.
+	 *
+	 * This is calculated by finding the longest color dimension, and then sorting
+	 * the sub-array based on that dimension value in each color. The colors are
+	 * then iterated over until a color is found with at least the midpoint of the
+	 * whole box's dimension midpoint.
+	 *
+	 * @return the index of the colors array to split from
+	 */
+	private int findSplitPoint(int box) {
+		final int longestDimension = getLongestColorDimension(box);
+		final int[] colors = mColors;
+		final int[] populations = mPopulations;
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		final int lower = mBoxes[offset + BOX_LOWER];
+		final int upper = mBoxes[offset + BOX_UPPER];
+		// We need to sort the colors in this box based on the longest color dimension.
+		// As we can't use a Comparator to define the sort logic, we modify each color
+		// so that its most significant is the desired dimension
+		modifySignificantOctet(colors, longestDimension, lower, upper, mBits);
+		// Now sort, keeping each population with its color
+		sortColors(lower, upper);
+		// Now revert all of the colors so that they are packed as RGB again
+		modifySignificantOctet(colors, longestDimension, lower, upper, mBits);
+		final int midPoint = mBoxes[offset + BOX_POPULATION] / 2;
+		for (int i = lower, count = 0; i <= upper; i++) {
+			count += populations[i];
+			if (count >= midPoint) {
+				return i;
 			}
-			return mLowerIndex;
 		}
+		return lower;
+	}
 
-		/**
-		 * @return the average color of this box.
-		 */
-		final PaletteSwatch getAverageColor() {
-			final int[] colors = mColors;
-			final int[] hist = mHistogram;
-			int redSum = 0;
-			int greenSum = 0;
-			int blueSum = 0;
-			int totalPopulation = 0;
-			for (int i = mLowerIndex; i <= mUpperIndex; i++) {
-				final int color = colors[i];
-				final int colorPopulation = hist[color];
-				totalPopulation += colorPopulation;
-				redSum += colorPopulation * quantizedRed(color);
-				greenSum += colorPopulation * quantizedGreen(color);
-				blueSum += colorPopulation * quantizedBlue(color);
-			}
-			final int redMean = Math.round(redSum / (float) totalPopulation);
-			final int greenMean = Math.round(greenSum / (float) totalPopulation);
-			final int blueMean = Math.round(blueSum / (float) totalPopulation);
-			return new PaletteSwatch(approximateToRgb888(redMean, greenMean, blueMean), totalPopulation);
+	/**
+	 * Sort the colors between the given inclusive indices, together with their
+	 * populations. Each color is packed in a long with its population, the color
+	 * in the upper half, so that sorting the longs sorts by color.
+	 */
+	private void sortColors(final int lower, final int upper) {
+		final int[] colors = mColors;
+		final int[] populations = mPopulations;
+		mContext.reserveEntries(mColorCount);
+		final long[] entries = mContext.entries;
+		for (int i = lower; i <= upper; i++) {
+			entries[i] = ((long) colors[i] << 32) | populations[i];
+		}
+		Arrays.sort(entries, lower, upper + 1);
+		for (int i = lower; i <= upper; i++) {
+			colors[i] = (int) (entries[i] >> 32);
+			populations[i] = (int) entries[i];
 		}
 	}
 
+	/**
+	 * @return the average color of a box.
+	 */
+	private PaletteSwatch getAverageColor(int box) {
+		final int[] colors = mColors;
+		final int[] populations = mPopulations;
+		final int bits = mBits;
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		long redSum = 0;
+		long greenSum = 0;
+		long blueSum = 0;
+		int totalPopulation = 0;
+		for (int i = mBoxes[offset + BOX_LOWER], upper = mBoxes[offset + BOX_UPPER]; i <= upper; i++) {
+			final int color = colors[i];
+			final int colorPopulation = populations[i];
+			totalPopulation += colorPopulation;
+			redSum += (long) colorPopulation * quantizedRed(color, bits);
+			greenSum += (long) colorPopulation * quantizedGreen(color, bits);
+			blueSum += (long) colorPopulation * quantizedBlue(color, bits);
+		}
+		final int redMean = Math.round(redSum / (float) totalPopulation);
+		final int greenMean = Math.round(greenSum / (float) totalPopulation);
+		final int blueMean = Math.round(blueSum / (float) totalPopulation);
+		return new PaletteSwatch(approximateToRgb888(redMean, greenMean, blueMean, bits), totalPopulation);
+	}
+
 	/**
 	 * Modify the significant octet in a packed color int. Allows sorting based on
 	 * the value of a single color component. This relies on all components being
 	 * the same word size.
 	 *
-	 * @see Vbox#findSplitPoint()
+	 * @see #findSplitPoint(int)
 	 */
-	static void modifySignificantOctet(final int[] a, final int dimension, final int lower, final int upper) {
+	static void modifySignificantOctet(final int[] a, final int dimension, final int lower, final int upper, final int bits) {
 		switch (dimension) {
 		case COMPONENT_RED:
 			// Already in RGB, no need to do anything
@@ -349,35 +555,43 @@ final class ColorCutQuantizer {
 			// We need to do a RGB to GRB swap, or vice-versa
 			for (int i = lower; i <= upper; i++) {
 				final int color = a[i];
-				a[i] = quantizedGreen(color) << (QUANTIZE_WORD_WIDTH + QUANTIZE_WORD_WIDTH)
-						| quantizedRed(color) << QUANTIZE_WORD_WIDTH | quantizedBlue(color);
+				a[i] = quantizedGreen(color, bits) << (bits + bits)
+						| quantizedRed(color, bits) << bits | quantizedBlue(color, bits);
 			}
 			break;
 		case COMPONENT_BLUE:
 			// We need to do a RGB to BGR swap, or vice-versa
 			for (int i = lower; i <= upper; i++) {
 				final int color = a[i];
-				a[i] = quantizedBlue(color) << (QUANTIZE_WORD_WIDTH + QUANTIZE_WORD_WIDTH)
-						| quantizedGreen(color) << QUANTIZE_WORD_WIDTH | quantizedRed(color);
+				a[i] = quantizedBlue(color, bits) << (bits + bits)
+						| quantizedGreen(color, bits) << bits | quantizedRed(color, bits);
 			}
 			break;
 		}
 	}
 
-	private boolean shouldIgnoreColor(int color565) {
-		final int rgb = approximateToRgb888(color565);
-		AndroidColorUtils.colorToHSL(rgb, mTempHsl);
-		return shouldIgnoreColor(rgb, mTempHsl);
+	private static boolean shouldIgnoreColor(int quantizedColor, int bits, PaletteFilter[] filters, float[] tempHsl) {
+		if (filters == null || filters.length == 0) {
+			// no need to convert the color
+			return false;
+		}
+		final int rgb = approximateToRgb888(quantizedColor, bits);
+		AndroidColorUtils.colorToHSL(rgb, tempHsl);
+		return shouldIgnoreColor(rgb, tempHsl, filters);
 	}
 
 	private boolean shouldIgnoreColor(PaletteSwatch color) {
-		return shouldIgnoreColor(color.getRgb(), color.getHsl());
+		return shouldIgnoreColor(color, mFilters);
+	}
+
+	static boolean shouldIgnoreColor(PaletteSwatch color, PaletteFilter[] filters) {
+		return shouldIgnoreColor(color.getRgb(), color.getHsl(), filters);
 	}
 
-	private boolean shouldIgnoreColor(int rgb, float[] hsl) {
-		if (mFilters != null && mFilters.length > 0) {
-			for (int i = 0, count = mFilters.length; i < count; i++) {
-				if (!mFilters[i].isAllowed(rgb, hsl)) {
+	private static boolean shouldIgnoreColor(int rgb, float[] hsl, PaletteFilter[] filters) {
+		if (filters != null && filters.length > 0) {
+			for (int i = 0, count = filters.length; i < count; i++) {
+				if (!filters[i].isAllowed(rgb, hsl)) {
 					return true;
 				}
 			}
@@ -386,59 +600,53 @@ final class ColorCutQuantizer {
 	}
 
 	/**
-	 * Comparator which sorts {@link Vbox} instances based on their volume, in
-	 * descending order
+	 * Quantized a RGB888 value to have a word width of
+	 * {@value #QUANTIZE_WORD_WIDTH}.
 	 */
-	private static final Comparator<Vbox> VBOX_COMPARATOR_VOLUME = new Comparator<Vbox>() {
-		@Override
-		public int compare(Vbox lhs, Vbox rhs) {
-			return rhs.getVolume() - lhs.getVolume();
-		}
-	};
+	static int quantizeFromRgb888(int color) {
+		return quantizeFromRgb888(color, QUANTIZE_WORD_WIDTH);
+	}
 
 	/**
-	 * Quantized a RGB888 value to have a word width of
-	 * {@value #QUANTIZE_WORD_WIDTH}.
+	 * Quantized a RGB888 value to have the given word width.
 	 */
-	private static int quantizeFromRgb888(int color) {
-		int r = modifyWordWidth(Color.red(color), 8, QUANTIZE_WORD_WIDTH);
-		int g = modifyWordWidth(Color.green(color), 8, QUANTIZE_WORD_WIDTH);
-		int b = modifyWordWidth(Color.blue(color), 8, QUANTIZE_WORD_WIDTH);
-		return r << (QUANTIZE_WORD_WIDTH + QUANTIZE_WORD_WIDTH) | g << QUANTIZE_WORD_WIDTH | b;
+	static int quantizeFromRgb888(int color, int bits) {
+		int r = modifyWordWidth(Color.red(color), 8, bits);
+		int g = modifyWordWidth(Color.green(color), 8, bits);
+		int b = modifyWordWidth(Color.blue(color), 8, bits);
+		return r << (bits + bits) | g << bits | b;
 	}
 
 	/**
-	 * Quantized RGB888 values to have a word width of
-	 * {@value #QUANTIZE_WORD_WIDTH}.
+	 * Quantized RGB values of the given word width to RGB888.
 	 */
-	static int approximateToRgb888(int r, int g, int b) {
-		return Color.rgb(modifyWordWidth(r, QUANTIZE_WORD_WIDTH, 8), modifyWordWidth(g, QUANTIZE_WORD_WIDTH, 8),
-				modifyWordWidth(b, QUANTIZE_WORD_WIDTH, 8));
+	static int approximateToRgb888(int r, int g, int b, int bits) {
+		return Color.rgb(modifyWordWidth(r, bits, 8), modifyWordWidth(g, bits, 8), modifyWordWidth(b, bits, 8));
 	}
 
-	private static int approximateToRgb888(int color) {
-		return approximateToRgb888(quantizedRed(color), quantizedGreen(color), quantizedBlue(color));
+	static int approximateToRgb888(int color, int bits) {
+		return approximateToRgb888(quantizedRed(color, bits), quantizedGreen(color, bits), quantizedBlue(color, bits), bits);
 	}
 
 	/**
 	 * @return red component of the quantized color
 	 */
-	static int quantizedRed(int color) {
-		return (color >> (QUANTIZE_WORD_WIDTH + QUANTIZE_WORD_WIDTH)) & QUANTIZE_WORD_MASK;
+	static int quantizedRed(int color, int bits) {
+		return (color >> (bits + bits)) & ((1 << bits) - 1);
 	}
 
 	/**
 	 * @return green component of a quantized color
 	 */
-	static int quantizedGreen(int color) {
-		return (color >> QUANTIZE_WORD_WIDTH) & QUANTIZE_WORD_MASK;
+	static int quantizedGreen(int color, int bits) {
+		return (color >> bits) & ((1 << bits) - 1);
 	}
 
 	/**
 	 * @return blue component of a quantized color
 	 */
-	static int quantizedBlue(int color) {
-		return color & QUANTIZE_WORD_MASK;
+	static int quantizedBlue(int color, int bits) {
+		return color & ((1 << bits) - 1);
 	}
 
 	private static int modifyWordWidth(int value, int currentWidth, int targetWidth) {
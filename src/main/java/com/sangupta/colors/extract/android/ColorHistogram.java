@@ -16,50 +16,94 @@
 
 package com.sangupta.colors.extract.android;
 
+import java.nio.IntBuffer;
 import java.util.Arrays;
 
 /**
- * Class which provides a histogram for RGB values.
+ * Class which provides a histogram for RGB values: the distinct colors of an
+ * image, in ascending order, and the number of pixels of each.
+ * 
+ * Pixels are counted in a single pass using a {@link ColorCountMap}, an
+ * open-addressing hash map of primitive ints, so building the histogram takes
+ * time linear in the number of pixels. The pixels are only read, never
+ * modified.
  * 
  * @author sangupta
  * @since 1.0.0
  */
-final class ColorHistogram {
-	
+public final class ColorHistogram {
+
+	/**
+	 * Initial number of slots in the hash map, a power of two
+	 */
+	private static final int INITIAL_CAPACITY = 1 << 10;
+
 	private final int[] mColors;
-	
+
 	private final int[] mColorCounts;
-	
+
 	private final int mNumberColors;
 
+	// the pixels of each color, only while counting
+	private ColorCountMap mCounter;
+
 	/**
 	 * A new {@link ColorHistogram} instance.
 	 *
 	 * @param pixels array of image contents
 	 */
-	ColorHistogram(final int[] pixels) {
-		// Sort the pixels to enable counting below
-		Arrays.sort(pixels);
-		// Count number of distinct colors
-		mNumberColors = countDistinctColors(pixels);
-		// Create arrays
+	public ColorHistogram(final int[] pixels) {
+		this(IntBuffer.wrap(pixels));
+	}
+
+	/**
+	 * A new {@link ColorHistogram} instance.
+	 *
+	 * @param pixels array of image contents
+	 * @param offset index of the first pixel
+	 * @param length number of pixels
+	 */
+	public ColorHistogram(final int[] pixels, final int offset, final int length) {
+		this(IntBuffer.wrap(pixels, offset, length));
+	}
+
+	/**
+	 * A new {@link ColorHistogram} instance.
+	 *
+	 * @param pixels image contents from the position to the limit of the buffer,
+	 *               neither of which is modified
+	 */
+	public ColorHistogram(final IntBuffer pixels) {
+		if (pixels == null) {
+			throw new IllegalArgumentException("Pixels cannot be null");
+		}
+
+		mCounter = new ColorCountMap(INITIAL_CAPACITY);
+
+		// Count the frequency of each color
+		countFrequencies(pixels);
+
+		// Now collect the distinct colors, sorted by color
+		mNumberColors = mCounter.size();
 		mColors = new int[mNumberColors];
 		mColorCounts = new int[mNumberColors];
-		// Finally count the frequency of each color
-		countFrequencies(pixels);
+		collectColors();
+
+		mCounter = null;
 	}
 
 	/**
 	 * @return number of distinct colors in the image.
 	 */
-	int getNumberOfColors() {
+	public int getNumberOfColors() {
 		return mNumberColors;
 	}
 
 	/**
-	 * @return an array containing all of the distinct colors in the image.
+	 * @return an array containing all of the distinct colors in the image, in
+	 *         ascending order.
 	 */
-	int[] getColors() {
+	public int[] getColors() {
 		return mColors;
 	}
 
@@ -67,53 +111,46 @@ final class ColorHistogram {
 	 * @return an array containing the frequency of a distinct colors within the
 	 *         image.
 	 */
-	int[] getColorCounts() {
+	public int[] getColorCounts() {
 		return mColorCounts;
 	}
 
-	private static int countDistinctColors(final int[] pixels) {
-		if (pixels.length < 2) {
-			// If we have less than 2 pixels we can stop here
-			return pixels.length;
-		}
-		// If we have at least 2 pixels, we have a minimum of 1 color...
-		int colorCount = 1;
-		int currentColor = pixels[0];
-		// Now iterate from the second pixel to the end, counting distinct colors
-		for (int i = 1; i < pixels.length; i++) {
-			// If we encounter a new color, increase the population
-			if (pixels[i] != currentColor) {
-				currentColor = pixels[i];
-				colorCount++;
-			}
-		}
-		return colorCount;
+	/**
+	 * @param color the color to look up
+	 * 
+	 * @return the number of pixels of the given color, <code>0</code> if the color
+	 *         is not in the image.
+	 */
+	public int getCount(final int color) {
+		final int index = Arrays.binarySearch(mColors, color);
+		return index < 0 ? 0 : mColorCounts[index];
 	}
 
-	private void countFrequencies(final int[] pixels) {
-		if (pixels.length == 0) {
+	private void countFrequencies(final IntBuffer pixels) {
+		if (pixels.hasArray()) {
+			final int[] array = pixels.array();
+			for (int i = pixels.arrayOffset() + pixels.position(), end = pixels.arrayOffset() + pixels.limit(); i < end; i++) {
+				mCounter.add(array[i]);
+			}
 			return;
 		}
-		int currentColorIndex = 0;
-		int currentColor = pixels[0];
-		mColors[currentColorIndex] = currentColor;
-		mColorCounts[currentColorIndex] = 1;
-		if (pixels.length == 1) {
-			// If we only have one pixel, we can stop here
-			return;
+
+		for (int i = pixels.position(), end = pixels.limit(); i < end; i++) {
+			mCounter.add(pixels.get(i));
 		}
-		// Now iterate from the second pixel to the end, population distinct colors
-		for (int i = 1; i < pixels.length; i++) {
-			if (pixels[i] == currentColor) {
-				// We've hit the same color as before, increase population
-				mColorCounts[currentColorIndex]++;
-			} else {
-				// We've hit a new color, increase index
-				currentColor = pixels[i];
-				currentColorIndex++;
-				mColors[currentColorIndex] = currentColor;
-				mColorCounts[currentColorIndex] = 1;
-			}
+	}
+
+	/**
+	 * Copy the colors and their counts to the color and count arrays, sorted by
+	 * color.
+	 */
+	private void collectColors() {
+		final long[] entries = new long[mNumberColors];
+		mCounter.sortedEntries(entries);
+
+		for (int i = 0; i < entries.length; i++) {
+			mColors[i] = (int) (entries[i] >> 32);
+			mColorCounts[i] = (int) entries[i];
 		}
 	}
 }
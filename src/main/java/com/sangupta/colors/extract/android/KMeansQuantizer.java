@@ -0,0 +1,423 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.sangupta.colors.BulkColorConversionUtils;
+import com.sangupta.colors.ParallelSupport;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+/**
+ * A color quantizer that clusters colors with k-means in {@link LAB} space,
+ * where distances follow perceived differences much more closely than in RGB.
+ * Colors are converted with
+ * {@link BulkColorConversionUtils#sRGBtoLAB(int[], int, float[], int, int, XYZIlluminant)},
+ * so that <code>L*</code> runs from <code>0</code> to <code>100</code>.
+ *
+ * <br><br>
+ *
+ * Pixels are counted into the same histogram of quantized colors as
+ * {@link ColorCutQuantizer}, and the distinct colors are then clustered with
+ * their populations as weights, so the cost depends on the number of distinct
+ * colors rather than on the number of pixels. Seeds are chosen with k-means++,
+ * each picked with a probability proportional to its population times its
+ * squared distance to the nearest seed so far, from a fixed random seed so
+ * that palettes are reproducible. Clustering stops once no centroid moves by
+ * more than the given distance, or after the given number of iterations. The
+ * swatch of a cluster is the population-weighted mean of its colors.
+ *
+ * <br><br>
+ *
+ * Assigning colors to their nearest centroid is the bulk of the work and is
+ * split over the fork-join pool of {@link ParallelSupport} when there are
+ * enough colors and clusters, unless disabled for the instance or through the
+ * <code>com.sangupta.colors.parallel</code> system property. Each color is
+ * assigned the same way on either path, so the palette is identical.
+ *
+ * <br><br>
+ *
+ * Instances are immutable and safe to share between threads.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class KMeansQuantizer implements Quantizer {
+
+	public static final int DEFAULT_MAX_ITERATIONS = 16;
+
+	public static final double DEFAULT_MIN_MOVEMENT = 0.5d;
+
+	/**
+	 * Minimum number of distances computed per iteration for which colors are
+	 * assigned in parallel
+	 */
+	static final int MIN_PARALLEL_WORK = 1 << 18;
+
+	/**
+	 * Smallest range of colors assigned by a single task
+	 */
+	private static final int MIN_RANGE = 1 << 11;
+
+	/**
+	 * Seed of the random choice of the initial centroids
+	 */
+	private static final long SEED = 42L;
+
+	private final int maxIterations;
+
+	private final double minMovement;
+
+	private final boolean parallel;
+
+	/**
+	 * Create a quantizer with the default settings, assigning colors in
+	 * parallel where it pays off.
+	 */
+	public KMeansQuantizer() {
+		this(DEFAULT_MAX_ITERATIONS, DEFAULT_MIN_MOVEMENT, true);
+	}
+
+	/**
+	 * Create a quantizer.
+	 *
+	 * @param maxIterations the most iterations to run, at least <code>1</code>
+	 * @param minMovement   the distance in {@link LAB} space below which
+	 *                      centroid movements are considered converged
+	 * @param parallel      whether colors may be assigned in parallel
+	 */
+	public KMeansQuantizer(int maxIterations, double minMovement, boolean parallel) {
+		if (maxIterations < 1) {
+			throw new IllegalArgumentException("Maximum iterations must be at least 1: got " + maxIterations);
+		}
+
+		if (!(minMovement >= 0)) {
+			throw new IllegalArgumentException("Minimum movement cannot be negative: got " + minMovement);
+		}
+
+		this.maxIterations = maxIterations;
+		this.minMovement = minMovement;
+		this.parallel = parallel;
+	}
+
+	@Override
+	public List<PaletteSwatch> quantize(IntBuffer pixels, int maxColors, PaletteFilter[] filters, QuantizerContext context) {
+		if (pixels == null) {
+			throw new IllegalArgumentException("Pixels cannot be null");
+		}
+
+		if (context == null) {
+			throw new IllegalArgumentException("Quantizer context cannot be null");
+		}
+
+		context.reset(Math.max(maxColors, 1));
+		final int count = ColorCutQuantizer.countColors(pixels, filters, context);
+		final int[] populations = context.populations;
+		final int[] colors = context.colors;
+		final int bits = context.bits;
+
+		if (count <= maxColors) {
+			// The image has fewer colors than the maximum requested, so just return the
+			// colors
+			return ColorCutQuantizer.distinctSwatches(context, count);
+		}
+
+		final int maxClusters = Math.max(maxColors, 1);
+		context.reserveClusters(count, maxClusters);
+		final float[] lab = context.lab;
+		final int[] labels = context.labels;
+		final double[] centroids = context.centroids;
+		final double[] sums = context.clusterSums;
+
+		// the labels hold the colors while they are converted
+		for (int i = 0; i < count; i++) {
+			labels[i] = ColorCutQuantizer.approximateToRgb888(colors[i], bits);
+		}
+		BulkColorConversionUtils.sRGBtoLAB(labels, 0, lab, 0, count, XYZIlluminant.D65);
+
+		final int clusters = seed(lab, populations, count, centroids, maxClusters, context.distances, context.random);
+
+		final double minMovement = this.minMovement * this.minMovement;
+		for (int iteration = 0; iteration < this.maxIterations; iteration++) {
+			this.assign(lab, count, centroids, clusters, labels);
+
+			Arrays.fill(sums, 0, clusters * 4, 0);
+			for (int i = 0; i < count; i++) {
+				final int weight = populations[i];
+				final int sum = labels[i] * 4;
+				sums[sum] += weight * (double) lab[i * 3];
+				sums[sum + 1] += weight * (double) lab[i * 3 + 1];
+				sums[sum + 2] += weight * (double) lab[i * 3 + 2];
+				sums[sum + 3] += weight;
+			}
+
+			double movement = 0;
+			for (int cluster = 0; cluster < clusters; cluster++) {
+				final double weight = sums[cluster * 4 + 3];
+				if (weight == 0) {
+					// an empty cluster keeps its centroid
+					continue;
+				}
+
+				final int centroid = cluster * 3;
+				final double l = sums[cluster * 4] / weight;
+				final double a = sums[cluster * 4 + 1] / weight;
+				final double b = sums[cluster * 4 + 2] / weight;
+				movement = Math.max(movement, square(l - centroids[centroid]) + square(a - centroids[centroid + 1])
+						+ square(b - centroids[centroid + 2]));
+
+				centroids[centroid] = l;
+				centroids[centroid + 1] = a;
+				centroids[centroid + 2] = b;
+			}
+
+			if (movement <= minMovement) {
+				break;
+			}
+		}
+
+		return averageColors(populations, colors, bits, count, labels, clusters, context.colorSums, filters);
+	}
+
+	/**
+	 * Choose the initial centroids with k-means++.
+	 *
+	 * @return the number of centroids chosen
+	 */
+	private static int seed(float[] lab, int[] populations, int count, double[] centroids, int maxClusters, double[] distances,
+			Random random) {
+		random.setSeed(SEED);
+
+		// the first seed is picked by population alone
+		long population = 0;
+		for (int i = 0; i < count; i++) {
+			population += populations[i];
+		}
+
+		double target = random.nextDouble() * population;
+		int chosen = count - 1;
+		for (int i = 0; i < count; i++) {
+			target -= populations[i];
+			if (target < 0) {
+				chosen = i;
+				break;
+			}
+		}
+
+		setCentroid(centroids, 0, lab, chosen);
+		for (int i = 0; i < count; i++) {
+			distances[i] = populations[i] * squaredDistance(lab, i, centroids, 0);
+		}
+
+		int clusters = 1;
+		while (clusters < maxClusters) {
+			double total = 0;
+			for (int i = 0; i < count; i++) {
+				total += distances[i];
+			}
+
+			if (total <= 0) {
+				// every color is a seed already
+				break;
+			}
+
+			target = random.nextDouble() * total;
+			chosen = -1;
+			for (int i = 0; i < count; i++) {
+				target -= distances[i];
+				if (target < 0 && distances[i] > 0) {
+					chosen = i;
+					break;
+				}
+			}
+
+			if (chosen < 0) {
+				// rounding left the target past the end, take the last candidate
+				for (int i = count - 1; chosen < 0; i--) {
+					if (distances[i] > 0) {
+						chosen = i;
+					}
+				}
+			}
+
+			final int centroid = clusters++ * 3;
+			setCentroid(centroids, centroid, lab, chosen);
+			for (int i = 0; i < count; i++) {
+				final double distance = populations[i] * squaredDistance(lab, i, centroids, centroid);
+				if (distance < distances[i]) {
+					distances[i] = distance;
+				}
+			}
+		}
+
+		return clusters;
+	}
+
+	/**
+	 * Assign every color to its nearest centroid.
+	 */
+	private void assign(float[] lab, int count, double[] centroids, int clusters, int[] labels) {
+		if (this.parallel && ParallelSupport.isEnabled() && (long) count * clusters >= MIN_PARALLEL_WORK
+				&& ParallelSupport.getPool().getParallelism() > 1) {
+			final ForkJoinPool pool = ParallelSupport.getPool();
+			final int range = Math.max(MIN_RANGE, count / (pool.getParallelism() * 4) + 1);
+			pool.invoke(new Assignment(lab, centroids, clusters, labels, 0, count, range));
+			return;
+		}
+
+		assign(lab, centroids, clusters, labels, 0, count);
+	}
+
+	static void assign(float[] lab, double[] centroids, int clusters, int[] labels, int from, int to) {
+		for (int i = from; i < to; i++) {
+			int nearest = 0;
+			double best = Double.POSITIVE_INFINITY;
+			for (int cluster = 0; cluster < clusters; cluster++) {
+				final double distance = squaredDistance(lab, i, centroids, cluster * 3);
+				if (distance < best) {
+					best = distance;
+					nearest = cluster;
+				}
+			}
+			labels[i] = nearest;
+		}
+	}
+
+	/**
+	 * @return the population-weighted mean colors of the clusters that the
+	 *         filters allow
+	 */
+	private static List<PaletteSwatch> averageColors(int[] populations, int[] colors, int bits, int count, int[] labels, int clusters,
+			long[] sums, PaletteFilter[] filters) {
+		Arrays.fill(sums, 0, clusters * 4, 0);
+		for (int i = 0; i < count; i++) {
+			final int population = populations[i];
+			final int rgb = ColorCutQuantizer.approximateToRgb888(colors[i], bits);
+			final int sum = labels[i] * 4;
+			sums[sum] += (long) population * Color.red(rgb);
+			sums[sum + 1] += (long) population * Color.green(rgb);
+			sums[sum + 2] += (long) population * Color.blue(rgb);
+			sums[sum + 3] += population;
+		}
+
+		final List<PaletteSwatch> swatches = new ArrayList<PaletteSwatch>(clusters);
+		for (int cluster = 0; cluster < clusters; cluster++) {
+			final long population = sums[cluster * 4 + 3];
+			if (population == 0) {
+				continue;
+			}
+
+			final int red = Math.round(sums[cluster * 4] / (float) population);
+			final int green = Math.round(sums[cluster * 4 + 1] / (float) population);
+			final int blue = Math.round(sums[cluster * 4 + 2] / (float) population);
+			final PaletteSwatch swatch = new PaletteSwatch(Color.rgb(red, green, blue), (int) population);
+
+			// As we're averaging a cluster, we can still get colors which we do not want,
+			// so we check again here
+			if (!ColorCutQuantizer.shouldIgnoreColor(swatch, filters)) {
+				swatches.add(swatch);
+			}
+		}
+		return swatches;
+	}
+
+	private static double squaredDistance(float[] lab, int color, double[] centroids, int centroid) {
+		final double l = lab[color * 3] - centroids[centroid];
+		final double a = lab[color * 3 + 1] - centroids[centroid + 1];
+		final double b = lab[color * 3 + 2] - centroids[centroid + 2];
+		return l * l + a * a + b * b;
+	}
+
+	private static void setCentroid(double[] centroids, int centroid, float[] lab, int color) {
+		centroids[centroid] = lab[color * 3];
+		centroids[centroid + 1] = lab[color * 3 + 1];
+		centroids[centroid + 2] = lab[color * 3 + 2];
+	}
+
+	private static double square(double value) {
+		return value * value;
+	}
+
+	public int getMaxIterations() {
+		return this.maxIterations;
+	}
+
+	public double getMinMovement() {
+		return this.minMovement;
+	}
+
+	public boolean isParallel() {
+		return this.parallel;
+	}
+
+	/**
+	 * Assigns a range of colors, splitting it in halves down to the given
+	 * range.
+	 */
+	private static final class Assignment extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final float[] lab;
+
+		private final double[] centroids;
+
+		private final int clusters;
+
+		private final int[] labels;
+
+		private final int from;
+
+		private final int to;
+
+		private final int range;
+
+		Assignment(float[] lab, double[] centroids, int clusters, int[] labels, int from, int to, int range) {
+			this.lab = lab;
+			this.centroids = centroids;
+			this.clusters = clusters;
+			this.labels = labels;
+			this.from = from;
+			this.to = to;
+			this.range = range;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= this.range) {
+				assign(this.lab, this.centroids, this.clusters, this.labels, this.from, this.to);
+				return;
+			}
+
+			final int middle = (this.from + this.to) >>> 1;
+			invokeAll(new Assignment(this.lab, this.centroids, this.clusters, this.labels, this.from, middle, this.range),
+					new Assignment(this.lab, this.centroids, this.clusters, this.labels, middle, this.to, this.range));
+		}
+
+	}
+
+}
@@ -0,0 +1,380 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A color quantizer that reads pixels in a single streaming pass into an
+ * octree of RGB space, for inputs too large to sample or hold at once, such as
+ * video frames or images that are decoded in strips.
+ *
+ * <br><br>
+ *
+ * Each level of the tree splits the color cube in eight by one more bit of the
+ * red, green and blue values, down to leaves of single 24-bit colors. Leaves
+ * sum the pixels that reach them. Nodes come from a pool of fixed size that is
+ * allocated up front, so memory stays the same whatever the number of pixels
+ * and no histogram is needed. Whenever the pool runs low, the deepest node
+ * with children is reduced: its children are merged into it and returned to
+ * the pool, and later pixels stop at it. The same reduction brings the leaves
+ * down to the requested number of colors, each of which becomes a
+ * {@link PaletteSwatch} of the mean color of its pixels.
+ *
+ * <br><br>
+ *
+ * Pixels are added in chunks with {@link #add(int[], int, int)} or
+ * {@link #add(IntBuffer)}, and the swatches read with
+ * {@link #getQuantizedColors(int, PaletteFilter[])}. Adding more pixels after
+ * that is allowed. As a {@link Quantizer}, it starts afresh for every image.
+ * Filters apply to the resulting swatches, as the individual colors are not
+ * kept.
+ *
+ * <br><br>
+ *
+ * Instances are not thread-safe, keep one per worker thread.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class OctreeQuantizer implements Quantizer {
+
+	public static final int DEFAULT_MAX_NODES = 4096;
+
+	/**
+	 * Levels below the root, one per bit of a color component
+	 */
+	private static final int DEPTH = 8;
+
+	/**
+	 * Smallest pool that always leaves room for a path from the root to a leaf
+	 */
+	private static final int MIN_NODES = 64;
+
+	/**
+	 * The eight children of each node, <code>0</code> where there is none as
+	 * the root is never a child
+	 */
+	private final int[] children;
+
+	private final long[] pixelCounts;
+
+	private final long[] redSums;
+
+	private final long[] greenSums;
+
+	private final long[] blueSums;
+
+	private final boolean[] leaves;
+
+	/**
+	 * Next node of the same level with children, or of the free list
+	 */
+	private final int[] next;
+
+	/**
+	 * First node with children of each level, or <code>-1</code>
+	 */
+	private final int[] reducible = new int[DEPTH];
+
+	/**
+	 * Number of nodes ever taken from the pool
+	 */
+	private int allocated;
+
+	/**
+	 * First node returned to the pool, or <code>-1</code>
+	 */
+	private int free;
+
+	private int nodeCount;
+
+	private int leafCount;
+
+	private long pixelCount;
+
+	/**
+	 * Create a quantizer with a pool of {@value #DEFAULT_MAX_NODES} nodes.
+	 */
+	public OctreeQuantizer() {
+		this(DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * Create a quantizer.
+	 *
+	 * @param maxNodes the size of the node pool, at least 64 - larger pools keep
+	 *                 finer detail until the end
+	 */
+	public OctreeQuantizer(int maxNodes) {
+		if (maxNodes < MIN_NODES) {
+			throw new IllegalArgumentException("Maximum nodes must be at least " + MIN_NODES + ": got " + maxNodes);
+		}
+
+		this.children = new int[maxNodes * 8];
+		this.pixelCounts = new long[maxNodes];
+		this.redSums = new long[maxNodes];
+		this.greenSums = new long[maxNodes];
+		this.blueSums = new long[maxNodes];
+		this.leaves = new boolean[maxNodes];
+		this.next = new int[maxNodes];
+
+		this.reset();
+	}
+
+	/**
+	 * Remove all pixels.
+	 */
+	public void reset() {
+		Arrays.fill(this.children, 0, this.allocated * 8, 0);
+		Arrays.fill(this.pixelCounts, 0, this.allocated, 0);
+		Arrays.fill(this.redSums, 0, this.allocated, 0);
+		Arrays.fill(this.greenSums, 0, this.allocated, 0);
+		Arrays.fill(this.blueSums, 0, this.allocated, 0);
+		Arrays.fill(this.leaves, 0, this.allocated, false);
+		Arrays.fill(this.reducible, -1);
+
+		this.allocated = 0;
+		this.free = -1;
+		this.nodeCount = 0;
+		this.leafCount = 0;
+		this.pixelCount = 0;
+
+		// the root
+		this.newNode();
+	}
+
+	/**
+	 * Add packed ARGB pixels. Alpha is ignored.
+	 *
+	 * @param pixels the pixels
+	 * @param offset index of the first pixel
+	 * @param length number of pixels
+	 */
+	public void add(int[] pixels, int offset, int length) {
+		if (pixels == null) {
+			throw new IllegalArgumentException("Pixels cannot be null");
+		}
+
+		if (offset < 0 || length < 0 || offset + length > pixels.length) {
+			throw new IllegalArgumentException("Offset and length do not fit the pixel array");
+		}
+
+		for (int i = offset, end = offset + length; i < end; i++) {
+			this.add(pixels[i]);
+		}
+	}
+
+	/**
+	 * Add the packed ARGB pixels between the position and the limit of the
+	 * buffer. The buffer and its position are left untouched.
+	 *
+	 * @param pixels the pixels
+	 */
+	public void add(IntBuffer pixels) {
+		if (pixels == null) {
+			throw new IllegalArgumentException("Pixels cannot be null");
+		}
+
+		if (pixels.hasArray()) {
+			this.add(pixels.array(), pixels.arrayOffset() + pixels.position(), pixels.remaining());
+			return;
+		}
+
+		for (int i = pixels.position(), end = pixels.limit(); i < end; i++) {
+			this.add(pixels.get(i));
+		}
+	}
+
+	private void add(int color) {
+		// leave room for a whole path from the root
+		while (this.children.length / 8 - this.nodeCount < DEPTH) {
+			this.reduce();
+		}
+
+		final int red = Color.red(color);
+		final int green = Color.green(color);
+		final int blue = Color.blue(color);
+
+		int node = 0;
+		for (int level = 0; level < DEPTH && !this.leaves[node]; level++) {
+			final int shift = DEPTH - 1 - level;
+			final int slot = node * 8 + (((red >> shift) & 1) << 2 | ((green >> shift) & 1) << 1 | ((blue >> shift) & 1));
+
+			int child = this.children[slot];
+			if (child == 0) {
+				if (!this.hasChildren(node)) {
+					// the node can now be reduced
+					this.next[node] = this.reducible[level];
+					this.reducible[level] = node;
+				}
+
+				child = this.newNode();
+				this.children[slot] = child;
+				if (level == DEPTH - 1) {
+					this.leaves[child] = true;
+					this.leafCount++;
+				}
+			}
+
+			node = child;
+		}
+
+		this.pixelCounts[node]++;
+		this.redSums[node] += red;
+		this.greenSums[node] += green;
+		this.blueSums[node] += blue;
+		this.pixelCount++;
+	}
+
+	/**
+	 * Reduce leaves and read the mean color of each.
+	 *
+	 * @param maxColors the maximum number of swatches
+	 * @param filters   the filters that swatches must pass, or <code>null</code>
+	 *
+	 * @return the swatches
+	 */
+	public List<PaletteSwatch> getQuantizedColors(int maxColors, PaletteFilter[] filters) {
+		while (this.leafCount > Math.max(maxColors, 1)) {
+			this.reduce();
+		}
+
+		final List<PaletteSwatch> swatches = new ArrayList<PaletteSwatch>(this.leafCount);
+		for (int node = 0; node < this.allocated; node++) {
+			final long population = this.pixelCounts[node];
+			if (!this.leaves[node] || population == 0) {
+				continue;
+			}
+
+			final int red = Math.round(this.redSums[node] / (float) population);
+			final int green = Math.round(this.greenSums[node] / (float) population);
+			final int blue = Math.round(this.blueSums[node] / (float) population);
+			final PaletteSwatch swatch = new PaletteSwatch(Color.rgb(red, green, blue), (int) Math.min(population, Integer.MAX_VALUE));
+
+			if (!ColorCutQuantizer.shouldIgnoreColor(swatch, filters)) {
+				swatches.add(swatch);
+			}
+		}
+		return swatches;
+	}
+
+	/**
+	 * Quantize the pixels of an image, discarding any pixels added before. The
+	 * context is not used.
+	 */
+	@Override
+	public List<PaletteSwatch> quantize(IntBuffer pixels, int maxColors, PaletteFilter[] filters, QuantizerContext context) {
+		this.reset();
+		this.add(pixels);
+		return this.getQuantizedColors(maxColors, filters);
+	}
+
+	/**
+	 * @return the number of pixels added
+	 */
+	public long getPixelCount() {
+		return this.pixelCount;
+	}
+
+	/**
+	 * @return the number of leaves, each of which becomes a swatch
+	 */
+	public int getLeafCount() {
+		return this.leafCount;
+	}
+
+	/**
+	 * @return the size of the node pool
+	 */
+	public int getMaxNodes() {
+		return this.pixelCounts.length;
+	}
+
+	/**
+	 * Merge the children of the deepest node that has any into it.
+	 */
+	private void reduce() {
+		int level = DEPTH - 1;
+		while (this.reducible[level] < 0) {
+			level--;
+		}
+
+		final int node = this.reducible[level];
+		this.reducible[level] = this.next[node];
+
+		for (int slot = node * 8, end = slot + 8; slot < end; slot++) {
+			final int child = this.children[slot];
+			if (child == 0) {
+				continue;
+			}
+
+			// children of the deepest reducible node are always leaves
+			this.pixelCounts[node] += this.pixelCounts[child];
+			this.redSums[node] += this.redSums[child];
+			this.greenSums[node] += this.greenSums[child];
+			this.blueSums[node] += this.blueSums[child];
+			this.freeNode(child);
+			this.children[slot] = 0;
+			this.leafCount--;
+		}
+
+		this.leaves[node] = true;
+		this.leafCount++;
+	}
+
+	private boolean hasChildren(int node) {
+		for (int slot = node * 8, end = slot + 8; slot < end; slot++) {
+			if (this.children[slot] != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int newNode() {
+		final int node;
+		if (this.free >= 0) {
+			node = this.free;
+			this.free = this.next[node];
+		} else {
+			node = this.allocated++;
+		}
+
+		this.nodeCount++;
+		return node;
+	}
+
+	private void freeNode(int node) {
+		this.pixelCounts[node] = 0;
+		this.redSums[node] = 0;
+		this.greenSums[node] = 0;
+		this.blueSums[node] = 0;
+		this.leaves[node] = false;
+
+		this.next[node] = this.free;
+		this.free = node;
+		this.nodeCount--;
+	}
+
+}
@@ -0,0 +1,158 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.sangupta.colors.ParallelSupport;
+
+/**
+ * Fork-join construction of the quantized color histogram used by
+ * {@link ColorCutQuantizer}.
+ *
+ * <br><br>
+ *
+ * The pixels are split into one range per thread of the pool. The first range
+ * is counted straight into the histogram of the {@link QuantizerContext}, every
+ * other range into a histogram of its own kept in the context, and the
+ * histograms are added together as the tasks join. Counting is the same as in
+ * the sequential loop, so the histogram is identical, and a context that is
+ * reused allocates no histograms after its first large image.
+ *
+ * <br><br>
+ *
+ * Splitting only pays off for large inputs, so the parallel path is used for
+ * inputs of at least {@link #MIN_LENGTH} pixels. Set the
+ * <code>com.sangupta.colors.parallel</code> system property to
+ * <code>false</code> to always count sequentially.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+final class ParallelHistogram extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Minimum number of pixels for which the histogram is built in parallel
+	 */
+	static final int MIN_LENGTH = 1 << 18;
+
+	/**
+	 * Smallest range of pixels counted by a single task
+	 */
+	private static final int MIN_RANGE = 1 << 16;
+
+	private final IntBuffer pixels;
+
+	/**
+	 * The histogram of each range, the first being that of the context
+	 */
+	private final int[][] histograms;
+
+	/**
+	 * Number of ranges
+	 */
+	private final int ranges;
+
+	/**
+	 * First range of the task
+	 */
+	private final int first;
+
+	/**
+	 * Range after the last range of the task
+	 */
+	private final int last;
+
+	private ParallelHistogram(IntBuffer pixels, int[][] histograms, int ranges, int first, int last) {
+		this.pixels = pixels;
+		this.histograms = histograms;
+		this.ranges = ranges;
+		this.first = first;
+		this.last = last;
+	}
+
+	/**
+	 * Check if the parallel path should be used for the given number of pixels.
+	 *
+	 * @param length
+	 *            the number of pixels
+	 *
+	 * @return <code>true</code> if the histogram should be built in parallel
+	 */
+	static boolean use(int length) {
+		return ParallelSupport.isEnabled() && length >= MIN_LENGTH && ParallelSupport.getPool().getParallelism() > 1;
+	}
+
+	/**
+	 * Add the quantized colors of the pixels from the position to the limit of
+	 * the buffer to the histogram of the context. The pixels are only read.
+	 *
+	 * @param pixels
+	 *            the pixels
+	 *
+	 * @param context
+	 *            the {@link QuantizerContext} whose dense histogram is added to
+	 */
+	static void build(IntBuffer pixels, QuantizerContext context) {
+		build(pixels, context, ParallelSupport.getPool());
+	}
+
+	/**
+	 * Add the quantized colors of the pixels to the histogram of the context,
+	 * counting one range of pixels per thread of the given pool.
+	 */
+	static void build(IntBuffer pixels, QuantizerContext context, ForkJoinPool pool) {
+		final int ranges = Math.max(1, Math.min(pool.getParallelism(), pixels.remaining() / MIN_RANGE));
+		final int[][] histograms = context.reserveHistograms(ranges);
+		pool.invoke(new ParallelHistogram(pixels, histograms, ranges, 0, ranges));
+	}
+
+	@Override
+	protected void compute() {
+		if (this.last - this.first == 1) {
+			final int[] histogram = this.histograms[this.first];
+			if (this.first > 0) {
+				Arrays.fill(histogram, 0);
+			}
+
+			final long length = this.pixels.remaining();
+			final int from = this.pixels.position() + (int) (length * this.first / this.ranges);
+			final int to = this.pixels.position() + (int) (length * this.last / this.ranges);
+			ColorCutQuantizer.countPixels(this.pixels, from, to, histogram);
+			return;
+		}
+
+		final int middle = (this.first + this.last) >>> 1;
+		invokeAll(new ParallelHistogram(this.pixels, this.histograms, this.ranges, this.first, middle),
+				new ParallelHistogram(this.pixels, this.histograms, this.ranges, middle, this.last));
+
+		final int[] histogram = this.histograms[this.first];
+		final int[] other = this.histograms[middle];
+		for (int color = 0; color < histogram.length; color++) {
+			histogram[color] += other[color];
+		}
+	}
+
+}
@@ -0,0 +1,204 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Chooses which pixels of a {@link Bitmap} are used for palette extraction.
+ * Only the chosen pixels are read from the image, so the cost of extraction
+ * depends on the number of samples rather than on the size of the image.
+ *
+ * <p>
+ * Samplers are deterministic: the same sampler always picks the same pixels
+ * from the same bitmap, so palettes are reproducible.
+ * </p>
+ *
+ * @author sangupta
+ * @since 1.0.0
+ *
+ * @see AndroidColorExtractor#samplePixels(PixelSampler)
+ */
+public abstract class PixelSampler {
+
+	private PixelSampler() {
+		// only the factory methods create samplers
+	}
+
+	/**
+	 * Sample every {@code step}-th pixel of every {@code step}-th row.
+	 *
+	 * @param step
+	 *            the distance between samples, in pixels
+	 *
+	 * @return the {@link PixelSampler}
+	 */
+	public static PixelSampler stride(final int step) {
+		if (step <= 0) {
+			throw new IllegalArgumentException("Step must be positive");
+		}
+
+		return new PixelSampler() {
+
+			@Override
+			int[] positions(int width, int height) {
+				final int columns = (width + step - 1) / step;
+				final int rows = (height + step - 1) / step;
+				final int[] positions = new int[columns * rows];
+
+				int index = 0;
+				for (int row = 0; row < height; row += step) {
+					for (int col = 0; col < width; col += step) {
+						positions[index++] = row * width + col;
+					}
+				}
+
+				return positions;
+			}
+
+		};
+	}
+
+	/**
+	 * Divide the bitmap into a grid of about {@code samples} cells and sample
+	 * one pixel at a random place within each cell. This covers the image as
+	 * evenly as a stride, without lining up with regular patterns in it.
+	 *
+	 * @param samples
+	 *            the number of samples to take
+	 *
+	 * @param seed
+	 *            the seed of the random offsets
+	 *
+	 * @return the {@link PixelSampler}
+	 */
+	public static PixelSampler jitteredGrid(final int samples, final long seed) {
+		if (samples <= 0) {
+			throw new IllegalArgumentException("Number of samples must be positive");
+		}
+
+		return new PixelSampler() {
+
+			@Override
+			int[] positions(int width, int height) {
+				if ((long) width * height <= samples) {
+					return null;
+				}
+
+				final double cell = Math.sqrt((double) width * height / samples);
+				final int columns = Math.max(1, Math.min(width, (int) Math.round(width / cell)));
+				final int rows = Math.max(1, Math.min(height, (int) Math.round(height / cell)));
+
+				final Random random = new Random(seed);
+				final int[] positions = new int[columns * rows];
+
+				int index = 0;
+				for (int gridRow = 0; gridRow < rows; gridRow++) {
+					final int top = (int) ((long) gridRow * height / rows);
+					final int bottom = (int) ((long) (gridRow + 1) * height / rows);
+
+					for (int gridCol = 0; gridCol < columns; gridCol++) {
+						final int left = (int) ((long) gridCol * width / columns);
+						final int right = (int) ((long) (gridCol + 1) * width / columns);
+
+						final int row = top + random.nextInt(bottom - top);
+						final int col = left + random.nextInt(right - left);
+						positions[index++] = row * width + col;
+					}
+				}
+
+				return positions;
+			}
+
+		};
+	}
+
+	/**
+	 * Sample {@code samples} pixels picked uniformly at random. Pixels may be
+	 * picked more than once.
+	 *
+	 * @param samples
+	 *            the number of samples to take
+	 *
+	 * @param seed
+	 *            the seed of the random positions
+	 *
+	 * @return the {@link PixelSampler}
+	 */
+	public static PixelSampler random(final int samples, final long seed) {
+		if (samples <= 0) {
+			throw new IllegalArgumentException("Number of samples must be positive");
+		}
+
+		return new PixelSampler() {
+
+			@Override
+			int[] positions(int width, int height) {
+				final int size = width * height;
+				if (size <= samples) {
+					return null;
+				}
+
+				final Random random = new Random(seed);
+				final int[] positions = new int[samples];
+				for (int index = 0; index < samples; index++) {
+					positions[index] = random.nextInt(size);
+				}
+
+				// read the raster in order
+				Arrays.sort(positions);
+				return positions;
+			}
+
+		};
+	}
+
+	/**
+	 * Read the sampled pixels of the given bitmap.
+	 *
+	 * @param bitmap
+	 *            the {@link Bitmap} to sample
+	 *
+	 * @return the sampled pixels
+	 */
+	public int[] sample(Bitmap bitmap) {
+		if (bitmap == null) {
+			throw new IllegalArgumentException("Bitmap is not valid");
+		}
+
+		final int[] positions = this.positions(bitmap.getWidth(), bitmap.getHeight());
+		if (positions == null) {
+			return bitmap.getPixels();
+		}
+
+		return bitmap.getPixels(positions);
+	}
+
+	/**
+	 * Compute the positions, as <code>row * width + column</code>, of the
+	 * pixels to sample.
+	 *
+	 * @return the positions in increasing order, or <code>null</code> to use
+	 *         all pixels
+	 */
+	abstract int[] positions(int width, int height);
+
+}
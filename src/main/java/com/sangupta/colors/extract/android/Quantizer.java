@@ -0,0 +1,61 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.nio.IntBuffer;
+import java.util.List;
+
+/**
+ * Reduces the colors of an image to a small set of {@link PaletteSwatch}es,
+ * which {@link Palette} then scores against its {@link Target}s. Set the
+ * quantizer to use with {@link AndroidColorExtractor#quantizer(Quantizer)}.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public interface Quantizer {
+
+	/**
+	 * Quantize the pixels of an image.
+	 *
+	 * @param pixels    the pixels, from the position to the limit of the buffer,
+	 *                  which must not be modified
+	 * @param maxColors the maximum number of swatches to return
+	 * @param filters   the filters that colors must pass, or <code>null</code>
+	 * @param context   the {@link QuantizerContext} to work in
+	 *
+	 * @return the swatches
+	 */
+	List<PaletteSwatch> quantize(IntBuffer pixels, int maxColors, PaletteFilter[] filters, QuantizerContext context);
+
+	/**
+	 * The default quantizer, which cuts the color space into boxes by volume.
+	 * See {@link ColorCutQuantizer}.
+	 */
+	public static final Quantizer COLOR_CUT = new Quantizer() {
+
+		@Override
+		public List<PaletteSwatch> quantize(IntBuffer pixels, int maxColors, PaletteFilter[] filters, QuantizerContext context) {
+			return new ColorCutQuantizer(pixels, maxColors, filters, context).getQuantizedColors();
+		}
+
+	};
+
+}
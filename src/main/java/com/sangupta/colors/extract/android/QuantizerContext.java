@@ -0,0 +1,318 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Reusable working memory for color quantization. Generating a palette needs
+ * a histogram of the quantized colors, a list of distinct colors and the boxes
+ * that the color space is cut into, or the clusters of {@link KMeansQuantizer}
+ * and the moment tables of {@link WuQuantizer}. A context holds all of them,
+ * so that extracting colors from image after image only allocates the
+ * resulting swatches. The pixels themselves are never modified, so one decoded
+ * image can be shared by several extractors.
+ *
+ * <p>
+ * Colors are quantized to {@value ColorCutQuantizer#QUANTIZE_WORD_WIDTH} bits
+ * per channel by default, or anywhere from
+ * {@value ColorCutQuantizer#MIN_QUANTIZE_WORD_WIDTH} to
+ * {@value ColorCutQuantizer#MAX_QUANTIZE_WORD_WIDTH} bits. Fewer bits give a
+ * smaller histogram that stays in cache, for thumbnails, and more bits give
+ * swatches closer to the actual colors, for print work. Up to
+ * {@value ColorCutQuantizer#MAX_DENSE_WORD_WIDTH} bits the histogram is an
+ * array with an entry for every quantized color, 16K entries at 4 bits to 256K
+ * at 6 bits. At 7 and 8 bits it is a hash map of the colors that actually
+ * occur, so that 8 bits never needs an array of 16M entries.
+ * </p>
+ *
+ * <p>
+ * A context is not thread-safe. Keep one per worker thread and pass it to
+ * {@link AndroidColorExtractor#generate(QuantizerContext)} for every image.
+ * It is reset at the start of each use.
+ * </p>
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class QuantizerContext {
+
+	/**
+	 * Number of values stored for each box
+	 */
+	static final int BOX_FIELDS = 9;
+
+	/**
+	 * Initial number of slots of the sparse histogram, a power of two
+	 */
+	private static final int INITIAL_SPARSE_CAPACITY = 1 << 12;
+
+	/**
+	 * Bits per channel of the quantized colors
+	 */
+	final int bits;
+
+	/**
+	 * Population of each quantized color, or <code>null</code> when the
+	 * histogram is sparse
+	 */
+	final int[] histogram;
+
+	/**
+	 * Population of the quantized colors that occur, or <code>null</code> when
+	 * the histogram is dense
+	 */
+	final ColorCountMap sparseHistogram;
+
+	/**
+	 * The histograms of the ranges of pixels counted by
+	 * {@link ParallelHistogram}, the first being {@link #histogram} - allocated
+	 * on first use
+	 */
+	int[][] histograms = new int[0][];
+
+	/**
+	 * The distinct quantized colors, in ascending order
+	 */
+	int[] colors;
+
+	/**
+	 * The population of each distinct color
+	 */
+	int[] populations;
+
+	/**
+	 * Scratch space used to sort colors with their populations
+	 */
+	long[] entries = new long[0];
+
+	/**
+	 * Scratch space used when converting colors to HSL
+	 */
+	final float[] hsl = new float[3];
+
+	/**
+	 * The boxes, {@value #BOX_FIELDS} values per box
+	 */
+	int[] boxes = new int[0];
+
+	/**
+	 * Binary heap of box indices, ordered by box volume
+	 */
+	int[] heap = new int[0];
+
+	/**
+	 * Variance of each box of {@link WuQuantizer}
+	 */
+	double[] variances = new double[0];
+
+	/**
+	 * The {@link com.sangupta.colors.model.LAB} values of the distinct colors,
+	 * 3 per color - allocated on first use by {@link KMeansQuantizer}
+	 */
+	float[] lab = new float[0];
+
+	/**
+	 * The cluster of each distinct color - allocated on first use
+	 */
+	int[] labels = new int[0];
+
+	/**
+	 * Weighted distance of each distinct color to its nearest seed - allocated
+	 * on first use
+	 */
+	double[] distances = new double[0];
+
+	/**
+	 * The centroids of the clusters, 3 values per cluster - allocated on first
+	 * use by {@link KMeansQuantizer}
+	 */
+	double[] centroids = new double[0];
+
+	/**
+	 * Population-weighted sums of the {@link com.sangupta.colors.model.LAB}
+	 * values of each cluster, followed by its population - allocated on first
+	 * use
+	 */
+	double[] clusterSums = new double[0];
+
+	/**
+	 * Population-weighted sums of the red, green and blue values of each
+	 * cluster, followed by its population - allocated on first use
+	 */
+	long[] colorSums = new long[0];
+
+	/**
+	 * Random numbers for choosing the initial centroids, seeded on every use
+	 */
+	final Random random = new Random();
+
+	/**
+	 * Cumulative population of the colors - allocated on first use by
+	 * {@link WuQuantizer}
+	 */
+	long[] weights = new long[0];
+
+	/**
+	 * Cumulative population-weighted red, green and blue values - allocated on
+	 * first use
+	 */
+	long[] moments = new long[0];
+
+	/**
+	 * Cumulative population-weighted squared magnitude of the colors -
+	 * allocated on first use
+	 */
+	double[] squares = new double[0];
+
+	public QuantizerContext() {
+		this(ColorCutQuantizer.QUANTIZE_WORD_WIDTH);
+	}
+
+	/**
+	 * Create a context that quantizes colors to the given number of bits per
+	 * channel.
+	 *
+	 * @param bits
+	 *            bits per channel, from
+	 *            {@value ColorCutQuantizer#MIN_QUANTIZE_WORD_WIDTH} to
+	 *            {@value ColorCutQuantizer#MAX_QUANTIZE_WORD_WIDTH}
+	 */
+	public QuantizerContext(int bits) {
+		if (bits < ColorCutQuantizer.MIN_QUANTIZE_WORD_WIDTH || bits > ColorCutQuantizer.MAX_QUANTIZE_WORD_WIDTH) {
+			throw new IllegalArgumentException("Bits per channel must be between " + ColorCutQuantizer.MIN_QUANTIZE_WORD_WIDTH
+					+ " and " + ColorCutQuantizer.MAX_QUANTIZE_WORD_WIDTH + ": got " + bits);
+		}
+
+		this.bits = bits;
+		if (bits <= ColorCutQuantizer.MAX_DENSE_WORD_WIDTH) {
+			this.histogram = new int[1 << (bits * 3)];
+			this.sparseHistogram = null;
+			this.colors = new int[this.histogram.length];
+			this.populations = new int[this.histogram.length];
+		} else {
+			this.histogram = null;
+			this.sparseHistogram = new ColorCountMap(INITIAL_SPARSE_CAPACITY);
+			this.colors = new int[0];
+			this.populations = new int[0];
+		}
+	}
+
+	/**
+	 * @return the number of bits per channel of the quantized colors
+	 */
+	public int getBits() {
+		return this.bits;
+	}
+
+	/**
+	 * Clear the histogram and make room for the given number of boxes.
+	 *
+	 * @param maxBoxes
+	 *            the maximum number of boxes needed
+	 */
+	void reset(int maxBoxes) {
+		if (this.histogram != null) {
+			Arrays.fill(this.histogram, 0);
+		} else {
+			this.sparseHistogram.clear();
+		}
+
+		if (this.heap.length < maxBoxes) {
+			this.heap = new int[maxBoxes];
+			this.boxes = new int[maxBoxes * BOX_FIELDS];
+			this.variances = new double[maxBoxes];
+		}
+	}
+
+	/**
+	 * Make room for building the dense histogram over the given number of
+	 * ranges of pixels.
+	 *
+	 * @return the histogram of each range, the first being {@link #histogram}
+	 */
+	int[][] reserveHistograms(int ranges) {
+		if (this.histograms.length < ranges) {
+			final int[][] histograms = Arrays.copyOf(this.histograms, ranges);
+			histograms[0] = this.histogram;
+			for (int range = Math.max(1, this.histograms.length); range < ranges; range++) {
+				histograms[range] = new int[this.histogram.length];
+			}
+			this.histograms = histograms;
+		}
+
+		return this.histograms;
+	}
+
+	/**
+	 * Clear the moment tables, of the given number of entries.
+	 */
+	void resetMoments(int entries) {
+		if (this.weights.length < entries) {
+			this.weights = new long[entries];
+			this.moments = new long[entries * 3];
+			this.squares = new double[entries];
+			return;
+		}
+
+		Arrays.fill(this.weights, 0);
+		Arrays.fill(this.moments, 0);
+		Arrays.fill(this.squares, 0);
+	}
+
+	/**
+	 * Make room for the given number of distinct colors.
+	 */
+	void reserveColors(int count) {
+		if (this.colors.length < count) {
+			this.colors = new int[count];
+			this.populations = new int[count];
+		}
+	}
+
+	/**
+	 * Make room for sorting the given number of distinct colors.
+	 */
+	void reserveEntries(int count) {
+		if (this.entries.length < count) {
+			this.entries = new long[this.histogram != null ? this.histogram.length : count];
+		}
+	}
+
+	/**
+	 * Make room for clustering the given number of distinct colors into at
+	 * most the given number of clusters.
+	 */
+	void reserveClusters(int count, int clusters) {
+		if (this.labels.length < count) {
+			this.lab = new float[count * 3];
+			this.labels = new int[count];
+			this.distances = new double[count];
+		}
+
+		if (this.centroids.length < clusters * 3) {
+			this.centroids = new double[clusters * 3];
+			this.clusterSums = new double[clusters * 4];
+			this.colorSums = new long[clusters * 4];
+		}
+	}
+
+}
@@ -0,0 +1,323 @@
+/**
+ * colors - Strongly typed immutable color models
+ * Copyright (c) 2017-present, Sandeep Gupta
+ * 
+ * https://sangupta.com/projects/colors
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.sangupta.colors.extract.android;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A color quantizer based on Xiaolin Wu's algorithm, "Efficient Statistical
+ * Computations for Optimal Color Quantization" (Graphics Gems II).
+ *
+ * Pixels are counted into the same histogram of quantized colors as
+ * {@link ColorCutQuantizer}. The distinct colors are then turned into cumulative
+ * tables of the population, of the population-weighted red, green and blue
+ * values and of the weighted squared magnitudes, so that the sums over any box
+ * of the color cube take 8 lookups. Boxes are split one at a time, the box
+ * with the largest variance first, at the plane that leaves the smallest
+ * summed variance in the two halves. As every candidate plane is scored in
+ * constant time, the whole split search costs the same whatever the number of
+ * pixels. The tables have at most {@value ColorCutQuantizer#QUANTIZE_WORD_WIDTH}
+ * bits per channel, 36K entries, whatever the bits of the context: finer
+ * colors share a table entry, but still add their own values to its moments.
+ *
+ * Compared with median cut this minimizes the variance within boxes rather
+ * than their volume, which gives palettes closer to the image in about the
+ * same time. Instances hold no state and are safe to share between threads.
+ *
+ * @author sangupta
+ * @since 1.0.0
+ */
+public final class WuQuantizer implements Quantizer {
+
+	/**
+	 * Bits per channel of the moment tables
+	 */
+	private static final int TABLE_BITS = ColorCutQuantizer.QUANTIZE_WORD_WIDTH;
+
+	/**
+	 * Entries per axis of the moment tables: one per quantized value, and a
+	 * leading zero entry so that sums need no bounds checks
+	 */
+	private static final int SIDE = (1 << TABLE_BITS) + 1;
+
+	// offsets of the bounds of a box, lower bounds are exclusive and upper
+	// bounds inclusive, with red, green and blue in turn
+	private static final int BOX_RED = 0;
+	private static final int BOX_GREEN = 2;
+	private static final int BOX_BLUE = 4;
+	private static final int BOX_BOUNDS = 6;
+
+	@Override
+	public List<PaletteSwatch> quantize(IntBuffer pixels, int maxColors, PaletteFilter[] filters, QuantizerContext context) {
+		if (pixels == null) {
+			throw new IllegalArgumentException("Pixels cannot be null");
+		}
+
+		if (context == null) {
+			throw new IllegalArgumentException("Quantizer context cannot be null");
+		}
+
+		context.reset(Math.max(maxColors, 1));
+		final int count = ColorCutQuantizer.countColors(pixels, filters, context);
+		if (count <= maxColors) {
+			// The image has fewer colors than the maximum requested, so just return the
+			// colors
+			return ColorCutQuantizer.distinctSwatches(context, count);
+		}
+
+		context.resetMoments(SIDE * SIDE * SIDE);
+		buildMoments(context.colors, context.populations, count, context.bits, context.weights, context.moments, context.squares);
+
+		final int[] boxes = context.boxes;
+		final int boxCount = splitBoxes(boxes, Math.max(maxColors, 1), context);
+		return averageColors(boxes, boxCount, context.weights, context.moments, filters);
+	}
+
+	/**
+	 * Fill in the moments of the distinct quantized colors and add them up into
+	 * cumulative tables.
+	 */
+	private static void buildMoments(int[] colors, int[] populations, int count, int bits, long[] weights, long[] moments,
+			double[] squares) {
+		// colors finer than the tables go to the entry of their leading bits
+		final int shift = Math.max(bits - TABLE_BITS, 0);
+		for (int i = 0; i < count; i++) {
+			final int color = colors[i];
+			final int population = populations[i];
+			final int index = index((ColorCutQuantizer.quantizedRed(color, bits) >> shift) + 1,
+					(ColorCutQuantizer.quantizedGreen(color, bits) >> shift) + 1,
+					(ColorCutQuantizer.quantizedBlue(color, bits) >> shift) + 1);
+			final int rgb = ColorCutQuantizer.approximateToRgb888(color, bits);
+			final int red = Color.red(rgb);
+			final int green = Color.green(rgb);
+			final int blue = Color.blue(rgb);
+
+			weights[index] += population;
+			moments[index * 3] += (long) population * red;
+			moments[index * 3 + 1] += (long) population * green;
+			moments[index * 3 + 2] += (long) population * blue;
+			squares[index] += population * (double) (red * red + green * green + blue * blue);
+		}
+
+		// prefix sums along blue, then green, then red
+		for (int stride = 1; stride <= SIDE * SIDE; stride *= SIDE) {
+			for (int index = 0; index < weights.length; index++) {
+				if ((index / stride) % SIDE == 0) {
+					continue;
+				}
+
+				final int previous = index - stride;
+				weights[index] += weights[previous];
+				moments[index * 3] += moments[previous * 3];
+				moments[index * 3 + 1] += moments[previous * 3 + 1];
+				moments[index * 3 + 2] += moments[previous * 3 + 2];
+				squares[index] += squares[previous];
+			}
+		}
+	}
+
+	/**
+	 * Split boxes, the one with the largest variance first, until there are
+	 * enough or none can be split.
+	 *
+	 * @return the number of boxes
+	 */
+	private static int splitBoxes(int[] boxes, int maxBoxes, QuantizerContext context) {
+		final long[] weights = context.weights;
+		final long[] moments = context.moments;
+		final double[] squares = context.squares;
+
+		// the first box holds the whole cube
+		for (int axis = 0; axis < BOX_BOUNDS; axis += 2) {
+			boxes[axis] = 0;
+			boxes[axis + 1] = SIDE - 1;
+		}
+
+		final double[] variances = context.variances;
+		variances[0] = variance(boxes, 0, weights, moments, squares);
+
+		int boxCount = 1;
+		int next = 0;
+		while (boxCount < maxBoxes) {
+			if (cut(boxes, next, boxCount, weights, moments)) {
+				variances[next] = variance(boxes, next, weights, moments, squares);
+				variances[boxCount] = variance(boxes, boxCount, weights, moments, squares);
+				boxCount++;
+			} else {
+				// this box cannot be split any further
+				variances[next] = 0;
+			}
+
+			next = 0;
+			for (int box = 1; box < boxCount; box++) {
+				if (variances[box] > variances[next]) {
+					next = box;
+				}
+			}
+
+			if (variances[next] <= 0) {
+				break;
+			}
+		}
+
+		return boxCount;
+	}
+
+	/**
+	 * Split a box at the plane that leaves the smallest variance in the two
+	 * halves. The upper half becomes the new box.
+	 *
+	 * @return <code>false</code> if the box cannot be split
+	 */
+	private static boolean cut(int[] boxes, int box, int newBox, long[] weights, long[] moments) {
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		final long weight = volume(boxes, offset, weights, 1, 0);
+		final long red = volume(boxes, offset, moments, 3, 0);
+		final long green = volume(boxes, offset, moments, 3, 1);
+		final long blue = volume(boxes, offset, moments, 3, 2);
+
+		double best = 0;
+		int bestAxis = -1;
+		int bestCut = -1;
+		for (int axis = BOX_RED; axis <= BOX_BLUE; axis += 2) {
+			final int lower = boxes[offset + axis];
+			final int upper = boxes[offset + axis + 1];
+
+			for (int cut = lower + 1; cut < upper; cut++) {
+				// score the lower half by moving the upper bound to the plane
+				boxes[offset + axis + 1] = cut;
+				final long lowerWeight = volume(boxes, offset, weights, 1, 0);
+				final long upperWeight = weight - lowerWeight;
+				if (lowerWeight == 0 || upperWeight == 0) {
+					continue;
+				}
+
+				final long lowerRed = volume(boxes, offset, moments, 3, 0);
+				final long lowerGreen = volume(boxes, offset, moments, 3, 1);
+				final long lowerBlue = volume(boxes, offset, moments, 3, 2);
+
+				// the summed variance of the halves is smallest where this is largest
+				final double score = squaredMagnitude(lowerRed, lowerGreen, lowerBlue) / lowerWeight
+						+ squaredMagnitude(red - lowerRed, green - lowerGreen, blue - lowerBlue) / upperWeight;
+				if (score > best) {
+					best = score;
+					bestAxis = axis;
+					bestCut = cut;
+				}
+			}
+
+			boxes[offset + axis + 1] = upper;
+		}
+
+		if (bestAxis < 0) {
+			return false;
+		}
+
+		final int newOffset = newBox * QuantizerContext.BOX_FIELDS;
+		System.arraycopy(boxes, offset, boxes, newOffset, BOX_BOUNDS);
+		boxes[offset + bestAxis + 1] = bestCut;
+		boxes[newOffset + bestAxis] = bestCut;
+		return true;
+	}
+
+	/**
+	 * @return the weighted variance of the colors of a box, or <code>0</code>
+	 *         for boxes of a single quantized color
+	 */
+	private static double variance(int[] boxes, int box, long[] weights, long[] moments, double[] squares) {
+		final int offset = box * QuantizerContext.BOX_FIELDS;
+		final int cells = (boxes[offset + BOX_RED + 1] - boxes[offset + BOX_RED])
+				* (boxes[offset + BOX_GREEN + 1] - boxes[offset + BOX_GREEN])
+				* (boxes[offset + BOX_BLUE + 1] - boxes[offset + BOX_BLUE]);
+		final long weight = volume(boxes, offset, weights, 1, 0);
+		if (cells <= 1 || weight == 0) {
+			return 0;
+		}
+
+		final double magnitude = squaredMagnitude(volume(boxes, offset, moments, 3, 0), volume(boxes, offset, moments, 3, 1),
+				volume(boxes, offset, moments, 3, 2));
+		return volume(boxes, offset, squares) - magnitude / weight;
+	}
+
+	/**
+	 * @return the population-weighted mean colors of the boxes that the filters
+	 *         allow
+	 */
+	private static List<PaletteSwatch> averageColors(int[] boxes, int boxCount, long[] weights, long[] moments,
+			PaletteFilter[] filters) {
+		final List<PaletteSwatch> swatches = new ArrayList<PaletteSwatch>(boxCount);
+		for (int box = 0; box < boxCount; box++) {
+			final int offset = box * QuantizerContext.BOX_FIELDS;
+			final long population = volume(boxes, offset, weights, 1, 0);
+			if (population == 0) {
+				continue;
+			}
+
+			final int red = Math.round(volume(boxes, offset, moments, 3, 0) / (float) population);
+			final int green = Math.round(volume(boxes, offset, moments, 3, 1) / (float) population);
+			final int blue = Math.round(volume(boxes, offset, moments, 3, 2) / (float) population);
+			final PaletteSwatch swatch = new PaletteSwatch(Color.rgb(red, green, blue), (int) population);
+
+			// As we're averaging a box, we can still get colors which we do not want,
+			// so we check again here
+			if (!ColorCutQuantizer.shouldIgnoreColor(swatch, filters)) {
+				swatches.add(swatch);
+			}
+		}
+		return swatches;
+	}
+
+	/**
+	 * @return the sum of a cumulative table over a box, for tables holding
+	 *         <code>stride</code> values per entry
+	 */
+	private static long volume(int[] boxes, int offset, long[] table, int stride, int value) {
+		final int r0 = boxes[offset + BOX_RED], r1 = boxes[offset + BOX_RED + 1];
+		final int g0 = boxes[offset + BOX_GREEN], g1 = boxes[offset + BOX_GREEN + 1];
+		final int b0 = boxes[offset + BOX_BLUE], b1 = boxes[offset + BOX_BLUE + 1];
+		return table[index(r1, g1, b1) * stride + value]
+				- table[index(r1, g1, b0) * stride + value]
+				- table[index(r1, g0, b1) * stride + value]
+				+ table[index(r1, g0, b0) * stride + value]
+				- table[index(r0, g1, b1) * stride + value]
+				+ table[index(r0, g1, b0) * stride + value]
+				+ table[index(r0, g0, b1) * stride + value]
+				- table[index(r0, g0, b0) * stride + value];
+	}
+
+	private static double volume(int[] boxes, int offset, double[] table) {
+		final int r0 = boxes[offset + BOX_RED], r1 = boxes[offset + BOX_RED + 1];
+		final int g0 = boxes[offset + BOX_GREEN], g1 = boxes[offset + BOX_GREEN + 1];
+		final int b0 = boxes[offset + BOX_BLUE], b1 = boxes[offset + BOX_BLUE + 1];
+		return table[index(r1, g1, b1)] - table[index(r1, g1, b0)] - table[index(r1, g0, b1)] + table[index(r1, g0, b0)]
+				- table[index(r0, g1, b1)] + table[index(r0, g1, b0)] + table[index(r0, g0, b1)] - table[index(r0, g0, b0)];
+	}
+
+	private static double squaredMagnitude(long red, long green, long blue) {
+		return (double) red * red + (double) green * green + (double) blue * blue;
+	}
+
+	private static int index(int red, int green, int blue) {
+		return (red * SIDE + green) * SIDE + blue;
+	}
+
+}
@@ -119,7 +119,7 @@ public class CMY implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.cyan * 3100 + this.magenta * 1700 + this.yellow * 100).intValue();
+		return (int) (this.cyan * 3100 + this.magenta * 1700 + this.yellow * 100);
 	}
 	
 	@Override
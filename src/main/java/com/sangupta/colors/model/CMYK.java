@@ -128,7 +128,7 @@ public class CMYK implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.cyan * 6900 + this.magenta * 3100 + this.yellow * 1700 + this.black * 100).intValue();
+		return (int) (this.cyan * 6900 + this.magenta * 3100 + this.yellow * 1700 + this.black * 100);
 	}
 	
 	@Override
@@ -118,8 +118,7 @@ public class HSB implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		Float value = this.hue * 31f + this.saturation * 17f + this.brightness;
-		return value.intValue();
+		return (int) (this.hue * 31f + this.saturation * 17f + this.brightness);
 	}
 	
 	@Override
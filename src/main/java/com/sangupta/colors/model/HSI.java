@@ -102,8 +102,7 @@ public class HSI implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		Float value = this.hue * 31f + this.saturation * 17f + this.intensity;
-		return value.intValue();
+		return (int) (this.hue * 31f + this.saturation * 17f + this.intensity);
 	}
 	
 	@Override
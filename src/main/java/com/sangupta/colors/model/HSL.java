@@ -119,8 +119,7 @@ public class HSL implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		Float value = this.hue * 31f + this.saturation * 17f + this.luminosity;
-		return value.intValue();
+		return (int) (this.hue * 31f + this.saturation * 17f + this.luminosity);
 	}
 	
 	@Override
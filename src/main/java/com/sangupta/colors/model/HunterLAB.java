@@ -83,7 +83,7 @@ public class HunterLAB implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.l * 3100 + this.a * 1700 + this.b * 100).intValue();
+		return (int) (this.l * 3100 + this.a * 1700 + this.b * 100);
 	}
 	
 	@Override
@@ -21,6 +21,7 @@ package com.sangupta.colors.model;
 
 import com.sangupta.colors.ColorConversionUtils;
 import com.sangupta.colors.ColorModel;
+import com.sangupta.colors.LABPalette;
 
 /**
  * LAB color model definition.
@@ -101,7 +102,8 @@ public class LAB implements ColorModel {
 	}
 	
 	/**
-	 * Compute the ciede2000 distance between 2 given {@link LAB} colors.
+	 * Compute the ciede2000 distance between 2 given {@link LAB} colors. To
+	 * compare one color against many, use a {@link LABPalette}.
 	 * 
 	 * @param color1
 	 *            the first {@link LAB} color
@@ -112,76 +114,8 @@ public class LAB implements ColorModel {
 	 * @return the <b>ciede2000</b> distance between the two colors
 	 */
 	public static double ciede2000(LAB color1, LAB color2) {
-		// adapted from Sharma et al's MATLAB implementation at
-		//  http://www.ece.rochester.edu/~gsharma/ciede2000/
-
-		// parametric factors, use defaults
-		double kl = 1, kc = 1, kh = 1;
-
-		// compute terms
-		double pi = Math.PI,
-		    L1 = color1.l, a1 = color1.a, b1 = color1.b, Cab1 = Math.sqrt(a1*a1 + b1*b1),
-		    L2 = color2.l, a2 = color2.a, b2 = color2.b, Cab2 = Math.sqrt(a2*a2 + b2*b2),
-		    Cab = 0.5*(Cab1 + Cab2),
-		    G = 0.5*(1 - Math.sqrt(Math.pow(Cab,7)/(Math.pow(Cab,7)+Math.pow(25,7)))),
-		    ap1 = (1+G) * a1,
-		    ap2 = (1+G) * a2,
-		    Cp1 = Math.sqrt(ap1*ap1 + b1*b1),
-		    Cp2 = Math.sqrt(ap2*ap2 + b2*b2),
-		    Cpp = Cp1 * Cp2;
-
-		// ensure hue is between 0 and 2pi
-		double hp1 = Math.atan2(b1, ap1); if (hp1 < 0) hp1 += 2*pi;
-		double hp2 = Math.atan2(b2, ap2); if (hp2 < 0) hp2 += 2*pi;
-
-		double dL = L2 - L1,
-		       dC = Cp2 - Cp1,
-		      dhp = hp2 - hp1;
-
-		if (dhp > +pi) dhp -= 2*pi;
-		if (dhp < -pi) dhp += 2*pi;
-		if (Cpp == 0) dhp = 0;
-
-		// Note that the defining equations actually need
-		// signed Hue and chroma differences which is different
-		// from prior color difference formulae
-		double dH = 2 * Math.sqrt(Cpp) * Math.sin(dhp/2);
-
-		// Weighting functions
-		double Lp = 0.5 * (L1 + L2),
-		       Cp = 0.5 * (Cp1 + Cp2);
-
-		// Average Hue Computation
-		// This is equivalent to that in the paper but simpler programmatically.
-		// Average hue is computed in radians and converted to degrees where needed
-		double hp = 0.5 * (hp1 + hp2);
-		// Identify positions for which abs hue diff exceeds 180 degrees 
-		if (Math.abs(hp1-hp2) > pi) hp -= pi;
-		if (hp < 0) hp += 2*pi;
-
-		// Check if one of the chroma values is zero, in which case set 
-		// mean hue to the sum which is equivalent to other value
-		if (Cpp == 0) hp = hp1 + hp2;
-
-		double Lpm502 = (Lp-50) * (Lp-50),
-		    Sl = 1 + 0.015*Lpm502 / Math.sqrt(20+Lpm502),
-		    Sc = 1 + 0.045*Cp,
-		    T = 1 - 0.17*Math.cos(hp - pi/6)
-		          + 0.24*Math.cos(2*hp)
-		          + 0.32*Math.cos(3*hp+pi/30)
-		          - 0.20*Math.cos(4*hp - 63*pi/180),
-		    Sh = 1 + 0.015 * Cp * T,
-		    ex = (180/pi*hp-275) / 25,
-		    delthetarad = (30*pi/180) * Math.exp(-1 * (ex*ex)),
-		    Rc =  2 * Math.sqrt(Math.pow(Cp,7) / (Math.pow(Cp,7) + Math.pow(25,7))),
-		    RT = -1 * Math.sin(2*delthetarad) * Rc;
-
-		dL = dL / (kl*Sl);
-		dC = dC / (kc*Sc);
-		dH = dH / (kh*Sh);
-
-		// The CIE 00 color difference
-		return Math.sqrt(dL*dL + dC*dC + dH*dH + RT*dC*dH);
+		// shares the kernel of the batch form, see LABPalette
+		return LABPalette.ciede2000(color1.l, color1.a, color1.b, color2.l, color2.a, color2.b);
 	}
 	
 	/**
@@ -207,12 +141,33 @@ public class LAB implements ColorModel {
 		double r = 3.2404542 * x - 1.5371385 * y - 0.4985314 * z;
 		double g = -0.9692660 * x + 1.8760108 * y + 0.0415560 * z;
 		double b = 0.0556434 * x - 0.2040259 * y + 1.0572252 * z;
-		r = r <= 0.00304 ? 12.92 * r : 1.055 * Math.pow(r, 1 / 2.4) - 0.055;
-		g = g <= 0.00304 ? 12.92 * g : 1.055 * Math.pow(g, 1 / 2.4) - 0.055;
-		b = b <= 0.00304 ? 12.92 * b : 1.055 * Math.pow(b, 1 / 2.4) - 0.055;
 
 		// third, check sRGB values
-		return !(r < 0 || r > 1 || g < 0 || g > 1 || b < 0 || b > 1);
+		return isInUnitRange(r) && isInUnitRange(g) && isInUnitRange(b);
+	}
+	
+	/**
+	 * Check if the gamma compressed value of a linear sRGB channel is between
+	 * <code>0</code> and <code>1</code>. The compression is monotonic and maps
+	 * <code>[0, 1]</code> onto itself, so the exact curve is only evaluated for
+	 * values close to the bounds.
+	 * 
+	 * @param linear
+	 *            the linear channel value
+	 * 
+	 * @return <code>true</code> if the compressed value is in range
+	 */
+	private static boolean isInUnitRange(double linear) {
+		if (linear > 0.00304 && linear < 0.99) {
+			return true;
+		}
+		
+		if (linear > 1.01) {
+			return false;
+		}
+		
+		double value = linear <= 0.00304 ? 12.92 * linear : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+		return !(value < 0 || value > 1);
 	}
 	
 	public LCH lch() {
@@ -235,7 +190,7 @@ public class LAB implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.l * 3100 + this.a * 1700 + this.b * 100).intValue();
+		return (int) (this.l * 3100 + this.a * 1700 + this.b * 100);
 	}
 	
 	@Override
@@ -76,7 +76,7 @@ public class LCH implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.lightness * 3100 + this.chroma * 1700 + this.hue * 100).intValue();
+		return (int) (this.lightness * 3100 + this.chroma * 1700 + this.hue * 100);
 	}
 	
 	@Override
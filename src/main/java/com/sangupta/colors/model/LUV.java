@@ -67,7 +67,7 @@ public class LUV implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.l * 3100 + this.u * 1700 + this.v * 100).intValue();
+		return (int) (this.l * 3100 + this.u * 1700 + this.v * 100);
 	}
 	
 	@Override
@@ -22,6 +22,7 @@ package com.sangupta.colors.model;
 import com.sangupta.colors.ColorConversionUtils;
 import com.sangupta.colors.ColorModel;
 import com.sangupta.colors.ColorUtils;
+import com.sangupta.colors.HexColorParser;
 import com.sangupta.colors.model.YUV.YUVQuality;
 
 /**
@@ -121,37 +122,29 @@ public class RGB implements ColorModel {
 	 * @param color the hex-based color string
 	 */
 	public RGB(String color) {
+		this(parseHex(color));
+	}
+	
+	/**
+	 * Parse a <code>#rrggbb</code> or <code>#rgb</code> color using the
+	 * {@link HexColorParser}.
+	 * 
+	 * @param color the hex-based color string
+	 * 
+	 * @return the packed color
+	 */
+	private static int parseHex(String color) {
 		if(color == null || color.isEmpty()) {
 			throw new IllegalArgumentException("Color cannot be empty/null");
 		}
 		
-		if(color.length() < 3) {
+		final int digits = color.charAt(0) == '#' ? color.length() - 1 : color.length();
+		final long value = digits == 3 || digits == 6 ? HexColorParser.tryParse(color, 0, color.length()) : HexColorParser.INVALID;
+		if(value == HexColorParser.INVALID) {
 			throw new IllegalArgumentException("Color value must be expressed as hex in either #rrggbb or #rgb format");
 		}
 		
-		if(color.startsWith("#")) {
-			color = color.substring(1);
-		}
-		
-		if(color.length() == 3) {
-			char[] chars = color.toCharArray();
-			
-			this.red = Integer.parseInt(new String(""+ chars[0] + chars[0]), 16);
-			this.green = Integer.parseInt(new String(""+ chars[1] + chars[1]), 16);
-			this.blue = Integer.parseInt(new String(""+ chars[2] + chars[2]), 16);
-			
-			return;
-		}
-		
-		if(color.length() == 6) {
-			this.red = Integer.parseInt(new String(color.substring(0, 2)), 16);
-			this.green = Integer.parseInt(new String(color.substring(2, 4)), 16);
-			this.blue = Integer.parseInt(new String(color.substring(4, 6)), 16);
-			
-			return;
-		}
-		
-		throw new IllegalArgumentException("Color value must be expressed as hex in either #rrggbb or #rgb format");
+		return (int) value;
 	}
 	
 	// Conversion functions
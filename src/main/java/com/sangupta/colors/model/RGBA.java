@@ -19,6 +19,8 @@
 
 package com.sangupta.colors.model;
 
+import com.sangupta.colors.HexColorParser;
+
 /**
  * RGBA color model for red, green, blue and alpha channels.
  * All values should be between 0-255 including alpha. The default
@@ -89,6 +91,17 @@ public class RGBA extends RGB {
 		this.alpha = alpha;
 	}
 	
+	/**
+	 * Construct a {@link RGBA} instance using HEX-values in the format
+	 * <code>#rrggbbaa</code>, <code>#rgba</code>, <code>#rrggbb</code> or
+	 * <code>#rgb</code>. Colors without alpha are fully opaque.
+	 * 
+	 * @param color the hex-based color string
+	 */
+	public RGBA(String color) {
+		this(HexColorParser.parse(color));
+	}
+	
 	/**
 	 * Construct a {@link RGBA} from another {@link RGB} instance. The alpha channel
 	 * is assigned the default value.
@@ -139,7 +139,7 @@ public class XYZ implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.x * 3100 + this.y * 1700 + this.z * 100).intValue();
+		return (int) (this.x * 3100 + this.y * 1700 + this.z * 100);
 	}
 	
 	@Override
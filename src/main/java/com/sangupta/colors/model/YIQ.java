@@ -69,7 +69,7 @@ public class YIQ implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.y * 3100 + this.i * 1700 + this.q * 100).intValue();
+		return (int) (this.y * 3100 + this.i * 1700 + this.q * 100);
 	}
 	
 	@Override
@@ -83,7 +83,7 @@ public class YUV implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.y * 3100 + this.u * 1700 + this.v * 100).intValue();
+		return (int) (this.y * 3100 + this.u * 1700 + this.v * 100);
 	}
 	
 	@Override
@@ -86,7 +86,7 @@ public class Yxy implements ColorModel {
 	
 	@Override
 	public int hashCode() {
-		return new Float(this.Y * 3100 + this.x * 1700 + this.y * 100).intValue();
+		return (int) (this.Y * 3100 + this.x * 1700 + this.y * 100);
 	}
 	
 	@Override
@@ -0,0 +1,244 @@
+package com.sangupta.colors;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.model.CMY;
+import com.sangupta.colors.model.CMYK;
+import com.sangupta.colors.model.HSB;
+import com.sangupta.colors.model.HSL;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.LCH;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+import com.sangupta.colors.model.YIQ;
+import com.sangupta.colors.model.YUV;
+import com.sangupta.colors.model.YUV.YUVQuality;
+
+public class TestBulkColorConversionUtils {
+
+	private static final int OFFSET = 3;
+
+	@Test
+	public void testFromRGB() throws IllegalAccessException {
+		int[] argb = pixels();
+		int length = argb.length - OFFSET;
+
+		float[] cmyk = new float[length * 4];
+		BulkColorConversionUtils.RGBtoCMYK(argb, OFFSET, cmyk, 0, length);
+
+		float[] hsb = new float[length * 3];
+		BulkColorConversionUtils.RGBtoHSB(argb, OFFSET, hsb, 0, length);
+
+		float[] hsl = new float[length * 3];
+		BulkColorConversionUtils.RGBtoHSL(argb, OFFSET, hsl, 0, length);
+
+		float[] xyz = new float[length * 3];
+		BulkColorConversionUtils.RGBtoXYZ(argb, OFFSET, xyz, 0, length);
+
+		float[] lab = new float[length * 3];
+		BulkColorConversionUtils.RGBtoLAB(argb, OFFSET, lab, 0, length, XYZIlluminant.D65);
+
+		float[] cmy = new float[length * 3];
+		BulkColorConversionUtils.RGBtoCMY(argb, OFFSET, cmy, 0, length);
+
+		float[] yiq = new float[length * 3];
+		BulkColorConversionUtils.RGBtoYIQ(argb, OFFSET, yiq, 0, length);
+
+		float[] yuv = new float[length * 3];
+		BulkColorConversionUtils.RGBtoYUV(argb, OFFSET, yuv, 0, length, YUVQuality.BT_709);
+
+		for(int index = 0; index < length; index++) {
+			RGB rgb = new RGB(argb[OFFSET + index]);
+
+			CMYK expectedCmyk = ColorConversionUtils.RGBtoCMYK(rgb);
+			assertSame(expectedCmyk.asArray(), cmyk, index * 4);
+
+			HSB expectedHsb = ColorConversionUtils.RGBtoHSB(rgb);
+			assertSame(new float[] { expectedHsb.hue, expectedHsb.saturation, expectedHsb.brightness }, hsb, index * 3);
+
+			HSL expectedHsl = ColorConversionUtils.RGBtoHSL(rgb);
+			assertSame(new float[] { expectedHsl.hue, expectedHsl.saturation, expectedHsl.luminosity }, hsl, index * 3);
+
+			XYZ expectedXyz = ColorConversionUtils.RGBtoXYZ(rgb);
+			assertSame(expectedXyz.asArray(), xyz, index * 3);
+
+			LAB expectedLab = ColorConversionUtils.XYZtoLAB(expectedXyz, XYZIlluminant.D65);
+			assertClose(expectedLab.asArray(), lab, index * 3);
+
+			CMY expectedCmy = ColorConversionUtils.RGBtoCMY(rgb);
+			assertSame(new float[] { expectedCmy.cyan, expectedCmy.magenta, expectedCmy.yellow }, cmy, index * 3);
+
+			YIQ expectedYiq = ColorConversionUtils.RGBtoYIQ(rgb);
+			assertSame(new float[] { expectedYiq.y, expectedYiq.i, expectedYiq.q }, yiq, index * 3);
+
+			YUV expectedYuv = ColorConversionUtils.RGBtoYUV(rgb, YUVQuality.BT_709);
+			assertSame(new float[] { expectedYuv.y, expectedYuv.u, expectedYuv.v }, yuv, index * 3);
+		}
+	}
+
+	@Test
+	public void testToRGB() throws IllegalAccessException {
+		int[] argb = pixels();
+		int length = argb.length;
+		int[] result = new int[length + OFFSET];
+
+		float[] cmyk = new float[length * 4];
+		BulkColorConversionUtils.RGBtoCMYK(argb, 0, cmyk, 0, length);
+		BulkColorConversionUtils.CMYKtoRGB(cmyk, 0, result, OFFSET, length);
+		assertRoundTrip(argb, result);
+
+		float[] hsb = new float[length * 3];
+		BulkColorConversionUtils.RGBtoHSB(argb, 0, hsb, 0, length);
+		BulkColorConversionUtils.HSBtoRGB(hsb, 0, result, OFFSET, length);
+		assertRoundTrip(argb, result);
+
+		float[] cmy = new float[length * 3];
+		BulkColorConversionUtils.RGBtoCMY(argb, 0, cmy, 0, length);
+		BulkColorConversionUtils.CMYtoRGB(cmy, 0, result, OFFSET, length);
+		assertRoundTrip(argb, result);
+
+		float[] yiq = new float[length * 3];
+		BulkColorConversionUtils.RGBtoYIQ(argb, 0, yiq, 0, length);
+		BulkColorConversionUtils.YIQtoRGB(yiq, 0, result, OFFSET, length);
+		assertRoundTrip(argb, result);
+	}
+
+	@Test
+	public void testBetweenModels() throws IllegalAccessException {
+		int[] argb = pixels();
+		int length = argb.length;
+
+		float[] lab = new float[length * 3];
+		BulkColorConversionUtils.RGBtoLAB(argb, 0, lab, 0, length, XYZIlluminant.D65);
+
+		float[] lch = new float[length * 3];
+		BulkColorConversionUtils.LABtoLCH(lab, 0, lch, 0, length);
+
+		float[] xyz = new float[length * 3];
+		BulkColorConversionUtils.LABtoXYZ(lab, 0, xyz, 0, length, XYZIlluminant.D65);
+
+		for(int index = 0; index < length; index++) {
+			LAB color = new LAB(lab[index * 3], lab[index * 3 + 1], lab[index * 3 + 2]);
+
+			LCH expectedLch = ColorConversionUtils.LABtoLCH(color);
+			assertSame(new float[] { expectedLch.lightness, expectedLch.chroma, expectedLch.hue }, lch, index * 3);
+
+			XYZ expectedXyz = ColorConversionUtils.LABtoXYZ(color, XYZIlluminant.D65);
+			assertSame(expectedXyz.asArray(), xyz, index * 3);
+		}
+	}
+
+	@Test
+	public void testSRGBtoLAB() {
+		int[] argb = { 0xFFFFFFFF, 0xFF000000, 0xFFFF0000, 0xFF00FF00, 0xFF0000FF };
+		float[] lab = new float[argb.length * 3 + OFFSET];
+		BulkColorConversionUtils.sRGBtoLAB(argb, 0, lab, OFFSET, argb.length, XYZIlluminant.D65);
+
+		float[] expected = {
+				100f, 0f, 0f,
+				0f, 0f, 0f,
+				53.24f, 80.09f, 67.20f,
+				87.73f, -86.18f, 83.18f,
+				32.30f, 79.19f, -107.86f
+		};
+
+		for(int index = 0; index < expected.length; index++) {
+			Assert.assertEquals(expected[index], lab[OFFSET + index], 0.1f);
+		}
+	}
+
+	@Test
+	public void testPlanarKernel() {
+		int[] argb = new int[PlanarLABKernel.BLOCK_SIZE * 3 + 17];
+		Random random = new Random(7);
+		for(int index = 0; index < argb.length; index++) {
+			argb[index] = random.nextInt();
+		}
+
+		int length = argb.length - OFFSET;
+		float[] planarXyz = new float[length * 3];
+		float[] planarLab = new float[length * 3];
+		float[] scalarXyz = new float[length * 3];
+		float[] scalarLab = new float[length * 3];
+
+		PlanarLABKernel.get().rgbToXyz(argb, OFFSET, planarXyz, 0, length);
+		PlanarLABKernel.get().rgbToLab(argb, OFFSET, planarLab, 0, length, XYZIlluminant.D50);
+
+		BulkColorConversionUtils.rgbToXyzScalar(argb, OFFSET, scalarXyz, 0, length);
+		BulkColorConversionUtils.rgbToLabScalar(argb, OFFSET, scalarLab, 0, length, XYZIlluminant.D50);
+
+		for(int index = 0; index < length; index++) {
+			XYZ xyz = ColorConversionUtils.RGBtoXYZ(new RGB(argb[OFFSET + index]));
+			LAB lab = ColorConversionUtils.XYZtoLAB(xyz, XYZIlluminant.D50);
+
+			assertSame(xyz.asArray(), planarXyz, index * 3);
+			assertSame(xyz.asArray(), scalarXyz, index * 3);
+			assertClose(lab.asArray(), planarLab, index * 3);
+			assertSame(planarLab, index * 3, scalarLab, index * 3);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOutOfRange() {
+		BulkColorConversionUtils.RGBtoHSL(new int[4], 2, new float[12], 0, 4);
+	}
+
+	private static void assertSame(float[] expected, float[] actual, int offset) {
+		for(int index = 0; index < expected.length; index++) {
+			Assert.assertEquals(expected[index], actual[offset + index], 0f);
+		}
+	}
+
+	private static void assertSame(float[] expected, int expectedOffset, float[] actual, int offset) {
+		for(int index = 0; index < 3; index++) {
+			Assert.assertEquals(expected[expectedOffset + index], actual[offset + index], 0f);
+		}
+	}
+
+	/**
+	 * Assert LAB values computed through {@link ColorLookupTables} are within
+	 * the documented error bound.
+	 *
+	 */
+	private static void assertClose(float[] expected, float[] actual, int offset) {
+		for(int index = 0; index < expected.length; index++) {
+			Assert.assertEquals(expected[index], actual[offset + index], 2e-3f);
+		}
+	}
+
+	private static void assertRoundTrip(int[] expected, int[] actual) {
+		for(int index = 0; index < expected.length; index++) {
+			Assert.assertEquals(expected[index] | 0xFF000000, actual[OFFSET + index]);
+		}
+	}
+
+	/**
+	 * All CSS3 colors followed by a set of random colors with random alpha.
+	 *
+	 */
+	private static int[] pixels() throws IllegalAccessException {
+		List<Integer> colors = new ArrayList<>();
+		for(Field field : CSS3Colors.class.getFields()) {
+			colors.add(((RGB) field.get(null)).value());
+		}
+
+		Random random = new Random(42);
+		for(int index = 0; index < 1000; index++) {
+			colors.add(random.nextInt());
+		}
+
+		int[] pixels = new int[colors.size()];
+		for(int index = 0; index < pixels.length; index++) {
+			pixels[index] = colors.get(index);
+		}
+
+		return pixels;
+	}
+}
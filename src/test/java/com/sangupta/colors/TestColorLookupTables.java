@@ -0,0 +1,30 @@
+package com.sangupta.colors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestColorLookupTables {
+
+	@Test
+	public void testSRGBToLinear() {
+		for(int channel = 0; channel < 256; channel++) {
+			double value = channel / 255.0;
+			double expected = value < 0.04045 ? value / 12.92 : Math.pow((value + 0.055) / 1.055, 2.4);
+			
+			Assert.assertEquals(expected, ColorLookupTables.sRGBToLinear(channel), 0d);
+		}
+	}
+	
+	@Test
+	public void testLabF() {
+		for(int step = 0; step <= 2000000; step++) {
+			double t = step / 200000d;
+			double expected = t > 0.008856 ? Math.pow(t, 1.0 / 3.0) : (7.787 * t) + (16.0 / 116.0);
+			
+			Assert.assertEquals(expected, ColorLookupTables.labF(t), ColorLookupTables.LAB_F_MAX_ERROR);
+		}
+		
+		Assert.assertEquals(Math.cbrt(1e6), ColorLookupTables.labF(1e6), 0d);
+	}
+	
+}
@@ -0,0 +1,83 @@
+package com.sangupta.colors;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.extract.android.Color;
+import com.sangupta.colors.model.RGB;
+
+public class TestColorNameHash {
+
+	@Test
+	public void testLookup() {
+		Map<String, Integer> colors = new LinkedHashMap<>();
+		Random random = new Random(42);
+		for(int count = 0; count < 5000; count++) {
+			colors.put("color" + count + (char) ('a' + random.nextInt(26)), random.nextInt());
+		}
+
+		ColorNameHash hash = new ColorNameHash(colors);
+		Assert.assertEquals(colors.size(), hash.size());
+
+		for(Entry<String, Integer> entry : colors.entrySet()) {
+			int index = hash.indexOf(entry.getKey());
+			Assert.assertEquals(entry.getKey(), hash.getName(index));
+			Assert.assertEquals(entry.getValue().intValue(), hash.getColor(index));
+			Assert.assertEquals(entry.getValue().intValue(), hash.get(entry.getKey().toUpperCase(), 0));
+		}
+
+		Assert.assertEquals(ColorNameHash.NOT_FOUND, hash.indexOf("color"));
+		Assert.assertEquals(ColorNameHash.NOT_FOUND, hash.indexOf(""));
+		Assert.assertEquals(7, hash.get("not a color", 7));
+	}
+
+	@Test
+	public void testCss3() {
+		Map<String, Integer> colors = new LinkedHashMap<>();
+		for(Entry<String, RGB> entry : NamedColorIndex.keywords().entrySet()) {
+			colors.put(entry.getKey(), entry.getValue().value());
+		}
+
+		ColorNameHash hash = new ColorNameHash(colors);
+		Assert.assertEquals(CSS3Colors.TOMATO.value(), hash.get("Tomato", 0));
+		Assert.assertEquals(hash.indexOf("aliceblue"), hash.indexOf("color: AliceBlue;", 7, 9));
+
+		// the first of the names of a color wins
+		Assert.assertEquals("aqua", hash.nameOf(CSS3Colors.CYAN.value()));
+		Assert.assertEquals("tomato", hash.nameOf(CSS3Colors.TOMATO.value()));
+		Assert.assertNull(hash.nameOf(0x12345678));
+	}
+
+	@Test
+	public void testAndroidColor() {
+		// android colors win over CSS colors of the same name
+		Assert.assertEquals(Color.DKGRAY, Color.parseColor("DarkGray"));
+		Assert.assertEquals(Color.GREEN, Color.parseColor("green"));
+		Assert.assertEquals(CSS3Colors.TOMATO.value(), Color.parseColor("tomato"));
+
+		Assert.assertEquals("darkgray", Color.getColorName(Color.DKGRAY));
+		Assert.assertEquals("cyan", Color.getColorName(Color.CYAN));
+		Assert.assertEquals("tomato", Color.getColorName(CSS3Colors.TOMATO.value()));
+		Assert.assertEquals(147, Color.getColorNames().size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRepeatedName() {
+		Map<String, Integer> colors = new LinkedHashMap<>();
+		colors.put("Red", 1);
+		colors.put("red", 2);
+
+		new ColorNameHash(colors);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownAndroidColor() {
+		Color.parseColor("notacolor");
+	}
+
+}
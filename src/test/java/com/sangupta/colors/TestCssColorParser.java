@@ -0,0 +1,153 @@
+package com.sangupta.colors;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.CssColorParser.ColorHandler;
+import com.sangupta.colors.model.HSL;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.LCH;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.RGBA;
+
+public class TestCssColorParser {
+
+	@Test
+	public void testHexAndNames() {
+		Assert.assertEquals(0xFFFF6347, ((RGB) CssColorParser.parse("#ff6347")).value());
+		Assert.assertEquals(0x80, ((RGBA) CssColorParser.parse("#ff634780")).alpha);
+
+		Assert.assertSame(CSS3Colors.TOMATO, CssColorParser.parse("tomato"));
+		Assert.assertSame(CSS3Colors.LIGHT_GOLDEN_ROD_YELLOW, CssColorParser.parse("  LightGoldenRodYellow "));
+		Assert.assertSame(CssColorParser.TRANSPARENT, CssColorParser.parse("transparent"));
+	}
+
+	@Test
+	public void testRgb() {
+		assertRgb(255, 99, 71, CssColorParser.parse("rgb(255, 99, 71)"));
+		assertRgb(255, 99, 71, CssColorParser.parse("rgb(255 99 71)"));
+		assertRgb(255, 0, 128, CssColorParser.parse("RGB(100% 0% 50%)"));
+		assertRgb(255, 0, 0, CssColorParser.parse("rgb(300 -20 none)"));
+		assertRgb(255, 99, 71, CssColorParser.parse("rgb(2.55e2 99 71)"));
+
+		RGBA rgba = (RGBA) CssColorParser.parse("rgba(255, 99, 71, 0.5)");
+		assertRgb(255, 99, 71, rgba);
+		Assert.assertEquals(128, rgba.alpha);
+		Assert.assertEquals(64, ((RGBA) CssColorParser.parse("rgb(255 99 71 / 25%)")).alpha);
+
+		String[] invalid = { "rgb(255, 99)", "rgb(255 99, 71)", "rgb(100%, 99, 71)", "rgb(255, 99, 71 / 1)", "rgb(255 99 71 1)", "rgb(1 2 3 / 4 / 5)", "rgb(var(--red), 0, 0)", "rgb(1deg 2 3)", "rgb(255 99 71", "red blue" };
+		for(String text : invalid) {
+			try {
+				CssColorParser.parse(text);
+				Assert.fail("Parsed invalid color " + text);
+			} catch(IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testOtherFunctions() {
+		HSL hsl = (HSL) CssColorParser.parse("hsl(120deg 100% 25%)");
+		Assert.assertEquals(120 / 360f, hsl.hue, 1e-6f);
+		Assert.assertEquals(1f, hsl.saturation, 1e-6f);
+		Assert.assertEquals(0.25f, hsl.luminosity, 1e-6f);
+
+		Assert.assertEquals(0.5f, ((HSL) CssColorParser.parse("hsla(-0.5turn, 50%, 50%, 0.3)")).hue, 1e-6f);
+
+		assertRgb(0, 255, 0, CssColorParser.parse("hwb(120 0% 0%)"));
+		assertRgb(128, 128, 128, CssColorParser.parse("hwb(0 60% 60%)"));
+
+		LAB lab = (LAB) CssColorParser.parse("lab(50% 40 -100%)");
+		Assert.assertEquals(50f, lab.l, 1e-4f);
+		Assert.assertEquals(40f, lab.a, 1e-4f);
+		Assert.assertEquals(-125f, lab.b, 1e-4f);
+
+		LCH lch = (LCH) CssColorParser.parse("lch(52.2 72.2 50 / 0.5)");
+		Assert.assertEquals(52.2f, lch.lightness, 1e-4f);
+		Assert.assertEquals(72.2f, lch.chroma, 1e-4f);
+		Assert.assertEquals(50f, lch.hue, 1e-4f);
+	}
+
+	@Test
+	public void testExtract() throws IOException {
+		String css = "/* red: #000 */\n"
+				+ "#fff, .red > a:hover {\n"
+				+ "  color: Red;\n"
+				+ "  background: url(\"img.png#abc\") #ABCDEF80 no-repeat;\n"
+				+ "  border: 1px solid rgba(0, 0, 255, .5);\n"
+				+ "  content: 'blue';\n"
+				+ "  --shadow: 0 0 2px hsl(0 0% 0% / 50%), 10tan lime;\n"
+				+ "  width: calc(100% - 1px);\n"
+				+ "}\n";
+
+		List<String> expected = new ArrayList<>();
+		expected.add("Red");
+		expected.add("#ABCDEF80");
+		expected.add("rgba(0, 0, 255, .5)");
+		expected.add("hsl(0 0% 0% / 50%)");
+		expected.add("lime");
+
+		Assert.assertEquals(expected, extract(css));
+
+		// reading in chunks gives the same colors as the whole text
+		StringBuilder builder = new StringBuilder();
+		for(int count = 0; count < 1000; count++) {
+			builder.append(css);
+		}
+
+		final List<String> read = new ArrayList<>();
+		final String text = builder.toString();
+		CssColorParser.extract(new StringReader(text), new ColorHandler() {
+
+			@Override
+			public void onColor(ColorModel color, float alpha, long start, long end) {
+				read.add(text.substring((int) start, (int) end));
+			}
+
+		});
+
+		Assert.assertEquals(5000, read.size());
+		Assert.assertEquals(extract(text), read);
+	}
+
+	@Test
+	public void testPseudoClassSelectors() {
+		Assert.assertEquals(Arrays.asList("red"), extract("a:hover #bad { color: red }"));
+		Assert.assertEquals(Arrays.asList("#0f0"), extract(".nav:not(#fade) span { color: #0f0; }"));
+		Assert.assertEquals(Arrays.asList("blue", "#abc"), extract("a:focus:hover #bad, b::before #fade {\n  border: 1px solid blue;\n  color: #abc }\ni:first-child #def {}"));
+		Assert.assertEquals(Arrays.asList("lime"), extract("@media (min-width: 100px) { a:hover #bad { color: lime } }"));
+
+		// a value that is not terminated is reported at the end of the input
+		Assert.assertEquals(Arrays.asList("red", "#fff"), extract("color: red; background: #fff"));
+	}
+
+	private static List<String> extract(final String css) {
+		final List<String> colors = new ArrayList<>();
+
+		CssColorParser.extract(css, new ColorHandler() {
+
+			@Override
+			public void onColor(ColorModel color, float alpha, long start, long end) {
+				colors.add(css.substring((int) start, (int) end));
+			}
+
+		});
+
+		return colors;
+	}
+
+	private static void assertRgb(int red, int green, int blue, ColorModel color) {
+		RGB rgb = (RGB) color;
+		Assert.assertEquals(red, rgb.red);
+		Assert.assertEquals(green, rgb.green);
+		Assert.assertEquals(blue, rgb.blue);
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.sangupta.colors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.extract.android.Color;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.RGBA;
+
+public class TestHexColorParser {
+
+	@Test
+	public void testParse() {
+		Assert.assertEquals(0xFFA4B52F, HexColorParser.parse("#a4b52f"));
+		Assert.assertEquals(0xFFA4B52F, HexColorParser.parse("A4B52F"));
+		Assert.assertEquals(0xFFAABBCC, HexColorParser.parse("#abc"));
+		Assert.assertEquals(0x80A4B52F, HexColorParser.parse("#a4b52f80"));
+		Assert.assertEquals(0xDDAABBCC, HexColorParser.parse("#abcd"));
+		Assert.assertEquals(0x00000000, HexColorParser.parse("#00000000"));
+
+		// in place from a larger text
+		String css = "color: #ff6347; background: #fff;";
+		Assert.assertEquals(0xFFFF6347, HexColorParser.parse(css, 7, 7));
+		Assert.assertEquals(0xFFFFFFFF, HexColorParser.parse(css, 28, 4));
+	}
+
+	@Test
+	public void testInvalid() {
+		String[] invalid = { "", "#", "#ab", "#abcde", "#abcdefa", "#abcdef012", "#ggg", "#12 456", "##abc", "#ab\u0660" };
+		for(String text : invalid) {
+			Assert.assertEquals(text, HexColorParser.INVALID, HexColorParser.tryParse(text, 0, text.length()));
+		}
+
+		Assert.assertEquals(HexColorParser.INVALID, HexColorParser.decode("123456789", 0, 9));
+		Assert.assertEquals(0xFFFFFFFFL, HexColorParser.decode("ffffffff", 0, 8));
+
+		try {
+			HexColorParser.parse("#abc", 2, 3);
+			Assert.fail("Range outside the text was accepted");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testModels() {
+		Assert.assertEquals(0xFFA4B52F, new RGB("#a4b52f").value());
+		Assert.assertEquals(0xFFAABBCC, new RGB("abc").value());
+
+		RGBA rgba = new RGBA("#a4b52f80");
+		Assert.assertEquals(0x80, rgba.alpha);
+		Assert.assertEquals(0xA4, rgba.red);
+		Assert.assertEquals(255, new RGBA("#abc").alpha);
+
+		// android colors put alpha first
+		Assert.assertEquals(0x80A4B52F, Color.parseColor("#80a4b52f"));
+		Assert.assertEquals(0xFFA4B52F, Color.parseColor("#A4B52F"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRgbRejectsAlpha() {
+		new RGB("#a4b52f80");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseColorInvalid() {
+		Color.parseColor("#a4b52g");
+	}
+
+}
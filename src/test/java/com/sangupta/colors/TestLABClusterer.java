@@ -0,0 +1,165 @@
+package com.sangupta.colors;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.NamedColorIndex.Metric;
+import com.sangupta.colors.model.LAB;
+
+public class TestLABClusterer {
+
+	@Test
+	public void testNearDuplicates() {
+		LABClusterer clusterer = new LABClusterer(2, Metric.CIEDE2000, 100);
+
+		int red = clusterer.add(new LAB(50, 60, 40));
+		Assert.assertEquals(red, clusterer.add(new LAB(50.5f, 60, 40)));
+		Assert.assertEquals(red, clusterer.add(50, 60.5, 39.5, 2));
+
+		int gray = clusterer.add(new LAB(50, 0, 0));
+		Assert.assertNotEquals(red, gray);
+		Assert.assertEquals(gray, clusterer.add(new LAB(50.4f, 0.3f, -0.2f)));
+
+		Assert.assertEquals(2, clusterer.size());
+		Assert.assertEquals(4, clusterer.getWeight(red));
+		Assert.assertEquals(6, clusterer.getTotalWeight());
+		Assert.assertEquals(0, clusterer.getOverflowWeight());
+
+		LAB centroid = clusterer.getCentroid(red);
+		Assert.assertEquals(50.125f, centroid.l, 1e-5f);
+		Assert.assertEquals(60.25f, centroid.a, 1e-5f);
+		Assert.assertEquals(39.75f, centroid.b, 1e-5f);
+
+		// heaviest cluster first
+		Swatch<LAB> swatch = clusterer.toSwatch();
+		Assert.assertEquals(2, swatch.palette.size());
+		Assert.assertEquals(centroid.l, swatch.palette.get(0).l, 0f);
+	}
+
+	@Test
+	public void testGridMatchesLinearScan() {
+		// with CIE76 the grid finds exactly the clusters a full scan would
+		Random random = new Random(42);
+		LABClusterer clusterer = new LABClusterer(5, Metric.CIE76, 100000);
+
+		for(int count = 0; count < 20000; count++) {
+			double l = random.nextDouble() * 100;
+			double a = random.nextDouble() * 100 - 50;
+			double b = random.nextDouble() * 100 - 50;
+
+			int expected = -1;
+			double best = Double.POSITIVE_INFINITY;
+			for(int cluster = 0; cluster < clusterer.size(); cluster++) {
+				LAB centroid = clusterer.getCentroid(cluster);
+				double distance = Math.sqrt(square(l - centroid.l) + square(a - centroid.a) + square(b - centroid.b));
+				if(distance <= 5 && distance < best) {
+					best = distance;
+					expected = cluster;
+				}
+			}
+
+			int cluster = clusterer.add(l, a, b, 1);
+			if(expected >= 0) {
+				Assert.assertEquals(expected, cluster);
+			} else {
+				Assert.assertEquals(clusterer.size() - 1, cluster);
+			}
+		}
+	}
+
+	@Test
+	public void testBoundedClusters() {
+		Random random = new Random(7);
+		LABClusterer clusterer = new LABClusterer(1, Metric.CIEDE2000, 50);
+
+		float[] lab = new float[3 * 10000];
+		for(int index = 0; index < lab.length; index += 3) {
+			lab[index] = random.nextFloat() * 100;
+			lab[index + 1] = random.nextFloat() * 200 - 100;
+			lab[index + 2] = random.nextFloat() * 200 - 100;
+		}
+		clusterer.add(lab, 0, 10000);
+
+		Assert.assertEquals(50, clusterer.size());
+		Assert.assertEquals(10000, clusterer.getTotalWeight());
+		Assert.assertTrue(clusterer.getOverflowWeight() > 0);
+
+		long total = 0;
+		for(int cluster = 0; cluster < clusterer.size(); cluster++) {
+			total += clusterer.getWeight(cluster);
+		}
+		Assert.assertEquals(10000, total);
+	}
+
+	@Test
+	public void testOverflowMatchesLinearScan() {
+		// once full, colors go to the nearest centroid a full scan would find
+		Random random = new Random(11);
+		LABClusterer clusterer = new LABClusterer(4, Metric.CIE76, 2000);
+
+		for(int count = 0; count < 30000; count++) {
+			double l = random.nextDouble() * 100;
+			double a = random.nextDouble() * 100 - 50;
+			double b = random.nextDouble() * 100 - 50;
+
+			int expected = -1;
+			double best = Double.POSITIVE_INFINITY;
+			for(int cluster = 0; cluster < clusterer.size(); cluster++) {
+				LAB centroid = clusterer.getCentroid(cluster);
+				double distance = square(l - centroid.l) + square(a - centroid.a) + square(b - centroid.b);
+				if(distance < best) {
+					best = distance;
+					expected = cluster;
+				}
+			}
+
+			long overflow = clusterer.getOverflowWeight();
+			int cluster = clusterer.add(l, a, b, 1);
+			if(clusterer.getOverflowWeight() > overflow) {
+				Assert.assertEquals(expected, cluster);
+			}
+		}
+
+		Assert.assertEquals(2000, clusterer.size());
+		Assert.assertTrue(clusterer.getOverflowWeight() > 0);
+
+		// heaviest first, ties in the order of the clusters
+		Swatch<LAB> swatch = clusterer.toSwatch();
+		Assert.assertEquals(2000, swatch.palette.size());
+		long previousWeight = Long.MAX_VALUE;
+		int previousCluster = -1;
+		for(LAB centroid : swatch.palette) {
+			int cluster = indexOf(clusterer, centroid);
+			long weight = clusterer.getWeight(cluster);
+			Assert.assertTrue(weight <= previousWeight);
+			if(weight == previousWeight) {
+				Assert.assertTrue(cluster > previousCluster);
+			}
+			previousWeight = weight;
+			previousCluster = cluster;
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidThreshold() {
+		new LABClusterer(0, Metric.CIE76, 10);
+	}
+
+	private static int indexOf(LABClusterer clusterer, LAB centroid) {
+		for(int cluster = 0; cluster < clusterer.size(); cluster++) {
+			LAB other = clusterer.getCentroid(cluster);
+			if(other.l == centroid.l && other.a == centroid.a && other.b == centroid.b) {
+				return cluster;
+			}
+		}
+
+		return -1;
+	}
+
+	private static double square(double value) {
+		return value * value;
+	}
+
+}
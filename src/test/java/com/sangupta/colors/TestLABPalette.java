@@ -0,0 +1,87 @@
+package com.sangupta.colors;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.model.LAB;
+
+public class TestLABPalette {
+
+	/**
+	 * Pairs from the test data of Sharma, Wu and Dalal, with their expected
+	 * CIEDE2000 difference
+	 */
+	private static final double[][] SHARMA = {
+		{ 50.0000, 2.6772, -79.7751, 50.0000, 0.0000, -82.7485, 2.0425 },
+		{ 50.0000, 3.1571, -77.2803, 50.0000, 0.0000, -82.7485, 2.8615 },
+		{ 50.0000, 2.8361, -74.0200, 50.0000, 0.0000, -82.7485, 3.4412 },
+		{ 50.0000, 0.0000, 0.0000, 50.0000, -1.0000, 2.0000, 2.3669 },
+		{ 50.0000, 2.5000, 0.0000, 73.0000, 25.0000, -18.0000, 27.1492 },
+		{ 60.2574, -34.0099, 36.2677, 60.4626, -34.1751, 39.4387, 1.2644 },
+		{ 63.0109, -31.0961, -5.8663, 62.8187, -29.7946, -4.0864, 1.2630 },
+		{ 2.0776, 0.0795, -1.1350, 0.9033, -0.0636, -0.5514, 0.9082 }
+	};
+
+	@Test
+	public void testReferenceData() {
+		for(double[] pair : SHARMA) {
+			Assert.assertEquals(pair[6], LABPalette.ciede2000(pair[0], pair[1], pair[2], pair[3], pair[4], pair[5]), 1e-4);
+
+			// the difference is symmetric
+			Assert.assertEquals(pair[6], LABPalette.ciede2000(pair[3], pair[4], pair[5], pair[0], pair[1], pair[2]), 1e-4);
+		}
+	}
+
+	@Test
+	public void testBatch() {
+		Random random = new Random(42);
+
+		LAB[] colors = new LAB[1000];
+		for(int index = 0; index < colors.length; index++) {
+			colors[index] = random(random);
+		}
+		colors[7] = new LAB(40, 0, 0);
+
+		LABPalette palette = new LABPalette(colors);
+		double[] distances = new double[colors.length];
+		double[] scalar = new double[colors.length];
+
+		for(int count = 0; count < 20; count++) {
+			LAB query = count == 0 ? new LAB(60, 0, 0) : random(random);
+
+			palette.ciede2000Planar(query, 0, colors.length, distances, 0);
+			palette.ciede2000Scalar(query, 0, colors.length, scalar, 0);
+			for(int index = 0; index < colors.length; index++) {
+				// both paths and the model agree exactly
+				Assert.assertEquals(LAB.ciede2000(query, colors[index]), distances[index], 0d);
+				Assert.assertEquals(distances[index], scalar[index], 0d);
+				Assert.assertEquals(distances[index], palette.ciede2000(query, index), 0d);
+			}
+
+			int nearest = 0;
+			for(int index = 1; index < colors.length; index++) {
+				if(distances[index] < distances[nearest]) {
+					nearest = index;
+				}
+			}
+			Assert.assertEquals(nearest, palette.nearest(query));
+		}
+	}
+
+	@Test
+	public void testInterleaved() {
+		float[] lab = { 0, 0, 0, 50, 2.6772f, -79.7751f, 50, 0, -82.7485f };
+		LABPalette palette = new LABPalette(lab, 3, 2);
+
+		Assert.assertEquals(2, palette.size());
+		Assert.assertEquals(2.6772f, palette.get(0).a, 0f);
+		Assert.assertEquals(2.0425, palette.ciede2000(palette.get(0), 1), 1e-4);
+	}
+
+	private static LAB random(Random random) {
+		return new LAB(random.nextFloat() * 100, random.nextFloat() * 200 - 100, random.nextFloat() * 200 - 100);
+	}
+
+}
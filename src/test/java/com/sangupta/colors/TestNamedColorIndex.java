@@ -0,0 +1,106 @@
+package com.sangupta.colors;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.NamedColorIndex.Metric;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+public class TestNamedColorIndex {
+
+	@Test
+	public void testCss3() {
+		NamedColorIndex index = NamedColorIndex.css3();
+
+		Assert.assertEquals(147, index.size());
+		Assert.assertEquals(CSS3Colors.ALICE_BLUE.value(), index.getColor(index.indexOf("aliceblue")).value());
+		Assert.assertEquals(CSS3Colors.LIGHT_GOLDEN_ROD_YELLOW.value(), index.getColor(index.indexOf("lightgoldenrodyellow")).value());
+		Assert.assertEquals(-1, index.indexOf("notacolor"));
+
+		// CSS3 colors win over the android names
+		Assert.assertEquals(CSS3Colors.DARK_GRAY.value(), index.getColor(index.indexOf("darkgray")).value());
+
+		for(Metric metric : Metric.values()) {
+			Assert.assertEquals("tomato", index.nearestName(CSS3Colors.TOMATO, metric));
+			Assert.assertEquals("tomato", index.nearestName(new RGB(255, 100, 72), metric));
+
+			// aliases of the same color resolve to the first name
+			Assert.assertEquals("aqua", index.nearestName(CSS3Colors.CYAN, metric));
+		}
+
+		// a saturated red is red, not a brown, under both metrics
+		Assert.assertEquals("red", index.nearestName(new RGB(0xFA, 0x05, 0x05), Metric.CIEDE2000));
+		Assert.assertEquals("red", index.nearestName(new RGB(0xFA, 0x05, 0x05), Metric.CIE76));
+	}
+
+	@Test
+	public void testNearest() {
+		NamedColorIndex index = NamedColorIndex.css3();
+		Random random = new Random(42);
+
+		for(Metric metric : Metric.values()) {
+			for(int count = 0; count < 2000; count++) {
+				RGB color = new RGB(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+				float[] values = new float[3];
+				BulkColorConversionUtils.sRGBtoLAB(new int[] { color.value() }, 0, values, 0, 1, XYZIlluminant.D65);
+				LAB lab = new LAB(values);
+
+				int[] expected = bruteForce(index, lab, 5, metric);
+				Assert.assertArrayEquals(expected, index.nearest(color, 5, metric));
+				Assert.assertEquals(expected[0], index.nearest(lab, metric));
+			}
+		}
+	}
+
+	@Test
+	public void testSmallIndex() {
+		Map<String, RGB> colors = new HashMap<>();
+		colors.put("black", new RGB(0, 0, 0));
+		colors.put("white", new RGB(255, 255, 255));
+
+		NamedColorIndex index = new NamedColorIndex(colors, XYZIlluminant.D50);
+		Assert.assertEquals(2, index.size());
+		Assert.assertEquals("black", index.nearestName(new RGB(5, 5, 5), Metric.CIEDE2000));
+		Assert.assertArrayEquals(new int[] { 1, 0 }, index.nearest(new RGB(200, 200, 200), 10, Metric.CIE76));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmpty() {
+		new NamedColorIndex(new HashMap<String, RGB>(), XYZIlluminant.D65);
+	}
+
+	private static int[] bruteForce(NamedColorIndex index, LAB lab, int count, Metric metric) {
+		final double[] distances = new double[index.size()];
+		Integer[] order = new Integer[index.size()];
+
+		for(int color = 0; color < index.size(); color++) {
+			distances[color] = NamedColorIndex.distance(lab, index.getLAB(color), metric);
+			order[color] = color;
+		}
+
+		Arrays.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer first, Integer second) {
+				int compare = Double.compare(distances[first], distances[second]);
+				return compare != 0 ? compare : Integer.compare(first, second);
+			}
+
+		});
+
+		int[] nearest = new int[count];
+		for(int position = 0; position < count; position++) {
+			nearest[position] = order[position];
+		}
+
+		return nearest;
+	}
+}
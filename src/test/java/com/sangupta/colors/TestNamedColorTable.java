@@ -0,0 +1,86 @@
+package com.sangupta.colors;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.NamedColorIndex.Metric;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+public class TestNamedColorTable {
+
+	@Test
+	public void testBuild() {
+		NamedColorIndex index = NamedColorIndex.css3();
+
+		for(Metric metric : Metric.values()) {
+			NamedColorTable table = NamedColorTable.build(index, metric, 5);
+			Assert.assertEquals(5, table.getBits());
+			Assert.assertEquals(metric, table.getMetric());
+
+			// every color is named after the center of its cell
+			Random random = new Random(42);
+			for(int count = 0; count < 2000; count++) {
+				int red = random.nextInt(256), green = random.nextInt(256), blue = random.nextInt(256);
+				int expected = index.nearest(new RGB(red & ~7 | 4, green & ~7 | 4, blue & ~7 | 4), metric);
+
+				Assert.assertEquals(expected, table.nearest(0xFF000000 | red << 16 | green << 8 | blue));
+			}
+
+			Assert.assertEquals("tomato", table.nearestName(CSS3Colors.TOMATO));
+		}
+	}
+
+	@Test
+	public void testParallel() {
+		NamedColorIndex index = NamedColorIndex.css3();
+
+		NamedColorTable sequential = NamedColorTable.build(index, Metric.CIE76, 6, false);
+		NamedColorTable built = NamedColorTable.build(index, Metric.CIE76, 6, true);
+
+		for(int color = 0; color < 1 << 24; color += 97) {
+			Assert.assertEquals(sequential.nearest(color), built.nearest(color));
+		}
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		NamedColorIndex index = NamedColorIndex.css3();
+		NamedColorTable table = NamedColorTable.build(index, Metric.CIEDE2000, 4);
+
+		File file = File.createTempFile("named-colors", ".table");
+		try {
+			table.save(file);
+			NamedColorTable loaded = NamedColorTable.load(file, index);
+
+			Assert.assertEquals(4, loaded.getBits());
+			Assert.assertEquals(Metric.CIEDE2000, loaded.getMetric());
+			for(int color = 0; color < 1 << 24; color += 31) {
+				Assert.assertEquals(table.nearest(color), loaded.nearest(color));
+			}
+
+			// a table only loads with the index it was built from
+			Map<String, RGB> colors = new HashMap<>();
+			colors.put("black", new RGB(0, 0, 0));
+			try {
+				NamedColorTable.load(file, new NamedColorIndex(colors, XYZIlluminant.D65));
+				Assert.fail("Table loaded with a different index");
+			} catch(IOException e) {
+				// expected
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBits() {
+		NamedColorTable.build(NamedColorIndex.css3(), Metric.CIE76, 3);
+	}
+}
@@ -0,0 +1,111 @@
+package com.sangupta.colors;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.model.HSB;
+import com.sangupta.colors.model.HSL;
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+public class TestPackedColors {
+
+	@Test
+	public void testPacking() {
+		int argb = PackedColors.argb(10, 20, 30, 40);
+		Assert.assertEquals(10, PackedColors.alpha(argb));
+		Assert.assertEquals(20, PackedColors.red(argb));
+		Assert.assertEquals(30, PackedColors.green(argb));
+		Assert.assertEquals(40, PackedColors.blue(argb));
+		Assert.assertEquals(new RGB(20, 30, 40).value(), PackedColors.rgb(20, 30, 40));
+
+		long lab = PackedColors.lab(53.241f, -80.109f, 67.22f);
+		Assert.assertEquals(53.241f, PackedColors.labL(lab), 0.0005f);
+		Assert.assertEquals(-80.109f, PackedColors.labA(lab), 0.0005f);
+		Assert.assertEquals(67.22f, PackedColors.labB(lab), 0.0005f);
+
+		long hsl = PackedColors.hsl(new HSL(0.25f, 0.5f, 1f));
+		Assert.assertEquals(0.25f, PackedColors.hslHue(hsl), 0.000001f);
+		Assert.assertEquals(0.5f, PackedColors.hslSaturation(hsl), 0.000001f);
+		Assert.assertEquals(1f, PackedColors.hslLuminosity(hsl), 0.000001f);
+
+		// out of range values are clamped
+		Assert.assertEquals(1048.575f, PackedColors.labA(PackedColors.lab(0, 5000, 0)), 0.0005f);
+		Assert.assertEquals(-1048.576f, PackedColors.labB(PackedColors.lab(0, 0, -5000)), 0.0005f);
+	}
+
+	@Test
+	public void testHSL() {
+		for(int argb : colors(5000)) {
+			HSL expected = ColorConversionUtils.RGBtoHSL(new RGB(argb));
+			long hsl = PackedColors.RGBtoHSL(argb);
+
+			Assert.assertEquals(expected.hue, PackedColors.hslHue(hsl), 0.000001f);
+			Assert.assertEquals(expected.saturation, PackedColors.hslSaturation(hsl), 0.000001f);
+			Assert.assertEquals(expected.luminosity, PackedColors.hslLuminosity(hsl), 0.000001f);
+
+			assertClose(argb, PackedColors.HSLtoRGB(hsl), 1);
+		}
+	}
+
+	@Test
+	public void testHSB() {
+		for(int argb : colors(5000)) {
+			HSB expected = ColorConversionUtils.RGBtoHSB(new RGB(argb));
+			long hsb = PackedColors.RGBtoHSB(argb);
+
+			Assert.assertEquals(expected.hue, PackedColors.hsbHue(hsb), 0.000001f);
+			Assert.assertEquals(expected.saturation, PackedColors.hsbSaturation(hsb), 0.000001f);
+			Assert.assertEquals(expected.brightness, PackedColors.hsbBrightness(hsb), 0.000001f);
+
+			assertClose(argb, PackedColors.HSBtoRGB(hsb), 1);
+		}
+	}
+
+	@Test
+	public void testLAB() {
+		int[] argb = colors(5000);
+		float[] expected = new float[argb.length * 3];
+		long[] lab = new long[argb.length];
+		int[] back = new int[argb.length];
+
+		BulkColorConversionUtils.RGBtoLAB(argb, 0, expected, 0, argb.length, XYZIlluminant.D65);
+		PackedColors.RGBtoLAB(argb, 0, lab, 0, argb.length, XYZIlluminant.D65);
+		PackedColors.LABtoRGB(lab, 0, back, 0, lab.length, XYZIlluminant.D65);
+
+		for(int index = 0; index < argb.length; index++) {
+			Assert.assertEquals(expected[index * 3], PackedColors.labL(lab[index]), 0.001f);
+			Assert.assertEquals(expected[index * 3 + 1], PackedColors.labA(lab[index]), 0.001f);
+			Assert.assertEquals(expected[index * 3 + 2], PackedColors.labB(lab[index]), 0.001f);
+
+			LAB model = PackedColors.toLAB(lab[index]);
+			RGB rgb = ColorConversionUtils.XYZtoRGB(ColorConversionUtils.LABtoXYZ(model, XYZIlluminant.D65));
+			Assert.assertEquals(rgb.value(), back[index]);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRange() {
+		PackedColors.RGBtoHSL(new int[4], 2, new long[4], 0, 3);
+	}
+
+	private static void assertClose(int expected, int actual, int tolerance) {
+		Assert.assertEquals(0xFF, PackedColors.alpha(actual));
+		Assert.assertEquals(PackedColors.red(expected), PackedColors.red(actual), tolerance);
+		Assert.assertEquals(PackedColors.green(expected), PackedColors.green(actual), tolerance);
+		Assert.assertEquals(PackedColors.blue(expected), PackedColors.blue(actual), tolerance);
+	}
+
+	private static int[] colors(int count) {
+		Random random = new Random(42);
+		int[] colors = new int[count];
+		for(int index = 0; index < count; index++) {
+			colors[index] = 0xFF000000 | random.nextInt(0x1000000);
+		}
+
+		return colors;
+	}
+}
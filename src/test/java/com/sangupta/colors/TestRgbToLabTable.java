@@ -0,0 +1,103 @@
+package com.sangupta.colors;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sangupta.colors.model.LAB;
+import com.sangupta.colors.model.RGB;
+import com.sangupta.colors.model.XYZ.XYZIlluminant;
+
+public class TestRgbToLabTable {
+
+	@Test
+	public void testFull() {
+		RgbToLabTable table = RgbToLabTable.full(XYZIlluminant.D65);
+		Assert.assertEquals(8, table.getBits());
+
+		int[] argb = colors(5000);
+		float[] expected = new float[argb.length * 3];
+		float[] actual = new float[argb.length * 3];
+
+		BulkColorConversionUtils.RGBtoLAB(argb, 0, expected, 0, argb.length, XYZIlluminant.D65);
+		BulkColorConversionUtils.RGBtoLAB(argb, 0, actual, 0, argb.length, table);
+
+		Assert.assertArrayEquals(expected, actual, 0f);
+	}
+
+	@Test
+	public void testQuantized() {
+		RgbToLabTable table = RgbToLabTable.quantized(6, XYZIlluminant.D65);
+
+		int[] argb = colors(20000);
+		float[] expected = new float[argb.length * 3];
+		float[] actual = new float[argb.length * 3];
+
+		BulkColorConversionUtils.RGBtoLAB(argb, 0, expected, 0, argb.length, XYZIlluminant.D65);
+		BulkColorConversionUtils.RGBtoLAB(argb, 0, actual, 0, argb.length, table);
+
+		Assert.assertArrayEquals(expected, actual, 0.1f);
+
+		// grid colors are exact
+		LAB white = table.lab(new RGB(255, 255, 255));
+		Assert.assertArrayEquals(new float[] { expected(0xFFFFFF)[0], expected(0xFFFFFF)[1], expected(0xFFFFFF)[2] }, white.asArray(), 0f);
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		RgbToLabTable table = RgbToLabTable.quantized(5, XYZIlluminant.D50);
+
+		File file = File.createTempFile("rgb-lab", ".table");
+		try {
+			table.save(file);
+			RgbToLabTable loaded = RgbToLabTable.load(file);
+
+			Assert.assertEquals(5, loaded.getBits());
+			Assert.assertEquals(XYZIlluminant.D50, loaded.getWhitePoint());
+
+			int[] argb = colors(1000);
+			float[] expected = new float[argb.length * 3];
+			float[] actual = new float[argb.length * 3];
+			BulkColorConversionUtils.RGBtoLAB(argb, 0, expected, 0, argb.length, table);
+			BulkColorConversionUtils.RGBtoLAB(argb, 0, actual, 0, argb.length, loaded);
+
+			Assert.assertArrayEquals(expected, actual, 0f);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testLoadInvalid() throws IOException {
+		File file = File.createTempFile("rgb-lab", ".table");
+		try {
+			RgbToLabTable.load(file);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidBits() {
+		RgbToLabTable.quantized(8, XYZIlluminant.D65);
+	}
+
+	private static float[] expected(int color) {
+		float[] lab = new float[3];
+		BulkColorConversionUtils.RGBtoLAB(new int[] { color }, 0, lab, 0, 1, XYZIlluminant.D65);
+		return lab;
+	}
+
+	private static int[] colors(int count) {
+		Random random = new Random(11);
+		int[] colors = new int[count];
+		for(int index = 0; index < count; index++) {
+			colors[index] = random.nextInt();
+		}
+
+		return colors;
+	}
+}
@@ -0,0 +1,38 @@
+package com.sangupta.colors.extract.android;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Random pixels and images shared by the tests of this package. Both are
+ * seeded, so every call with the same arguments gives the same pixels.
+ */
+final class PixelFixtures {
+
+	private PixelFixtures() {
+		// not to be instantiated
+	}
+
+	static int[] pixels(int count) {
+		int[] pixels = new int[count];
+		Random random = new Random(5);
+		for(int index = 0; index < pixels.length; index++) {
+			pixels[index] = random.nextInt();
+		}
+
+		return pixels;
+	}
+
+	static BufferedImage image(int type, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, type);
+		Random random = new Random(type);
+		for(int row = 0; row < height; row++) {
+			for(int col = 0; col < width; col++) {
+				image.setRGB(col, row, random.nextInt());
+			}
+		}
+
+		return image;
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.sangupta.colors.extract.android;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.IntBuffer;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestAndroidColorExtractor {
+
+	@Test
+	public void testReusedContext() {
+		QuantizerContext context = new QuantizerContext();
+
+		for(int index = 0; index < 5; index++) {
+			BufferedImage image = image(new Color(index * 50, 200, 30), new Color(10, index * 40, 220));
+
+			List<PaletteSwatch> expected = new AndroidColorExtractor(new Bitmap(image)).maximumColorCount(8 + index * 4).generate().getSwatches();
+			List<PaletteSwatch> actual = new AndroidColorExtractor(new Bitmap(image)).maximumColorCount(8 + index * 4).generate(context).getSwatches();
+
+			assertSwatches(expected, actual);
+		}
+	}
+
+	@Test
+	public void testPixels() {
+		BufferedImage image = image(Color.CYAN, Color.MAGENTA);
+		int[] pixels = new Bitmap(image).getPixels();
+
+		List<PaletteSwatch> expected = new AndroidColorExtractor(new Bitmap(image)).resizeBitmapArea(0).generate().getSwatches();
+
+		// the same pixels, in the middle of a larger array
+		int[] frame = new int[pixels.length + 10];
+		System.arraycopy(pixels, 0, frame, 4, pixels.length);
+		int[] copy = frame.clone();
+
+		assertSwatches(expected, new AndroidColorExtractor(frame, 4, pixels.length).generate().getSwatches());
+		assertSwatches(expected, new AndroidColorExtractor(IntBuffer.wrap(pixels).asReadOnlyBuffer()).generate().getSwatches());
+		Assert.assertArrayEquals(copy, frame);
+	}
+
+	@Test
+	public void testNullBitmap() {
+		try {
+			new AndroidColorExtractor((Bitmap) null);
+			Assert.fail("null bitmap accepted");
+		} catch(IllegalArgumentException e) {
+			Assert.assertEquals("Bitmap is not valid", e.getMessage());
+		}
+	}
+
+	static void assertSwatches(List<PaletteSwatch> expected, List<PaletteSwatch> actual) {
+		Assert.assertFalse(expected.isEmpty());
+		Assert.assertEquals(expected.size(), actual.size());
+		for(int index = 0; index < expected.size(); index++) {
+			Assert.assertEquals(expected.get(index).getRgb(), actual.get(index).getRgb());
+			Assert.assertEquals(expected.get(index).getPopulation(), actual.get(index).getPopulation());
+		}
+	}
+
+	static BufferedImage image(Color from, Color to) {
+		BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setPaint(new GradientPaint(0, 0, from, 400, 300, to));
+		graphics.fillRect(0, 0, 400, 300);
+		graphics.setColor(Color.ORANGE);
+		graphics.fillOval(100, 80, 120, 90);
+		graphics.dispose();
+
+		return image;
+	}
+}
@@ -0,0 +1,67 @@
+package com.sangupta.colors.extract.android;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestBitmap {
+
+	private static final int[] TYPES = {
+		BufferedImage.TYPE_INT_RGB,
+		BufferedImage.TYPE_INT_ARGB,
+		BufferedImage.TYPE_3BYTE_BGR,
+		BufferedImage.TYPE_4BYTE_ABGR,
+		BufferedImage.TYPE_BYTE_GRAY,
+		BufferedImage.TYPE_USHORT_565_RGB
+	};
+
+	@Test
+	public void testGetPixels() {
+		for(int type : TYPES) {
+			BufferedImage image = PixelFixtures.image(type, 37, 23);
+			assertPixels(image);
+
+			// sub-images share the parent raster with an offset and stride
+			assertPixels(image.getSubimage(5, 3, 20, 11));
+		}
+	}
+
+	@Test
+	public void testScalePixels() {
+		int[] pixels = {
+			0xFF000000, 0xFF0000FF, 0x80FFFFFF,
+			0xFF00FF00, 0xFFFF0000, 0x80FFFFFF
+		};
+
+		Assert.assertArrayEquals(new int[] { 0xFF3F3F3F, 0x80FFFFFF }, Bitmap.scalePixels(pixels, 3, 2, 2, 1));
+		Assert.assertArrayEquals(pixels, Bitmap.scalePixels(pixels, 3, 2, 3, 2));
+
+		// a uniform image stays uniform whatever the ratio
+		int[] uniform = new int[1000 * 7];
+		Arrays.fill(uniform, 0xFF123456);
+
+		int[] scaled = Bitmap.scalePixels(uniform, 1000, 7, 112, 3);
+		Assert.assertEquals(112 * 3, scaled.length);
+		for(int pixel : scaled) {
+			Assert.assertEquals(0xFF123456, pixel);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testScalePixelsUp() {
+		Bitmap.scalePixels(new int[4], 2, 2, 3, 3);
+	}
+
+	private static void assertPixels(BufferedImage image) {
+		int[] pixels = new Bitmap(image).getPixels();
+		Assert.assertEquals(image.getWidth() * image.getHeight(), pixels.length);
+
+		for(int row = 0; row < image.getHeight(); row++) {
+			for(int col = 0; col < image.getWidth(); col++) {
+				Assert.assertEquals("type " + image.getType(), image.getRGB(col, row), pixels[row * image.getWidth() + col]);
+			}
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.sangupta.colors.extract.android;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestColorCutQuantizer {
+
+	@Test
+	public void testParallelHistogram() {
+		int[] pixels = PixelFixtures.pixels(ParallelHistogram.MIN_LENGTH * 3 + 11);
+		int offset = 5;
+
+		int[] expected = new int[1 << 15];
+		for(int index = offset; index < pixels.length; index++) {
+			expected[ColorCutQuantizer.quantizeFromRgb888(pixels[index])]++;
+		}
+
+		// counts are added to the histogram
+		expected[7] += 3;
+
+		int[] copy = pixels.clone();
+		QuantizerContext context = new QuantizerContext();
+		context.histogram[7] = 3;
+		ParallelHistogram.build(IntBuffer.wrap(pixels, offset, pixels.length - offset), context);
+
+		Assert.assertArrayEquals(expected, context.histogram);
+		Assert.assertArrayEquals(copy, pixels);
+
+		// off-heap and read-only, over several ranges whose histograms are reused
+		IntBuffer direct = ByteBuffer.allocateDirect(pixels.length * 4).asIntBuffer();
+		direct.put(pixels).position(offset);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			int[][] histograms = null;
+			for(int run = 0; run < 2; run++) {
+				context.reset(1);
+				context.histogram[7] = 3;
+				ParallelHistogram.build(direct.asReadOnlyBuffer(), context, pool);
+
+				Assert.assertArrayEquals(expected, context.histogram);
+				Assert.assertEquals(4, context.histograms.length);
+				Assert.assertSame(context.histogram, context.histograms[0]);
+				if(histograms != null) {
+					Assert.assertSame(histograms, context.histograms);
+				}
+				histograms = context.histograms;
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testReadOnlyPixels() {
+		int[] pixels = PixelFixtures.pixels(20000);
+		int[] copy = pixels.clone();
+		PaletteFilter[] filters = { PaletteFilter.DEFAULT_FILTER };
+
+		List<PaletteSwatch> expected = new ColorCutQuantizer(pixels, 16, filters).getQuantizedColors();
+		Assert.assertArrayEquals(copy, pixels);
+
+		IntBuffer buffer = IntBuffer.wrap(pixels).asReadOnlyBuffer();
+		List<PaletteSwatch> actual = new ColorCutQuantizer(buffer, 16, filters, new QuantizerContext()).getQuantizedColors();
+		Assert.assertEquals(0, buffer.position());
+
+		Assert.assertEquals(expected.size(), actual.size());
+		for(int index = 0; index < expected.size(); index++) {
+			Assert.assertEquals(expected.get(index).getRgb(), actual.get(index).getRgb());
+			Assert.assertEquals(expected.get(index).getPopulation(), actual.get(index).getPopulation());
+		}
+	}
+
+	@Test
+	public void testSparseHistogram() {
+		// 8 bits keep the exact colors
+		int[] pixels = { 0xFF123456, 0xFF123456, 0xFF123457, 0xFF000000 };
+
+		List<PaletteSwatch> swatches = new ColorCutQuantizer(IntBuffer.wrap(pixels), 16, null, new QuantizerContext(8)).getQuantizedColors();
+		Assert.assertEquals(3, swatches.size());
+		Assert.assertEquals(0xFF000000, swatches.get(0).getRgb());
+		Assert.assertEquals(1, swatches.get(0).getPopulation());
+		Assert.assertEquals(0xFF123456, swatches.get(1).getRgb());
+		Assert.assertEquals(2, swatches.get(1).getPopulation());
+		Assert.assertEquals(0xFF123457, swatches.get(2).getRgb());
+		Assert.assertEquals(1, swatches.get(2).getPopulation());
+	}
+
+	@Test
+	public void testBitsPerChannel() {
+		int[] pixels = PixelFixtures.pixels(20000);
+		Quantizer[] quantizers = { Quantizer.COLOR_CUT, new KMeansQuantizer(), new WuQuantizer() };
+
+		for(int bits = ColorCutQuantizer.MIN_QUANTIZE_WORD_WIDTH; bits <= ColorCutQuantizer.MAX_QUANTIZE_WORD_WIDTH; bits++) {
+			QuantizerContext context = new QuantizerContext(bits);
+			Assert.assertEquals(bits, context.getBits());
+
+			for(Quantizer quantizer : quantizers) {
+				// reused contexts give the same swatches
+				List<PaletteSwatch> expected = quantizer.quantize(IntBuffer.wrap(pixels), 16, null, context);
+				List<PaletteSwatch> actual = quantizer.quantize(IntBuffer.wrap(pixels), 16, null, context);
+				Assert.assertEquals(16, expected.size());
+				Assert.assertEquals(expected.size(), actual.size());
+
+				int population = 0;
+				for(int index = 0; index < expected.size(); index++) {
+					Assert.assertEquals(expected.get(index).getRgb(), actual.get(index).getRgb());
+					population += expected.get(index).getPopulation();
+				}
+				Assert.assertEquals(pixels.length, population);
+			}
+		}
+	}
+
+	@Test
+	public void testLargeBox() {
+		// enough pixels of one color that the 8-bit component sums overflow an int
+		int[] pixels = new int[12_000_000];
+		Arrays.fill(pixels, 0xFFF0F0F0);
+		Random random = new Random(5);
+		for(int index = 0; index < 1000; index++) {
+			pixels[index] = 0xFFE0E0E0 | random.nextInt(1 << 24) & 0x1F1F1F;
+		}
+
+		List<PaletteSwatch> swatches = new ColorCutQuantizer(IntBuffer.wrap(pixels), 2, null, new QuantizerContext(8)).getQuantizedColors();
+		PaletteSwatch dominant = swatches.get(0);
+		for(PaletteSwatch swatch : swatches) {
+			if(swatch.getPopulation() > dominant.getPopulation()) {
+				dominant = swatch;
+			}
+		}
+
+		int rgb = dominant.getRgb();
+		Assert.assertEquals(0xF0, (rgb >> 16) & 0xFF, 2);
+		Assert.assertEquals(0xF0, (rgb >> 8) & 0xFF, 2);
+		Assert.assertEquals(0xF0, rgb & 0xFF, 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidBits() {
+		new QuantizerContext(ColorCutQuantizer.MAX_QUANTIZE_WORD_WIDTH + 1);
+	}
+}
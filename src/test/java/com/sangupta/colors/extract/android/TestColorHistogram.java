@@ -0,0 +1,69 @@
+package com.sangupta.colors.extract.android;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestColorHistogram {
+
+	@Test
+	public void testSmall() {
+		int[] pixels = { 3, -1, 3, 2, 3, -1 };
+		int[] copy = pixels.clone();
+
+		ColorHistogram histogram = new ColorHistogram(pixels);
+		Assert.assertArrayEquals(copy, pixels);
+		Assert.assertEquals(3, histogram.getNumberOfColors());
+		Assert.assertArrayEquals(new int[] { -1, 2, 3 }, histogram.getColors());
+		Assert.assertArrayEquals(new int[] { 2, 1, 3 }, histogram.getColorCounts());
+		Assert.assertEquals(3, histogram.getCount(3));
+		Assert.assertEquals(0, histogram.getCount(4));
+
+		histogram = new ColorHistogram(pixels, 2, 3);
+		Assert.assertArrayEquals(new int[] { 2, 3 }, histogram.getColors());
+		Assert.assertArrayEquals(new int[] { 1, 2 }, histogram.getColorCounts());
+
+		Assert.assertEquals(0, new ColorHistogram(new int[0]).getNumberOfColors());
+	}
+
+	@Test
+	public void testAgainstSort() {
+		Random random = new Random(3);
+		int[] pixels = new int[200000];
+		for(int index = 0; index < pixels.length; index++) {
+			// many repeated colors, with zero and negative values
+			pixels[index] = random.nextInt(50000) * 0x01010101 - 0x20000000;
+		}
+
+		int[] sorted = pixels.clone();
+		Arrays.sort(sorted);
+		int distinct = 0;
+		for(int index = 0; index < sorted.length; index++) {
+			if(index == 0 || sorted[index] != sorted[index - 1]) {
+				distinct++;
+			}
+		}
+
+		IntBuffer direct = ByteBuffer.allocateDirect(pixels.length * 4).asIntBuffer();
+		direct.put(pixels).flip();
+
+		for(ColorHistogram histogram : new ColorHistogram[] { new ColorHistogram(pixels), new ColorHistogram(direct.asReadOnlyBuffer()) }) {
+			Assert.assertEquals(distinct, histogram.getNumberOfColors());
+
+			int position = 0;
+			for(int index = 0; index < histogram.getNumberOfColors(); index++) {
+				int color = histogram.getColors()[index];
+				int count = histogram.getColorCounts()[index];
+				for(int pixel = 0; pixel < count; pixel++) {
+					Assert.assertEquals(sorted[position++], color);
+				}
+			}
+
+			Assert.assertEquals(sorted.length, position);
+		}
+	}
+}
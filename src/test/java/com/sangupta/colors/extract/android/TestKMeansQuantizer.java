@@ -0,0 +1,79 @@
+package com.sangupta.colors.extract.android;
+
+import java.nio.IntBuffer;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestKMeansQuantizer {
+
+	@Test
+	public void testParallelAssignment() {
+		int[] pixels = PixelFixtures.pixels(200000);
+
+		List<PaletteSwatch> sequential = new KMeansQuantizer(16, 0.5, false).quantize(IntBuffer.wrap(pixels), 32, null, new QuantizerContext());
+		List<PaletteSwatch> parallel = new KMeansQuantizer(16, 0.5, true).quantize(IntBuffer.wrap(pixels), 32, null, new QuantizerContext());
+
+		Assert.assertEquals(32, sequential.size());
+		assertSwatches(sequential, parallel);
+
+		int population = 0;
+		for(PaletteSwatch swatch : sequential) {
+			population += swatch.getPopulation();
+		}
+		Assert.assertEquals(pixels.length, population);
+	}
+
+	@Test
+	public void testReusedContext() {
+		int[] pixels = PixelFixtures.pixels(20000);
+		int[] copy = pixels.clone();
+		PaletteFilter[] filters = { PaletteFilter.DEFAULT_FILTER };
+		KMeansQuantizer quantizer = new KMeansQuantizer();
+		QuantizerContext context = new QuantizerContext();
+
+		IntBuffer buffer = IntBuffer.wrap(pixels).asReadOnlyBuffer();
+		List<PaletteSwatch> expected = quantizer.quantize(buffer, 16, filters, context);
+		Assert.assertArrayEquals(copy, pixels);
+		Assert.assertEquals(0, buffer.position());
+
+		// fewer clusters than the buffers of the context hold
+		assertSwatches(quantizer.quantize(IntBuffer.wrap(PixelFixtures.pixels(500)), 8, null, new QuantizerContext()),
+				quantizer.quantize(IntBuffer.wrap(PixelFixtures.pixels(500)), 8, null, context));
+		assertSwatches(expected, quantizer.quantize(buffer, 16, filters, context));
+	}
+
+	@Test
+	public void testFewColors() {
+		int[] pixels = { 0xFFFF0000, 0xFFFF0000, 0xFF0000FF };
+
+		List<PaletteSwatch> swatches = new KMeansQuantizer().quantize(IntBuffer.wrap(pixels), 16, null, new QuantizerContext());
+		Assert.assertEquals(2, swatches.size());
+		Assert.assertEquals(0xFF0000F8, swatches.get(0).getRgb());
+		Assert.assertEquals(1, swatches.get(0).getPopulation());
+		Assert.assertEquals(0xFFF80000, swatches.get(1).getRgb());
+		Assert.assertEquals(2, swatches.get(1).getPopulation());
+	}
+
+	@Test
+	public void testExtractor() {
+		int[] pixels = PixelFixtures.pixels(20000);
+
+		Palette palette = new AndroidColorExtractor(pixels, 0, pixels.length).quantizer(new KMeansQuantizer()).generate();
+		Assert.assertFalse(palette.getSwatches().isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullQuantizer() {
+		new AndroidColorExtractor(new int[1], 0, 1).quantizer(null);
+	}
+
+	private static void assertSwatches(List<PaletteSwatch> expected, List<PaletteSwatch> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		for(int index = 0; index < expected.size(); index++) {
+			Assert.assertEquals(expected.get(index).getRgb(), actual.get(index).getRgb());
+			Assert.assertEquals(expected.get(index).getPopulation(), actual.get(index).getPopulation());
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.sangupta.colors.extract.android;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestOctreeQuantizer {
+
+	@Test
+	public void testExactColors() {
+		int[] pixels = { 0xFFFF0000, 0xFFFF0000, 0xFF0000FF, 0x80123456 };
+
+		List<PaletteSwatch> swatches = new OctreeQuantizer().quantize(IntBuffer.wrap(pixels), 16, null, null);
+		Assert.assertEquals(3, swatches.size());
+
+		int found = 0;
+		for(PaletteSwatch swatch : swatches) {
+			if(swatch.getRgb() == 0xFFFF0000) {
+				Assert.assertEquals(2, swatch.getPopulation());
+				found++;
+			}
+			if(swatch.getRgb() == 0xFF0000FF || swatch.getRgb() == 0xFF123456) {
+				Assert.assertEquals(1, swatch.getPopulation());
+				found++;
+			}
+		}
+		Assert.assertEquals(3, found);
+	}
+
+	@Test
+	public void testChunks() {
+		int[] pixels = PixelFixtures.pixels(100000);
+
+		OctreeQuantizer whole = new OctreeQuantizer();
+		whole.add(pixels, 0, pixels.length);
+		List<PaletteSwatch> expected = whole.getQuantizedColors(16, null);
+
+		// fed in strips, the last of them from an off-heap buffer
+		OctreeQuantizer chunked = new OctreeQuantizer();
+		for(int offset = 0; offset < 90000; offset += 1000) {
+			chunked.add(pixels, offset, 1000);
+		}
+		IntBuffer direct = ByteBuffer.allocateDirect(10000 * 4).asIntBuffer();
+		direct.put(pixels, 90000, 10000).flip();
+		chunked.add(direct.asReadOnlyBuffer());
+		Assert.assertEquals(0, direct.position());
+
+		List<PaletteSwatch> actual = chunked.getQuantizedColors(16, null);
+		Assert.assertEquals(pixels.length, chunked.getPixelCount());
+		Assert.assertEquals(expected.size(), actual.size());
+		for(int index = 0; index < expected.size(); index++) {
+			Assert.assertEquals(expected.get(index).getRgb(), actual.get(index).getRgb());
+			Assert.assertEquals(expected.get(index).getPopulation(), actual.get(index).getPopulation());
+		}
+	}
+
+	@Test
+	public void testBoundedPool() {
+		int[] pixels = PixelFixtures.pixels(200000);
+		OctreeQuantizer quantizer = new OctreeQuantizer(64);
+		quantizer.add(pixels, 0, pixels.length);
+
+		List<PaletteSwatch> swatches = quantizer.getQuantizedColors(8, null);
+		Assert.assertTrue(swatches.size() <= 8);
+
+		int population = 0;
+		for(PaletteSwatch swatch : swatches) {
+			population += swatch.getPopulation();
+		}
+		Assert.assertEquals(pixels.length, population);
+
+		// starts afresh for every image
+		Assert.assertEquals(1, quantizer.quantize(IntBuffer.wrap(new int[] { 0xFF102030 }), 8, null, null).size());
+		Assert.assertEquals(1, quantizer.getPixelCount());
+	}
+
+	@Test
+	public void testExtractor() {
+		int[] pixels = PixelFixtures.pixels(20000);
+
+		Palette palette = new AndroidColorExtractor(pixels, 0, pixels.length).quantizer(new OctreeQuantizer()).generate();
+		Assert.assertFalse(palette.getSwatches().isEmpty());
+	}
+}
@@ -0,0 +1,65 @@
+package com.sangupta.colors.extract.android;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestPixelSampler {
+
+	@Test
+	public void testStride() {
+		BufferedImage image = PixelFixtures.image(BufferedImage.TYPE_INT_RGB, 10, 7);
+		int[] pixels = PixelSampler.stride(3).sample(new Bitmap(image));
+
+		Assert.assertEquals(4 * 3, pixels.length);
+		Assert.assertEquals(image.getRGB(0, 0), pixels[0]);
+		Assert.assertEquals(image.getRGB(9, 0), pixels[3]);
+		Assert.assertEquals(image.getRGB(3, 6), pixels[9]);
+	}
+
+	@Test
+	public void testRandom() {
+		int[] types = { BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_555_RGB };
+		for(int type : types) {
+			Bitmap bitmap = new Bitmap(PixelFixtures.image(type, 200, 150));
+
+			int[] first = PixelSampler.random(5000, 42).sample(bitmap);
+			int[] second = PixelSampler.random(5000, 42).sample(bitmap);
+
+			Assert.assertEquals(5000, first.length);
+			Assert.assertArrayEquals(first, second);
+		}
+	}
+
+	@Test
+	public void testJitteredGrid() {
+		Bitmap bitmap = new Bitmap(PixelFixtures.image(BufferedImage.TYPE_4BYTE_ABGR, 400, 300));
+
+		int[] first = PixelSampler.jitteredGrid(1200, 7).sample(bitmap);
+		int[] second = PixelSampler.jitteredGrid(1200, 7).sample(bitmap);
+
+		Assert.assertEquals(40 * 30, first.length);
+		Assert.assertArrayEquals(first, second);
+	}
+
+	@Test
+	public void testSmallBitmap() {
+		Bitmap bitmap = new Bitmap(PixelFixtures.image(BufferedImage.TYPE_INT_RGB, 20, 20));
+
+		Assert.assertArrayEquals(bitmap.getPixels(), PixelSampler.random(1000, 1).sample(bitmap));
+		Assert.assertArrayEquals(bitmap.getPixels(), PixelSampler.jitteredGrid(1000, 1).sample(bitmap));
+	}
+
+	@Test
+	public void testPositions() {
+		BufferedImage image = PixelFixtures.image(BufferedImage.TYPE_3BYTE_BGR, 31, 17).getSubimage(3, 2, 20, 10);
+		int[] positions = { 0, 19, 20, 111, 199 };
+
+		int[] pixels = new Bitmap(image).getPixels(positions);
+		for(int index = 0; index < positions.length; index++) {
+			Assert.assertEquals(image.getRGB(positions[index] % 20, positions[index] / 20), pixels[index]);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.sangupta.colors.extract.android;
+
+import java.nio.IntBuffer;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestWuQuantizer {
+
+	@Test
+	public void testSplitsClusters() {
+		// two tight groups of colors, each averaging to a color on the 5-bit grid
+		int[] pixels = new int[4000];
+		for(int index = 0; index < pixels.length; index += 2) {
+			pixels[index] = index % 4 == 0 ? 0xFFC04020 : 0xFFD05030;
+			pixels[index + 1] = index % 4 == 0 ? 0xFF2040C0 : 0xFF3050D0;
+		}
+
+		List<PaletteSwatch> swatches = new WuQuantizer().quantize(IntBuffer.wrap(pixels), 2, null, new QuantizerContext());
+		Assert.assertEquals(2, swatches.size());
+
+		PaletteSwatch red = swatches.get(0).getRgb() == 0xFFC84828 ? swatches.get(0) : swatches.get(1);
+		PaletteSwatch blue = red == swatches.get(0) ? swatches.get(1) : swatches.get(0);
+		Assert.assertEquals(0xFFC84828, red.getRgb());
+		Assert.assertEquals(0xFF2848C8, blue.getRgb());
+		Assert.assertEquals(2000, red.getPopulation());
+		Assert.assertEquals(2000, blue.getPopulation());
+	}
+
+	@Test
+	public void testPopulation() {
+		int[] pixels = PixelFixtures.pixels(50000);
+		QuantizerContext context = new QuantizerContext();
+		WuQuantizer quantizer = new WuQuantizer();
+
+		List<PaletteSwatch> swatches = quantizer.quantize(IntBuffer.wrap(pixels), 16, null, context);
+		Assert.assertEquals(16, swatches.size());
+
+		int population = 0;
+		for(PaletteSwatch swatch : swatches) {
+			population += swatch.getPopulation();
+		}
+		Assert.assertEquals(pixels.length, population);
+
+		// the moment tables are cleared between uses of a context
+		List<PaletteSwatch> again = quantizer.quantize(IntBuffer.wrap(pixels), 16, null, context);
+		for(int index = 0; index < swatches.size(); index++) {
+			Assert.assertEquals(swatches.get(index).getRgb(), again.get(index).getRgb());
+		}
+	}
+
+	@Test
+	public void testExtractor() {
+		int[] pixels = PixelFixtures.pixels(20000);
+
+		Palette palette = new AndroidColorExtractor(pixels, 0, pixels.length).quantizer(new WuQuantizer()).generate();
+		Assert.assertFalse(palette.getSwatches().isEmpty());
+	}
+}